@@ -7,5 +7,4 @@ dependencies {
     api(project(":connector-core"))
     implementation(libs.findLibrary("grpc-netty-shaded").get())
     implementation(libs.findLibrary("grpc-stub").get())
-    implementation(libs.findLibrary("resilience4j-spring-boot3").get())
 }
@@ -6,5 +6,4 @@ dependencies {
     val libs = project.extensions.getByType<org.gradle.api.artifacts.VersionCatalogsExtension>().named("libs")
     api(project(":connector-core"))
     implementation(libs.findLibrary("spring-boot-starter-web").get())
-    implementation(libs.findLibrary("resilience4j-spring-boot3").get())
 }
@@ -1,24 +1,34 @@
 package com.example.connector.client.http;
 
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
 import com.example.connector.core.transport.OutboundTransport;
 import com.example.connector.core.transport.SendResult;
 import com.example.connector.core.correlation.CorrelationId;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InputStream;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * HTTP client that implements OutboundTransport. Sends ConnectorMessage to configurable URL.
+ * HTTP client that implements OutboundTransport. Sends ConnectorMessage to configurable URL, with the correlation ID
+ * and the forwarded message headers ({@link OutboundTransport#forwardedHeaders}) as request headers.
+ * Bodies above the streaming threshold are written from {@link Payload#openStream()} with a fixed Content-Length
+ * rather than copied into an array, so a spooled body reaches the socket without passing through the heap.
  */
 public final class HttpOutboundTransport implements OutboundTransport {
 
+    static final int DEFAULT_STREAMING_THRESHOLD = 256 * 1024;
+
     private final String baseUrl;
     private final RestTemplate restTemplate;
     private final Executor executor;
+    private volatile int streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
 
     public HttpOutboundTransport(String baseUrl, RestTemplate restTemplate, Executor executor) {
         this.baseUrl = baseUrl;
@@ -26,32 +36,114 @@ public final class HttpOutboundTransport implements OutboundTransport {
         this.executor = executor;
     }
 
+    /**
+     * Cancelling the returned future interrupts the in-flight call (effective on virtual-thread executors, where
+     * blocking socket I/O is interruptible), so a losing hedged attempt does not hold its thread. The body stays
+     * retained until the call finishes, as such an attempt may outlive the pipeline's hold on the message.
+     */
     @Override
     public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<SendResult> result = new CompletableFuture<>();
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        Payload body = message.body().retain();
+        executor.execute(() -> {
+            // check and publish under the lock the cancel handler takes, so a cancel either stops the call here
+            // or finds the runner to interrupt
+            synchronized (runner) {
+                if (result.isDone()) {
+                    body.release();
+                    return;
+                }
+                runner.set(Thread.currentThread());
+            }
             try {
-                String url = options != null && options.containsKey("url")
-                        ? options.get("url").toString()
-                        : baseUrl;
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-                headers.set(CorrelationId.getHeaderName(), message.correlationId());
-                HttpEntity<byte[]> entity = new HttpEntity<>(message.payload(), headers);
-                ResponseEntity<Void> response = restTemplate.exchange(
-                        url,
-                        HttpMethod.POST,
-                        entity,
-                        Void.class
-                );
-                if (response.getStatusCode().is2xxSuccessful()) {
-                    return new SendResult.Success(response.getHeaders().getFirst("X-Request-Id") != null
-                            ? response.getHeaders().getFirst("X-Request-Id")
-                            : message.correlationId());
+                result.complete(exchange(message, options));
+            } finally {
+                body.release();
+                synchronized (runner) {
+                    runner.set(null);
+                    // clear an interrupt from a cancel that raced with completion
+                    Thread.interrupted();
+                }
+            }
+        });
+        result.whenComplete((r, ex) -> {
+            if (result.isCancelled()) {
+                synchronized (runner) {
+                    Thread worker = runner.get();
+                    if (worker != null) {
+                        worker.interrupt();
+                    }
                 }
-                return new SendResult.Failure(new RuntimeException("HTTP " + response.getStatusCode()));
-            } catch (Exception e) {
-                return new SendResult.Failure(e);
             }
-        }, executor);
+        });
+        return result;
+    }
+
+    private SendResult exchange(ConnectorMessage message, Map<String, Object> options) {
+        try {
+            String url = options != null && options.containsKey("url")
+                    ? options.get("url").toString()
+                    : baseUrl;
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.set(CorrelationId.getHeaderName(), message.correlationId());
+            OutboundTransport.forwardedHeaders(message).forEach(headers::set);
+            Payload body = message.body();
+            HttpEntity<?> entity = body.size() > streamingThreshold
+                    ? new HttpEntity<>(new PayloadResource(body), headers)
+                    : new HttpEntity<>(body.bytes(), headers);
+            ResponseEntity<Void> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    entity,
+                    Void.class
+            );
+            if (response.getStatusCode().is2xxSuccessful()) {
+                return new SendResult.Success(response.getHeaders().getFirst("X-Request-Id") != null
+                        ? response.getHeaders().getFirst("X-Request-Id")
+                        : message.correlationId());
+            }
+            return new SendResult.Failure(new RuntimeException("HTTP " + response.getStatusCode()));
+        } catch (Exception e) {
+            return new SendResult.Failure(e);
+        }
+    }
+
+    /**
+     * Bodies larger than this many bytes are streamed (default 256 KiB); smaller ones are sent as one array.
+     */
+    public void setStreamingThreshold(int streamingThreshold) {
+        if (streamingThreshold < 0) {
+            throw new IllegalArgumentException("streamingThreshold must be >= 0");
+        }
+        this.streamingThreshold = streamingThreshold;
+    }
+
+    /**
+     * Request body read straight from the payload; a fresh stream per call, so the exchange can be retried.
+     */
+    static final class PayloadResource extends AbstractResource {
+
+        private final Payload body;
+
+        PayloadResource(Payload body) {
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return body.openStream();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.size();
+        }
+
+        @Override
+        public String getDescription() {
+            return "message payload [" + body.size() + " bytes]";
+        }
     }
 }
@@ -1,11 +1,21 @@
 package com.example.connector.client.http
 
+import com.example.connector.core.buffer.BufferPool
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
 import com.example.connector.core.transport.SendResult
 import spock.lang.Specification
 
+import org.springframework.core.io.Resource
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpMethod
+import org.springframework.http.ResponseEntity
+import org.springframework.web.client.RestTemplate
+
 import java.time.Instant
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 class HttpOutboundTransportSpec extends Specification {
 
@@ -24,4 +34,172 @@ class HttpOutboundTransportSpec extends Specification {
         result != null
         result.isDone() || !result.isDone()
     }
+
+    def "cancelling the future interrupts the in-flight call"() {
+        given:
+        def started = new CountDownLatch(1)
+        def interrupted = new CountDownLatch(1)
+        def blocking = new RestTemplate() {
+            @Override
+            <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                           Class<T> responseType, Object... uriVariables) {
+                started.countDown()
+                try {
+                    Thread.sleep(10_000)
+                } catch (InterruptedException e) {
+                    interrupted.countDown()
+                }
+                throw new IllegalStateException("interrupted")
+            }
+        }
+        def transport = new HttpOutboundTransport("http://localhost:9999", blocking, Executors.newVirtualThreadPerTaskExecutor())
+        def message = new ConnectorMessage("c1", "http", "data".bytes, Map.of(), Instant.now())
+
+        when:
+        def result = transport.send(message, Map.of())
+        started.await(5, TimeUnit.SECONDS)
+        result.cancel(true)
+
+        then:
+        interrupted.await(5, TimeUnit.SECONDS)
+        result.isCancelled()
+    }
+
+    def "cancelled before the executor runs skips the call"() {
+        given:
+        def tasks = []
+        def calls = 0
+        def counting = new RestTemplate() {
+            @Override
+            <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                           Class<T> responseType, Object... uriVariables) {
+                calls++
+                throw new IllegalStateException("unexpected")
+            }
+        }
+        def transport = new HttpOutboundTransport("http://localhost:9999", counting, { Runnable r -> tasks << r })
+        def message = new ConnectorMessage("c1", "http", "data".bytes, Map.of(), Instant.now())
+
+        when:
+        def result = transport.send(message, Map.of())
+        result.cancel(true)
+        tasks.each { it.run() }
+
+        then:
+        calls == 0
+        result.isCancelled()
+    }
+
+    def "holds the body until the call finishes, even after the caller released it"() {
+        given:
+        def tasks = []
+        def sentBodies = []
+        def capturing = new RestTemplate() {
+            @Override
+            <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                           Class<T> responseType, Object... uriVariables) {
+                sentBodies << new String((byte[]) requestEntity.body)
+                ResponseEntity.ok().build()
+            }
+        }
+        def pool = BufferPool.builder().build()
+        def body = pool.acquire(4)
+        System.arraycopy("data".bytes, 0, body.array(), 0, 4)
+        def transport = new HttpOutboundTransport("http://localhost:9999", capturing, { Runnable r -> tasks << r })
+
+        when:
+        def result = transport.send(new ConnectorMessage("c1", "http", body, Map.of(), Instant.now()), Map.of())
+        body.release()
+
+        then:
+        body.refCount() == 1
+
+        when:
+        tasks.each { it.run() }
+
+        then:
+        sentBodies == ["data"]
+        result.get() instanceof SendResult.Success
+        body.refCount() == 0
+        pool.getOutstandingCount() == 0
+    }
+
+    def "gives back its hold on the body when the call is skipped"() {
+        given:
+        def tasks = []
+        def body = BufferPool.builder().build().acquire(4)
+        def transport = new HttpOutboundTransport("http://localhost:9999", restTemplate, { Runnable r -> tasks << r })
+
+        when:
+        def result = transport.send(new ConnectorMessage("c1", "http", body, Map.of(), Instant.now()), Map.of())
+        result.cancel(true)
+        tasks.each { it.run() }
+
+        then:
+        body.refCount() == 1
+    }
+
+    def "streams bodies above the threshold from the payload with their length"() {
+        given:
+        def tasks = []
+        def sent = []
+        def capturing = new RestTemplate() {
+            @Override
+            <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                           Class<T> responseType, Object... uriVariables) {
+                sent << requestEntity.body
+                ResponseEntity.ok().build()
+            }
+        }
+        def transport = new HttpOutboundTransport("http://localhost:9999", capturing, { Runnable r -> tasks << r })
+        transport.setStreamingThreshold(4)
+
+        when:
+        transport.send(new ConnectorMessage("c1", "http", "data".bytes, Map.of(), Instant.now()), Map.of())
+        transport.send(new ConnectorMessage("c2", "http", Payload.of("streamed".bytes), Map.of(), Instant.now()), Map.of())
+        tasks.each { it.run() }
+
+        then:
+        sent[0] instanceof byte[]
+        new String((byte[]) sent[0]) == "data"
+        def resource = (Resource) sent[1]
+        resource.contentLength() == 8
+        resource.inputStream.readAllBytes() == "streamed".bytes
+        resource.inputStream.readAllBytes() == "streamed".bytes
+        resource.description == "message payload [8 bytes]"
+    }
+
+    def "forwards the connector headers and leaves the protocol headers behind"() {
+        given:
+        def sent = []
+        def capturing = new RestTemplate() {
+            @Override
+            <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                           Class<T> responseType, Object... uriVariables) {
+                sent << requestEntity.headers
+                ResponseEntity.ok().build()
+            }
+        }
+        def transport = new HttpOutboundTransport("http://localhost:9999", capturing, { Runnable r -> r.run() })
+        def headers = ["X-Claim-Check": "blob-1", "X-Claim-Check-Size": "2048", "host": "inbound:8080",
+                       "content-length": "0", "x-correlation-id": "stale"]
+
+        when:
+        transport.send(new ConnectorMessage("c1", "http", new byte[0], headers, Instant.now()), Map.of()).get()
+
+        then:
+        sent[0].getFirst("X-Claim-Check") == "blob-1"
+        sent[0].getFirst("X-Claim-Check-Size") == "2048"
+        sent[0].get("X-Correlation-ID") == ["c1"]
+        !sent[0].containsKey("host")
+        !sent[0].containsKey("content-length")
+    }
+
+    def "rejects a negative streaming threshold"() {
+        when:
+        new HttpOutboundTransport("http://localhost:9999", restTemplate, executor).setStreamingThreshold(-1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
 }
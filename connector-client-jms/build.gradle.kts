@@ -7,5 +7,4 @@ dependencies {
     api(project(":connector-core"))
     implementation(libs.findLibrary("spring-jms").get())
     implementation(libs.findLibrary("jakarta-jms-api").get())
-    implementation(libs.findLibrary("resilience4j-spring-boot3").get())
 }
@@ -2,6 +2,7 @@ package com.example.connector.client.jms;
 
 import com.example.connector.core.correlation.CorrelationId;
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
 import com.example.connector.core.transport.OutboundTransport;
 import com.example.connector.core.transport.SendResult;
 
@@ -15,7 +16,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 /**
- * JMS outbound transport: sends ConnectorMessage to queue/topic; correlation ID in message property.
+ * JMS outbound transport: sends ConnectorMessage to queue/topic; correlation ID and the forwarded message headers
+ * ({@link OutboundTransport#forwardedHeaders}) in message properties.
  */
 public final class JmsOutboundTransport implements OutboundTransport {
 
@@ -31,24 +33,40 @@ public final class JmsOutboundTransport implements OutboundTransport {
         this.executor = executor;
     }
 
+    /**
+     * Holds a reference on the body until the async send finishes, since a timed-out or hedged attempt may still be
+     * running after the pipeline has released the message.
+     */
     @Override
     public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
+        Payload body = message.body().retain();
         return CompletableFuture.supplyAsync(() -> {
-            try (JMSContext ctx = connectionFactory.createContext()) {
-                String destName = options != null && options.containsKey("destination")
-                        ? options.get("destination").toString()
-                        : defaultDestinationName;
-                var dest = useTopic ? ctx.createTopic(destName) : ctx.createQueue(destName);
-                JMSProducer producer = ctx.createProducer();
-                BytesMessage bm = ctx.createBytesMessage();
-                bm.writeBytes(message.payload());
-                bm.setJMSCorrelationID(message.correlationId());
-                bm.setStringProperty(CorrelationId.getHeaderName(), message.correlationId());
-                producer.send(dest, bm);
-                return (SendResult) new SendResult.Success(message.correlationId());
-            } catch (Exception e) {
-                return new SendResult.Failure(e);
+            try {
+                return sendNow(message, body, options);
+            } finally {
+                body.release();
             }
         }, executor);
     }
+
+    private SendResult sendNow(ConnectorMessage message, Payload body, Map<String, Object> options) {
+        try (JMSContext ctx = connectionFactory.createContext()) {
+            String destName = options != null && options.containsKey("destination")
+                    ? options.get("destination").toString()
+                    : defaultDestinationName;
+            var dest = useTopic ? ctx.createTopic(destName) : ctx.createQueue(destName);
+            JMSProducer producer = ctx.createProducer();
+            BytesMessage bm = ctx.createBytesMessage();
+            bm.writeBytes(body.bytes());
+            bm.setJMSCorrelationID(message.correlationId());
+            bm.setStringProperty(CorrelationId.getHeaderName(), message.correlationId());
+            for (Map.Entry<String, String> header : OutboundTransport.forwardedHeaders(message).entrySet()) {
+                bm.setStringProperty(header.getKey(), header.getValue());
+            }
+            producer.send(dest, bm);
+            return new SendResult.Success(message.correlationId());
+        } catch (Exception e) {
+            return new SendResult.Failure(e);
+        }
+    }
 }
@@ -1,8 +1,15 @@
 package com.example.connector.client.jms
 
+import com.example.connector.core.buffer.BufferPool
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.SendResult
 import spock.lang.Specification
 
+import jakarta.jms.BytesMessage
+import jakarta.jms.ConnectionFactory
+import jakarta.jms.JMSContext
+import jakarta.jms.JMSProducer
+
 import java.time.Instant
 import java.util.concurrent.Executors
 
@@ -19,4 +26,70 @@ class JmsOutboundTransportSpec extends Specification {
         then:
         future != null
     }
+
+    def "holds the body until the async send finishes"() {
+        given:
+        def tasks = []
+        def pool = BufferPool.builder().build()
+        def body = pool.acquire(4)
+        def transport = new JmsOutboundTransport(Mock(ConnectionFactory) {
+            createContext() >> { throw new IllegalStateException("broker down") }
+        }, "queue/out", false, { Runnable r -> tasks << r })
+
+        when:
+        def future = transport.send(new ConnectorMessage("c1", "jms", body, Map.of(), Instant.now()), Map.of())
+        body.release()
+
+        then:
+        body.refCount() == 1
+
+        when:
+        tasks.each { it.run() }
+
+        then:
+        future.get() instanceof SendResult.Failure
+        pool.getOutstandingCount() == 0
+    }
+
+    def "writes the body into the bytes message"() {
+        given:
+        def written = []
+        def bytesMessage = Mock(BytesMessage) {
+            writeBytes(_ as byte[]) >> { byte[] bytes -> written << new String(bytes) }
+        }
+        def context = Mock(JMSContext) {
+            createBytesMessage() >> bytesMessage
+            createProducer() >> Mock(JMSProducer)
+        }
+        def transport = new JmsOutboundTransport(Mock(ConnectionFactory) { createContext() >> context },
+                "queue/out", false, { Runnable r -> r.run() })
+
+        when:
+        def result = transport.send(new ConnectorMessage("c1", "jms", "data".bytes, Map.of(), Instant.now()), Map.of()).get()
+
+        then:
+        result instanceof SendResult.Success
+        written == ["data"]
+    }
+
+    def "forwards the connector headers as message properties"() {
+        given:
+        def bytesMessage = Mock(BytesMessage)
+        def context = Mock(JMSContext) {
+            createBytesMessage() >> bytesMessage
+            createProducer() >> Mock(JMSProducer)
+        }
+        def transport = new JmsOutboundTransport(Mock(ConnectionFactory) { createContext() >> context },
+                "queue/out", false, { Runnable r -> r.run() })
+        def headers = ["X-Claim-Check": "blob-1", "X-Claim-Check-Size": "2048", "JMSXDeliveryCount": "1"]
+
+        when:
+        transport.send(new ConnectorMessage("c1", "jms", new byte[0], headers, Instant.now()), Map.of()).get()
+
+        then:
+        1 * bytesMessage.setStringProperty("X-Correlation-ID", "c1")
+        1 * bytesMessage.setStringProperty("X-Claim-Check", "blob-1")
+        1 * bytesMessage.setStringProperty("X-Claim-Check-Size", "2048")
+        0 * bytesMessage.setStringProperty("JMSXDeliveryCount", _)
+    }
 }
@@ -6,5 +6,5 @@ dependencies {
     val libs = project.extensions.getByType<org.gradle.api.artifacts.VersionCatalogsExtension>().named("libs")
     api(project(":connector-core"))
     implementation(libs.findLibrary("spring-kafka").get())
-    implementation(libs.findLibrary("resilience4j-spring-boot3").get())
+    testImplementation(project(":connector-transformation"))
 }
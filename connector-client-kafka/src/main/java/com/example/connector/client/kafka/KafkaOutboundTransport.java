@@ -11,7 +11,8 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Kafka outbound transport: sends ConnectorMessage to a topic; correlation ID in record headers.
+ * Kafka outbound transport: sends ConnectorMessage to a topic; correlation ID and the forwarded message headers
+ * ({@link OutboundTransport#forwardedHeaders}, e.g. a claim-check reference) in record headers.
  */
 public final class KafkaOutboundTransport implements OutboundTransport {
 
@@ -30,6 +31,8 @@ public final class KafkaOutboundTransport implements OutboundTransport {
                 : defaultTopic;
         ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, message.payload());
         record.headers().add(CorrelationId.getHeaderName(), message.correlationId().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        OutboundTransport.forwardedHeaders(message).forEach((name, value) ->
+                record.headers().add(name, value.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
         return kafkaTemplate.send(record)
                 .thenApply(springResult -> (SendResult) new SendResult.Success(
                         springResult.getProducerRecord().topic() + "-" + springResult.getRecordMetadata().offset()))
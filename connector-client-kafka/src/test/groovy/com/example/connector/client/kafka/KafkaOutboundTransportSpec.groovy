@@ -1,12 +1,23 @@
 package com.example.connector.client.kafka
 
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.transformation.claimcheck.ClaimCheck
+import com.example.connector.transformation.claimcheck.FileSystemBlobStore
+import org.apache.kafka.clients.producer.MockProducer
+import org.apache.kafka.common.serialization.ByteArraySerializer
+import org.apache.kafka.common.serialization.StringSerializer
 import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.kafka.mock.MockProducerFactory
 import org.springframework.kafka.support.SendResult
 import spock.lang.Specification
+import spock.lang.TempDir
 
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
 import java.time.Instant
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
 
 class KafkaOutboundTransportSpec extends Specification {
 
@@ -24,4 +35,36 @@ class KafkaOutboundTransportSpec extends Specification {
         result != null
         1 * template.send(_)
     }
+
+    @TempDir
+    Path dir
+
+    def "a checked-in message reaches the consumer with the headers it needs to check the body out"() {
+        given:
+        def producer = new MockProducer<String, byte[]>(true, new StringSerializer(), new ByteArraySerializer())
+        def template = new KafkaTemplate<String, byte[]>(new MockProducerFactory<String, byte[]>({ -> producer } as Supplier))
+        def transport = new KafkaOutboundTransport("connector-out", template)
+        def claimCheck = new ClaimCheck(new FileSystemBlobStore(dir), 4)
+        def body = "a body well above the threshold".getBytes(StandardCharsets.UTF_8)
+        def headers = ["X-Account-ID": "acct-7", "content-length": "31"]
+        def message = claimCheck.checkIn(new ConnectorMessage("c1", "http", body, headers, Instant.now()))
+
+        when:
+        transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+        def record = producer.history()[0]
+        def received = record.headers().collectEntries { [(it.key()): new String(it.value(), StandardCharsets.UTF_8)] }
+
+        then:
+        record.value().length == 0
+        received[ClaimCheck.REFERENCE_HEADER] == message.headers()[ClaimCheck.REFERENCE_HEADER]
+        received[ClaimCheck.SIZE_HEADER] == "31"
+        received["X-Account-ID"] == "acct-7"
+        received["X-Correlation-ID"] == "c1"
+        !received.containsKey("content-length")
+        record.headers().headers("X-Correlation-ID").size() == 1
+
+        and:
+        def consumed = claimCheck.checkOut(new ConnectorMessage("c1", "kafka", record.value(), received, Instant.now()))
+        consumed.payload() == body
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.connector.core.batch;
+
+import java.time.Duration;
+
+/**
+ * Batch policy that tunes batch size and linger within bounds to keep the latency added by batching under a target
+ * at the 99th percentile. The linger is the largest that still leaves room to process the expected batch
+ * ({@code linger + batchSize * costPerMessage <= target}), and is dropped to the minimum when less than one more
+ * message is expected within it, so low traffic is not delayed for nothing. Batch size follows the arrival rate over
+ * that linger plus any backlog, so peaks get full batches.
+ *
+ * <p>Arrival rate and per-message cost are smoothed over recent batches. Every batch's added latency (linger plus
+ * processing) is checked against the target; when more than 1% of a 100-batch window miss it the linger budget
+ * shrinks, and after a window without misses it grows back. Not thread-safe: feedback must come from the single drain
+ * thread; {@link #batchSize()} and {@link #lingerNanos()} may be read from any thread.
+ */
+public final class AdaptiveBatchPolicy implements BatchPolicy {
+
+    private static final double ALPHA = 0.2;
+    private static final int WINDOW = 100;
+    private static final int ALLOWED_MISSES = WINDOW / 100;
+    private static final double MIN_SCALE = 0.05;
+    private static final long MIN_IDLE_WAIT_NANOS = 1_000_000L;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long minLingerNanos;
+    private final long maxLingerNanos;
+    private final long targetNanos;
+    private final long idleWaitNanos;
+
+    private double arrivalsPerNano = -1;
+    private double costPerMessageNanos = -1;
+    private double scale = 1.0;
+    private long lastBatchNanos;
+    private int lastBacklog;
+    private int windowBatches;
+    private int windowMisses;
+
+    private volatile int batchSize;
+    private volatile long lingerNanos;
+
+    /**
+     * @param targetLatency p99 latency that batching may add (linger plus batch processing)
+     */
+    public AdaptiveBatchPolicy(int minBatchSize, int maxBatchSize, Duration minLinger, Duration maxLinger,
+                               Duration targetLatency) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("require 1 <= minBatchSize <= maxBatchSize");
+        }
+        if (minLinger.isNegative() || maxLinger.compareTo(minLinger) < 0 || !targetLatency.isPositive()) {
+            throw new IllegalArgumentException("require 0 <= minLinger <= maxLinger and a positive target");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.minLingerNanos = minLinger.toNanos();
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.targetNanos = targetLatency.toNanos();
+        // with no linger the wait must not shrink with it, or an idle drain loop polls in a tight spin
+        this.idleWaitNanos = Math.max(maxLingerNanos, Math.max(targetNanos, MIN_IDLE_WAIT_NANOS));
+        // until traffic is observed: take whatever is queued, without lingering
+        this.batchSize = maxBatchSize;
+        this.lingerNanos = minLingerNanos;
+        this.lastBatchNanos = System.nanoTime();
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public long lingerNanos() {
+        return lingerNanos;
+    }
+
+    /**
+     * Waits for the first message up to the maximum linger, the target or 1 ms, whichever is longest; this wait adds
+     * no latency to any message.
+     */
+    @Override
+    public long idleWaitNanos() {
+        return idleWaitNanos;
+    }
+
+    @Override
+    public void onBatch(int size, long observedLingerNanos, long processingNanos, int backlog) {
+        onBatch(size, observedLingerNanos, processingNanos, backlog, System.nanoTime());
+    }
+
+    void onBatch(int size, long observedLingerNanos, long processingNanos, int backlog, long now) {
+        long cycleNanos = Math.max(1L, now - lastBatchNanos);
+        lastBatchNanos = now;
+        long arrivals = Math.max(0, size + backlog - lastBacklog);
+        lastBacklog = backlog;
+        arrivalsPerNano = smooth(arrivalsPerNano, (double) arrivals / cycleNanos);
+        if (size > 0) {
+            costPerMessageNanos = smooth(costPerMessageNanos, (double) processingNanos / size);
+            trackMisses(observedLingerNanos + processingNanos > targetNanos);
+        }
+        retune(backlog);
+    }
+
+    private void trackMisses(boolean miss) {
+        windowBatches++;
+        if (miss) {
+            windowMisses++;
+        }
+        if (windowMisses > ALLOWED_MISSES) {
+            scale = Math.max(MIN_SCALE, scale * 0.8);
+            windowBatches = 0;
+            windowMisses = 0;
+        } else if (windowBatches >= WINDOW) {
+            if (windowMisses == 0) {
+                scale = Math.min(1.0, scale + 0.05);
+            }
+            windowBatches = 0;
+            windowMisses = 0;
+        }
+    }
+
+    private void retune(int backlog) {
+        double rate = Math.max(0, arrivalsPerNano);
+        double cost = Math.max(0, costPerMessageNanos);
+        // linger + (1 + rate * linger) * cost <= budget
+        double budget = scale * targetNanos - cost;
+        double linger = budget > 0 ? budget / (1 + rate * cost) : 0;
+        if (rate > 0) {
+            linger = Math.min(linger, (maxBatchSize - 1) / rate);
+        }
+        if (rate * linger < 1) {
+            linger = 0;
+        }
+        long nextLinger = Math.min(maxLingerNanos, Math.max(minLingerNanos, (long) linger));
+        double expected = 1 + Math.ceil(rate * nextLinger) + backlog;
+        batchSize = (int) Math.min(maxBatchSize, Math.max(minBatchSize, expected));
+        lingerNanos = nextLinger;
+    }
+
+    private static double smooth(double current, double sample) {
+        return current < 0 ? sample : current + ALPHA * (sample - current);
+    }
+
+    /**
+     * Fraction (0..1] of the target currently granted to linger plus processing; shrinks while the p99 target is missed.
+     */
+    double scale() {
+        return scale;
+    }
+}
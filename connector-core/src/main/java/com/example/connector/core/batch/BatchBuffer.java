@@ -3,26 +3,37 @@ package com.example.connector.core.batch;
 import com.example.connector.core.model.ConnectorMessage;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 /**
  * Bounded buffer for micro-batching: accumulate messages up to maxSize or maxWait;
  * drain for batch processing. Back pressure: offer blocks when full (with timeout).
+ * Backed by a {@link LinkedBlockingQueue} by default, or any {@link BatchQueue} such as {@link MpscRingBatchQueue}.
+ * Batch size and linger come from a {@link BatchPolicy}: fixed, or {@link AdaptiveBatchPolicy} to tune both
+ * against a latency target. Drain loops report each processed batch via {@link #onProcessed}.
  */
 public final class BatchBuffer {
 
-    private final BlockingQueue<ConnectorMessage> queue;
-    private final int maxBatchSize;
-    private final long maxWaitMs;
+    private final BatchQueue queue;
+    private final BatchPolicy policy;
+    private final BatchObserver observer;
+    private long lastLingerNanos;
 
     public BatchBuffer(int capacity, int maxBatchSize, Duration maxWait) {
-        this.queue = new LinkedBlockingQueue<>(capacity);
-        this.maxBatchSize = maxBatchSize;
-        this.maxWaitMs = maxWait.toMillis();
+        this(BatchQueue.of(new LinkedBlockingQueue<>(capacity)), maxBatchSize, maxWait);
+    }
+
+    public BatchBuffer(BatchQueue queue, int maxBatchSize, Duration maxWait) {
+        this(queue, BatchPolicy.fixed(maxBatchSize, maxWait), BatchObserver.NOOP);
+    }
+
+    public BatchBuffer(BatchQueue queue, BatchPolicy policy, BatchObserver observer) {
+        this.queue = queue;
+        this.policy = policy;
+        this.observer = observer != null ? observer : BatchObserver.NOOP;
     }
 
     /**
@@ -34,16 +45,81 @@ public final class BatchBuffer {
     }
 
     /**
-     * Drain up to maxBatchSize elements, waiting up to maxWait for at least one.
+     * Drain one batch, waiting up to the policy's idle wait for at least one message.
      */
     public List<ConnectorMessage> drain() throws InterruptedException {
-        ConnectorMessage first = queue.poll(maxWaitMs, TimeUnit.MILLISECONDS);
+        List<ConnectorMessage> batch = new ArrayList<>();
+        return drain(batch) == 0 ? List.of() : batch;
+    }
+
+    /**
+     * Like {@link #drain()} but fills a caller-owned list (cleared first) so a drain loop can reuse one list.
+     * After the first message, keeps collecting for the policy's linger or until its batch size is reached.
+     * An interrupt during the linger ends it early: the partial batch is returned with the interrupt flag set.
+     *
+     * @return number of messages in the batch; 0 when none arrived within the idle wait
+     */
+    public int drain(List<ConnectorMessage> into) throws InterruptedException {
+        into.clear();
+        lastLingerNanos = 0L;
+        ConnectorMessage first = queue.poll(policy.idleWaitNanos(), TimeUnit.NANOSECONDS);
         if (first == null) {
-            return List.of();
+            return 0;
+        }
+        long firstAt = System.nanoTime();
+        int target = policy.batchSize();
+        into.add(first);
+        int count = 1 + queue.drainTo(into, target - 1);
+        long lingerDeadline = firstAt + policy.lingerNanos();
+        while (count < target) {
+            long remaining = lingerDeadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            ConnectorMessage next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // the messages already taken must reach the caller, or they are lost with their pooled bodies
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            into.add(next);
+            count += 1 + queue.drainTo(into, target - count - 1);
         }
-        List<ConnectorMessage> batch = new java.util.ArrayList<>(List.of(first));
-        queue.drainTo(batch, maxBatchSize - 1);
-        return batch;
+        lastLingerNanos = System.nanoTime() - firstAt;
+        return count;
+    }
+
+    /**
+     * Report that the last drained batch was handled: commits it on the queue and feeds the policy and the observer.
+     * Call from the drain thread.
+     */
+    public void onProcessed(int size, long processingNanos) {
+        if (size > 0) {
+            queue.commit();
+        }
+        policy.onBatch(size, lastLingerNanos, processingNanos, queue.size());
+        if (size > 0) {
+            observer.onBatch(size, lastLingerNanos, processingNanos);
+        }
+    }
+
+    /**
+     * The last drained batch was not fully handled: hand it out again if the queue can (see {@link BatchQueue#rollback}).
+     * Call from the drain thread instead of {@link #onProcessed}.
+     *
+     * @return true if the batch will be drained again
+     */
+    public boolean rollback() {
+        return queue.rollback();
+    }
+
+    public BatchPolicy getPolicy() {
+        return policy;
     }
 
     public int size() {
@@ -0,0 +1,239 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.dispatch.OrderingKeyExtractor;
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.MessageHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Drain loop shared by the batching inbound transports: N worker threads, each draining its own {@link BatchBuffer}
+ * and handing every message of a batch to the current handler. Workers either compete on one queue (any worker takes
+ * any message) or own one partition each, selected by the hash of an ordering key so per-key order is kept.
+ *
+ * <p>A worker drains only while there is a handler, so messages stay queued (and a durable queue uncommitted) until
+ * one is set. A batch is committed once every message was handed off; when a message fails and the queue is durable,
+ * the batch is rolled back and drained again after a one-second pause, so a failure is never checkpointed away.
+ * In-memory queues commit regardless: a failed message has been journalled by the pipeline.
+ *
+ * <p>Per worker it tracks batches, messages and lag (age of the oldest message of the latest batch, from the
+ * message timestamp; 0 once the worker finds its buffer empty).
+ */
+public final class BatchDrainer {
+
+    private static final long REDELIVERY_DELAY_MS = 1000;
+    private static final long NO_HANDLER_WAIT_MS = 10;
+
+    private final String name;
+    private final List<BatchBuffer> buffers;
+    private final OrderingKeyExtractor keyExtractor;
+    private final AtomicLongArray batches;
+    private final AtomicLongArray processed;
+    private final AtomicLongArray failed;
+    private final AtomicLongArray lagMillis;
+    private volatile Thread[] workers;
+
+    private BatchDrainer(String name, List<BatchBuffer> buffers, OrderingKeyExtractor keyExtractor) {
+        if (buffers.isEmpty()) {
+            throw new IllegalArgumentException("at least one buffer is required");
+        }
+        this.name = name;
+        this.buffers = List.copyOf(buffers);
+        this.keyExtractor = keyExtractor;
+        this.batches = new AtomicLongArray(buffers.size());
+        this.processed = new AtomicLongArray(buffers.size());
+        this.failed = new AtomicLongArray(buffers.size());
+        this.lagMillis = new AtomicLongArray(buffers.size());
+    }
+
+    /**
+     * One worker on one buffer (the classic single drain loop).
+     */
+    public static BatchDrainer single(String name, BatchBuffer buffer) {
+        return new BatchDrainer(name, List.of(buffer), null);
+    }
+
+    /**
+     * N workers competing on one queue; each gets its own policy (e.g. {@code () -> new AdaptiveBatchPolicy(...)}).
+     * The queue must allow concurrent consumers, so single-consumer queues (ring, file) are rejected.
+     */
+    public static BatchDrainer competing(String name, BatchQueue queue, int workers,
+                                         Supplier<? extends BatchPolicy> policy, BatchObserver observer) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be >= 1");
+        }
+        if (workers > 1 && queue.isSingleConsumer()) {
+            throw new IllegalArgumentException("Queue allows one consumer; use a partitioned drainer");
+        }
+        List<BatchBuffer> buffers = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            buffers.add(new BatchBuffer(queue, policy.get(), observer));
+        }
+        return new BatchDrainer(name, buffers, null);
+    }
+
+    /**
+     * One worker per buffer; a message goes to the buffer picked by the hash of its ordering key, or of its
+     * correlation ID when the key is absent.
+     */
+    public static BatchDrainer partitioned(String name, List<BatchBuffer> buffers, OrderingKeyExtractor keyExtractor) {
+        return new BatchDrainer(name, buffers, keyExtractor);
+    }
+
+    /**
+     * Offer to the message's buffer. Blocks up to timeoutMs if full (back pressure).
+     *
+     * @return true if accepted, false if timeout
+     */
+    public boolean offer(ConnectorMessage message, long timeoutMs) throws InterruptedException {
+        return buffers.get(workerFor(message)).offer(message, timeoutMs);
+    }
+
+    /**
+     * Worker (and buffer) index for the message; always 0 for competing workers, which share one queue.
+     */
+    public int workerFor(ConnectorMessage message) {
+        if (keyExtractor == null || buffers.size() == 1) {
+            return 0;
+        }
+        String key = keyExtractor.extract(message);
+        int h = (key != null ? key : message.correlationId()).hashCode();
+        return Math.floorMod(h ^ (h >>> 16), buffers.size());
+    }
+
+    /**
+     * Start the workers (no-op when running). Each batch goes to the handler current when it is drained; while the
+     * handler is null nothing is drained.
+     */
+    public synchronized void start(Supplier<MessageHandler> handler) {
+        if (workers != null) {
+            return;
+        }
+        Thread[] started = new Thread[buffers.size()];
+        for (int i = 0; i < started.length; i++) {
+            int worker = i;
+            started[i] = new Thread(() -> drainLoop(worker, handler), name + "-batch-processor-" + i);
+            started[i].setDaemon(true);
+            started[i].start();
+        }
+        workers = started;
+    }
+
+    /**
+     * Interrupt the workers and wait for them to finish their current batch; messages still buffered stay queued for
+     * the next start. A worker stopping its own drainer is not waited for.
+     */
+    public synchronized void stop() {
+        Thread[] running = workers;
+        workers = null;
+        if (running == null) {
+            return;
+        }
+        for (Thread worker : running) {
+            worker.interrupt();
+        }
+        // an interrupted worker may still take one batch without blocking; joining keeps it from reaching the next run
+        boolean interrupted = false;
+        for (Thread worker : running) {
+            while (worker != Thread.currentThread() && worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return workers != null;
+    }
+
+    private void drainLoop(int worker, Supplier<MessageHandler> handlerSupplier) {
+        BatchBuffer buffer = buffers.get(worker);
+        List<ConnectorMessage> batch = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                MessageHandler handler = handlerSupplier.get();
+                if (handler == null) {
+                    Thread.sleep(NO_HANDLER_WAIT_MS);
+                    continue;
+                }
+                int size = buffer.drain(batch);
+                long start = System.nanoTime();
+                if (size > 0) {
+                    lagMillis.set(worker, Math.max(0, System.currentTimeMillis() - batch.get(0).timestamp().toEpochMilli()));
+                    int failures = handle(worker, batch, handler);
+                    batches.incrementAndGet(worker);
+                    if (failures > 0 && buffer.rollback()) {
+                        // not committed: a durable queue hands the batch out again, after a pause for the failure
+                        Thread.sleep(REDELIVERY_DELAY_MS);
+                        continue;
+                    }
+                } else {
+                    lagMillis.set(worker, 0L);
+                }
+                buffer.onProcessed(size, System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hand every message of the batch to the handler, which owns its body from then on, even when it throws.
+     *
+     * @return messages the handler failed
+     */
+    private int handle(int worker, List<ConnectorMessage> batch, MessageHandler handler) {
+        int failures = 0;
+        for (ConnectorMessage message : batch) {
+            try {
+                handler.handle(message);
+                processed.incrementAndGet(worker);
+            } catch (RuntimeException e) {
+                // failures are journalled by the pipeline; keep the worker alive for the rest of the batch
+                failed.incrementAndGet(worker);
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    public int workerCount() {
+        return buffers.size();
+    }
+
+    public BatchBuffer buffer(int worker) {
+        return buffers.get(worker);
+    }
+
+    /**
+     * Messages waiting for the worker (for competing workers: the shared queue).
+     */
+    public int getBacklog(int worker) {
+        return buffers.get(worker).size();
+    }
+
+    public long getLagMillis(int worker) {
+        return lagMillis.get(worker);
+    }
+
+    public long getBatchCount(int worker) {
+        return batches.get(worker);
+    }
+
+    public long getProcessedCount(int worker) {
+        return processed.get(worker);
+    }
+
+    public long getFailedCount(int worker) {
+        return failed.get(worker);
+    }
+}
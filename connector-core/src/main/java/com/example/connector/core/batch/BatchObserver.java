@@ -0,0 +1,16 @@
+package com.example.connector.core.batch;
+
+/**
+ * Receives one sample per processed batch (e.g. to record batch-size and linger histograms).
+ */
+@FunctionalInterface
+public interface BatchObserver {
+
+    BatchObserver NOOP = (size, lingerNanos, processingNanos) -> { };
+
+    /**
+     * @param lingerNanos time spent collecting after the first message was taken
+     * @param processingNanos time the drain loop spent handling the batch
+     */
+    void onBatch(int size, long lingerNanos, long processingNanos);
+}
@@ -0,0 +1,60 @@
+package com.example.connector.core.batch;
+
+import java.time.Duration;
+
+/**
+ * How a {@link BatchBuffer} forms batches: after the first message arrives, keep collecting for up to
+ * {@link #lingerNanos()} or until {@link #batchSize()} messages. Values are read once per batch, so a policy may
+ * change them between batches based on {@link #onBatch} feedback.
+ */
+public interface BatchPolicy {
+
+    /**
+     * Maximum messages per batch.
+     */
+    int batchSize();
+
+    /**
+     * How long to keep collecting after the first message of a batch; 0 takes only what is already queued.
+     */
+    long lingerNanos();
+
+    /**
+     * How long a drain waits for the first message before returning an empty batch.
+     */
+    long idleWaitNanos();
+
+    /**
+     * Feedback after a batch was processed; called from the drain thread only.
+     *
+     * @param backlog messages still queued after processing
+     */
+    default void onBatch(int size, long lingerNanos, long processingNanos, int backlog) {
+    }
+
+    /**
+     * Static policy: wait up to maxWait for the first message, then take up to maxBatchSize already queued.
+     */
+    static BatchPolicy fixed(int maxBatchSize, Duration maxWait) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        }
+        long idleWaitNanos = maxWait.toNanos();
+        return new BatchPolicy() {
+            @Override
+            public int batchSize() {
+                return maxBatchSize;
+            }
+
+            @Override
+            public long lingerNanos() {
+                return 0L;
+            }
+
+            @Override
+            public long idleWaitNanos() {
+                return idleWaitNanos;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue behind a {@link BatchBuffer}. Producers are inbound listener threads; consumers drain batches.
+ */
+public interface BatchQueue {
+
+    /**
+     * Enqueue, waiting up to the timeout while full (back pressure).
+     *
+     * @return false if still full after the timeout
+     */
+    boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Dequeue one message, waiting up to the timeout while empty; null on timeout.
+     */
+    ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Move up to maxElements available messages into the collection without waiting.
+     *
+     * @return number moved
+     */
+    int drainTo(Collection<? super ConnectorMessage> into, int maxElements);
+
+    int size();
+
+    int remainingCapacity();
+
+    /**
+     * Every message handed out so far has been processed. Durable queues persist their read position here;
+     * in-memory queues ignore it.
+     */
+    default void commit() {
+    }
+
+    /**
+     * Hand out again everything handed out since the last commit, because part of it failed. Durable queues rewind
+     * to their checkpoint; in-memory queues cannot and return false.
+     *
+     * @return true if the uncommitted messages will be handed out again
+     */
+    default boolean rollback() {
+        return false;
+    }
+
+    /**
+     * Whether only one thread at a time may consume (poll, drain, commit).
+     */
+    default boolean isSingleConsumer() {
+        return false;
+    }
+
+    /**
+     * Adapt a JDK blocking queue.
+     */
+    static BatchQueue of(BlockingQueue<ConnectorMessage> queue) {
+        return new BlockingBatchQueue(queue);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BatchQueue} over a JDK {@link BlockingQueue}.
+ */
+final class BlockingBatchQueue implements BatchQueue {
+
+    private final BlockingQueue<ConnectorMessage> queue;
+
+    BlockingBatchQueue(BlockingQueue<ConnectorMessage> queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(message, timeout, unit);
+    }
+
+    @Override
+    public ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public int drainTo(Collection<? super ConnectorMessage> into, int maxElements) {
+        return queue.drainTo(into, maxElements);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+}
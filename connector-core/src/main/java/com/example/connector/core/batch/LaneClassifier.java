@@ -0,0 +1,30 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+/**
+ * Picks the {@link WeightedFairBatchQueue} lane of a message by name; null or an unknown name means the default lane.
+ */
+@FunctionalInterface
+public interface LaneClassifier {
+
+    String laneFor(ConnectorMessage message);
+
+    /**
+     * Lane named by a header value (e.g. "X-Tenant-ID").
+     */
+    static LaneClassifier header(String headerName) {
+        return message -> message.headers().get(headerName);
+    }
+
+    /**
+     * Urgent lane when the priority header equals urgentValue (case-insensitive), otherwise the lane named by the
+     * tenant header.
+     */
+    static LaneClassifier priorityThenTenant(String priorityHeader, String urgentValue, String urgentLane,
+                                             String tenantHeader) {
+        return message -> urgentValue.equalsIgnoreCase(message.headers().get(priorityHeader))
+                ? urgentLane
+                : message.headers().get(tenantHeader);
+    }
+}
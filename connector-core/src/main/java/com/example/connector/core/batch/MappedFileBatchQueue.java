@@ -0,0 +1,395 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent queue on memory-mapped segment files in one directory. Producers append length- and CRC-framed records
+ * to the current segment; the consumer reads them back sequentially from the mapping and deletes each segment once a
+ * commit has moved past it. Total size is bounded by maxSegments × segmentBytes; offer waits while that is used up.
+ *
+ * <p>Delivery is at-least-once: the read position is checkpointed on {@link #commit()} (called by
+ * {@link BatchBuffer#onProcessed} after each batch), and on open the queue resumes from the checkpoint, scanning only
+ * the unconsumed records and stopping at the first torn one. The checkpoint alternates between two CRC-checked slots,
+ * so a checkpoint torn by a crash falls back to the previous one. Data survives a process crash once written; call
+ * {@link #sync()} when it must also survive power loss. Single consumer only.
+ */
+public final class MappedFileBatchQueue implements BatchQueue, AutoCloseable {
+
+    private static final int RECORD_HEADER = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    /** segment id, offset, sequence (8 bytes each), then the CRC of those 24 bytes */
+    private static final int CHECKPOINT_DATA = 24;
+    private static final int CHECKPOINT_SLOT = 32;
+
+    private record Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final FileChannel checkpointChannel;
+    private final MappedByteBuffer checkpoint;
+
+    /** guarded by lock */
+    private Segment writeSegment;
+    private ByteBuffer writeBuffer;
+    private volatile long appended;
+    private volatile long appendedBytes;
+
+    /** consumer thread only */
+    private Segment readSegment;
+    private ByteBuffer readBuffer;
+    private volatile long consumed;
+    private long checkpointSequence;
+    private Segment committedSegment;
+    private int committedOffset;
+    private long committedConsumed;
+
+    /**
+     * Open (or create) the queue in the directory, recovering unconsumed messages from an earlier run.
+     *
+     * @param segmentBytes size of each mapped segment file; bounds the largest message
+     * @param maxSegments  segments that may exist at once (capacity)
+     */
+    public MappedFileBatchQueue(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes < 1024 || maxSegments < 2) {
+            throw new IllegalArgumentException("require segmentBytes >= 1024 and maxSegments >= 2");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, 2 * CHECKPOINT_SLOT);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        long checkpointSegment = 0;
+        long checkpointOffset = 0;
+        for (int slot = 0; slot < 2 * CHECKPOINT_SLOT; slot += CHECKPOINT_SLOT) {
+            long sequence = checkpoint.getLong(slot + 16);
+            if (sequence > checkpointSequence && checkpoint.getInt(slot + CHECKPOINT_DATA) == checkpointCrc(slot)) {
+                checkpointSequence = sequence;
+                checkpointSegment = checkpoint.getLong(slot);
+                checkpointOffset = checkpoint.getLong(slot + 8);
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+        for (long id : ids) {
+            if (id < checkpointSegment) {
+                Files.deleteIfExists(segmentPath(id));
+            } else {
+                Segment segment = openSegment(id);
+                segments.put(id, segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            Segment first = openSegment(checkpointSegment);
+            segments.put(first.id(), first);
+        }
+        Segment first = segments.firstEntry().getValue();
+        int startOffset = first.id() == checkpointSegment ? (int) checkpointOffset : 0;
+        long count = 0;
+        int endOffset = startOffset;
+        boolean endMarked = false;
+        for (Segment segment : segments.values()) {
+            ByteBuffer scan = segment.buffer().duplicate();
+            int position = segment == first ? startOffset : 0;
+            endMarked = false;
+            while (position + 4 <= segmentBytes) {
+                int length = scan.getInt(position);
+                if (length == END_OF_SEGMENT) {
+                    endMarked = true;
+                    break;
+                }
+                if (!isValidRecord(scan, position, length)) {
+                    break;
+                }
+                count++;
+                position += RECORD_HEADER + length;
+            }
+            if (!endMarked && segment != segments.lastEntry().getValue()) {
+                // crashed while rolling: seal the segment so the reader moves on to the next one
+                scan.putInt(position, END_OF_SEGMENT);
+                endMarked = true;
+            }
+            endOffset = position;
+        }
+        readSegment = first;
+        readBuffer = first.buffer().duplicate();
+        readBuffer.position(startOffset);
+        Segment last = segments.lastEntry().getValue();
+        if (endMarked) {
+            last = openSegment(last.id() + 1);
+            segments.put(last.id(), last);
+            endOffset = 0;
+        }
+        writeSegment = last;
+        writeBuffer = last.buffer().duplicate();
+        writeBuffer.position(endOffset);
+        writeBuffer.putInt(endOffset, 0);
+        appended = count;
+        commit();
+    }
+
+    private int checkpointCrc(int slot) {
+        CRC32C crc = new CRC32C();
+        crc.update(checkpoint.slice(slot, CHECKPOINT_DATA));
+        return (int) crc.getValue();
+    }
+
+    private boolean isValidRecord(ByteBuffer scan, int position, int length) {
+        if (length <= 0 || position + RECORD_HEADER + length + 4 > segmentBytes) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(scan.slice(position + RECORD_HEADER, length));
+        return (int) crc.getValue() == scan.getInt(position + 4);
+    }
+
+    @Override
+    public boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException {
+        byte[] body = MessageCodec.encode(message);
+        int recordBytes = RECORD_HEADER + body.length;
+        if (recordBytes + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Message of " + body.length + " bytes does not fit a segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (writeBuffer.remaining() < recordBytes + 4) {
+                if (segments.size() >= maxSegments) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = notFull.awaitNanos(remaining);
+                    continue;
+                }
+                rollSegment();
+            }
+            int position = writeBuffer.position();
+            writeBuffer.putInt(position + 4, (int) crc.getValue());
+            writeBuffer.put(position + RECORD_HEADER, body);
+            writeBuffer.putInt(position + recordBytes, 0);
+            // length last: a record is only valid once it is complete
+            writeBuffer.putInt(position, body.length);
+            writeBuffer.position(position + recordBytes);
+            appendedBytes += recordBytes;
+            appended++;
+            notEmpty.signal();
+            // the record holds its own copy; the consumer reads a fresh message back
+            message.body().release();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollSegment() {
+        Segment next;
+        try {
+            next = openSegment(writeSegment.id() + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create segment in " + directory, e);
+        }
+        segments.put(next.id(), next);
+        writeBuffer.putInt(writeBuffer.position(), END_OF_SEGMENT);
+        writeSegment = next;
+        writeBuffer = next.buffer().duplicate();
+    }
+
+    @Override
+    public ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (appended > consumed) {
+            return readNext();
+        }
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (appended == consumed) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return readNext();
+    }
+
+    @Override
+    public int drainTo(Collection<? super ConnectorMessage> into, int maxElements) {
+        int moved = 0;
+        while (moved < maxElements && appended > consumed) {
+            into.add(readNext());
+            moved++;
+        }
+        return moved;
+    }
+
+    private ConnectorMessage readNext() {
+        while (true) {
+            int position = readBuffer.position();
+            int length = readBuffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                advanceSegment();
+                continue;
+            }
+            if (length <= 0) {
+                throw new IllegalStateException("Corrupt record at " + readSegment.path() + ":" + position);
+            }
+            ConnectorMessage message = MessageCodec.decode(readBuffer.slice(position + RECORD_HEADER, length));
+            readBuffer.position(position + RECORD_HEADER + length);
+            consumed++;
+            return message;
+        }
+    }
+
+    private void advanceSegment() {
+        // the finished segment stays until commit(): its messages may still be in an unprocessed batch
+        readSegment = segments.higherEntry(readSegment.id()).getValue();
+        readBuffer = readSegment.buffer().duplicate();
+    }
+
+    /**
+     * Checkpoint the read position: everything handed out so far counts as processed and is not redelivered.
+     * Segments read to their end are deleted only now, after the checkpoint has moved past them.
+     */
+    @Override
+    public void commit() {
+        // write the slot not holding the latest checkpoint; that one stays valid if this write is torn
+        long sequence = ++checkpointSequence;
+        int slot = (int) (sequence & 1) * CHECKPOINT_SLOT;
+        checkpoint.putLong(slot, readSegment.id());
+        checkpoint.putLong(slot + 8, readBuffer.position());
+        checkpoint.putLong(slot + 16, sequence);
+        checkpoint.putInt(slot + CHECKPOINT_DATA, checkpointCrc(slot));
+        committedSegment = readSegment;
+        committedOffset = readBuffer.position();
+        committedConsumed = consumed;
+        Map.Entry<Long, Segment> oldest;
+        while ((oldest = segments.firstEntry()) != null && oldest.getKey() < readSegment.id()) {
+            Segment done = oldest.getValue();
+            lock.lock();
+            try {
+                segments.remove(done.id());
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                done.channel().close();
+                Files.deleteIfExists(done.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete consumed segment " + done.path(), e);
+            }
+        }
+    }
+
+    /**
+     * Rewind the read position to the last checkpoint; the segments it covers are still on disk until the next commit.
+     */
+    @Override
+    public boolean rollback() {
+        readSegment = committedSegment;
+        readBuffer = committedSegment.buffer().duplicate();
+        readBuffer.position(committedOffset);
+        consumed = committedConsumed;
+        return true;
+    }
+
+    @Override
+    public boolean isSingleConsumer() {
+        return true;
+    }
+
+    /**
+     * Force written records and the checkpoint to the storage device.
+     */
+    public void sync() {
+        lock.lock();
+        try {
+            writeSegment.buffer().force();
+            checkpoint.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, appended - consumed);
+    }
+
+    /**
+     * Estimated from the free segment space and the average record size so far.
+     */
+    @Override
+    public int remainingCapacity() {
+        long count = appended;
+        long averageRecord = count > 0 && appendedBytes > 0 ? Math.max(16, appendedBytes / count) : 256;
+        long freeBytes = (long) (maxSegments - segments.size()) * segmentBytes;
+        return (int) Math.min(Integer.MAX_VALUE, freeBytes / averageRecord);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            checkpoint.force();
+            for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+                entry.getValue().buffer().force();
+                entry.getValue().channel().close();
+            }
+            checkpointChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = segmentPath(id);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+}
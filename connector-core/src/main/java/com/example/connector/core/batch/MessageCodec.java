@@ -0,0 +1,91 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link ConnectorMessage} for on-disk queues and stores: timestamp, length-prefixed UTF-8
+ * strings (length -1 for null), header count and pairs, then the payload. Encoding reads the body through its buffer
+ * view; decoding copies the payload out so the source buffer (e.g. a mapped segment) can be reused.
+ */
+public final class MessageCodec {
+
+    private MessageCodec() {
+    }
+
+    public static byte[] encode(ConnectorMessage message) {
+        byte[] correlationId = utf8(message.correlationId());
+        byte[] transportType = utf8(message.transportType());
+        byte[][] headers = new byte[message.headers().size() * 2][];
+        int size = 8 + 4 + 4 + correlationId.length + 4 + transportType.length + 4 + 4 + message.body().size();
+        int i = 0;
+        for (Map.Entry<String, String> header : message.headers().entrySet()) {
+            headers[i] = utf8(header.getKey());
+            headers[i + 1] = utf8(header.getValue());
+            size += 8 + length(headers[i]) + length(headers[i + 1]);
+            i += 2;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(Math.floorDiv(message.timestampNanos(), 1_000_000_000L));
+        out.putInt((int) Math.floorMod(message.timestampNanos(), 1_000_000_000L));
+        putBytes(out, correlationId);
+        putBytes(out, transportType);
+        out.putInt(message.headers().size());
+        for (byte[] part : headers) {
+            putBytes(out, part);
+        }
+        out.putInt(message.body().size());
+        out.put(message.body().asReadOnlyBuffer());
+        return out.array();
+    }
+
+    public static ConnectorMessage decode(ByteBuffer in) {
+        Instant timestamp = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        String correlationId = getString(in);
+        String transportType = getString(in);
+        int headerCount = in.getInt();
+        Map<String, String> headers = new HashMap<>(Math.max(4, headerCount * 2));
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(getString(in), getString(in));
+        }
+        byte[] payload = getBytes(in);
+        return new ConnectorMessage(correlationId, transportType, payload, headers, timestamp);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putInt(-1);
+            return;
+        }
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = getBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+}
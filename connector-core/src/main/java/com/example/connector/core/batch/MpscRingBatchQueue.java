@@ -0,0 +1,214 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer/single-consumer ring. Producers claim a slot with one CAS on the tail sequence and
+ * then publish the message into it; the consumer reads slots in order and advances the head. No per-message
+ * allocation and no locks; head and tail are padded onto separate cache lines.
+ *
+ * <p>Only one thread at a time may call {@link #poll} and {@link #drainTo} (e.g. a single drain loop). Producers that
+ * find the ring full back off (spin, then park) until space frees up or their offer timeout expires.
+ */
+public final class MpscRingBatchQueue implements BatchQueue {
+
+    private static final int SPIN_TRIES = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AtomicReferenceArray<ConnectorMessage> slots;
+    private final int capacity;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final PaddedSequence tail = new PaddedSequence();
+    private final PaddedSequence head = new PaddedSequence();
+    private volatile Thread parkedConsumer;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public MpscRingBatchQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in [1, 2^30]");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException {
+        if (message == null) {
+            throw new NullPointerException("message");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            long t = tail.get();
+            if (t - head.getAcquire() < capacity) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    // volatile store: pairs with the consumer's volatile parkedConsumer write and slot read
+                    slots.set((int) t & mask, message);
+                    Thread consumer = parkedConsumer;
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (idle++ < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(Math.min(remaining, MAX_PARK_NANOS));
+            }
+        }
+    }
+
+    @Override
+    public ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        ConnectorMessage message = pollNow();
+        if (message != null) {
+            return message;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            waitForMessage(idle++, remaining);
+            message = pollNow();
+            if (message != null) {
+                return message;
+            }
+        }
+    }
+
+    private void waitForMessage(int idle, long remainingNanos) {
+        switch (waitStrategy) {
+            case SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            case PARK -> {
+                if (idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                    return;
+                }
+                parkedConsumer = Thread.currentThread();
+                // re-check after publishing ourselves so a producer's unpark cannot be missed
+                if (slots.get((int) head.get() & mask) == null) {
+                    LockSupport.parkNanos(this, remainingNanos);
+                }
+                parkedConsumer = null;
+            }
+        }
+    }
+
+    private ConnectorMessage pollNow() {
+        long h = head.get();
+        int index = (int) h & mask;
+        ConnectorMessage message = slots.getAcquire(index);
+        if (message == null) {
+            // empty, or a producer has claimed the slot but not yet published it
+            return null;
+        }
+        slots.setPlain(index, null);
+        head.setRelease(h + 1);
+        return message;
+    }
+
+    @Override
+    public int drainTo(Collection<? super ConnectorMessage> into, int maxElements) {
+        int moved = 0;
+        while (moved < maxElements) {
+            ConnectorMessage message = pollNow();
+            if (message == null) {
+                break;
+            }
+            into.add(message);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public boolean isSingleConsumer() {
+        return true;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private abstract static class LeftPad {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private abstract static class SequenceValue extends LeftPad {
+        volatile long value;
+    }
+
+    /**
+     * Sequence counter on its own cache line so producer and consumer counters do not false-share.
+     * Relies on superclass fields being laid out before subclass fields.
+     */
+    private static final class PaddedSequence extends SequenceValue {
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p9, p10, p11, p12, p13, p14, p15;
+
+        long get() {
+            return value;
+        }
+
+        long getAcquire() {
+            return (long) VALUE.getAcquire(this);
+        }
+
+        void setRelease(long newValue) {
+            VALUE.setRelease(this, newValue);
+        }
+
+        boolean compareAndSet(long expected, long newValue) {
+            return VALUE.compareAndSet(this, expected, newValue);
+        }
+    }
+}
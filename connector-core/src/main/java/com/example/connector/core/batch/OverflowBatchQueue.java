@@ -0,0 +1,89 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory queue that spills to an overflow queue (typically a {@link MappedFileBatchQueue}) instead of blocking
+ * when full. Once anything has spilled, new messages also go to the overflow until it is drained, and the consumer
+ * takes the in-memory messages first, so arrival order is kept. Only spilled messages are persisted; use the
+ * file queue directly for all of them.
+ */
+public final class OverflowBatchQueue implements BatchQueue {
+
+    private final BatchQueue memory;
+    private final BatchQueue overflow;
+    private final LongAdder spilled = new LongAdder();
+
+    public OverflowBatchQueue(BatchQueue memory, BatchQueue overflow) {
+        this.memory = memory;
+        this.overflow = overflow;
+    }
+
+    @Override
+    public boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException {
+        if (overflow.size() == 0 && memory.offer(message, 0, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        if (overflow.offer(message, timeout, unit)) {
+            spilled.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        ConnectorMessage message = memory.poll(0, TimeUnit.NANOSECONDS);
+        if (message == null) {
+            message = overflow.poll(0, TimeUnit.NANOSECONDS);
+        }
+        if (message == null) {
+            // both empty: new messages go to memory first
+            message = memory.poll(timeout, unit);
+        }
+        return message != null ? message : overflow.poll(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int drainTo(Collection<? super ConnectorMessage> into, int maxElements) {
+        int moved = memory.drainTo(into, maxElements);
+        return moved + overflow.drainTo(into, maxElements - moved);
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) memory.size() + overflow.size());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) memory.remainingCapacity() + overflow.remainingCapacity());
+    }
+
+    @Override
+    public void commit() {
+        memory.commit();
+        overflow.commit();
+    }
+
+    /**
+     * Rewinds the overflow only; in-memory messages are never handed out again.
+     */
+    @Override
+    public boolean rollback() {
+        return memory.rollback() | overflow.rollback();
+    }
+
+    @Override
+    public boolean isSingleConsumer() {
+        return memory.isSingleConsumer() || overflow.isSingleConsumer();
+    }
+
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.connector.core.batch;
+
+/**
+ * How a {@link MpscRingBatchQueue} consumer waits for messages: SPIN burns a core for the lowest latency, YIELD
+ * gives the core to other threads between checks, PARK sleeps until a producer wakes it (lowest CPU).
+ */
+public enum WaitStrategy {
+    SPIN,
+    YIELD,
+    PARK
+}
@@ -0,0 +1,273 @@
+package com.example.connector.core.batch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-lane batch queue: messages are classified into lanes (e.g. per tenant), each with its own capacity and back
+ * pressure, so one full lane blocks only its own producers. The consumer serves an optional urgent lane with strict
+ * priority, then the weighted lanes by deficit round robin: per round a lane may take up to its weight in messages,
+ * so under saturation each backlogged lane gets a share proportional to its weight and no bulk lane can starve the
+ * others. Single consumer.
+ */
+public final class WeightedFairBatchQueue implements BatchQueue {
+
+    private static final class Lane {
+        private final String name;
+        private final int weight;
+        private final BlockingQueue<ConnectorMessage> queue;
+        private final LongAdder dequeued = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private long deficit;
+
+        private Lane(String name, int weight, int capacity) {
+            this.name = name;
+            this.weight = weight;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private final LaneClassifier classifier;
+    private final Lane urgent;
+    private final List<Lane> weighted;
+    private final Map<String, Lane> byName = new LinkedHashMap<>();
+    private final Lane defaultLane;
+    private final AtomicInteger count = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /** consumer thread only */
+    private int current;
+    private boolean granted;
+
+    private WeightedFairBatchQueue(Builder builder) {
+        this.classifier = builder.classifier;
+        this.urgent = builder.urgent;
+        this.weighted = List.copyOf(builder.lanes);
+        if (urgent != null) {
+            byName.put(urgent.name, urgent);
+        }
+        for (Lane lane : weighted) {
+            byName.put(lane.name, lane);
+        }
+        this.defaultLane = builder.defaultLane != null ? byName.get(builder.defaultLane) : weighted.get(0);
+    }
+
+    public static Builder builder(LaneClassifier classifier) {
+        return new Builder(classifier);
+    }
+
+    @Override
+    public boolean offer(ConnectorMessage message, long timeout, TimeUnit unit) throws InterruptedException {
+        Lane lane = laneFor(message);
+        if (!lane.queue.offer(message, timeout, unit)) {
+            lane.rejected.increment();
+            return false;
+        }
+        if (count.getAndIncrement() == 0) {
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    private Lane laneFor(ConnectorMessage message) {
+        String name = classifier.laneFor(message);
+        Lane lane = name != null ? byName.get(name) : null;
+        return lane != null ? lane : defaultLane;
+    }
+
+    @Override
+    public ConnectorMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        ConnectorMessage message = next();
+        if (message != null) {
+            return message;
+        }
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return next();
+    }
+
+    @Override
+    public int drainTo(Collection<? super ConnectorMessage> into, int maxElements) {
+        int moved = 0;
+        while (moved < maxElements) {
+            ConnectorMessage message = next();
+            if (message == null) {
+                break;
+            }
+            into.add(message);
+            moved++;
+        }
+        return moved;
+    }
+
+    private ConnectorMessage next() {
+        if (count.get() == 0) {
+            return null;
+        }
+        if (urgent != null) {
+            ConnectorMessage message = take(urgent);
+            if (message != null) {
+                return message;
+            }
+        }
+        // two passes: a lane may need a fresh quantum after the one it ended the last round with
+        for (int visits = 0; visits <= 2 * weighted.size(); visits++) {
+            Lane lane = weighted.get(current);
+            if (!granted) {
+                lane.deficit += lane.weight;
+                granted = true;
+            }
+            if (lane.deficit > 0) {
+                ConnectorMessage message = take(lane);
+                if (message != null) {
+                    lane.deficit--;
+                    return message;
+                }
+                // an idle lane does not bank credit
+                lane.deficit = 0;
+            }
+            current = (current + 1) % weighted.size();
+            granted = false;
+        }
+        return null;
+    }
+
+    private ConnectorMessage take(Lane lane) {
+        ConnectorMessage message = lane.queue.poll();
+        if (message != null) {
+            count.decrementAndGet();
+            lane.dequeued.increment();
+        }
+        return message;
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        long remaining = 0;
+        for (Lane lane : byName.values()) {
+            remaining += lane.queue.remainingCapacity();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public boolean isSingleConsumer() {
+        return true;
+    }
+
+    /**
+     * Lane names, urgent lane first.
+     */
+    public List<String> laneNames() {
+        return new ArrayList<>(byName.keySet());
+    }
+
+    public int laneDepth(String lane) {
+        return lane(lane).queue.size();
+    }
+
+    public long getDequeuedCount(String lane) {
+        return lane(lane).dequeued.sum();
+    }
+
+    /**
+     * Offers to the lane that timed out because it was full.
+     */
+    public long getRejectedCount(String lane) {
+        return lane(lane).rejected.sum();
+    }
+
+    private Lane lane(String name) {
+        Lane lane = byName.get(name);
+        if (lane == null) {
+            throw new IllegalArgumentException("Unknown lane: " + name);
+        }
+        return lane;
+    }
+
+    public static final class Builder {
+
+        private final LaneClassifier classifier;
+        private final List<Lane> lanes = new ArrayList<>();
+        private Lane urgent;
+        private String defaultLane;
+
+        private Builder(LaneClassifier classifier) {
+            this.classifier = classifier;
+        }
+
+        /**
+         * Lane served before all others whenever it has messages.
+         */
+        public Builder urgentLane(String name, int capacity) {
+            this.urgent = new Lane(name, 0, capacity);
+            return this;
+        }
+
+        /**
+         * Weighted lane; weight is the number of messages it may take per round.
+         */
+        public Builder lane(String name, int weight, int capacity) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("weight must be >= 1");
+            }
+            lanes.add(new Lane(name, weight, capacity));
+            return this;
+        }
+
+        /**
+         * Lane for unclassified messages (default: the first weighted lane).
+         */
+        public Builder defaultLane(String name) {
+            this.defaultLane = name;
+            return this;
+        }
+
+        public WeightedFairBatchQueue build() {
+            if (lanes.isEmpty()) {
+                throw new IllegalArgumentException("at least one weighted lane is required");
+            }
+            long names = lanes.stream().map(l -> l.name).distinct().count();
+            if (names < lanes.size() || urgent != null && lanes.stream().anyMatch(l -> l.name.equals(urgent.name))) {
+                throw new IllegalArgumentException("lane names must be unique");
+            }
+            if (defaultLane != null && lanes.stream().noneMatch(l -> l.name.equals(defaultLane))) {
+                throw new IllegalArgumentException("default lane must be a weighted lane: " + defaultLane);
+            }
+            return new WeightedFairBatchQueue(this);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.connector.core.buffer;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe pool of heap arrays in power-of-two size classes, handed out as reference-counted
+ * {@link PooledPayload}s so inbound transports can read message bodies without allocating per message.
+ * Requests above the largest class get a fresh, unpooled array. Each class keeps at most
+ * {@code maxBuffersPerClass} free arrays; releases beyond that are left to the garbage collector.
+ *
+ * <p>With leak detection on (meant for tests), a payload that becomes unreachable without being released is counted
+ * in {@link #getLeakCount()}. Detection registers every payload with a {@link Cleaner}, so leave it off in production.
+ */
+public final class BufferPool {
+
+    private final int minBufferSize;
+    private final int maxBufferSize;
+    private final List<ArrayBlockingQueue<byte[]>> classes;
+    private final Cleaner cleaner;
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder outstanding = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    private BufferPool(Builder builder) {
+        this.minBufferSize = builder.minBufferSize;
+        this.maxBufferSize = builder.maxBufferSize;
+        int count = Integer.numberOfTrailingZeros(maxBufferSize) - Integer.numberOfTrailingZeros(minBufferSize) + 1;
+        List<ArrayBlockingQueue<byte[]>> free = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            free.add(new ArrayBlockingQueue<>(builder.maxBuffersPerClass));
+        }
+        this.classes = List.copyOf(free);
+        this.cleaner = builder.leakDetection ? Cleaner.create() : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A payload of exactly {@code size} bytes backed by a pooled array (contents undefined), with one reference held.
+     * Fill it through {@link PooledPayload#array()} before handing it on.
+     */
+    public PooledPayload acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be >= 0");
+        }
+        if (size > maxBufferSize) {
+            allocated.increment();
+            return new PooledPayload(null, new byte[size], size, null);
+        }
+        int index = classIndex(size);
+        byte[] array = classes.get(index).poll();
+        if (array != null) {
+            reused.increment();
+        } else {
+            allocated.increment();
+            array = new byte[minBufferSize << index];
+        }
+        outstanding.increment();
+        return new PooledPayload(this, array, size, cleaner);
+    }
+
+    private int classIndex(int size) {
+        if (size <= minBufferSize) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(minBufferSize);
+    }
+
+    void recycle(byte[] array) {
+        outstanding.decrement();
+        classes.get(classIndex(array.length)).offer(array);
+    }
+
+    void leaked() {
+        leaks.increment();
+        outstanding.decrement();
+    }
+
+    /**
+     * Arrays allocated because no pooled one was free (including oversized requests).
+     */
+    public long getAllocatedCount() {
+        return allocated.sum();
+    }
+
+    /**
+     * Acquisitions served from a pooled array.
+     */
+    public long getReusedCount() {
+        return reused.sum();
+    }
+
+    /**
+     * Pooled payloads acquired and not yet released (oversized ones excluded).
+     */
+    public long getOutstandingCount() {
+        return outstanding.sum();
+    }
+
+    /**
+     * Free arrays currently held across all size classes.
+     */
+    public int getPooledCount() {
+        int total = 0;
+        for (ArrayBlockingQueue<byte[]> free : classes) {
+            total += free.size();
+        }
+        return total;
+    }
+
+    /**
+     * Payloads garbage collected without being released; always 0 unless leak detection is on.
+     */
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    public boolean isLeakDetectionEnabled() {
+        return cleaner != null;
+    }
+
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public static final class Builder {
+
+        private int minBufferSize = 512;
+        private int maxBufferSize = 1 << 20;
+        private int maxBuffersPerClass = 256;
+        private boolean leakDetection;
+
+        private Builder() {
+        }
+
+        /**
+         * Smallest and largest size classes, both powers of two (defaults 512 B and 1 MiB).
+         */
+        public Builder bufferSizes(int minBufferSize, int maxBufferSize) {
+            if (Integer.bitCount(minBufferSize) != 1 || Integer.bitCount(maxBufferSize) != 1
+                    || minBufferSize > maxBufferSize) {
+                throw new IllegalArgumentException("buffer sizes must be powers of two with min <= max");
+            }
+            this.minBufferSize = minBufferSize;
+            this.maxBufferSize = maxBufferSize;
+            return this;
+        }
+
+        /**
+         * Free arrays kept per size class (default 256).
+         */
+        public Builder maxBuffersPerClass(int maxBuffersPerClass) {
+            if (maxBuffersPerClass < 1) {
+                throw new IllegalArgumentException("maxBuffersPerClass must be >= 1");
+            }
+            this.maxBuffersPerClass = maxBuffersPerClass;
+            return this;
+        }
+
+        public Builder leakDetection(boolean leakDetection) {
+            this.leakDetection = leakDetection;
+            return this;
+        }
+
+        public BufferPool build() {
+            return new BufferPool(this);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.connector.core.buffer;
+
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Payload} spooled to a file by {@link PayloadSpool} and read through a read-only memory mapping, so the body
+ * lives in the page cache rather than on the heap. {@link #openStream()} and {@link #writeTo} copy through small
+ * chunks; {@link #bytes()} materialises the whole body on the heap and is only for APIs that need an array.
+ *
+ * <p>Reference counted like {@link PooledPayload}: the file is deleted when the last reference is released. Slices
+ * are plain views of the mapping and stay readable after that.
+ */
+public final class FilePayload implements Payload {
+
+    private final Path file;
+    private final MappedByteBuffer mapped;
+    private final PayloadSpool spool;
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    FilePayload(Path file, MappedByteBuffer mapped, PayloadSpool spool) {
+        this.file = file;
+        this.mapped = mapped;
+        this.spool = spool;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int refCount() {
+        return refs.get();
+    }
+
+    @Override
+    public int size() {
+        return mapped.limit();
+    }
+
+    @Override
+    public ByteBuffer asReadOnlyBuffer() {
+        checkLive();
+        return mapped.asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] bytes() {
+        checkLive();
+        byte[] copy = new byte[mapped.limit()];
+        mapped.get(0, copy);
+        return copy;
+    }
+
+    @Override
+    public Payload slice(int offset, int length) {
+        checkLive();
+        return Payload.wrap(mapped.slice(offset, length).asReadOnlyBuffer());
+    }
+
+    @Override
+    public InputStream openStream() {
+        checkLive();
+        return Payload.wrap(mapped).openStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        checkLive();
+        Payload.wrap(mapped).writeTo(out);
+    }
+
+    @Override
+    public Payload retain() {
+        int current;
+        do {
+            current = refs.get();
+            if (current <= 0) {
+                throw new IllegalStateException("Payload already released");
+            }
+        } while (!refs.compareAndSet(current, current + 1));
+        return this;
+    }
+
+    @Override
+    public void release() {
+        int current = refs.decrementAndGet();
+        if (current == 0) {
+            try {
+                // the mapping stays valid until collected; only the directory entry goes now
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // left for the spool's startup sweep
+            }
+            spool.released(mapped.limit());
+        } else if (current < 0) {
+            refs.incrementAndGet();
+            throw new IllegalStateException("Payload already released");
+        }
+    }
+
+    private void checkLive() {
+        if (refs.get() <= 0) {
+            throw new IllegalStateException("Payload already released");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Payload other && other.size() == size() && asReadOnlyBuffer().equals(other.asReadOnlyBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+        return asReadOnlyBuffer().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FilePayload[" + mapped.limit() + " bytes, " + file.getFileName() + "]";
+    }
+}
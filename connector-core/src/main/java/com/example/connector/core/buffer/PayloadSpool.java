@@ -0,0 +1,120 @@
+package com.example.connector.core.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Spools large message bodies to files in one directory so ingress reads them with constant heap: bodies above the
+ * threshold, or of unknown length, are streamed to a file and carried as a {@link FilePayload}. Files are deleted when
+ * their payload is released; files left by a crash are removed when the spool is created.
+ */
+public final class PayloadSpool {
+
+    static final String SUFFIX = ".spool";
+
+    private final Path directory;
+    private final long thresholdBytes;
+    private final LongAdder spooled = new LongAdder();
+    private final AtomicLong activeFiles = new AtomicLong();
+    private final AtomicLong activeBytes = new AtomicLong();
+
+    /**
+     * @param thresholdBytes bodies of known length up to this size are not spooled
+     */
+    public PayloadSpool(Path directory, long thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must be >= 0");
+        }
+        this.directory = directory;
+        this.thresholdBytes = thresholdBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> leftovers = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) leftovers::iterator) {
+                    if (file.getFileName().toString().endsWith(SUFFIX)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare spool directory " + directory, e);
+        }
+    }
+
+    /**
+     * Whether a body of this length should be spooled; -1 means unknown (e.g. chunked).
+     */
+    public boolean shouldSpool(long contentLength) {
+        return contentLength < 0 || contentLength > thresholdBytes;
+    }
+
+    /**
+     * Stream the input to a new spool file and map it read-only. The stream is read to its end but not closed.
+     *
+     * @throws IllegalArgumentException if the body exceeds 2 GiB (the file is removed)
+     */
+    public FilePayload spool(InputStream in) throws IOException {
+        Path file = Files.createTempFile(directory, "payload-", SUFFIX);
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                in.transferTo(out);
+            }
+            MappedByteBuffer mapped;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Payload of " + size + " bytes exceeds 2 GiB");
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            spooled.increment();
+            activeFiles.incrementAndGet();
+            activeBytes.addAndGet(mapped.limit());
+            return new FilePayload(file, mapped, this);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    void released(long size) {
+        activeFiles.decrementAndGet();
+        activeBytes.addAndGet(-size);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    /**
+     * Bodies spooled since creation.
+     */
+    public long getSpooledCount() {
+        return spooled.sum();
+    }
+
+    /**
+     * Spool files whose payload has not been released yet.
+     */
+    public long getActiveFiles() {
+        return activeFiles.get();
+    }
+
+    public long getActiveBytes() {
+        return activeBytes.get();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.connector.core.buffer;
+
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Reference-counted {@link Payload} over an array leased from a {@link BufferPool}. The array goes back to the pool
+ * when the last reference is released; reading the payload after that throws {@link IllegalStateException} rather
+ * than returning another message's bytes. Slices share the reference count of the payload they were cut from.
+ *
+ * <p>{@link #bytes()} always copies, so arrays handed to journals or clients never alias pooled storage.
+ */
+public final class PooledPayload implements Payload {
+
+    private final PooledPayload root;
+    private final Lease lease;
+    private final byte[] array;
+    private final ByteBuffer buffer;
+
+    PooledPayload(BufferPool pool, byte[] array, int size, Cleaner cleaner) {
+        this.root = this;
+        this.lease = new Lease(pool, array);
+        this.array = array;
+        this.buffer = ByteBuffer.wrap(array, 0, size);
+        if (cleaner != null) {
+            lease.cleanable = cleaner.register(this, lease::onUnreachable);
+        }
+    }
+
+    private PooledPayload(PooledPayload root, ByteBuffer buffer) {
+        // slices keep the root reachable so leak detection only fires once every view is gone
+        this.root = root;
+        this.lease = root.lease;
+        this.array = root.array;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Writable backing array for filling the payload; its content starts at {@link #arrayOffset()}.
+     */
+    public byte[] array() {
+        checkLive();
+        return array;
+    }
+
+    public int arrayOffset() {
+        return buffer.arrayOffset();
+    }
+
+    /**
+     * References currently held; 0 once released.
+     */
+    public int refCount() {
+        return lease.refs;
+    }
+
+    @Override
+    public int size() {
+        return buffer.limit();
+    }
+
+    @Override
+    public ByteBuffer asReadOnlyBuffer() {
+        checkLive();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] bytes() {
+        checkLive();
+        byte[] copy = new byte[buffer.limit()];
+        buffer.get(0, copy);
+        return copy;
+    }
+
+    @Override
+    public Payload slice(int offset, int length) {
+        checkLive();
+        return new PooledPayload(root, buffer.slice(offset, length));
+    }
+
+    @Override
+    public InputStream openStream() {
+        checkLive();
+        return Payload.wrap(buffer).openStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        checkLive();
+        out.write(array, buffer.arrayOffset(), buffer.limit());
+    }
+
+    @Override
+    public Payload retain() {
+        int refs;
+        do {
+            refs = lease.refs;
+            if (refs <= 0) {
+                throw new IllegalStateException("Payload already released");
+            }
+        } while (!Lease.REFS.compareAndSet(lease, refs, refs + 1));
+        return this;
+    }
+
+    @Override
+    public void release() {
+        int refs = Lease.REFS.decrementAndGet(lease);
+        if (refs == 0) {
+            lease.free();
+        } else if (refs < 0) {
+            Lease.REFS.incrementAndGet(lease);
+            throw new IllegalStateException("Payload already released");
+        }
+    }
+
+    private void checkLive() {
+        if (lease.refs <= 0) {
+            throw new IllegalStateException("Payload already released");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Payload other && other.size() == size() && asReadOnlyBuffer().equals(other.asReadOnlyBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+        return asReadOnlyBuffer().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledPayload[" + buffer.limit() + " bytes, refs=" + lease.refs + "]";
+    }
+
+    /**
+     * Reference count and array shared by a payload and its slices; also the leak-detection cleaning action, so it
+     * must not refer back to the payload.
+     */
+    private static final class Lease {
+
+        private static final AtomicIntegerFieldUpdater<Lease> REFS =
+                AtomicIntegerFieldUpdater.newUpdater(Lease.class, "refs");
+
+        private final BufferPool pool;
+        private final byte[] array;
+        private volatile int refs = 1;
+        private Cleaner.Cleanable cleanable;
+
+        Lease(BufferPool pool, byte[] array) {
+            this.pool = pool;
+            this.array = array;
+        }
+
+        void free() {
+            if (cleanable != null) {
+                cleanable.clean();
+            }
+            if (pool != null) {
+                pool.recycle(array);
+            }
+        }
+
+        void onUnreachable() {
+            if (refs > 0 && pool != null) {
+                pool.leaked();
+            }
+        }
+    }
+}
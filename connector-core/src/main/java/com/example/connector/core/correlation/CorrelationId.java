@@ -1,15 +1,17 @@
 package com.example.connector.core.correlation;
 
 import java.util.Optional;
-import java.util.UUID;
 
 /**
- * Utility to generate or extract correlation ID (e.g. from headers).
+ * Utility to generate or extract correlation ID (e.g. from headers). New IDs come from a pluggable
+ * {@link CorrelationIdGenerator}, by default a {@link TimeOrderedIdGenerator}.
  */
 public final class CorrelationId {
 
     private static final String HEADER_CORRELATION_ID = "X-Correlation-ID";
 
+    private static volatile CorrelationIdGenerator generator = new TimeOrderedIdGenerator();
+
     private CorrelationId() {
     }
 
@@ -17,7 +19,21 @@ public final class CorrelationId {
      * Generate a new unique correlation ID.
      */
     public static String generate() {
-        return UUID.randomUUID().toString();
+        return generator.generate();
+    }
+
+    /**
+     * Replace the generator used for all new IDs, e.g. {@link CorrelationIdGenerator#RANDOM}.
+     */
+    public static void setGenerator(CorrelationIdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("generator must not be null");
+        }
+        CorrelationId.generator = generator;
+    }
+
+    public static CorrelationIdGenerator getGenerator() {
+        return generator;
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.example.connector.core.correlation;
+
+import java.util.UUID;
+
+/**
+ * Strategy for new correlation IDs; installed with {@link CorrelationId#setGenerator(CorrelationIdGenerator)}.
+ */
+@FunctionalInterface
+public interface CorrelationIdGenerator {
+
+    /**
+     * Random version 4 UUIDs from {@link UUID#randomUUID()} (a {@code SecureRandom}); the previous default.
+     */
+    CorrelationIdGenerator RANDOM = () -> UUID.randomUUID().toString();
+
+    /**
+     * A new ID; never null or blank.
+     */
+    String generate();
+}
@@ -0,0 +1,67 @@
+package com.example.connector.core.dedup;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.MessageHandler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingress idempotency filter keyed on correlation ID, placed between an at-least-once inbound transport and the
+ * pipeline. The Bloom filter answers the common case (new message) without locks; only a Bloom hit is confirmed
+ * by the exact {@link DuplicateConfirmer}, and confirmed duplicates are dropped (their body released). A key is
+ * recorded only after the delegate returns, so a message the delegate rejected by throwing is not dropped on redelivery.
+ *
+ * <p>Inbound transports generate a correlation ID when the producer sent none; such messages get a new ID on
+ * redelivery and are not deduplicated.
+ */
+public final class DeduplicatingMessageHandler implements MessageHandler {
+
+    private final RotatingBloomFilter filter;
+    private final DuplicateConfirmer confirmer;
+    private final MessageHandler delegate;
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public DeduplicatingMessageHandler(RotatingBloomFilter filter, DuplicateConfirmer confirmer,
+                                       MessageHandler delegate) {
+        this.filter = filter;
+        this.confirmer = confirmer;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handle(ConnectorMessage message) {
+        String key = message.correlationId();
+        if (!filter.mightContain(key)) {
+            bloomNegatives.increment();
+        } else if (confirmer.isDuplicate(key)) {
+            dropped.increment();
+            message.body().release();
+            return;
+        } else {
+            falsePositives.increment();
+        }
+        // remember the key only once the delegate accepted the message, so a redelivery after a throw is processed
+        delegate.handle(message);
+        filter.put(key);
+        confirmer.record(key);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Observed Bloom false-positive rate: hits the confirmer rejected, over all non-duplicate messages.
+     */
+    public double getFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long total = fp + bloomNegatives.sum();
+        return total == 0 ? 0.0 : (double) fp / total;
+    }
+}
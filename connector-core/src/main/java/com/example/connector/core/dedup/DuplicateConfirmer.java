@@ -0,0 +1,35 @@
+package com.example.connector.core.dedup;
+
+/**
+ * Exact check run only when the Bloom filter reports a possible duplicate (e.g. bounded LRU or journal lookup).
+ */
+@FunctionalInterface
+public interface DuplicateConfirmer {
+
+    boolean isDuplicate(String key);
+
+    /**
+     * Remember a key that passed through; no-op for confirmers backed by an existing store such as the journal.
+     */
+    default void record(String key) {
+    }
+
+    /**
+     * Ask this confirmer first and fall back to the other on a miss (e.g. LRU, then journal).
+     */
+    default DuplicateConfirmer orElse(DuplicateConfirmer other) {
+        DuplicateConfirmer first = this;
+        return new DuplicateConfirmer() {
+            @Override
+            public boolean isDuplicate(String key) {
+                return first.isDuplicate(key) || other.isDuplicate(key);
+            }
+
+            @Override
+            public void record(String key) {
+                first.record(key);
+                other.record(key);
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.connector.core.dedup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded exact set of recent keys, least recently seen evicted first. Split into stripes by key hash so
+ * concurrent consumers rarely contend on the same lock. Keys are recorded when the handler returns, so use it only
+ * in front of a handler that finishes processing before returning; after an asynchronous hand-off a redelivery of a
+ * message whose send later failed would be dropped.
+ */
+public final class LruDuplicateConfirmer implements DuplicateConfirmer {
+
+    private static final int STRIPES = 16;
+
+    private final List<Map<String, Boolean>> stripes;
+
+    public LruDuplicateConfirmer(int maxEntries) {
+        if (maxEntries < STRIPES) {
+            throw new IllegalArgumentException("maxEntries must be >= " + STRIPES);
+        }
+        int perStripe = maxEntries / STRIPES;
+        this.stripes = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > perStripe;
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isDuplicate(String key) {
+        Map<String, Boolean> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key) != null;
+        }
+    }
+
+    @Override
+    public void record(String key) {
+        Map<String, Boolean> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, Boolean.TRUE);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Boolean> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Map<String, Boolean> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes.get((h ^ (h >>> 16)) & (STRIPES - 1));
+    }
+}
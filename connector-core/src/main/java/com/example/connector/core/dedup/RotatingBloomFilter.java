@@ -0,0 +1,123 @@
+package com.example.connector.core.dedup;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Time-windowed Bloom filter: keys are added to the current generation and looked up in the current and previous
+ * one, so a key is remembered for one to two windows and memory stays fixed. Lock-free; a negative answer is
+ * exact, a positive one is wrong with roughly the configured probability.
+ */
+public final class RotatingBloomFilter {
+
+    private record Generation(long startNanos, AtomicLongArray bits) {
+    }
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long windowNanos;
+    private final AtomicReference<Generation> current;
+    private volatile Generation previous;
+
+    /**
+     * @param expectedPerWindow keys expected per window; memory is 2 × bits sized for this count at the given rate
+     * @param falsePositiveRate target false-positive probability per lookup, in (0, 1)
+     */
+    public RotatingBloomFilter(int expectedPerWindow, double falsePositiveRate, Duration window) {
+        if (expectedPerWindow < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("require expectedPerWindow >= 1 and 0 < falsePositiveRate < 1");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedPerWindow * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedPerWindow * ln2));
+        this.windowNanos = window.toNanos();
+        Generation first = newGeneration(System.nanoTime());
+        this.current = new AtomicReference<>(first);
+        this.previous = newGeneration(first.startNanos());
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1L;
+        Generation cur = generation();
+        return contains(cur, h1, h2) || contains(previous, h1, h2);
+    }
+
+    public void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1L;
+        AtomicLongArray bits = generation().bits();
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1, h2, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        AtomicLongArray bits = generation.bits();
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1, h2, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+    }
+
+    private Generation generation() {
+        Generation cur = current.get();
+        long now = System.nanoTime();
+        if (now - cur.startNanos() < windowNanos) {
+            return cur;
+        }
+        Generation next = newGeneration(now);
+        if (current.compareAndSet(cur, next)) {
+            previous = now - cur.startNanos() < 2 * windowNanos ? cur : newGeneration(now);
+            return next;
+        }
+        return current.get();
+    }
+
+    private Generation newGeneration(long startNanos) {
+        return new Generation(startNanos, new AtomicLongArray((bitCount + 63) >>> 6));
+    }
+
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    public int bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Bytes held by both generations.
+     */
+    public long memoryBytes() {
+        return 2L * ((bitCount + 63) >>> 6) * Long.BYTES;
+    }
+}
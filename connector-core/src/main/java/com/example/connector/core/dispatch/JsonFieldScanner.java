@@ -0,0 +1,89 @@
+package com.example.connector.core.dispatch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal byte scanner for a JSON field value; used for ordering keys so the payload is not decoded per message.
+ */
+final class JsonFieldScanner {
+
+    private JsonFieldScanner() {
+    }
+
+    /**
+     * @param json  UTF-8 JSON bytes from index 0 to the limit, read with absolute gets (heap, direct or mapped)
+     * @param token quoted field name, e.g. {@code "accountId"}
+     * @return the value of the first occurrence followed by a colon, or null if absent or not a scalar
+     */
+    static String find(ByteBuffer json, byte[] token) {
+        if (json == null) {
+            return null;
+        }
+        int from = 0;
+        while (true) {
+            int at = indexOf(json, token, from);
+            if (at < 0) {
+                return null;
+            }
+            int i = skipWhitespace(json, at + token.length);
+            if (i < json.limit() && json.get(i) == ':') {
+                return value(json, skipWhitespace(json, i + 1));
+            }
+            from = at + 1;
+        }
+    }
+
+    private static String value(ByteBuffer json, int start) {
+        if (start >= json.limit()) {
+            return null;
+        }
+        if (json.get(start) == '"') {
+            int i = start + 1;
+            while (i < json.limit() && json.get(i) != '"') {
+                i += json.get(i) == '\\' ? 2 : 1;
+            }
+            return i < json.limit() ? string(json, start + 1, i) : null;
+        }
+        if (json.get(start) == '{' || json.get(start) == '[') {
+            return null;
+        }
+        int end = start;
+        while (end < json.limit() && isScalarByte(json.get(end))) {
+            end++;
+        }
+        return end > start ? string(json, start, end) : null;
+    }
+
+    private static String string(ByteBuffer json, int from, int to) {
+        return StandardCharsets.UTF_8.decode(json.slice(from, to - from)).toString();
+    }
+
+    private static int skipWhitespace(ByteBuffer json, int i) {
+        while (i < json.limit() && isWhitespace(json.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isScalarByte(byte b) {
+        return b != ',' && b != '}' && b != ']' && b > ' ';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static int indexOf(ByteBuffer data, byte[] token, int from) {
+        outer:
+        for (int i = from; i <= data.limit() - token.length; i++) {
+            for (int j = 0; j < token.length; j++) {
+                if (data.get(i + j) != token[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
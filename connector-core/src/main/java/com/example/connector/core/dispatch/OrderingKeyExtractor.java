@@ -0,0 +1,38 @@
+package com.example.connector.core.dispatch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Extracts the ordering key of a message (e.g. account ID). Messages with equal keys are processed in order;
+ * a null key means the message has no ordering requirement.
+ */
+@FunctionalInterface
+public interface OrderingKeyExtractor {
+
+    String extract(ConnectorMessage message);
+
+    /**
+     * Key from a header value (e.g. "X-Account-ID").
+     */
+    static OrderingKeyExtractor header(String headerName) {
+        return message -> message.headers().get(headerName);
+    }
+
+    /**
+     * Key from the correlation ID (orders redeliveries of the same message).
+     */
+    static OrderingKeyExtractor correlationId() {
+        return ConnectorMessage::correlationId;
+    }
+
+    /**
+     * Key from a JSON payload field, read by scanning the UTF-8 bytes for the first {@code "fieldName":} occurrence
+     * (any depth) without parsing the document. String and scalar values are supported; objects and arrays are not.
+     */
+    static OrderingKeyExtractor payloadField(String fieldName) {
+        byte[] token = ("\"" + fieldName + "\"").getBytes(StandardCharsets.UTF_8);
+        return message -> JsonFieldScanner.find(message.body().asReadOnlyBuffer(), token);
+    }
+}
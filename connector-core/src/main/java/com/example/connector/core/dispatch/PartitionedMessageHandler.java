@@ -0,0 +1,177 @@
+package com.example.connector.core.dispatch;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.MessageHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Key-ordered parallel dispatch: sits between an inbound transport and the pipeline handler.
+ * Each message is hashed by its ordering key to one of N serial lanes; each lane is drained by its own virtual thread.
+ * Order is preserved per key, throughput scales across keys. Back pressure: handle blocks when the lane is full.
+ */
+public final class PartitionedMessageHandler implements MessageHandler, AutoCloseable {
+
+    private final OrderingKeyExtractor keyExtractor;
+    private final Function<ConnectorMessage, ? extends CompletionStage<?>> processor;
+    private final List<BlockingQueue<ConnectorMessage>> lanes;
+    private final Thread[] workers;
+    private final long offerTimeoutMs;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Lanes invoke the delegate handler in key order; the delegate's own async work (e.g. send) is not awaited.
+     *
+     * @param laneCount      number of serial lanes (parallelism)
+     * @param laneCapacity   max queued messages per lane before handle blocks
+     * @param offerTimeoutMs how long handle blocks on a full lane before rejecting
+     */
+    public PartitionedMessageHandler(int laneCount, int laneCapacity, long offerTimeoutMs,
+                                     OrderingKeyExtractor keyExtractor, MessageHandler delegate) {
+        this(message -> {
+            delegate.handle(message);
+            return CompletableFuture.completedFuture(null);
+        }, laneCount, laneCapacity, offerTimeoutMs, keyExtractor);
+    }
+
+    private PartitionedMessageHandler(Function<ConnectorMessage, ? extends CompletionStage<?>> processor,
+                                      int laneCount, int laneCapacity, long offerTimeoutMs,
+                                      OrderingKeyExtractor keyExtractor) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be >= 1");
+        }
+        this.keyExtractor = keyExtractor;
+        this.processor = processor;
+        this.offerTimeoutMs = offerTimeoutMs > 0 ? offerTimeoutMs : 5000L;
+        this.lanes = new ArrayList<>(laneCount);
+        this.workers = new Thread[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<ConnectorMessage> lane = new ArrayBlockingQueue<>(laneCapacity);
+            lanes.add(lane);
+            workers[i] = Thread.ofVirtual().name("connector-lane-" + i).start(() -> laneLoop(lane));
+        }
+    }
+
+    /**
+     * Lanes await the future returned by the processor (e.g. {@code pipeline.process(...)}) before taking the next
+     * message, so sends for one key complete in order, including retries.
+     */
+    public static PartitionedMessageHandler awaitingCompletion(int laneCount, int laneCapacity, long offerTimeoutMs,
+                                                               OrderingKeyExtractor keyExtractor,
+                                                               Function<ConnectorMessage, ? extends CompletionStage<?>> processor) {
+        return new PartitionedMessageHandler(processor, laneCount, laneCapacity, offerTimeoutMs, keyExtractor);
+    }
+
+    @Override
+    public void handle(ConnectorMessage message) {
+        if (!running.get()) {
+            message.body().release();
+            throw new RejectedExecutionException("Partitioned handler is closed");
+        }
+        int lane = laneFor(message);
+        try {
+            if (!lanes.get(lane).offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                message.body().release();
+                throw new RejectedExecutionException("Lane " + lane + " full for " + message.correlationId());
+            }
+            // close() may have drained the lane while this offer was in progress
+            if (!running.get() && lanes.get(lane).remove(message)) {
+                message.body().release();
+                throw new RejectedExecutionException("Partitioned handler is closed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message.body().release();
+            throw new RejectedExecutionException("Interrupted offering to lane " + lane, e);
+        }
+    }
+
+    /**
+     * Lane index for the message: hash of the ordering key, or of the correlation ID when the key is absent.
+     */
+    public int laneFor(ConnectorMessage message) {
+        String key = keyExtractor.extract(message);
+        int h = (key != null ? key : message.correlationId()).hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.size());
+    }
+
+    private void laneLoop(BlockingQueue<ConnectorMessage> lane) {
+        while (running.get()) {
+            ConnectorMessage message;
+            try {
+                message = lane.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                processor.apply(message).toCompletableFuture().join();
+                processed.increment();
+            } catch (RuntimeException e) {
+                // failures are journalled by the pipeline; keep the lane alive for the next message
+                failed.increment();
+            }
+        }
+    }
+
+    public int laneCount() {
+        return lanes.size();
+    }
+
+    public int laneDepth(int lane) {
+        return lanes.get(lane).size();
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Stop all lanes and wait for each to finish the message in hand; queued messages that were not yet taken are
+     * discarded and their bodies released. A lane closing its own handler is not waited for.
+     */
+    @Override
+    public void close() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (worker != Thread.currentThread() && worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (BlockingQueue<ConnectorMessage> lane : lanes) {
+            ConnectorMessage message;
+            while ((message = lane.poll()) != null) {
+                message.body().release();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
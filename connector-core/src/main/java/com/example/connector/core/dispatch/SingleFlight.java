@@ -0,0 +1,79 @@
+package com.example.connector.core.dispatch;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, later callers share its result
+ * until it completes. The in-flight table is a ConcurrentHashMap (per-bin locking, lock-free reads) and an entry
+ * is removed as soon as its call completes, so a later call with the same key runs again.
+ */
+public final class SingleFlight<K, V> {
+
+    private static final List<String> ROUTING_OPTIONS = List.of("topic", "url", "destination");
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Run the call, or join the call already in flight for this key. Every caller, the one running the call included,
+     * gets a dependent copy, so cancelling one caller's future does not cancel the call the others share.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<? extends CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, ex) -> {
+            inFlight.remove(key, mine);
+            if (ex != null) {
+                mine.completeExceptionally(ex);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine.copy();
+    }
+
+    /**
+     * Key for coalescing outbound sends: correlation ID, destination and any {@code topic}, {@code url} or
+     * {@code destination} option, so sends routed to different targets never share a call.
+     */
+    public static String sendKey(ConnectorMessage message, String destination, Map<String, Object> options) {
+        StringBuilder key = new StringBuilder(message.correlationId()).append('\u0000').append(destination);
+        if (options != null) {
+            for (String option : ROUTING_OPTIONS) {
+                Object route = options.get(option);
+                if (route != null) {
+                    key.append('\u0000').append(option).append('=').append(route);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Calls that joined an in-flight call instead of running their own.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.connector.core.dlq;
+
+import java.time.Instant;
+
+/**
+ * Index entry of a dead message: where it was going, why it failed and how often redelivery was tried. The message
+ * itself stays in the store until {@link DeadLetterStore#read} is called.
+ *
+ * @param attempts      redelivery attempts so far (0 when first dead-lettered)
+ * @param lastAttemptAt when the message was dead-lettered or last redelivered
+ */
+public record DeadLetter(
+        long id,
+        String correlationId,
+        String destination,
+        String reason,
+        int attempts,
+        Instant deadAt,
+        Instant lastAttemptAt
+) {
+
+    /**
+     * Low-cardinality reason for a failure cause (its simple class name), so entries group well in the index.
+     */
+    public static String reasonOf(Throwable cause) {
+        return cause != null ? cause.getClass().getSimpleName() : "Unknown";
+    }
+}
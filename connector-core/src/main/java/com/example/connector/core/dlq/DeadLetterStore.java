@@ -0,0 +1,50 @@
+package com.example.connector.core.dlq;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * SPI: where messages go when their send ultimately fails. Entries are indexed by destination and reason; messages
+ * are read back one at a time so redrive never holds the whole store in memory.
+ */
+public interface DeadLetterStore {
+
+    /**
+     * Dead-letter a message that could not be sent to the destination.
+     */
+    DeadLetter add(ConnectorMessage message, String destination, String reason);
+
+    /**
+     * The stored message, or empty if the entry has been removed.
+     */
+    Optional<ConnectorMessage> read(DeadLetter deadLetter);
+
+    /**
+     * Record a failed redelivery.
+     *
+     * @return the updated entry (attempts + 1, new reason), or empty if the entry has been removed
+     */
+    Optional<DeadLetter> recordAttempt(DeadLetter deadLetter, String reason);
+
+    /**
+     * Remove a redelivered (or discarded) entry.
+     *
+     * @return false if it was already removed
+     */
+    boolean remove(DeadLetter deadLetter);
+
+    /**
+     * Live entries, oldest first. Weakly consistent: entries added or removed while streaming may or may not appear.
+     */
+    Stream<DeadLetter> entries();
+
+    /**
+     * Live entry counts by destination, then by reason.
+     */
+    Map<String, Map<String, Long>> counts();
+
+    long size();
+}
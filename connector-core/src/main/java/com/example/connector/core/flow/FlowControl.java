@@ -0,0 +1,105 @@
+package com.example.connector.core.flow;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Credit-based backpressure shared by a pipeline and its inbound transports. Each message in flight (from pipeline
+ * entry until its send completes) holds one credit. When in-flight messages reach the high watermark the listeners are
+ * told to pause (Kafka containers paused, JMS listener threads held, HTTP answers 429); once they drain to the low
+ * watermark the listeners are told to resume. The gap between the watermarks keeps consumers from flapping.
+ */
+public final class FlowControl {
+
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final Duration retryAfter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<FlowListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder pauses = new LongAdder();
+    private volatile boolean paused;
+
+    /**
+     * @param retryAfter how long rejected HTTP clients are asked to wait; held JMS listeners re-check at this interval
+     */
+    public FlowControl(int highWatermark, int lowWatermark, Duration retryAfter) {
+        if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+            throw new IllegalArgumentException("require 0 <= lowWatermark < highWatermark");
+        }
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Register a listener; it is paused right away if the flow is currently paused.
+     */
+    public synchronized void addListener(FlowListener listener) {
+        listeners.add(listener);
+        if (paused) {
+            listener.onPause();
+        }
+    }
+
+    /**
+     * Take a credit for a message entering the pipeline. Never blocks: inbound consumers are paused instead.
+     */
+    public void acquire() {
+        if (inFlight.incrementAndGet() >= highWatermark && !paused) {
+            evaluate();
+        }
+    }
+
+    /**
+     * Return the credit once the message's send has completed.
+     */
+    public void release() {
+        if (inFlight.decrementAndGet() <= lowWatermark && paused) {
+            evaluate();
+        }
+    }
+
+    private synchronized void evaluate() {
+        // re-read under the lock so concurrent crossings publish transitions in order, and again after each one:
+        // a release (or acquire) that crossed a watermark before the new state was visible skipped evaluate()
+        while (true) {
+            int current = inFlight.get();
+            if (!paused && current >= highWatermark) {
+                paused = true;
+                pauses.increment();
+                listeners.forEach(FlowListener::onPause);
+            } else if (paused && current <= lowWatermark) {
+                paused = false;
+                listeners.forEach(FlowListener::onResume);
+            } else {
+                return;
+            }
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Credits left before the high watermark (0 when paused at or above it).
+     */
+    public int getAvailableCredits() {
+        return Math.max(0, highWatermark - inFlight.get());
+    }
+
+    public long getPauseCount() {
+        return pauses.sum();
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.connector.core.flow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flow listener for inbound transports that cannot pause their source: listener threads wait in
+ * {@link #awaitOpen} while the flow is paused, which throttles consumption at the broker without stopping the
+ * container.
+ */
+public final class FlowGate implements FlowListener {
+
+    private boolean open = true;
+
+    @Override
+    public synchronized void onPause() {
+        open = false;
+    }
+
+    @Override
+    public synchronized void onResume() {
+        open = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Wait until the gate opens, at most maxWaitMs.
+     *
+     * @return false if still closed after maxWaitMs
+     */
+    public synchronized boolean awaitOpen(long maxWaitMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (!open) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                return false;
+            }
+            wait(remainingMs);
+        }
+        return true;
+    }
+}
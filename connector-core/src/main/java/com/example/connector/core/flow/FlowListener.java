@@ -0,0 +1,18 @@
+package com.example.connector.core.flow;
+
+/**
+ * Reacts to {@link FlowControl} transitions, e.g. by pausing an inbound consumer. Called while the transition is
+ * being published, so implementations must return quickly and must not block on message processing.
+ */
+public interface FlowListener {
+
+    /**
+     * In-flight messages reached the high watermark: stop taking new work.
+     */
+    void onPause();
+
+    /**
+     * In-flight messages fell to the low watermark: take new work again.
+     */
+    void onResume();
+}
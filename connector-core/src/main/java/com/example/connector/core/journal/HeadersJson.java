@@ -0,0 +1,140 @@
+package com.example.connector.core.journal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flat JSON object of string headers, as stored in the journal's {@code headers_json} column. Reading is lenient:
+ * null, blank or malformed input (including non-string values) gives an empty map rather than failing a replay.
+ */
+public final class HeadersJson {
+
+    private HeadersJson() {
+    }
+
+    public static String write(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return "{}";
+        }
+        StringBuilder json = new StringBuilder(headers.size() * 32).append('{');
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            quote(json, header.getKey()).append(':');
+            quote(json, header.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    public static Map<String, String> read(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return new Reader(json).object();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Map.of();
+        }
+    }
+
+    private static StringBuilder quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    private static final class Reader {
+
+        private final String json;
+        private int pos;
+
+        Reader(String json) {
+            this.json = json;
+        }
+
+        Map<String, String> object() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    String key = string();
+                    expect(':');
+                    headers.put(key, string());
+                } while (next() == ',');
+                pos--;
+                expect('}');
+            }
+            if (peek() != 0) {
+                throw new IllegalArgumentException("Trailing content");
+            }
+            return headers;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            char c;
+            while ((c = json.charAt(pos++)) != '"') {
+                if (c == '\\') {
+                    char escaped = json.charAt(pos++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            value.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            return value.toString();
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("Expected " + expected + " at " + (pos - 1));
+            }
+        }
+
+        /**
+         * Next non-whitespace character, consumed; 0 at the end.
+         */
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private char peek() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+            return pos < json.length() ? json.charAt(pos) : 0;
+        }
+    }
+}
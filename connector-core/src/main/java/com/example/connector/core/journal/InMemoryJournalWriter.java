@@ -26,7 +26,7 @@ public final class InMemoryJournalWriter implements JournalWriter {
                 message.transportType(),
                 "application/octet-stream",
                 message.payload(),
-                "{}",
+                HeadersJson.write(message.headers()),
                 "RECEIVED",
                 message.timestamp(),
                 null,
@@ -47,7 +47,7 @@ public final class InMemoryJournalWriter implements JournalWriter {
                     request.transport(),
                     "application/octet-stream",
                     responsePayload != null ? responsePayload : new byte[0],
-                    "{}",
+                    request.headersJson(),
                     status,
                     request.createdAt(),
                     Instant.now(),
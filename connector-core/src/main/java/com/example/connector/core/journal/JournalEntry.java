@@ -3,6 +3,7 @@ package com.example.connector.core.journal;
 import com.example.connector.core.model.ConnectorMessage;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -22,14 +23,17 @@ public record JournalEntry(
         String errorMessage
 ) {
     /**
-     * Reconstruct a ConnectorMessage from this entry (for replay).
+     * Reconstruct a ConnectorMessage from this entry (for replay), with the headers from {@link #headersJson}.
+     * The deadline header is left out: a replay is a deliberate resend and is not shed for being late.
      */
     public ConnectorMessage toConnectorMessage() {
+        Map<String, String> headers = new HashMap<>(HeadersJson.read(headersJson));
+        headers.remove(ConnectorMessage.DEADLINE_HEADER);
         return new ConnectorMessage(
                 correlationId,
                 transport,
                 payloadBlob != null ? payloadBlob : new byte[0],
-                Map.of(), // headers could be parsed from headersJson if needed
+                headers,
                 createdAt != null ? createdAt : Instant.now()
         );
     }
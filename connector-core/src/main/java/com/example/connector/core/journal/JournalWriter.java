@@ -21,9 +21,9 @@ public interface JournalWriter {
      * Update or append response for the given correlation ID.
      *
      * @param correlationId correlation ID of the request
-     * @param status        SENT or FAILED
+     * @param status        SENT, FAILED, or EXPIRED (deadline passed before the send)
      * @param responsePayload optional response payload
-     * @param errorMessage  optional error message when status is FAILED
+     * @param errorMessage  optional error message when status is FAILED or EXPIRED
      */
     void updateResponse(String correlationId, String status, byte[] responsePayload, String errorMessage);
 }
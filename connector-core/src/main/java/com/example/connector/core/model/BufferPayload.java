@@ -0,0 +1,113 @@
+package com.example.connector.core.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * {@link Payload} over a buffer whose position is 0 and limit is the size. The buffer is never moved; every read goes
+ * through a duplicate.
+ */
+final class BufferPayload implements Payload {
+
+    private static final int CHUNK = 8192;
+
+    private final ByteBuffer buffer;
+
+    BufferPayload(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+        return buffer.limit();
+    }
+
+    @Override
+    public ByteBuffer asReadOnlyBuffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] bytes() {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.array().length == buffer.limit()) {
+            return buffer.array();
+        }
+        byte[] copy = new byte[buffer.limit()];
+        buffer.get(0, copy);
+        return copy;
+    }
+
+    @Override
+    public Payload slice(int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        return new BufferPayload(buffer.slice(offset, length));
+    }
+
+    @Override
+    public InputStream openStream() {
+        ByteBuffer view = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                Objects.checkFromIndexSize(off, len, b.length);
+                if (len == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, view.remaining());
+                view.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.limit());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(CHUNK, buffer.limit())];
+        for (int at = 0; at < buffer.limit(); at += chunk.length) {
+            int n = Math.min(chunk.length, buffer.limit() - at);
+            buffer.get(at, chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Payload other) || other.size() != size()) {
+            return false;
+        }
+        return buffer.equals(other.asReadOnlyBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Payload[" + buffer.limit() + " bytes]";
+    }
+}
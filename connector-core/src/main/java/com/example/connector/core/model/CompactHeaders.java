@@ -0,0 +1,107 @@
+package com.example.connector.core.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable header map stored as one array of alternating keys and values, with interned keys; lookups scan the
+ * array, comparing by identity before equality. Holds far less than a {@code HashMap} for the handful of headers a
+ * message usually carries.
+ */
+final class CompactHeaders extends AbstractMap<String, String> {
+
+    private final String[] entries;
+
+    private CompactHeaders(String[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Read-only copy of the headers; empty, lazy and already compact maps are returned as they are.
+     */
+    static Map<String, String> of(Map<String, String> headers) {
+        if (headers == null || headers instanceof CompactHeaders || headers instanceof LazyHeaders) {
+            return headers != null ? headers : Map.of();
+        }
+        if (headers.isEmpty()) {
+            return Map.of();
+        }
+        String[] entries = new String[headers.size() * 2];
+        int i = 0;
+        // read untyped and converted with toString(): callers that bypass generics (Groovy GStrings) still work
+        for (Map.Entry<?, ?> header : headers.entrySet()) {
+            Object key = header.getKey();
+            Object value = header.getValue();
+            entries[i++] = key != null ? Interner.intern(key.toString()) : null;
+            entries[i++] = value != null ? value.toString() : null;
+        }
+        return new CompactHeaders(entries);
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? entries[index + 1] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return entries.length / 2;
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < entries.length; i += 2) {
+            if (Objects.equals(entries[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < entries.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (next >= entries.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(entries[next], entries[next + 1]);
+                        next += 2;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.length / 2;
+            }
+        };
+    }
+}
@@ -1,37 +1,183 @@
 package com.example.connector.core.model;
 
+import java.time.DateTimeException;
 import java.time.Instant;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Canonical internal message carried through the connector pipeline.
  * Immutable; correlation ID is set at ingress and carried through journal, transform, and egress.
+ * An optional business deadline travels in the {@value #DEADLINE_HEADER} header so every stage can shed stale work.
+ * The body is a {@link Payload} view so large messages are not copied between stages; {@link #payload()} keeps the
+ * array form for callers that need one. Headers may be a {@link LazyHeaders} view that decodes on access.
+ *
+ * <p>Laid out for deep buffers: transport types and header keys are interned, other headers are copied into a flat
+ * array map, and the timestamp is held as epoch nanos (so it must lie between the years 1677 and 2262). Accessors,
+ * equality and {@code toString} are those of a record with the same components.
  */
-public record ConnectorMessage(
-        String correlationId,
-        String transportType,
-        byte[] payload,
-        Map<String, String> headers,
-        Instant timestamp
-) {
-    public ConnectorMessage {
+public final class ConnectorMessage {
+
+    /**
+     * Header holding the deadline as epoch millis (ISO-8601 instants are accepted too).
+     */
+    public static final String DEADLINE_HEADER = "X-Deadline";
+
+    private final String correlationId;
+    private final String transportType;
+    private final Payload body;
+    private final Map<String, String> headers;
+    private final long timestampNanos;
+
+    public ConnectorMessage(String correlationId, String transportType, Payload body,
+                            Map<String, String> headers, Instant timestamp) {
         if (correlationId == null || correlationId.isBlank()) {
             throw new IllegalArgumentException("correlationId must not be null or blank");
         }
         if (transportType == null || transportType.isBlank()) {
             throw new IllegalArgumentException("transportType must not be null or blank");
         }
-        payload = payload != null ? payload : new byte[0];
-        headers = headers != null ? Collections.unmodifiableMap(headers) : Map.of();
-        timestamp = timestamp != null ? timestamp : Instant.now();
+        this.correlationId = correlationId;
+        this.transportType = Interner.intern(transportType);
+        this.body = body != null ? body : Payload.EMPTY;
+        this.headers = CompactHeaders.of(headers);
+        this.timestampNanos = toNanos(timestamp != null ? timestamp : Instant.now());
+    }
+
+    /**
+     * Wraps the array without copying; the caller must not modify it afterwards.
+     */
+    public ConnectorMessage(String correlationId, String transportType, byte[] payload,
+                            Map<String, String> headers, Instant timestamp) {
+        this(correlationId, transportType, payload != null ? Payload.of(payload) : null, headers, timestamp);
+    }
+
+    private ConnectorMessage(String correlationId, String transportType, Payload body,
+                             Map<String, String> headers, long timestampNanos) {
+        this.correlationId = correlationId;
+        this.transportType = transportType;
+        this.body = body;
+        this.headers = headers;
+        this.timestampNanos = timestampNanos;
+    }
+
+    private static long toNanos(Instant timestamp) {
+        try {
+            return Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L), timestamp.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("timestamp out of range: " + timestamp);
+        }
+    }
+
+    public String correlationId() {
+        return correlationId;
+    }
+
+    public String transportType() {
+        return transportType;
+    }
+
+    public Payload body() {
+        return body;
+    }
+
+    /**
+     * Read-only headers.
+     */
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    /**
+     * A new {@link Instant} per call; use {@link #timestampNanos()} on hot paths.
+     */
+    public Instant timestamp() {
+        return Instant.ofEpochSecond(0, timestampNanos);
+    }
+
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * The body as an array; no copy when the body is backed by exactly one array (see {@link Payload#bytes()}).
+     */
+    public byte[] payload() {
+        return body.bytes();
     }
 
     public ConnectorMessage withCorrelationId(String newCorrelationId) {
-        return new ConnectorMessage(newCorrelationId, transportType, payload, headers, timestamp);
+        if (newCorrelationId == null || newCorrelationId.isBlank()) {
+            throw new IllegalArgumentException("correlationId must not be null or blank");
+        }
+        return new ConnectorMessage(newCorrelationId, transportType, body, headers, timestampNanos);
     }
 
     public ConnectorMessage withHeaders(Map<String, String> newHeaders) {
-        return new ConnectorMessage(correlationId, transportType, payload, newHeaders, timestamp);
+        return new ConnectorMessage(correlationId, transportType, body, CompactHeaders.of(newHeaders), timestampNanos);
+    }
+
+    public ConnectorMessage withBody(Payload newBody) {
+        return new ConnectorMessage(correlationId, transportType, newBody != null ? newBody : Payload.EMPTY, headers,
+                timestampNanos);
+    }
+
+    /**
+     * The deadline from {@value #DEADLINE_HEADER}; empty when absent or unparseable.
+     */
+    public Optional<Instant> deadline() {
+        String value = headers.get(DEADLINE_HEADER);
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.ofEpochMilli(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                return Optional.of(Instant.parse(value.trim()));
+            } catch (DateTimeException e2) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Whether the deadline has passed; messages without a deadline never expire.
+     */
+    public boolean isExpired(Instant now) {
+        Optional<Instant> deadline = deadline();
+        return deadline.isPresent() && !now.isBefore(deadline.get());
+    }
+
+    public ConnectorMessage withDeadline(Instant deadline) {
+        Map<String, String> newHeaders = new HashMap<>(headers);
+        newHeaders.put(DEADLINE_HEADER, Long.toString(deadline.toEpochMilli()));
+        return withHeaders(newHeaders);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ConnectorMessage other
+                && timestampNanos == other.timestampNanos
+                && correlationId.equals(other.correlationId)
+                && transportType.equals(other.transportType)
+                && body.equals(other.body)
+                && headers.equals(other.headers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(correlationId, transportType, body, headers, timestampNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectorMessage[correlationId=" + correlationId + ", transportType=" + transportType
+                + ", body=" + body + ", headers=" + headers + ", timestamp=" + timestamp() + "]";
     }
 }
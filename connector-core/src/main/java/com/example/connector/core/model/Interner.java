@@ -0,0 +1,33 @@
+package com.example.connector.core.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of low-cardinality strings (transport types, header keys) so the many messages held in buffers
+ * share one copy. Bounded: once full, new strings are returned as they are rather than growing the table.
+ */
+final class Interner {
+
+    static final int MAX_SIZE = 4096;
+
+    private static final ConcurrentHashMap<String, String> CANONICAL = new ConcurrentHashMap<>();
+
+    private Interner() {
+    }
+
+    static String intern(String value) {
+        String canonical = CANONICAL.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (CANONICAL.size() >= MAX_SIZE) {
+            return value;
+        }
+        canonical = CANONICAL.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    static int size() {
+        return CANONICAL.size();
+    }
+}
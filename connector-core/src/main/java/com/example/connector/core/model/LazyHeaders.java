@@ -0,0 +1,62 @@
+package com.example.connector.core.model;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-only header map over transport-native metadata (Kafka record headers, JMS properties) that decodes only what
+ * is asked for. {@link #get} and {@link #containsKey} look a single name up in the source each call; iterating,
+ * sizing or comparing decodes every header once and keeps the result. Values are never null.
+ *
+ * <p>The source must stay readable for as long as the message is in flight.
+ */
+public final class LazyHeaders extends AbstractMap<String, String> {
+
+    private final Function<String, String> lookup;
+    private final Supplier<Map<String, String>> decodeAll;
+    private volatile Map<String, String> decoded;
+
+    /**
+     * @param lookup    decodes one header, or returns null when it is absent
+     * @param decodeAll decodes every header; called at most once per racing thread, the first result is kept
+     */
+    public LazyHeaders(Function<String, String> lookup, Supplier<Map<String, String>> decodeAll) {
+        this.lookup = lookup;
+        this.decodeAll = decodeAll;
+    }
+
+    @Override
+    public String get(Object key) {
+        Map<String, String> all = decoded;
+        if (all != null) {
+            return all.get(key);
+        }
+        return key instanceof String name ? lookup.apply(name) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Map<String, String> all = decoded;
+        if (all == null) {
+            all = Collections.unmodifiableMap(decodeAll.get());
+            decoded = all;
+        }
+        return all.entrySet();
+    }
+
+    /**
+     * Whether every header has been decoded, e.g. because the map was copied or iterated.
+     */
+    public boolean isMaterialized() {
+        return decoded != null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.connector.core.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Message body as a read-only view over bytes that may live in a heap array, a direct buffer or a mapped file.
+ * Transports and codecs read through {@link #asReadOnlyBuffer()} or {@link #writeTo} so a large body is not copied
+ * on its way through the pipeline; {@link #bytes()} is the array bridge for APIs that need one.
+ *
+ * <p>Equality is by content. Pooled payloads are reference counted: the pipeline {@link #release() releases} a body
+ * once its send and journal response complete, and code that reads it asynchronously beyond that holds a
+ * {@link #retain()}. Both are no-ops for plain heap payloads.
+ */
+public interface Payload {
+
+    Payload EMPTY = of(new byte[0]);
+
+    /**
+     * Wrap an array without copying. The caller must not modify it afterwards.
+     */
+    static Payload of(byte[] bytes) {
+        return new BufferPayload(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * View the buffer's remaining bytes without copying. The buffer's position and limit are not used afterwards.
+     */
+    static Payload wrap(ByteBuffer buffer) {
+        return new BufferPayload(buffer.slice());
+    }
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Independent read-only view positioned at the first byte; callers may move its position freely.
+     */
+    ByteBuffer asReadOnlyBuffer();
+
+    /**
+     * The content as an array: the backing array itself when it holds exactly this payload (no copy, must not be
+     * modified), otherwise a copy.
+     */
+    byte[] bytes();
+
+    /**
+     * View of {@code length} bytes starting at {@code offset}, sharing the same storage.
+     */
+    Payload slice(int offset, int length);
+
+    InputStream openStream();
+
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Hold the storage for one more reader; each retain needs a matching {@link #release()}.
+     */
+    default Payload retain() {
+        return this;
+    }
+
+    /**
+     * Give up one hold; pooled storage returns to its pool when the last one is released.
+     */
+    default void release() {
+    }
+}
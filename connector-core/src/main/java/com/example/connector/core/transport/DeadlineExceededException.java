@@ -0,0 +1,31 @@
+package com.example.connector.core.transport;
+
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.time.Instant;
+
+/**
+ * Work for a message refused because its deadline has passed (see {@code ConnectorMessage#deadline()}).
+ */
+public final class DeadlineExceededException extends RuntimeException {
+
+    private final Instant deadline;
+
+    public DeadlineExceededException(String correlationId, Instant deadline) {
+        super("Deadline " + deadline + " exceeded for " + correlationId);
+        this.deadline = deadline;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * A failed result for the message if it has expired at now, otherwise null.
+     */
+    public static SendResult.Failure failureIfExpired(ConnectorMessage message, Instant now) {
+        return message.isExpired(now)
+                ? new SendResult.Failure(new DeadlineExceededException(message.correlationId(), message.deadline().get()))
+                : null;
+    }
+}
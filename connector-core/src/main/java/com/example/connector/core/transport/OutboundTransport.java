@@ -1,7 +1,9 @@
 package com.example.connector.core.transport;
 
+import com.example.connector.core.correlation.CorrelationId;
 import com.example.connector.core.model.ConnectorMessage;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -18,4 +20,21 @@ public interface OutboundTransport {
      * @return future of the send result
      */
     CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options);
+
+    /**
+     * Headers a transport sends along with the body: the connector's {@code X-} headers (deadline, claim-check
+     * reference, ordering keys), except the correlation ID, which transports set themselves. Protocol and broker
+     * headers an inbound transport copied in (Content-Length, Host, JMSX properties) stay behind.
+     */
+    static Map<String, String> forwardedHeaders(ConnectorMessage message) {
+        Map<String, String> forwarded = new LinkedHashMap<>();
+        for (Map.Entry<String, String> header : message.headers().entrySet()) {
+            String name = header.getKey();
+            if (name != null && header.getValue() != null && name.regionMatches(true, 0, "X-", 0, 2)
+                    && !name.equalsIgnoreCase(CorrelationId.getHeaderName())) {
+                forwarded.put(name, header.getValue());
+            }
+        }
+        return forwarded;
+    }
 }
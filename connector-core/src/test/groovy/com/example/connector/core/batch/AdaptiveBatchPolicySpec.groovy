@@ -0,0 +1,135 @@
+package com.example.connector.core.batch
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class AdaptiveBatchPolicySpec extends Specification {
+
+    def policy = new AdaptiveBatchPolicy(1, 500, Duration.ZERO, Duration.ofMillis(20), Duration.ofMillis(5))
+    long now = System.nanoTime()
+
+    private static long ms(long millis) {
+        TimeUnit.MILLISECONDS.toNanos(millis)
+    }
+
+    private void batches(int count, long cycleMs, int size, long lingerNanos, long processingNanos, int backlog = 0) {
+        count.times {
+            now += ms(cycleMs)
+            policy.onBatch(size, lingerNanos, processingNanos, backlog, now)
+        }
+    }
+
+    def "takes whatever is queued without lingering before traffic is observed"() {
+        expect:
+        policy.batchSize() == 500
+        policy.lingerNanos() == 0
+        policy.idleWaitNanos() == ms(20)
+    }
+
+    def "keeps a floor under the idle wait when lingering is disabled"() {
+        expect:
+        new AdaptiveBatchPolicy(1, 10, Duration.ZERO, Duration.ZERO, Duration.ofMillis(5)).idleWaitNanos() == ms(5)
+        new AdaptiveBatchPolicy(1, 10, Duration.ZERO, Duration.ZERO, Duration.ofNanos(1000)).idleWaitNanos() == ms(1)
+    }
+
+    def "does not linger at low traffic"() {
+        when: "one message every 50 ms"
+        batches(20, 50, 1, 0, 100_000)
+
+        then:
+        policy.lingerNanos() == 0
+        policy.batchSize() == 1
+    }
+
+    def "lingers within the latency target at high traffic"() {
+        when: "100k messages/s at 1 us each"
+        batches(50, 1, 100, 0, 100_000)
+
+        then:
+        policy.lingerNanos() > ms(3)
+        policy.lingerNanos() <= ms(5)
+        policy.batchSize() > 300
+        policy.batchSize() <= 500
+    }
+
+    def "respects the configured bounds"() {
+        given:
+        policy = new AdaptiveBatchPolicy(10, 50, Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(100))
+        // the clock must not run behind the new policy's first timestamp
+        now = System.nanoTime()
+
+        when:
+        batches(50, 1, 100, 0, 100_000)
+
+        then:
+        policy.lingerNanos() == ms(1)
+        policy.batchSize() == 50
+
+        when:
+        batches(50, 1000, 1, 0, 1000)
+
+        then:
+        policy.lingerNanos() == ms(1)
+        policy.batchSize() == 10
+    }
+
+    def "shrinks the linger budget when the p99 target is missed and recovers after a clean window"() {
+        given:
+        batches(50, 1, 100, 0, 100_000)
+        def lingerBefore = policy.lingerNanos()
+
+        when:
+        batches(2, 6, 500, ms(5), ms(2))
+
+        then:
+        policy.scale() < 1.0
+        policy.lingerNanos() < lingerBefore
+
+        when:
+        def shrunk = policy.scale()
+        batches(200, 1, 100, 0, 100_000)
+
+        then:
+        policy.scale() > shrunk
+    }
+
+    def "grows the batch to catch up with a backlog"() {
+        given:
+        batches(20, 50, 1, 0, 100_000)
+
+        when:
+        batches(1, 1, 1, 0, 100_000, 1000)
+
+        then:
+        policy.batchSize() == 500
+    }
+
+    def "empty drains lower the arrival rate"() {
+        given:
+        batches(50, 1, 100, 0, 100_000)
+
+        when:
+        batches(50, 20, 0, 0, 0)
+
+        then:
+        policy.lingerNanos() == 0
+    }
+
+    def "rejects invalid bounds"() {
+        when:
+        new AdaptiveBatchPolicy(minSize, maxSize, Duration.ofMillis(minLinger), Duration.ofMillis(maxLinger), Duration.ofMillis(target))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        minSize | maxSize | minLinger | maxLinger | target
+        0       | 10      | 0         | 1         | 5
+        10      | 5       | 0         | 1         | 5
+        1       | 10      | -1        | 1         | 5
+        1       | 10      | 2         | 1         | 5
+        1       | 10      | 0         | 1         | 0
+    }
+}
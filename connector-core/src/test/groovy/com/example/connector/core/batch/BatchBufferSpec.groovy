@@ -5,6 +5,8 @@ import spock.lang.Specification
 
 import java.time.Duration
 import java.time.Instant
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
 
 class BatchBufferSpec extends Specification {
 
@@ -39,4 +41,145 @@ class BatchBufferSpec extends Specification {
         batch.size() == 2
         buffer.size() == 1
     }
+
+    def "ring-backed buffer drains into a reused list"() {
+        given:
+        def buffer = new BatchBuffer(new MpscRingBatchQueue(16, WaitStrategy.PARK), 2, Duration.ofMillis(10))
+        def batch = new ArrayList<ConnectorMessage>()
+        batch << new ConnectorMessage("stale", "kafka", new byte[0], Map.of(), Instant.now())
+        (1..3).each { buffer.offer(new ConnectorMessage("c$it", "kafka", new byte[0], Map.of(), Instant.now()), 1000) }
+
+        when:
+        def count = buffer.drain(batch)
+
+        then:
+        count == 2
+        batch*.correlationId() == ["c1", "c2"]
+        buffer.size() == 1
+        buffer.remainingCapacity() == 15
+
+        when:
+        buffer.drain(batch)
+        def empty = buffer.drain(batch)
+
+        then:
+        empty == 0
+        batch.isEmpty()
+    }
+
+    def "lingers after the first message until the policy's batch size is reached"() {
+        given:
+        def policy = Stub(BatchPolicy) {
+            batchSize() >> 3
+            lingerNanos() >> TimeUnit.SECONDS.toNanos(5)
+            idleWaitNanos() >> TimeUnit.MILLISECONDS.toNanos(10)
+        }
+        def buffer = new BatchBuffer(BatchQueue.of(new LinkedBlockingQueue<>(10)), policy, null)
+        def batch = new ArrayList<ConnectorMessage>()
+        buffer.offer(message("c1"), 1000)
+
+        when:
+        Thread.start {
+            Thread.sleep(30)
+            buffer.offer(message("c2"), 1000)
+            Thread.sleep(30)
+            buffer.offer(message("c3"), 1000)
+            buffer.offer(message("c4"), 1000)
+        }
+        def count = buffer.drain(batch)
+
+        then:
+        count == 3
+        batch*.correlationId() == ["c1", "c2", "c3"]
+    }
+
+    def "stops lingering when the linger expires"() {
+        given:
+        def policy = Stub(BatchPolicy) {
+            batchSize() >> 10
+            lingerNanos() >> TimeUnit.MILLISECONDS.toNanos(20)
+            idleWaitNanos() >> TimeUnit.MILLISECONDS.toNanos(10)
+        }
+        def buffer = new BatchBuffer(BatchQueue.of(new LinkedBlockingQueue<>(10)), policy, null)
+        buffer.offer(message("c1"), 1000)
+
+        expect:
+        buffer.drain().size() == 1
+    }
+
+    def "returns the partial batch when interrupted while lingering"() {
+        given:
+        def policy = Stub(BatchPolicy) {
+            batchSize() >> 10
+            lingerNanos() >> TimeUnit.SECONDS.toNanos(30)
+            idleWaitNanos() >> TimeUnit.MILLISECONDS.toNanos(10)
+        }
+        def buffer = new BatchBuffer(BatchQueue.of(new LinkedBlockingQueue<>(10)), policy, null)
+        def batch = new ArrayList<ConnectorMessage>()
+        buffer.offer(message("c1"), 1000)
+        buffer.offer(message("c2"), 1000)
+        def drainer = Thread.currentThread()
+
+        when:
+        Thread.start {
+            Thread.sleep(50)
+            drainer.interrupt()
+        }
+        def count = buffer.drain(batch)
+        def interrupted = Thread.interrupted()
+
+        then:
+        count == 2
+        batch*.correlationId() == ["c1", "c2"]
+        interrupted
+    }
+
+    def "reports processed batches to the policy and the observer"() {
+        given:
+        def policy = Mock(BatchPolicy) {
+            batchSize() >> 5
+            lingerNanos() >> 0L
+            idleWaitNanos() >> TimeUnit.MILLISECONDS.toNanos(10)
+        }
+        def samples = []
+        def buffer = new BatchBuffer(BatchQueue.of(new LinkedBlockingQueue<>(10)), policy,
+                { size, linger, processing -> samples << [size, processing] } as BatchObserver)
+        (1..7).each { buffer.offer(message("c$it"), 1000) }
+
+        when:
+        def size = buffer.drain(new ArrayList<ConnectorMessage>())
+        buffer.onProcessed(size, 1234L)
+        buffer.onProcessed(0, 0L)
+
+        then:
+        1 * policy.onBatch(5, { it >= 0 }, 1234L, 2)
+        1 * policy.onBatch(0, _, 0L, 2)
+        samples == [[5, 1234L]]
+        buffer.getPolicy() == policy
+    }
+
+    def "fixed policy rejects an empty batch size"() {
+        when:
+        BatchPolicy.fixed(0, Duration.ofMillis(10))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "commits the queue after a processed batch"() {
+        given:
+        def queue = Mock(BatchQueue)
+        def buffer = new BatchBuffer(queue, 10, Duration.ofMillis(10))
+
+        when:
+        buffer.onProcessed(3, 100L)
+        buffer.onProcessed(0, 0L)
+
+        then:
+        1 * queue.commit()
+    }
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "kafka", new byte[0], Map.of(), Instant.now())
+    }
 }
@@ -0,0 +1,237 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.dispatch.OrderingKeyExtractor
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.MessageHandler
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Path
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class BatchDrainerSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    BatchDrainer drainer
+
+    @TempDir
+    Path dir
+
+    def cleanup() {
+        drainer?.stop()
+    }
+
+    private static ConnectorMessage message(String correlationId, String account = null,
+                                            Instant timestamp = Instant.now()) {
+        new ConnectorMessage(correlationId, "kafka", new byte[0],
+                account != null ? Map.of("X-Account-ID", account) : Map.of(), timestamp)
+    }
+
+    private static BatchBuffer buffer() {
+        new BatchBuffer(10_000, 16, Duration.ofMillis(10))
+    }
+
+    def "single worker hands batches to the current handler"() {
+        given:
+        def received = new CopyOnWriteArrayList<String>()
+        MessageHandler handler = { received << it.correlationId() }
+        drainer = BatchDrainer.single("test", buffer())
+
+        when:
+        drainer.start { handler }
+        drainer.start { handler }
+        (1..5).each { drainer.offer(message("c$it"), 1000) }
+
+        then:
+        drainer.isRunning()
+        drainer.workerCount() == 1
+        conditions.eventually {
+            assert received == ["c1", "c2", "c3", "c4", "c5"]
+            assert drainer.getProcessedCount(0) == 5
+            assert drainer.getBatchCount(0) >= 1
+        }
+    }
+
+    def "competing workers share one queue"() {
+        given:
+        def threads = ConcurrentHashMap.newKeySet()
+        def count = new AtomicInteger()
+        MessageHandler handler = {
+            threads << Thread.currentThread().name
+            Thread.sleep(1)
+            count.incrementAndGet()
+        }
+        drainer = BatchDrainer.competing("test", BatchQueue.of(new LinkedBlockingQueue<>(1000)), 4,
+                { BatchPolicy.fixed(4, Duration.ofMillis(10)) }, null)
+
+        when:
+        drainer.start { handler }
+        200.times { drainer.offer(message("c$it"), 1000) }
+
+        then:
+        conditions.eventually {
+            assert count.get() == 200
+        }
+        threads.size() > 1
+        threads.every { it.startsWith("test-batch-processor-") }
+        (0..3).sum { drainer.getProcessedCount(it) } == 200
+        (0..3).every { drainer.workerFor(message("x$it")) == 0 }
+    }
+
+    def "partitioned workers keep per-key order"() {
+        given:
+        def perAccount = new ConcurrentHashMap<String, List<Integer>>()
+        MessageHandler handler = { m ->
+            perAccount.computeIfAbsent(m.headers()["X-Account-ID"], { new CopyOnWriteArrayList() }) << (m.correlationId() as int)
+        }
+        drainer = BatchDrainer.partitioned("test", [buffer(), buffer(), buffer()], OrderingKeyExtractor.header("X-Account-ID"))
+
+        when:
+        drainer.start { handler }
+        (0..<300).each { drainer.offer(message("$it", "acc-${it % 7}"), 1000) }
+
+        then:
+        conditions.eventually {
+            assert perAccount.values().sum { it.size() } == 300
+        }
+        perAccount.values().every { it == it.sort(false) }
+        drainer.workerFor(message("a", "acc-1")) == drainer.workerFor(message("b", "acc-1"))
+        drainer.workerFor(message("same")) == drainer.workerFor(message("same"))
+    }
+
+    def "tracks lag from the message timestamp and resets it when idle"() {
+        given:
+        def seen = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        MessageHandler handler = { seen.countDown(); release.await() }
+        drainer = BatchDrainer.single("test", buffer())
+        drainer.start { handler }
+
+        when:
+        drainer.offer(message("old", null, Instant.now().minusSeconds(10)), 1000)
+        seen.await()
+
+        then:
+        drainer.getLagMillis(0) >= 10_000
+
+        when:
+        release.countDown()
+
+        then:
+        conditions.eventually {
+            assert drainer.getLagMillis(0) == 0
+        }
+    }
+
+    def "failing messages are counted and do not stop the worker"() {
+        given:
+        MessageHandler handler = { if (it.correlationId() == "bad") throw new IllegalStateException("boom") }
+        drainer = BatchDrainer.single("test", buffer())
+        drainer.start { handler }
+
+        when:
+        ["ok1", "bad", "ok2"].each { drainer.offer(message(it), 1000) }
+
+        then:
+        conditions.eventually {
+            assert drainer.getProcessedCount(0) == 2
+            assert drainer.getFailedCount(0) == 1
+        }
+    }
+
+    def "stop keeps buffered messages for the next start and drains nothing without a handler"() {
+        given:
+        def received = new CopyOnWriteArrayList<String>()
+        MessageHandler handler = null
+        drainer = BatchDrainer.single("test", buffer())
+        drainer.start { handler }
+
+        when:
+        drainer.offer(message("early"), 1000)
+        Thread.sleep(50)
+
+        then: "left queued until a handler is set"
+        drainer.getBacklog(0) == 1
+        drainer.getBatchCount(0) == 0
+
+        when:
+        drainer.stop()
+        drainer.offer(message("kept"), 1000)
+
+        then:
+        !drainer.isRunning()
+        drainer.buffer(0).size() == 2
+
+        when:
+        handler = { received << it.correlationId() }
+        drainer.start { handler }
+
+        then:
+        conditions.eventually {
+            assert received == ["early", "kept"]
+        }
+    }
+
+    def "redelivers a durable batch with a failed message instead of committing past it"() {
+        given:
+        def queue = new MappedFileBatchQueue(dir, 4096, 4)
+        def received = new CopyOnWriteArrayList<String>()
+        def failures = new AtomicInteger()
+        MessageHandler handler = {
+            if (it.correlationId() == "bad" && failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("journal down")
+            }
+            received << it.correlationId()
+        }
+        ["ok", "bad"].each { queue.offer(message(it), 0, TimeUnit.MILLISECONDS) }
+        drainer = BatchDrainer.single("test", new BatchBuffer(queue, 16, Duration.ofMillis(10)))
+
+        when:
+        drainer.start { handler }
+
+        then:
+        conditions.eventually {
+            assert received == ["ok", "ok", "bad"]
+        }
+        drainer.getFailedCount(0) == 1
+
+        when: "the retried batch was committed"
+        drainer.stop()
+        queue.close()
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+
+        then:
+        queue.size() == 0
+
+        cleanup:
+        queue.close()
+    }
+
+    def "rejects invalid configurations"() {
+        when:
+        BatchDrainer.competing("test", new MpscRingBatchQueue(16, WaitStrategy.PARK), 2, { BatchPolicy.fixed(4, Duration.ofMillis(10)) }, null)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        BatchDrainer.competing("test", BatchQueue.of(new LinkedBlockingQueue<>(10)), 0, { BatchPolicy.fixed(4, Duration.ofMillis(10)) }, null)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        BatchDrainer.partitioned("test", [], OrderingKeyExtractor.correlationId())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
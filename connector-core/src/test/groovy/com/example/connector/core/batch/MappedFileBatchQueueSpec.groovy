@@ -0,0 +1,278 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+class MappedFileBatchQueueSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    MappedFileBatchQueue queue
+
+    def cleanup() {
+        queue?.close()
+    }
+
+    private static ConnectorMessage message(String correlationId, int payloadBytes = 10) {
+        new ConnectorMessage(correlationId, "jms", ("x" * payloadBytes).bytes,
+                ["X-Account-ID": "acc-$correlationId".toString()], Instant.ofEpochSecond(1_000, 42))
+    }
+
+    private MappedFileBatchQueue reopen() {
+        queue.close()
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+    }
+
+    def "round-trips messages in order"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<5).each { queue.offer(message("m$it"), 0, TimeUnit.MILLISECONDS) }
+        def batch = []
+
+        when:
+        def first = queue.poll(0, TimeUnit.MILLISECONDS)
+        queue.drainTo(batch, 10)
+
+        then:
+        first.correlationId() == "m0"
+        first.transportType() == "jms"
+        first.payload().length == 10
+        first.headers() == ["X-Account-ID": "acc-m0"]
+        first.timestamp() == Instant.ofEpochSecond(1_000, 42)
+        batch*.correlationId() == ["m1", "m2", "m3", "m4"]
+        queue.size() == 0
+        queue.isSingleConsumer()
+    }
+
+    def "recovers unconsumed messages and redelivers uncommitted ones after a restart"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<20).each { queue.offer(message("m$it", 100), 0, TimeUnit.MILLISECONDS) }
+        queue.drainTo([], 5)
+        queue.commit()
+        queue.poll(0, TimeUnit.MILLISECONDS)
+
+        when:
+        reopen()
+        def rest = []
+        queue.drainTo(rest, 100)
+
+        then:
+        rest.size() == 15
+        rest[0].correlationId() == "m5"
+        rest[-1].correlationId() == "m19"
+    }
+
+    def "falls back to the previous checkpoint when the latest write was torn"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<10).each { queue.offer(message("m$it", 1000), 0, TimeUnit.MILLISECONDS) }
+        queue.drainTo([], 2)
+        queue.commit()
+        queue.drainTo([], 3)
+        queue.close()
+
+        when: "a crash lands after the next checkpoint got its new segment id but nothing else"
+        def channel = FileChannel.open(dir.resolve("checkpoint"), StandardOpenOption.READ, StandardOpenOption.WRITE)
+        def checkpoint = channel.map(FileChannel.MapMode.READ_WRITE, 0, 64)
+        int older = checkpoint.getLong(16) < checkpoint.getLong(48) ? 0 : 32
+        checkpoint.putLong(older, 1L)
+        checkpoint.force()
+        channel.close()
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        def redelivered = []
+        queue.drainTo(redelivered, 100)
+
+        then:
+        redelivered*.correlationId() == (2..<10).collect { "m$it".toString() }
+    }
+
+    def "deletes segments once consumed"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<10).each { queue.offer(message("m$it", 1000), 0, TimeUnit.MILLISECONDS) }
+        def segmentsBefore = segmentFiles().size()
+
+        when:
+        queue.drainTo([], 100)
+        queue.commit()
+
+        then:
+        segmentsBefore > 1
+        segmentFiles().size() == 1
+    }
+
+    def "offer waits while all segments are in use and times out"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 2)
+        while (queue.offer(message("fill", 1000), 0, TimeUnit.MILLISECONDS)) {
+        }
+
+        expect:
+        queue.remainingCapacity() == 0
+        !queue.offer(message("late", 1000), 20, TimeUnit.MILLISECONDS)
+
+        when: "draining alone frees nothing; the commit after processing does"
+        Thread.start {
+            Thread.sleep(50)
+            queue.drainTo([], 100)
+            Thread.sleep(50)
+            queue.commit()
+        }
+
+        then:
+        queue.offer(message("late", 1000), 5, TimeUnit.SECONDS)
+    }
+
+    def "keeps a segment read mid-batch until the batch is committed"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<10).each { queue.offer(message("m$it", 1000), 0, TimeUnit.MILLISECONDS) }
+        def segmentsBefore = segmentFiles().size()
+
+        when: "the batch spans segments but is not processed before a crash"
+        queue.drainTo([], 6)
+        def segmentsAfterDrain = segmentFiles().size()
+        reopen()
+        def redelivered = []
+        queue.drainTo(redelivered, 100)
+
+        then:
+        segmentsAfterDrain == segmentsBefore
+        redelivered*.correlationId() == (0..<10).collect { "m$it".toString() }
+    }
+
+    def "rollback hands out everything since the last commit again"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        (0..<10).each { queue.offer(message("m$it", 1000), 0, TimeUnit.MILLISECONDS) }
+        queue.drainTo([], 2)
+        queue.commit()
+        queue.drainTo([], 5)
+
+        when:
+        def rolledBack = queue.rollback()
+        def again = []
+        queue.drainTo(again, 100)
+
+        then:
+        rolledBack
+        again*.correlationId() == (2..<10).collect { "m$it".toString() }
+        queue.size() == 0
+    }
+
+    def "poll waits for a producer and times out when empty"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 2)
+
+        expect:
+        queue.poll(10, TimeUnit.MILLISECONDS) == null
+
+        when:
+        Thread.start {
+            Thread.sleep(50)
+            queue.offer(message("w"), 0, TimeUnit.MILLISECONDS)
+        }
+
+        then:
+        queue.poll(5, TimeUnit.SECONDS).correlationId() == "w"
+    }
+
+    def "stops recovery at a torn record"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        queue.offer(message("a"), 0, TimeUnit.MILLISECONDS)
+        queue.offer(message("b"), 0, TimeUnit.MILLISECONDS)
+        queue.close()
+        def segment = segmentFiles()[-1]
+        byte[] bytes = Files.readAllBytes(segment)
+        bytes[new String(bytes, StandardCharsets.ISO_8859_1).lastIndexOf("acc-b")] = (byte) 'X'
+        Files.write(segment, bytes)
+
+        when:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        queue.offer(message("c"), 0, TimeUnit.MILLISECONDS)
+        def recovered = []
+        queue.drainTo(recovered, 10)
+
+        then:
+        recovered*.correlationId() == ["a", "c"]
+    }
+
+    def "seals a segment left open by a crash while rolling"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        queue.offer(message("r1"), 0, TimeUnit.MILLISECONDS)
+        queue.close()
+        Files.write(dir.resolve(String.format("%020d.seg", 1L)), new byte[4096])
+
+        when:
+        queue = new MappedFileBatchQueue(dir, 4096, 4)
+        queue.offer(message("r2"), 0, TimeUnit.MILLISECONDS)
+        queue.sync()
+
+        then:
+        queue.size() == 2
+        queue.poll(0, TimeUnit.MILLISECONDS).correlationId() == "r1"
+        queue.poll(0, TimeUnit.MILLISECONDS).correlationId() == "r2"
+    }
+
+    def "rejects messages larger than a segment and invalid sizes"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 2)
+
+        when:
+        queue.offer(message("big", 5000), 0, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        new MappedFileBatchQueue(dir.resolve("other"), 512, 2)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private List<Path> segmentFiles() {
+        Files.list(dir).withCloseable { files ->
+            files.filter { it.fileName.toString().endsWith(".seg") }.sorted().toList()
+        }
+    }
+
+    def "releases a pooled body once its record is written, and keeps it when the offer times out"() {
+        given:
+        queue = new MappedFileBatchQueue(dir, 4096, 2)
+        def pool = BufferPool.builder().build()
+        def body = pool.acquire(3000)
+        System.arraycopy(("y" * 3000).bytes, 0, body.array(), 0, 3000)
+
+        when:
+        def accepted = queue.offer(new ConnectorMessage("p1", "jms", body, Map.of(), Instant.EPOCH), 0, TimeUnit.MILLISECONDS)
+
+        then:
+        accepted
+        body.refCount() == 0
+        queue.poll(0, TimeUnit.MILLISECONDS).payload() == ("y" * 3000).bytes
+
+        when: "the second record takes the last segment, the third finds none free"
+        queue.offer(new ConnectorMessage("p2", "jms", pool.acquire(3000), Map.of(), Instant.EPOCH), 0, TimeUnit.MILLISECONDS)
+        def late = pool.acquire(3000)
+        def rejected = !queue.offer(new ConnectorMessage("p3", "jms", late, Map.of(), Instant.EPOCH), 0, TimeUnit.MILLISECONDS)
+
+        then:
+        rejected
+        late.refCount() == 1
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.time.Instant
+
+class MessageCodecSpec extends Specification {
+
+    def "round-trips every field including null header values and unicode"() {
+        given:
+        def headers = new HashMap<String, String>(["X-Account-ID": "acc-é", "empty": null])
+        def message = new ConnectorMessage("corr-✓", "kafka", [1, 2, 3] as byte[], headers, Instant.ofEpochSecond(1_700_000_000, 123_456_789))
+
+        when:
+        def decoded = MessageCodec.decode(ByteBuffer.wrap(MessageCodec.encode(message)))
+
+        then:
+        decoded.correlationId() == "corr-✓"
+        decoded.transportType() == "kafka"
+        decoded.payload() == [1, 2, 3] as byte[]
+        decoded.headers() == headers
+        decoded.timestamp() == message.timestamp()
+    }
+
+    def "round-trips an empty message"() {
+        given:
+        def message = new ConnectorMessage("c", "jms", null, null, Instant.EPOCH)
+
+        when:
+        def decoded = MessageCodec.decode(ByteBuffer.wrap(MessageCodec.encode(message)))
+
+        then:
+        decoded.payload().length == 0
+        decoded.headers().isEmpty()
+        decoded.timestamp() == Instant.EPOCH
+    }
+
+    def "round-trips a timestamp before the epoch"() {
+        given:
+        def timestamp = Instant.parse("1969-12-31T23:59:59.000000001Z")
+
+        expect:
+        MessageCodec.decode(ByteBuffer.wrap(MessageCodec.encode(
+                new ConnectorMessage("c", "jms", null, null, timestamp)))).timestamp() == timestamp
+    }
+
+    def "encodes only the bytes of a sliced or direct body and decodes into its own array"() {
+        given:
+        def direct = ByteBuffer.allocateDirect(8).put("[body]".bytes).flip()
+        def message = new ConnectorMessage("c", "jms", Payload.wrap(direct).slice(1, 4), Map.of(), Instant.EPOCH)
+        def encoded = ByteBuffer.wrap(MessageCodec.encode(message))
+
+        when:
+        def decoded = MessageCodec.decode(encoded)
+        encoded.put(0, new byte[encoded.capacity()])
+
+        then:
+        encoded.capacity() == 8 + 4 + 4 + 1 + 4 + 3 + 4 + 4 + 4
+        new String(decoded.payload()) == "body"
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class MpscRingBatchQueueSpec extends Specification {
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "jms", new byte[0], Map.of(), Instant.now())
+    }
+
+    def "rounds capacity up to a power of two"() {
+        expect:
+        new MpscRingBatchQueue(requested, WaitStrategy.SPIN).capacity() == expected
+
+        where:
+        requested | expected
+        1         | 1
+        3         | 4
+        8         | 8
+        1000      | 1024
+    }
+
+    def "delivers in FIFO order and drains up to the limit"() {
+        given:
+        def queue = new MpscRingBatchQueue(8, WaitStrategy.YIELD)
+        (1..5).each { queue.offer(message("c$it"), 0, TimeUnit.MILLISECONDS) }
+        def batch = []
+
+        when:
+        def first = queue.poll(10, TimeUnit.MILLISECONDS)
+        def moved = queue.drainTo(batch, 3)
+
+        then:
+        first.correlationId() == "c1"
+        moved == 3
+        batch*.correlationId() == ["c2", "c3", "c4"]
+        queue.size() == 1
+        queue.remainingCapacity() == 7
+    }
+
+    def "offer times out when full and succeeds once space frees"() {
+        given:
+        def queue = new MpscRingBatchQueue(2, WaitStrategy.SPIN)
+        queue.offer(message("c1"), 0, TimeUnit.MILLISECONDS)
+        queue.offer(message("c2"), 0, TimeUnit.MILLISECONDS)
+
+        expect:
+        !queue.offer(message("c3"), 20, TimeUnit.MILLISECONDS)
+
+        when:
+        queue.poll(0, TimeUnit.MILLISECONDS)
+
+        then:
+        queue.offer(message("c3"), 0, TimeUnit.MILLISECONDS)
+    }
+
+    def "poll returns null after the timeout when empty"() {
+        expect:
+        new MpscRingBatchQueue(4, strategy).poll(5, TimeUnit.MILLISECONDS) == null
+
+        where:
+        strategy << WaitStrategy.values()
+    }
+
+    def "parked consumer is woken by a producer"() {
+        given:
+        def queue = new MpscRingBatchQueue(4, WaitStrategy.PARK)
+
+        when:
+        Thread.startVirtualThread {
+            Thread.sleep(50)
+            queue.offer(message("late"), 0, TimeUnit.MILLISECONDS)
+        }
+        def started = System.nanoTime()
+        def received = queue.poll(5, TimeUnit.SECONDS)
+
+        then:
+        received.correlationId() == "late"
+        System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2)
+    }
+
+    def "concurrent producers lose and duplicate nothing"() {
+        given:
+        def queue = new MpscRingBatchQueue(64, strategy)
+        def producers = 4
+        def perProducer = 5000
+        def done = new CountDownLatch(producers)
+        def seen = new HashSet<String>()
+
+        when:
+        producers.times { p ->
+            Thread.start {
+                perProducer.times { i -> assert queue.offer(message("p$p-$i"), 5, TimeUnit.SECONDS) }
+                done.countDown()
+            }
+        }
+        while (seen.size() < producers * perProducer) {
+            def m = queue.poll(5, TimeUnit.SECONDS)
+            assert m != null
+            assert seen.add(m.correlationId())
+        }
+
+        then:
+        done.await(5, TimeUnit.SECONDS)
+        queue.size() == 0
+
+        where:
+        strategy << WaitStrategy.values()
+    }
+
+    def "offer on a full ring honours interruption"() {
+        given:
+        def queue = new MpscRingBatchQueue(1, WaitStrategy.SPIN)
+        queue.offer(message("c1"), 0, TimeUnit.MILLISECONDS)
+        Thread.currentThread().interrupt()
+
+        when:
+        queue.offer(message("c2"), 1, TimeUnit.SECONDS)
+
+        then:
+        thrown(InterruptedException)
+    }
+
+    def "rejects invalid capacity and null messages"() {
+        when:
+        new MpscRingBatchQueue(0, WaitStrategy.SPIN)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        new MpscRingBatchQueue(2, WaitStrategy.SPIN).offer(null, 0, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(NullPointerException)
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.time.Instant
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class OverflowBatchQueueSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    MappedFileBatchQueue disk
+    OverflowBatchQueue queue
+
+    def setup() {
+        disk = new MappedFileBatchQueue(dir, 1 << 20, 4)
+        queue = new OverflowBatchQueue(BatchQueue.of(new LinkedBlockingQueue<>(3)), disk)
+    }
+
+    def cleanup() {
+        disk.close()
+    }
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "jms", new byte[0], Map.of(), Instant.now())
+    }
+
+    def "spills to disk instead of blocking and keeps arrival order"() {
+        when:
+        (0..<10).each { assert queue.offer(message("o$it"), 0, TimeUnit.MILLISECONDS) }
+
+        then:
+        queue.getSpilledCount() == 7
+        queue.size() == 10
+        disk.size() == 7
+        queue.isSingleConsumer()
+        queue.remainingCapacity() > 0
+
+        when:
+        def batch = [queue.poll(0, TimeUnit.MILLISECONDS)]
+        queue.drainTo(batch, 4)
+        queue.offer(message("o10"), 0, TimeUnit.MILLISECONDS)
+        queue.drainTo(batch, 100)
+        queue.commit()
+
+        then: "o10 follows the spilled messages although memory had room"
+        batch*.correlationId() == (0..10).collect { "o$it".toString() }
+    }
+
+    def "returns to memory once the overflow is drained"() {
+        given:
+        (0..<5).each { queue.offer(message("o$it"), 0, TimeUnit.MILLISECONDS) }
+        queue.drainTo([], 100)
+
+        when:
+        queue.offer(message("back"), 0, TimeUnit.MILLISECONDS)
+
+        then:
+        disk.size() == 0
+        queue.poll(0, TimeUnit.MILLISECONDS).correlationId() == "back"
+        queue.poll(10, TimeUnit.MILLISECONDS) == null
+    }
+
+    def "takes spilled messages when memory is empty"() {
+        given:
+        def memory = Mock(BatchQueue)
+        queue = new OverflowBatchQueue(memory, disk)
+        disk.offer(message("spilled"), 0, TimeUnit.MILLISECONDS)
+
+        when:
+        def taken = queue.poll(0, TimeUnit.MILLISECONDS)
+
+        then:
+        taken.correlationId() == "spilled"
+        1 * memory.poll(0, TimeUnit.NANOSECONDS) >> null
+    }
+
+    def "counts a message as spilled only when the overflow took it"() {
+        given:
+        def full = Mock(BatchQueue)
+        queue = new OverflowBatchQueue(BatchQueue.of(new LinkedBlockingQueue<>(1)), full)
+        queue.offer(message("m0"), 0, TimeUnit.MILLISECONDS)
+
+        when:
+        def accepted = queue.offer(message("m1"), 10, TimeUnit.MILLISECONDS)
+
+        then:
+        _ * full.size() >> 0
+        1 * full.offer(_, 10, TimeUnit.MILLISECONDS) >> false
+        !accepted
+        queue.getSpilledCount() == 0
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.connector.core.batch
+
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+class WeightedFairBatchQueueSpec extends Specification {
+
+    def queue = WeightedFairBatchQueue.builder(LaneClassifier.priorityThenTenant("X-Priority", "urgent", "urgent", "X-Tenant-ID"))
+            .urgentLane("urgent", 10)
+            .lane("payments", 8, 1000)
+            .lane("bulk", 1, 1000)
+            .defaultLane("bulk")
+            .build()
+
+    private static ConnectorMessage message(String correlationId, Map<String, String> headers = [:]) {
+        new ConnectorMessage(correlationId, "jms", new byte[0], headers, Instant.now())
+    }
+
+    private void offer(String correlationId, Map<String, String> headers = [:]) {
+        assert queue.offer(message(correlationId, headers), 0, TimeUnit.MILLISECONDS)
+    }
+
+    def "serves backlogged lanes in proportion to their weights"() {
+        given:
+        500.times { offer("b$it", ["X-Tenant-ID": "bulk"]) }
+        500.times { offer("p$it", ["X-Tenant-ID": "payments"]) }
+        def batch = []
+
+        when:
+        queue.drainTo(batch, 90)
+
+        then:
+        batch.countBy { it.correlationId()[0] } == [p: 80, b: 10]
+        batch.findAll { it.correlationId().startsWith("p") }*.correlationId() == (0..<80).collect { "p$it".toString() }
+    }
+
+    def "serves the urgent lane first"() {
+        given:
+        5.times { offer("b$it", ["X-Tenant-ID": "bulk"]) }
+        queue.poll(0, TimeUnit.MILLISECONDS)
+        offer("u1", ["X-Priority": "URGENT"])
+
+        expect:
+        queue.poll(0, TimeUnit.MILLISECONDS).correlationId() == "u1"
+        queue.getDequeuedCount("urgent") == 1
+    }
+
+    def "routes unclassified and unknown lanes to the default lane"() {
+        when:
+        offer("none")
+        offer("other", ["X-Tenant-ID": "unknown"])
+
+        then:
+        queue.laneDepth("bulk") == 2
+        queue.size() == 2
+        queue.laneNames() == ["urgent", "payments", "bulk"]
+    }
+
+    def "an idle lane does not bank credit"() {
+        given: "payments idles through several bulk rounds"
+        20.times { offer("b$it", ["X-Tenant-ID": "bulk"]) }
+        queue.drainTo([], 10)
+        20.times { offer("p$it", ["X-Tenant-ID": "payments"]) }
+        def batch = []
+
+        when:
+        queue.drainTo(batch, 9)
+
+        then:
+        batch.count { it.correlationId().startsWith("p") } <= 8
+    }
+
+    def "a full lane applies back pressure only to its own producers"() {
+        given:
+        def small = WeightedFairBatchQueue.builder(LaneClassifier.header("X-Tenant-ID"))
+                .lane("a", 1, 2)
+                .lane("b", 1, 2)
+                .build()
+        2.times { small.offer(message("a$it", ["X-Tenant-ID": "a"]), 0, TimeUnit.MILLISECONDS) }
+
+        expect:
+        !small.offer(message("a2", ["X-Tenant-ID": "a"]), 10, TimeUnit.MILLISECONDS)
+        small.getRejectedCount("a") == 1
+        small.offer(message("b0", ["X-Tenant-ID": "b"]), 0, TimeUnit.MILLISECONDS)
+        small.remainingCapacity() == 1
+        small.laneDepth("a") == 2
+    }
+
+    def "poll waits for a producer and times out when empty"() {
+        expect:
+        queue.poll(10, TimeUnit.MILLISECONDS) == null
+        queue.isSingleConsumer()
+
+        when:
+        Thread.start {
+            Thread.sleep(50)
+            offer("late", ["X-Tenant-ID": "payments"])
+        }
+
+        then:
+        queue.poll(5, TimeUnit.SECONDS).correlationId() == "late"
+        queue.size() == 0
+    }
+
+    def "rejects invalid configurations"() {
+        when:
+        builder.build()
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        builder << [
+                WeightedFairBatchQueue.builder(LaneClassifier.header("T")),
+                WeightedFairBatchQueue.builder(LaneClassifier.header("T")).lane("a", 1, 1).lane("a", 2, 1),
+                WeightedFairBatchQueue.builder(LaneClassifier.header("T")).urgentLane("a", 1).lane("a", 1, 1),
+                WeightedFairBatchQueue.builder(LaneClassifier.header("T")).lane("a", 1, 1).defaultLane("b"),
+        ]
+    }
+
+    def "rejects a zero weight and unknown lane lookups"() {
+        when:
+        WeightedFairBatchQueue.builder(LaneClassifier.header("T")).lane("a", 0, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        queue.laneDepth("missing")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
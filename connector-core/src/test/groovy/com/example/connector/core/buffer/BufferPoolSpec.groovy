@@ -0,0 +1,158 @@
+package com.example.connector.core.buffer
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class BufferPoolSpec extends Specification {
+
+    def "rounds requests up to a power-of-two size class"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 4096).build()
+
+        expect:
+        pool.acquire(size).array().length == capacity
+
+        where:
+        size | capacity
+        0    | 512
+        1    | 512
+        512  | 512
+        513  | 1024
+        2048 | 2048
+        4096 | 4096
+    }
+
+    def "reuses released arrays of the same class"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 4096).build()
+        def first = pool.acquire(700)
+        def array = first.array()
+
+        when:
+        first.release()
+        def second = pool.acquire(1000)
+
+        then:
+        second.array().is(array)
+        second.size() == 1000
+        pool.getAllocatedCount() == 1
+        pool.getReusedCount() == 1
+        pool.getOutstandingCount() == 1
+        pool.getPooledCount() == 0
+    }
+
+    def "serves oversized requests with unpooled arrays"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 1024).build()
+
+        when:
+        def big = pool.acquire(5000)
+        def length = big.array().length
+        big.release()
+
+        then:
+        length == 5000
+        pool.getAllocatedCount() == 1
+        pool.getOutstandingCount() == 0
+        pool.getPooledCount() == 0
+        pool.getMaxBufferSize() == 1024
+    }
+
+    def "keeps at most maxBuffersPerClass free arrays"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 512).maxBuffersPerClass(2).build()
+        def payloads = (1..3).collect { pool.acquire(10) }
+
+        when:
+        payloads*.release()
+
+        then:
+        pool.getPooledCount() == 2
+        pool.getOutstandingCount() == 0
+    }
+
+    def "rejects invalid configuration and sizes"() {
+        when:
+        BufferPool.builder().bufferSizes(min, max)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        min  | max
+        500  | 1024
+        512  | 1000
+        2048 | 1024
+    }
+
+    def "rejects a negative size and an empty class limit"() {
+        when:
+        BufferPool.builder().build().acquire(-1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        BufferPool.builder().maxBuffersPerClass(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "counts payloads collected without release when leak detection is on"() {
+        given:
+        def pool = BufferPool.builder().leakDetection(true).build()
+        pool.acquire(16).release()
+        acquireAndDrop(pool)
+
+        expect:
+        pool.isLeakDetectionEnabled()
+        !BufferPool.builder().build().isLeakDetectionEnabled()
+        new PollingConditions(timeout: 10).eventually {
+            System.gc()
+            assert pool.getLeakCount() == 1
+        }
+        pool.getOutstandingCount() == 0
+    }
+
+    def "hands out distinct arrays to concurrent borrowers"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 512).build()
+        def executor = Executors.newFixedThreadPool(8)
+        def start = new CountDownLatch(1)
+        def corrupted = Collections.synchronizedList([])
+
+        when:
+        def futures = (0..<8).collect { int worker ->
+            executor.submit {
+                start.await()
+                1000.times {
+                    def payload = pool.acquire(64)
+                    Arrays.fill(payload.array(), 0, 64, (byte) worker)
+                    Thread.yield()
+                    if (payload.bytes().any { it != (byte) worker }) {
+                        corrupted << worker
+                    }
+                    payload.release()
+                }
+            }
+        }
+        start.countDown()
+        futures*.get()
+
+        then:
+        corrupted.isEmpty()
+        pool.getOutstandingCount() == 0
+        pool.getAllocatedCount() <= 8
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    private static void acquireAndDrop(BufferPool pool) {
+        pool.acquire(16)
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.connector.core.buffer
+
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class FilePayloadSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    PayloadSpool spool
+
+    def setup() {
+        spool = new PayloadSpool(dir, 0)
+    }
+
+    private FilePayload spooled(String text) {
+        spool.spool(new ByteArrayInputStream(text.bytes))
+    }
+
+    def "reads the spooled bytes through an off-heap view"() {
+        given:
+        def payload = spooled("hello")
+
+        expect:
+        payload.size() == 5
+        payload.asReadOnlyBuffer().isReadOnly()
+        payload.asReadOnlyBuffer().isDirect()
+        payload.asReadOnlyBuffer().remaining() == 5
+        payload.openStream().readAllBytes() == "hello".bytes
+        payload.refCount() == 1
+        payload.toString() == "FilePayload[5 bytes, ${payload.file().fileName}]"
+    }
+
+    def "writes to a stream in chunks larger than one copy buffer"() {
+        given:
+        def content = new byte[20_000]
+        new Random(7).nextBytes(content)
+        def payload = spool.spool(new ByteArrayInputStream(content))
+        def out = new ByteArrayOutputStream()
+
+        when:
+        payload.writeTo(out)
+
+        then:
+        out.toByteArray() == content
+        payload.bytes() == content
+    }
+
+    def "slices are views of the mapping"() {
+        given:
+        def payload = spooled("hello world")
+
+        when:
+        def slice = payload.slice(6, 5)
+
+        then:
+        new String(slice.bytes()) == "world"
+        slice.asReadOnlyBuffer().isDirect()
+    }
+
+    def "compares by content with other payloads"() {
+        given:
+        def payload = spooled("hello")
+
+        expect:
+        payload == payload
+        payload == Payload.of("hello".bytes)
+        payload.hashCode() == Payload.of("hello".bytes).hashCode()
+        payload != Payload.of("hellO".bytes)
+        payload != Payload.of("hell".bytes)
+        payload != "hello"
+    }
+
+    def "deletes the file on the last release only"() {
+        given:
+        def payload = spooled("hello")
+
+        when:
+        payload.retain()
+        payload.release()
+
+        then:
+        payload.refCount() == 1
+        Files.exists(payload.file())
+
+        when:
+        payload.release()
+
+        then:
+        payload.refCount() == 0
+        !Files.exists(payload.file())
+        spool.getActiveFiles() == 0
+    }
+
+    def "rejects reads, retains and releases after the last release"() {
+        given:
+        def payload = spooled("hello")
+        payload.release()
+
+        when:
+        action(payload)
+
+        then:
+        thrown(IllegalStateException)
+        payload.refCount() == 0
+
+        where:
+        action << [
+                { FilePayload p -> p.asReadOnlyBuffer() },
+                { FilePayload p -> p.bytes() },
+                { FilePayload p -> p.slice(0, 1) },
+                { FilePayload p -> p.openStream() },
+                { FilePayload p -> p.writeTo(new ByteArrayOutputStream()) },
+                { FilePayload p -> p.retain() },
+                { FilePayload p -> p.release() }
+        ]
+    }
+
+    def "tolerates the file having been removed already"() {
+        given:
+        def payload = spooled("hello")
+        Files.delete(payload.file())
+
+        when:
+        payload.release()
+
+        then:
+        noExceptionThrown()
+        spool.getActiveFiles() == 0
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.connector.core.buffer
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.io.UncheckedIOException
+import java.nio.file.Files
+import java.nio.file.Path
+
+class PayloadSpoolSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "spools bodies above the threshold or of unknown length"() {
+        given:
+        def spool = new PayloadSpool(dir, 1024)
+
+        expect:
+        !spool.shouldSpool(0)
+        !spool.shouldSpool(1024)
+        spool.shouldSpool(1025)
+        spool.shouldSpool(-1)
+        spool.getThresholdBytes() == 1024
+        spool.getDirectory() == dir
+    }
+
+    def "streams the input to a file in the spool directory and tracks it until released"() {
+        given:
+        def spool = new PayloadSpool(dir, 0)
+
+        when:
+        def payload = spool.spool(new ByteArrayInputStream("hello".bytes))
+
+        then:
+        payload.file().parent == dir
+        payload.file().fileName.toString().endsWith(".spool")
+        Files.size(payload.file()) == 5
+        new String(payload.bytes()) == "hello"
+        spool.getSpooledCount() == 1
+        spool.getActiveFiles() == 1
+        spool.getActiveBytes() == 5
+
+        when:
+        payload.release()
+
+        then:
+        !Files.exists(payload.file())
+        spool.getActiveFiles() == 0
+        spool.getActiveBytes() == 0
+        spool.getSpooledCount() == 1
+    }
+
+    def "spools an empty body"() {
+        given:
+        def spool = new PayloadSpool(dir, 0)
+
+        when:
+        def payload = spool.spool(new ByteArrayInputStream(new byte[0]))
+
+        then:
+        payload.size() == 0
+        payload.isEmpty()
+        payload.bytes().length == 0
+    }
+
+    def "removes the file when reading the input fails"() {
+        given:
+        def spool = new PayloadSpool(dir, 0)
+        def broken = new InputStream() {
+            @Override
+            int read() throws IOException {
+                throw new IOException("reset")
+            }
+        }
+
+        when:
+        spool.spool(broken)
+
+        then:
+        thrown(IOException)
+        Files.list(dir).withCloseable { it.count() } == 0
+        spool.getActiveFiles() == 0
+        spool.getSpooledCount() == 0
+    }
+
+    def "deletes spool files left by a previous run but keeps other files"() {
+        given:
+        Files.writeString(dir.resolve("payload-1.spool"), "stale")
+        Files.writeString(dir.resolve("notes.txt"), "keep")
+
+        when:
+        new PayloadSpool(dir, 0)
+
+        then:
+        !Files.exists(dir.resolve("payload-1.spool"))
+        Files.exists(dir.resolve("notes.txt"))
+    }
+
+    def "creates a missing directory"() {
+        when:
+        def spool = new PayloadSpool(dir.resolve("nested/spool"), 0)
+
+        then:
+        Files.isDirectory(spool.getDirectory())
+    }
+
+    def "rejects a negative threshold and an unusable directory"() {
+        when:
+        new PayloadSpool(dir, -1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        def file = Files.writeString(dir.resolve("file"), "x")
+        new PayloadSpool(file, 0)
+
+        then:
+        thrown(UncheckedIOException)
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.connector.core.buffer
+
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+
+class PooledPayloadSpec extends Specification {
+
+    def pool = BufferPool.builder().bufferSizes(512, 4096).build()
+
+    private PooledPayload filled(String text) {
+        def payload = pool.acquire(text.length())
+        System.arraycopy(text.bytes, 0, payload.array(), 0, text.length())
+        payload
+    }
+
+    def "exposes only the requested bytes of the pooled array"() {
+        given:
+        def payload = filled("hello")
+
+        expect:
+        payload.size() == 5
+        payload.arrayOffset() == 0
+        payload.array().length == 512
+        payload.asReadOnlyBuffer().remaining() == 5
+        payload.asReadOnlyBuffer().isReadOnly()
+        payload.openStream().readAllBytes() == "hello".bytes
+        payload.refCount() == 1
+        payload.toString() == "PooledPayload[5 bytes, refs=1]"
+    }
+
+    def "copies on bytes so arrays handed out never alias pooled storage"() {
+        given:
+        def payload = filled("hello")
+
+        when:
+        def bytes = payload.bytes()
+        payload.array()[0] = (byte) 'j'
+
+        then:
+        new String(bytes) == "hello"
+        !bytes.is(payload.array())
+        new String(payload.bytes()) == "jello"
+    }
+
+    def "writes its content to a stream"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        filled("[body]").slice(1, 4).writeTo(out)
+
+        then:
+        new String(out.toByteArray()) == "body"
+    }
+
+    def "returns the array to the pool after the last release"() {
+        given:
+        def payload = filled("hello")
+
+        when:
+        payload.retain()
+        payload.release()
+
+        then:
+        payload.refCount() == 1
+        pool.getPooledCount() == 0
+
+        when:
+        payload.release()
+
+        then:
+        payload.refCount() == 0
+        pool.getPooledCount() == 1
+        pool.getOutstandingCount() == 0
+    }
+
+    def "slices share the reference count and storage"() {
+        given:
+        def payload = filled("[hello]")
+
+        when:
+        def slice = payload.slice(1, 5).retain()
+        payload.release()
+
+        then:
+        new String(slice.bytes()) == "hello"
+        ((PooledPayload) slice).arrayOffset() == 1
+        pool.getPooledCount() == 0
+
+        when:
+        slice.release()
+
+        then:
+        pool.getPooledCount() == 1
+    }
+
+    def "refuses to be read or retained after release"() {
+        given:
+        def payload = filled("hello")
+        payload.release()
+
+        when:
+        action(payload)
+
+        then:
+        thrown(IllegalStateException)
+
+        where:
+        action << [
+                { PooledPayload p -> p.bytes() },
+                { PooledPayload p -> p.asReadOnlyBuffer() },
+                { PooledPayload p -> p.array() },
+                { PooledPayload p -> p.slice(0, 1) },
+                { PooledPayload p -> p.openStream() },
+                { PooledPayload p -> p.writeTo(new ByteArrayOutputStream()) },
+                { PooledPayload p -> p.retain() },
+                { PooledPayload p -> p.release() }
+        ]
+    }
+
+    def "a double release does not corrupt the count"() {
+        given:
+        def payload = filled("hello")
+        payload.release()
+
+        when:
+        payload.release()
+
+        then:
+        thrown(IllegalStateException)
+        payload.refCount() == 0
+        pool.getPooledCount() == 1
+    }
+
+    def "compares by content with other payloads"() {
+        given:
+        def payload = filled("abc")
+
+        expect:
+        payload == Payload.of("abc".bytes)
+        Payload.of("abc".bytes) == payload
+        payload.hashCode() == Payload.of("abc".bytes).hashCode()
+        payload == payload
+        payload != filled("abd")
+        payload != "abc"
+    }
+}
@@ -57,4 +57,39 @@ class CorrelationIdSpec extends Specification {
         expect:
         CorrelationId.getHeaderName() == "X-Correlation-ID"
     }
+
+    def "generates time-ordered IDs by default"() {
+        expect:
+        CorrelationId.getGenerator() instanceof TimeOrderedIdGenerator
+        UUID.fromString(CorrelationId.generate()).version() == 7
+    }
+
+    def "uses the installed generator"() {
+        given:
+        def previous = CorrelationId.getGenerator()
+
+        when:
+        CorrelationId.setGenerator({ "fixed-id" } as CorrelationIdGenerator)
+
+        then:
+        CorrelationId.generate() == "fixed-id"
+        CorrelationId.fromHeadersOrGenerate(null) == "fixed-id"
+
+        when:
+        CorrelationId.setGenerator(CorrelationIdGenerator.RANDOM)
+
+        then:
+        UUID.fromString(CorrelationId.generate()).version() == 4
+
+        cleanup:
+        CorrelationId.setGenerator(previous)
+    }
+
+    def "rejects a null generator"() {
+        when:
+        CorrelationId.setGenerator(null)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
 }
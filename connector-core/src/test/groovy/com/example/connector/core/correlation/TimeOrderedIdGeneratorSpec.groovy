@@ -0,0 +1,84 @@
+package com.example.connector.core.correlation
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class TimeOrderedIdGeneratorSpec extends Specification {
+
+    def "generates version 7 UUIDs carrying the clock's milliseconds"() {
+        given:
+        def generator = new TimeOrderedIdGenerator({ 1_700_000_000_123L })
+
+        when:
+        def id = UUID.fromString(generator.generate())
+
+        then:
+        id.version() == 7
+        id.variant() == 2
+        TimeOrderedIdGenerator.timestampMillis(id) == 1_700_000_000_123L
+    }
+
+    def "IDs from one thread sort in creation order as strings"() {
+        given:
+        def generator = new TimeOrderedIdGenerator()
+
+        when:
+        def ids = (1..10_000).collect { generator.generate() }
+
+        then:
+        ids == ids.toSorted()
+        ids.toSet().size() == ids.size()
+    }
+
+    def "advances the timestamp when the counter runs out within one millisecond"() {
+        given:
+        def generator = new TimeOrderedIdGenerator({ 1000L })
+
+        when:
+        def ids = (1..5000).collect { generator.next() }
+
+        then:
+        ids == ids.toSorted()
+        TimeOrderedIdGenerator.timestampMillis(ids.first()) == 1000L
+        TimeOrderedIdGenerator.timestampMillis(ids.last()) == 1001L
+    }
+
+    def "stays ordered when the clock steps back"() {
+        given:
+        def times = [5000L, 4000L, 4000L, 6000L].iterator()
+        def generator = new TimeOrderedIdGenerator({ times.next() })
+
+        when:
+        def ids = (1..4).collect { generator.next() }
+
+        then:
+        ids == ids.toSorted()
+        ids.collect { TimeOrderedIdGenerator.timestampMillis(it) } == [5000L, 5000L, 5000L, 6000L]
+    }
+
+    def "threads generate distinct IDs"() {
+        given:
+        def generator = new TimeOrderedIdGenerator()
+        def pool = Executors.newFixedThreadPool(4)
+
+        when:
+        def futures = (1..4).collect { pool.submit({ (1..5000).collect { generator.generate() } } as Callable) }
+        def ids = futures.collectMany { it.get() }
+
+        then:
+        ids.toSet().size() == 20_000
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "reads the timestamp only from version 7 UUIDs"() {
+        when:
+        TimeOrderedIdGenerator.timestampMillis(UUID.randomUUID())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
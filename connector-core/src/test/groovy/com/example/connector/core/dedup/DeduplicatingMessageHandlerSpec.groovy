@@ -0,0 +1,114 @@
+package com.example.connector.core.dedup
+
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.MessageHandler
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.RejectedExecutionException
+
+class DeduplicatingMessageHandlerSpec extends Specification {
+
+    def handled = []
+    def delegate = { ConnectorMessage msg -> handled << msg.correlationId() } as MessageHandler
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "kafka", "data".bytes, Map.of(), Instant.now())
+    }
+
+    def "drops redelivered messages and passes new ones"() {
+        given:
+        def handler = new DeduplicatingMessageHandler(
+                new RotatingBloomFilter(1000, 0.01, Duration.ofMinutes(10)), new LruDuplicateConfirmer(1000), delegate)
+
+        when:
+        handler.handle(message("c1"))
+        handler.handle(message("c2"))
+        handler.handle(message("c1"))
+
+        then:
+        handled == ["c1", "c2"]
+        handler.getDroppedCount() == 1
+    }
+
+    def "bloom hit not confirmed is counted as false positive and passed on"() {
+        given: "a filter so small every lookup after the first insert hits"
+        def tiny = new RotatingBloomFilter(1, 0.5, Duration.ofMinutes(10))
+        def handler = new DeduplicatingMessageHandler(tiny, { String key -> false } as DuplicateConfirmer, delegate)
+
+        when:
+        (0..<50).each { handler.handle(message("c$it".toString())) }
+
+        then:
+        handled.size() == 50
+        handler.getFalsePositiveCount() > 0
+        handler.getFalsePositiveRate() > 0.0
+        handler.getFalsePositiveRate() <= 1.0
+    }
+
+    def "false positive rate is zero before any message"() {
+        expect:
+        new DeduplicatingMessageHandler(new RotatingBloomFilter(10, 0.01, Duration.ofMinutes(1)),
+                new LruDuplicateConfirmer(16), delegate).getFalsePositiveRate() == 0.0
+    }
+
+    def "orElse falls back to a second confirmer such as the journal"() {
+        given:
+        def journal = ["c9"] as Set
+        def lru = new LruDuplicateConfirmer(16)
+        def confirmer = lru.orElse({ String key -> journal.contains(key) } as DuplicateConfirmer)
+
+        when:
+        confirmer.record("c1")
+
+        then:
+        confirmer.isDuplicate("c1")
+        confirmer.isDuplicate("c9")
+        !confirmer.isDuplicate("c2")
+        lru.isDuplicate("c1")
+    }
+
+    def "releases the body of a dropped duplicate"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def handler = new DeduplicatingMessageHandler(
+                new RotatingBloomFilter(1000, 0.01, Duration.ofMinutes(10)), new LruDuplicateConfirmer(1000), delegate)
+        handler.handle(message("c1"))
+
+        when:
+        handler.handle(new ConnectorMessage("c1", "kafka", pool.acquire(4), Map.of(), Instant.now()))
+
+        then:
+        handled == ["c1"]
+        pool.getOutstandingCount() == 0
+    }
+
+    def "processes the redelivery of a message the delegate rejected"() {
+        given:
+        def attempts = 0
+        def rejecting = { ConnectorMessage msg ->
+            if (attempts++ == 0) {
+                throw new RejectedExecutionException("lane full")
+            }
+            handled << msg.correlationId()
+        } as MessageHandler
+        def handler = new DeduplicatingMessageHandler(
+                new RotatingBloomFilter(1000, 0.01, Duration.ofMinutes(10)), new LruDuplicateConfirmer(1000), rejecting)
+
+        when:
+        handler.handle(message("c1"))
+
+        then:
+        thrown(RejectedExecutionException)
+
+        when:
+        handler.handle(message("c1"))
+        handler.handle(message("c1"))
+
+        then:
+        handled == ["c1"]
+        handler.getDroppedCount() == 1
+    }
+}
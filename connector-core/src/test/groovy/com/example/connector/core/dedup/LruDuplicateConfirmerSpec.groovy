@@ -0,0 +1,39 @@
+package com.example.connector.core.dedup
+
+import spock.lang.Specification
+
+class LruDuplicateConfirmerSpec extends Specification {
+
+    def "confirms recorded keys only"() {
+        given:
+        def confirmer = new LruDuplicateConfirmer(1000)
+
+        when:
+        confirmer.record("corr-1")
+
+        then:
+        confirmer.isDuplicate("corr-1")
+        !confirmer.isDuplicate("corr-2")
+    }
+
+    def "stays within its bound"() {
+        given:
+        def confirmer = new LruDuplicateConfirmer(160)
+
+        when:
+        (0..<1000).each { confirmer.record("corr-$it".toString()) }
+
+        then:
+        confirmer.size() <= 160
+        confirmer.isDuplicate("corr-999")
+        !confirmer.isDuplicate("corr-0")
+    }
+
+    def "rejects bound smaller than the stripe count"() {
+        when:
+        new LruDuplicateConfirmer(8)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.connector.core.dedup
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RotatingBloomFilterSpec extends Specification {
+
+    def "added keys are always found"() {
+        given:
+        def filter = new RotatingBloomFilter(10_000, 0.01, Duration.ofMinutes(10))
+
+        when:
+        (0..<10_000).each { filter.put("corr-$it".toString()) }
+
+        then:
+        (0..<10_000).every { filter.mightContain("corr-$it".toString()) }
+    }
+
+    def "false positive rate stays near the configured rate"() {
+        given:
+        def filter = new RotatingBloomFilter(10_000, 0.01, Duration.ofMinutes(10))
+        (0..<10_000).each { filter.put("corr-$it".toString()) }
+
+        when:
+        def falsePositives = (0..<10_000).count { filter.mightContain("other-$it".toString()) }
+
+        then:
+        falsePositives < 300
+    }
+
+    def "sizes bits and hashes from expected count and rate"() {
+        given:
+        def filter = new RotatingBloomFilter(1000, 0.01, Duration.ofMinutes(1))
+
+        expect:
+        filter.bitCount() == 9586
+        filter.hashCount() == 7
+        filter.memoryBytes() == 2 * 150 * 8
+    }
+
+    def "keys expire after two windows"() {
+        given:
+        def filter = new RotatingBloomFilter(100, 0.01, Duration.ofMillis(100))
+        filter.put("corr-1")
+
+        when:
+        Thread.sleep(120)
+
+        then: "still in the previous generation"
+        filter.mightContain("corr-1")
+
+        when:
+        Thread.sleep(250)
+
+        then:
+        !filter.mightContain("corr-1")
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        new RotatingBloomFilter(expected, rate, Duration.ofSeconds(1))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        expected | rate
+        0        | 0.01
+        100      | 0.0
+        100      | 1.0
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.connector.core.dispatch
+
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.ByteBuffer
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+
+class PartitionedMessageHandlerSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+
+    private static ConnectorMessage message(String correlationId, Map<String, String> headers, String payload = "") {
+        new ConnectorMessage(correlationId, "jms", payload.bytes, headers, Instant.now())
+    }
+
+    def "preserves order within a key across lanes"() {
+        given:
+        def seen = new ConcurrentHashMap<String, List<Integer>>()
+        def handler = new PartitionedMessageHandler(4, 100, 1000, OrderingKeyExtractor.header("X-Account-ID"), { ConnectorMessage msg ->
+            seen.computeIfAbsent(msg.headers()["X-Account-ID"], { new CopyOnWriteArrayList<Integer>() })
+                    .add(msg.headers()["seq"] as Integer)
+        })
+
+        when:
+        (0..<50).each { seq ->
+            ["acc-1", "acc-2", "acc-3"].each { account ->
+                handler.handle(message("$account-$seq", ["X-Account-ID": account, "seq": "$seq"]))
+            }
+        }
+
+        then:
+        conditions.eventually {
+            assert handler.getProcessedCount() == 150
+        }
+        seen.values().every { it == (0..<50).toList() }
+
+        cleanup:
+        handler.close()
+    }
+
+    def "awaitingCompletion holds the lane until the future completes"() {
+        given:
+        def first = new CompletableFuture<Object>()
+        def started = new CopyOnWriteArrayList<String>()
+        def handler = PartitionedMessageHandler.awaitingCompletion(1, 10, 1000, OrderingKeyExtractor.correlationId(), { ConnectorMessage msg ->
+            started << msg.correlationId()
+            msg.correlationId() == "c1" ? first : CompletableFuture.completedFuture(null)
+        })
+
+        when:
+        handler.handle(message("c1", [:]))
+        handler.handle(message("c2", [:]))
+
+        then:
+        conditions.eventually {
+            assert started == ["c1"]
+        }
+
+        when:
+        first.complete(null)
+
+        then:
+        conditions.eventually {
+            assert started == ["c1", "c2"]
+        }
+
+        cleanup:
+        handler.close()
+    }
+
+    def "same key always maps to the same lane and missing key falls back to correlation id"() {
+        given:
+        def handler = new PartitionedMessageHandler(8, 10, 1000, OrderingKeyExtractor.header("X-Account-ID"), { })
+
+        expect:
+        handler.laneFor(message("a", ["X-Account-ID": "acc-9"])) == handler.laneFor(message("b", ["X-Account-ID": "acc-9"]))
+        handler.laneFor(message("same", [:])) == handler.laneFor(message("same", [:]))
+        handler.laneCount() == 8
+
+        cleanup:
+        handler.close()
+    }
+
+    def "failing processor does not stop the lane"() {
+        given:
+        def handler = new PartitionedMessageHandler(1, 10, 1000, OrderingKeyExtractor.correlationId(), { ConnectorMessage msg ->
+            if (msg.correlationId() == "bad") throw new IllegalStateException("boom")
+        })
+
+        when:
+        handler.handle(message("bad", [:]))
+        handler.handle(message("good", [:]))
+
+        then:
+        conditions.eventually {
+            assert handler.getFailedCount() == 1
+            assert handler.getProcessedCount() == 1
+        }
+
+        cleanup:
+        handler.close()
+    }
+
+    def "closed handler rejects messages"() {
+        given:
+        def handler = new PartitionedMessageHandler(1, 10, 1000, OrderingKeyExtractor.correlationId(), { })
+        handler.close()
+
+        when:
+        handler.handle(message("c1", [:]))
+
+        then:
+        thrown(java.util.concurrent.RejectedExecutionException)
+    }
+
+    def "payloadField extracts string and scalar values without decoding the document"() {
+        expect:
+        OrderingKeyExtractor.payloadField(field).extract(message("c1", [:], json)) == expected
+
+        where:
+        field       | json                                             | expected
+        "accountId" | '{"accountId":"acc-1","amount":10}'             | "acc-1"
+        "accountId" | '{"meta":{"accountId" : "nested"}}'              | "nested"
+        "amount"    | '{"accountId":"acc-1","amount": 10}'            | "10"
+        "accountId" | '{"note":"accountId","accountId":"acc-2"}'       | "acc-2"
+        "accountId" | '{"accountId":{"id":1}}'                         | null
+        "missing"   | '{"accountId":"acc-1"}'                          | null
+    }
+
+    def "payloadField scans a sliced direct body in place"() {
+        given:
+        def json = 'xx{"accountId": "acc-9"}yy'.bytes
+        def direct = ByteBuffer.allocateDirect(json.length).put(json).flip()
+        def body = Payload.wrap(direct).slice(2, json.length - 4)
+
+        expect:
+        OrderingKeyExtractor.payloadField("accountId")
+                .extract(new ConnectorMessage("c1", "kafka", body, Map.of(), Instant.now())) == "acc-9"
+    }
+
+    def "releases the body of a rejected message"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def handler = new PartitionedMessageHandler(1, 10, 1000, OrderingKeyExtractor.correlationId(), { })
+        handler.close()
+
+        when:
+        handler.handle(new ConnectorMessage("c1", "jms", pool.acquire(4), Map.of(), Instant.now()))
+
+        then:
+        thrown(java.util.concurrent.RejectedExecutionException)
+        pool.getOutstandingCount() == 0
+    }
+
+    def "close waits for the message in hand and releases the bodies still queued"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def pending = new CompletableFuture<Object>()
+        def handler = PartitionedMessageHandler.awaitingCompletion(1, 10, 1000, OrderingKeyExtractor.correlationId(), { ConnectorMessage msg ->
+            pending.whenComplete { r, ex -> msg.body().release() }
+        })
+        (1..3).each { handler.handle(new ConnectorMessage("c$it", "jms", pool.acquire(4), Map.of(), Instant.now())) }
+        conditions.eventually {
+            assert handler.laneDepth(0) == 2
+        }
+
+        when:
+        def closing = Thread.start { handler.close() }
+        Thread.sleep(50)
+
+        then: "still waiting for the lane"
+        closing.isAlive()
+
+        when:
+        pending.complete(null)
+        closing.join(5000)
+
+        then:
+        !closing.isAlive()
+        handler.laneDepth(0) == 0
+        handler.getProcessedCount() == 1
+        pool.getOutstandingCount() == 0
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.connector.core.dispatch
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class SingleFlightSpec extends Specification {
+
+    def singleFlight = new SingleFlight<String, String>()
+
+    def "concurrent calls with the same key share one call"() {
+        given:
+        def calls = 0
+        def pending = new CompletableFuture<String>()
+
+        when:
+        def first = singleFlight.execute("k") { calls++; pending }
+        def second = singleFlight.execute("k") { calls++; CompletableFuture.completedFuture("other") }
+
+        then:
+        calls == 1
+        singleFlight.inFlightCount() == 1
+        singleFlight.getCoalescedCount() == 1
+
+        when:
+        pending.complete("done")
+
+        then:
+        first.get() == "done"
+        second.get() == "done"
+        singleFlight.inFlightCount() == 0
+    }
+
+    def "different keys run independently"() {
+        when:
+        singleFlight.execute("a") { new CompletableFuture<String>() }
+        singleFlight.execute("b") { new CompletableFuture<String>() }
+
+        then:
+        singleFlight.inFlightCount() == 2
+        singleFlight.getCoalescedCount() == 0
+    }
+
+    def "completed key runs again"() {
+        given:
+        def calls = 0
+
+        when:
+        singleFlight.execute("k") { calls++; CompletableFuture.completedFuture("1") }.get()
+        singleFlight.execute("k") { calls++; CompletableFuture.completedFuture("2") }.get()
+
+        then:
+        calls == 2
+        singleFlight.inFlightCount() == 0
+    }
+
+    def "failures are shared and cleaned up, including synchronous throws"() {
+        given:
+        def pending = new CompletableFuture<String>()
+        def first = singleFlight.execute("k") { pending }
+        def joined = singleFlight.execute("k") { CompletableFuture.completedFuture("unused") }
+
+        when:
+        pending.completeExceptionally(new IllegalStateException("down"))
+
+        then:
+        first.isCompletedExceptionally()
+        joined.isCompletedExceptionally()
+        singleFlight.inFlightCount() == 0
+
+        when:
+        def thrown = singleFlight.execute("k") { throw new IllegalArgumentException("bad") }
+
+        then:
+        thrown.isCompletedExceptionally()
+        singleFlight.inFlightCount() == 0
+    }
+
+    def "cancelling a joiner does not cancel the shared call"() {
+        given:
+        def pending = new CompletableFuture<String>()
+        def first = singleFlight.execute("k") { pending }
+        def joined = singleFlight.execute("k") { pending }
+
+        when:
+        joined.cancel(true)
+        pending.complete("done")
+
+        then:
+        first.get() == "done"
+    }
+
+    def "cancelling the caller that ran the call does not cancel the joiners"() {
+        given:
+        def pending = new CompletableFuture<String>()
+        def first = singleFlight.execute("k") { pending }
+        def joined = singleFlight.execute("k") { pending }
+
+        when:
+        first.cancel(true)
+        pending.complete("done")
+
+        then:
+        joined.get() == "done"
+        !pending.isCancelled()
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.connector.core.dlq
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeoutException
+
+class DeadLetterSpec extends Specification {
+
+    def "reason is the cause's simple class name"() {
+        expect:
+        DeadLetter.reasonOf(new TimeoutException("slow")) == "TimeoutException"
+        DeadLetter.reasonOf(null) == "Unknown"
+    }
+}
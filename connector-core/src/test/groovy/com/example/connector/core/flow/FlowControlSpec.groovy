@@ -0,0 +1,154 @@
+package com.example.connector.core.flow
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class FlowControlSpec extends Specification {
+
+    def events = []
+    def listener = [onPause: { events << "pause" }, onResume: { events << "resume" }] as FlowListener
+
+    def "pauses at the high watermark and resumes only at the low watermark"() {
+        given:
+        def flow = new FlowControl(4, 2, Duration.ofSeconds(1))
+        flow.addListener(listener)
+
+        when:
+        3.times { flow.acquire() }
+
+        then:
+        !flow.isPaused()
+        flow.getAvailableCredits() == 1
+        events.isEmpty()
+
+        when:
+        flow.acquire()
+        flow.acquire()
+
+        then:
+        flow.isPaused()
+        flow.getInFlight() == 5
+        flow.getAvailableCredits() == 0
+        events == ["pause"]
+
+        when: "draining above the low watermark keeps the pause"
+        flow.release()
+        flow.release()
+
+        then:
+        flow.isPaused()
+        events == ["pause"]
+
+        when:
+        flow.release()
+
+        then:
+        !flow.isPaused()
+        flow.getInFlight() == 2
+        events == ["pause", "resume"]
+
+        when: "crossing again pauses again"
+        2.times { flow.acquire() }
+
+        then:
+        flow.isPaused()
+        flow.getPauseCount() == 2
+        events == ["pause", "resume", "pause"]
+    }
+
+    def "a listener added while paused is paused immediately"() {
+        given:
+        def flow = new FlowControl(1, 0, Duration.ofMillis(500))
+        flow.acquire()
+
+        when:
+        flow.addListener(listener)
+
+        then:
+        events == ["pause"]
+        flow.getRetryAfter() == Duration.ofMillis(500)
+
+        when:
+        flow.release()
+
+        then:
+        events == ["pause", "resume"]
+    }
+
+    def "concurrent acquire and release leave a consistent state"() {
+        given:
+        def flow = new FlowControl(50, 10, Duration.ofSeconds(1))
+        def pauses = 0
+        def resumes = 0
+        flow.addListener([onPause: { pauses++ }, onResume: { resumes++ }] as FlowListener)
+        def pool = Executors.newFixedThreadPool(8)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (1..8).collect {
+            pool.submit {
+                start.await()
+                10_000.times {
+                    flow.acquire()
+                    flow.release()
+                }
+            }
+        }
+        start.countDown()
+        futures*.get(30, TimeUnit.SECONDS)
+
+        then:
+        flow.getInFlight() == 0
+        !flow.isPaused()
+        pauses == resumes
+        pauses == flow.getPauseCount()
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "resumes when the last releases race the pause"() {
+        given: "watermarks one apart, so nearly every acquire and release crosses one"
+        def flow = new FlowControl(2, 1, Duration.ofSeconds(1))
+        def pool = Executors.newFixedThreadPool(4)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (1..4).collect {
+            pool.submit {
+                start.await()
+                50_000.times {
+                    flow.acquire()
+                    flow.release()
+                }
+            }
+        }
+        start.countDown()
+        futures*.get(30, TimeUnit.SECONDS)
+
+        then:
+        flow.getInFlight() == 0
+        !flow.isPaused()
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "rejects watermarks out of order"() {
+        when:
+        new FlowControl(high, low, Duration.ofSeconds(1))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        high | low
+        5    | 5
+        5    | 6
+        5    | -1
+    }
+}
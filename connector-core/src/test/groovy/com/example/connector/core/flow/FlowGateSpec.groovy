@@ -0,0 +1,39 @@
+package com.example.connector.core.flow
+
+import spock.lang.Specification
+
+class FlowGateSpec extends Specification {
+
+    def gate = new FlowGate()
+
+    def "open by default"() {
+        expect:
+        gate.isOpen()
+        gate.awaitOpen(0)
+    }
+
+    def "times out while paused"() {
+        given:
+        gate.onPause()
+
+        expect:
+        !gate.isOpen()
+        !gate.awaitOpen(20)
+    }
+
+    def "resume wakes waiting threads"() {
+        given:
+        gate.onPause()
+        def opened = null
+        def waiter = Thread.start { opened = gate.awaitOpen(5000) }
+
+        when:
+        Thread.sleep(50)
+        gate.onResume()
+        waiter.join(5000)
+
+        then:
+        opened == true
+        gate.isOpen()
+    }
+}
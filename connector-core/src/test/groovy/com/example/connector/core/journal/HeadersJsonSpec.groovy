@@ -0,0 +1,37 @@
+package com.example.connector.core.journal
+
+import spock.lang.Specification
+
+class HeadersJsonSpec extends Specification {
+
+    def "round-trips headers, escaping quotes, backslashes and control characters"() {
+        given:
+        def headers = ["X-Correlation-ID": "c-1", "q\"uote": "back\\slash", "ctl": "a\nb\tc\r\u0001", "utf": "é€"]
+
+        expect:
+        HeadersJson.read(HeadersJson.write(headers)) == headers
+        HeadersJson.write(["k": "v"]) == '{"k":"v"}'
+    }
+
+    def "writes an empty object for no headers"() {
+        expect:
+        HeadersJson.write(null) == "{}"
+        HeadersJson.write([:]) == "{}"
+        HeadersJson.read("{}") == [:]
+        HeadersJson.read(" { } ") == [:]
+    }
+
+    def "reads whitespace and the remaining JSON escapes"() {
+        expect:
+        HeadersJson.read(' { "a" : "1" ,\n "b":"2" } ') == ["a": "1", "b": "2"]
+        HeadersJson.read('{"a":"\\/\\b\\f\\u0041"}') == ["a": "/\b\fA"]
+    }
+
+    def "reads null, blank or malformed input as no headers"() {
+        expect:
+        HeadersJson.read(json) == [:]
+
+        where:
+        json << [null, "", "  ", "[]", "{", '{"a"}', '{"a":1}', '{"a":"b"', '{"a":"b",}', '{"a":"b"} x', '{"a":"\\u00zz"}', '{"a":"b']
+    }
+}
@@ -51,4 +51,16 @@ class InMemoryJournalWriterSpec extends Specification {
         responseEntry.get().status() == "FAILED"
         responseEntry.get().errorMessage() == "Connection refused"
     }
+
+    def "keeps the request headers on request and response entries"() {
+        given:
+        writer.appendRequest(new ConnectorMessage("corr-h", "kafka", "req".bytes, ["X-Claim-Check": "sha256-abc"], Instant.now()))
+
+        when:
+        writer.updateResponse("corr-h", "SENT", null, null)
+
+        then:
+        writer.getByCorrelationId("corr-h").get().toConnectorMessage().headers() == ["X-Claim-Check": "sha256-abc"]
+        writer.getByCorrelationId("corr-h:response").get().headersJson() == '{"X-Claim-Check":"sha256-abc"}'
+    }
 }
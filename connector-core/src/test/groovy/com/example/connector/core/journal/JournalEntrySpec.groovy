@@ -22,4 +22,20 @@ class JournalEntrySpec extends Specification {
         msg.transportType() == "http"
         msg.payload() == "hello".bytes
     }
+
+    def "toConnectorMessage restores headers except the deadline"() {
+        given:
+        def headers = HeadersJson.write(["X-Claim-Check": "sha256-abc", "X-Deadline": "1000"])
+        def entry = new JournalEntry(1L, "corr-1", "request", "kafka", "application/octet-stream", null, headers,
+                "SENT", null, null, null)
+
+        when:
+        def msg = entry.toConnectorMessage()
+
+        then:
+        msg.headers() == ["X-Claim-Check": "sha256-abc"]
+        msg.deadline().isEmpty()
+        msg.body().isEmpty()
+        msg.timestamp() != null
+    }
 }
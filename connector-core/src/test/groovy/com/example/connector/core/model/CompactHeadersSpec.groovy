@@ -0,0 +1,108 @@
+package com.example.connector.core.model
+
+import spock.lang.Specification
+
+class CompactHeadersSpec extends Specification {
+
+    def "copies the headers into a read-only map with interned keys"() {
+        given:
+        def source = new LinkedHashMap<String, String>()
+        source.put(new String("X-Account-ID"), "42")
+        source.put(new String("X-Tenant"), "acme")
+
+        when:
+        def headers = CompactHeaders.of(source)
+        source.put("X-Other", "1")
+
+        then:
+        headers instanceof CompactHeaders
+        headers == ["X-Account-ID": "42", "X-Tenant": "acme"]
+        headers.size() == 2
+        headers.keySet().first().is(Interner.intern("X-Account-ID"))
+        headers.get(new String("X-Tenant")) == "acme"
+        headers.get("missing") == null
+        headers.containsKey("X-Account-ID")
+        !headers.containsKey("X-Other")
+        headers.hashCode() == ["X-Account-ID": "42", "X-Tenant": "acme"].hashCode()
+    }
+
+    def "stores GString headers as plain strings"() {
+        given:
+        def id = 42
+
+        when:
+        def headers = CompactHeaders.of(["X-Account-${'ID'}": "acc-$id"])
+
+        then:
+        headers.get("X-Account-ID") == "acc-42"
+        headers.values().first() instanceof String
+    }
+
+    def "keeps empty, compact and lazy maps as they are"() {
+        given:
+        def compact = CompactHeaders.of(["A": "1"])
+        def lazy = new LazyHeaders({ key -> null }, { Map.of() })
+
+        expect:
+        CompactHeaders.of(null) == Map.of()
+        CompactHeaders.of([:]).is(Map.of())
+        CompactHeaders.of(compact).is(compact)
+        CompactHeaders.of(lazy).is(lazy)
+    }
+
+    def "supports null keys and values"() {
+        given:
+        def source = new HashMap<String, String>()
+        source.put(null, "v")
+        source.put("A", null)
+
+        when:
+        def headers = CompactHeaders.of(source)
+
+        then:
+        headers.get(null) == "v"
+        headers.containsKey("A")
+        headers.get("A") == null
+    }
+
+    def "rejects modification"() {
+        given:
+        def headers = CompactHeaders.of(["A": "1"])
+
+        when:
+        headers.put("B", "2")
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        headers.entrySet().iterator().next().setValue("2")
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "iterates every entry once"() {
+        given:
+        def iterator = CompactHeaders.of(["A": "1", "B": "2"]).entrySet().iterator()
+
+        when:
+        def keys = [iterator.next().key, iterator.next().key]
+
+        then:
+        keys.toSet() == ["A", "B"] as Set
+        !iterator.hasNext()
+
+        when:
+        iterator.next()
+
+        then:
+        thrown(NoSuchElementException)
+    }
+
+    def "interns to one canonical instance within the bound"() {
+        expect:
+        Interner.intern(new String("kafka")).is(Interner.intern(new String("kafka")))
+        Interner.size() <= Interner.MAX_SIZE
+    }
+}
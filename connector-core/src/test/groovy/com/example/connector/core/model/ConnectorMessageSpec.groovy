@@ -1,8 +1,10 @@
 package com.example.connector.core.model
 
+import com.example.connector.core.transport.DeadlineExceededException
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.nio.ByteBuffer
 import java.time.Instant
 
 class ConnectorMessageSpec extends Specification {
@@ -83,4 +85,137 @@ class ConnectorMessageSpec extends Specification {
         updated.headers() == ["B": "2"]
         msg.headers() == ["A": "1"]
     }
+
+    def "carries the body as a view and exposes the array without copying"() {
+        given:
+        def bytes = "[data]".bytes
+        def msg = new ConnectorMessage("c1", "http", bytes, Map.of(), Instant.now())
+
+        when:
+        def sliced = msg.withBody(msg.body().slice(1, 4))
+
+        then:
+        msg.payload().is(bytes)
+        msg.body().size() == 6
+        new String(sliced.payload()) == "data"
+        sliced.correlationId() == "c1"
+        msg.withBody(null).body() == Payload.EMPTY
+    }
+
+    def "accepts a direct buffer body"() {
+        given:
+        def direct = ByteBuffer.allocateDirect(4).put("data".bytes).flip()
+
+        when:
+        def msg = new ConnectorMessage("c1", "http", Payload.wrap(direct), Map.of(), Instant.EPOCH)
+
+        then:
+        msg.payload() == "data".bytes
+        msg == new ConnectorMessage("c1", "http", "data".bytes, Map.of(), Instant.EPOCH)
+    }
+
+    def "holds a compact copy of the headers with interned keys and transport type"() {
+        given:
+        def headers = new HashMap<String, String>()
+        headers.put(new String("X-Account-ID"), "42")
+
+        when:
+        def msg = new ConnectorMessage("c1", new String("jms"), new byte[0], headers, Instant.EPOCH)
+        headers.put("X-Other", "1")
+
+        then:
+        msg.headers() == ["X-Account-ID": "42"]
+        msg.transportType().is(new ConnectorMessage("c2", new String("jms"), null, null, null).transportType())
+        msg.headers().keySet().first().is(
+                new ConnectorMessage("c3", "http", null, ["X-Account-ID": "7"], null).headers().keySet().first())
+        msg.withHeaders(null).headers().isEmpty()
+    }
+
+    def "keeps the timestamp at nanosecond precision"() {
+        given:
+        def timestamp = Instant.parse("1969-12-31T23:59:59.123456789Z")
+
+        when:
+        def msg = new ConnectorMessage("c1", "http", new byte[0], Map.of(), timestamp)
+
+        then:
+        msg.timestamp() == timestamp
+        msg.timestampNanos() == -876543211L
+        msg.withCorrelationId("c2").timestamp() == timestamp
+    }
+
+    def "rejects a timestamp outside the representable range"() {
+        when:
+        new ConnectorMessage("c1", "http", new byte[0], Map.of(), Instant.MAX)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("timestamp")
+    }
+
+    def "compares by value"() {
+        given:
+        def msg = new ConnectorMessage("c1", "http", "data".bytes, ["A": "1"], Instant.EPOCH)
+        def same = new ConnectorMessage("c1", "http", "data".bytes, new HashMap(["A": "1"]), Instant.EPOCH)
+
+        expect:
+        msg == same
+        msg.hashCode() == same.hashCode()
+        msg != msg.withCorrelationId("c2")
+        msg != msg.withHeaders(Map.of())
+        msg != new ConnectorMessage("c1", "kafka", "data".bytes, ["A": "1"], Instant.EPOCH)
+        msg != new ConnectorMessage("c1", "http", "data".bytes, ["A": "1"], Instant.EPOCH.plusNanos(1))
+        msg != msg.withBody(Payload.EMPTY)
+        !msg.equals("c1")
+        msg.toString() == "ConnectorMessage[correlationId=c1, transportType=http, body=" + msg.body() +
+                ", headers={A=1}, timestamp=1970-01-01T00:00:00Z]"
+    }
+
+    def "rejects a blank correlationId on copy"() {
+        when:
+        new ConnectorMessage("c1", "http", new byte[0], Map.of(), Instant.now()).withCorrelationId(" ")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "reads the deadline header as epoch millis or ISO instant"() {
+        expect:
+        new ConnectorMessage("c1", "http", new byte[0], headers, Instant.now()).deadline() == Optional.ofNullable(expected)
+
+        where:
+        headers                                          | expected
+        Map.of()                                         | null
+        ["X-Deadline": "1700000000000"]                  | Instant.ofEpochMilli(1700000000000L)
+        ["X-Deadline": "2030-01-01T00:00:00Z"]           | Instant.parse("2030-01-01T00:00:00Z")
+        ["X-Deadline": "soon"]                           | null
+        ["X-Deadline": " "]                              | null
+    }
+
+    def "expires once the deadline is reached"() {
+        given:
+        def deadline = Instant.parse("2030-01-01T00:00:00Z")
+        def msg = new ConnectorMessage("c1", "http", new byte[0], Map.of("A", "1"), Instant.now()).withDeadline(deadline)
+
+        expect:
+        msg.headers() == ["A": "1", "X-Deadline": Long.toString(deadline.toEpochMilli())]
+        !msg.isExpired(deadline.minusMillis(1))
+        msg.isExpired(deadline)
+        !new ConnectorMessage("c2", "http", new byte[0], Map.of(), Instant.now()).isExpired(Instant.MAX)
+    }
+
+    def "builds a deadline failure only for expired messages"() {
+        given:
+        def deadline = Instant.parse("2030-01-01T00:00:00Z")
+        def msg = new ConnectorMessage("c1", "http", new byte[0], Map.of(), Instant.now()).withDeadline(deadline)
+
+        when:
+        def failure = DeadlineExceededException.failureIfExpired(msg, deadline.plusSeconds(1))
+
+        then:
+        failure.cause() instanceof DeadlineExceededException
+        failure.cause().deadline == deadline
+        failure.cause().message.contains("c1")
+        DeadlineExceededException.failureIfExpired(msg, deadline.minusSeconds(1)) == null
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.connector.core.model
+
+import spock.lang.Specification
+
+import java.time.Instant
+
+class LazyHeadersSpec extends Specification {
+
+    def lookups = []
+    def decodes = 0
+    def source = ["X-Account-ID": "acc-1", "X-Region": "eu"]
+    def headers = new LazyHeaders(
+            { String name -> lookups << name; source[name] },
+            { decodes++; new HashMap<>(source) })
+
+    def "looks single headers up without decoding the rest"() {
+        expect:
+        headers.get("X-Account-ID") == "acc-1"
+        headers.get("missing") == null
+        headers.get(42) == null
+        headers.containsKey("X-Region")
+        !headers.containsKey("missing")
+        lookups == ["X-Account-ID", "missing", "X-Region", "missing"]
+        decodes == 0
+        !headers.isMaterialized()
+    }
+
+    def "decodes every header once when iterated, sized or compared"() {
+        when:
+        def size = headers.size()
+        def copy = new HashMap<>(headers)
+
+        then:
+        size == 2
+        copy == source
+        headers == source
+        headers.get("X-Region") == "eu"
+        lookups.isEmpty()
+        decodes == 1
+        headers.isMaterialized()
+    }
+
+    def "is read-only"() {
+        when:
+        headers.put("k", "v")
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        headers.entrySet().clear()
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "is carried by ConnectorMessage as is"() {
+        when:
+        def message = new ConnectorMessage("c1", "kafka", "x".bytes, headers, Instant.now())
+
+        then:
+        message.headers().is(headers)
+        message.deadline().isEmpty()
+        lookups == [ConnectorMessage.DEADLINE_HEADER]
+        decodes == 0
+    }
+}
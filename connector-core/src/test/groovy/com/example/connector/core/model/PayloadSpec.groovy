@@ -0,0 +1,137 @@
+package com.example.connector.core.model
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.ReadOnlyBufferException
+
+class PayloadSpec extends Specification {
+
+    def "wraps an array without copying"() {
+        given:
+        def bytes = "hello".bytes
+
+        when:
+        def payload = Payload.of(bytes)
+
+        then:
+        payload.size() == 5
+        !payload.isEmpty()
+        payload.bytes().is(bytes)
+        Payload.EMPTY.isEmpty()
+    }
+
+    def "slices share storage and copy only when an array is requested"() {
+        given:
+        def bytes = "[hello]".bytes
+        def slice = Payload.of(bytes).slice(1, 5)
+
+        when:
+        bytes[1] = (byte) 'j'
+
+        then:
+        slice.size() == 5
+        new String(slice.bytes()) == "jello"
+        !slice.bytes().is(bytes)
+        new String(slice.slice(1, 3).bytes()) == "ell"
+    }
+
+    def "rejects a slice outside the payload"() {
+        when:
+        Payload.of("abc".bytes).slice(offset, length)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+
+        where:
+        offset | length
+        -1     | 1
+        2      | 2
+        0      | -1
+    }
+
+    def "hands out independent read-only views"() {
+        given:
+        def payload = Payload.of("abc".bytes)
+        def first = payload.asReadOnlyBuffer()
+
+        when:
+        first.get()
+        def second = payload.asReadOnlyBuffer()
+
+        then:
+        first.remaining() == 2
+        second.position() == 0
+        second.remaining() == 3
+        second.isReadOnly()
+
+        when:
+        second.put((byte) 1)
+
+        then:
+        thrown(ReadOnlyBufferException)
+    }
+
+    def "wraps the remaining bytes of a direct buffer"() {
+        given:
+        def direct = ByteBuffer.allocateDirect(8).put("xxdata".bytes).flip().position(2)
+
+        when:
+        def payload = Payload.wrap(direct)
+        direct.position(0).limit(1)
+
+        then:
+        payload.size() == 4
+        new String(payload.bytes()) == "data"
+    }
+
+    def "streams and writes the content"() {
+        given:
+        def big = new byte[20_000]
+        big.length.times { big[it] = (byte) it }
+        def direct = ByteBuffer.allocateDirect(big.length).put(big).flip()
+
+        expect:
+        Payload.of(big).slice(10, 100).openStream().readAllBytes() == Arrays.copyOfRange(big, 10, 110)
+        written(Payload.wrap(direct)) == big
+        written(Payload.of(big).slice(5, 10)) == Arrays.copyOfRange(big, 5, 15)
+        written(Payload.EMPTY).length == 0
+    }
+
+    def "stream reads single bytes and reports end of content"() {
+        given:
+        def stream = Payload.of([1, -1] as byte[]).openStream()
+
+        expect:
+        stream.available() == 2
+        stream.read() == 1
+        stream.read() == 255
+        stream.read() == -1
+        stream.read(new byte[4], 0, 0) == 0
+        stream.read(new byte[4], 0, 4) == -1
+    }
+
+    def "compares by content across storage kinds"() {
+        given:
+        def heap = Payload.of("abc".bytes)
+        def direct = Payload.wrap(ByteBuffer.allocateDirect(3).put("abc".bytes).flip())
+        def slice = Payload.of("xabcx".bytes).slice(1, 3)
+
+        expect:
+        heap == direct
+        heap == slice
+        heap.hashCode() == direct.hashCode()
+        heap.hashCode() == slice.hashCode()
+        heap == heap
+        heap != Payload.of("abd".bytes)
+        heap != Payload.of("ab".bytes)
+        heap != "abc"
+        heap.toString() == "Payload[3 bytes]"
+    }
+
+    private static byte[] written(Payload payload) {
+        def out = new ByteArrayOutputStream()
+        payload.writeTo(out)
+        out.toByteArray()
+    }
+}
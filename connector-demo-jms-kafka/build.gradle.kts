@@ -10,11 +10,12 @@ dependencies {
     implementation(project(":connector-server-jms"))
     implementation(project(":connector-client-kafka"))
     implementation(project(":connector-journal"))
+    implementation(project(":connector-dlq"))
+    implementation(project(":connector-resilience"))
     implementation(libs.findLibrary("spring-boot-starter-web").get())
     implementation(libs.findLibrary("spring-boot-starter-jdbc").get())
     implementation(libs.findLibrary("spring-kafka").get())
     implementation(libs.findLibrary("spring-jms").get())
-    implementation(libs.findLibrary("resilience4j-spring-boot3").get())
     implementation("org.springframework.boot:spring-boot-starter-artemis:3.4.0")
     runtimeOnly(libs.findLibrary("h2").get())
 }
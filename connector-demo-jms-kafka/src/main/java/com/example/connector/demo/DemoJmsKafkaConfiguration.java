@@ -1,25 +1,37 @@
 package com.example.connector.demo;
 
 import com.example.connector.client.kafka.KafkaOutboundTransport;
-import com.example.connector.client.kafka.ResilientKafkaOutboundTransport;
+import com.example.connector.core.buffer.BufferPool;
+import com.example.connector.core.dedup.DeduplicatingMessageHandler;
+import com.example.connector.core.dedup.RotatingBloomFilter;
+import com.example.connector.core.dispatch.OrderingKeyExtractor;
+import com.example.connector.core.dispatch.PartitionedMessageHandler;
+import com.example.connector.core.dlq.DeadLetterStore;
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.journal.JournalWriter;
 import com.example.connector.core.transport.MessageHandler;
 import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.dlq.DeadLetterEndpoint;
+import com.example.connector.dlq.DeadLetterRedeliverer;
+import com.example.connector.dlq.FileDeadLetterStore;
 import com.example.connector.journal.JdbcHoldReleaseService;
 import com.example.connector.journal.JdbcJournalWriter;
 import com.example.connector.journal.HoldReleaseService;
 import com.example.connector.journal.ReplayService;
 import com.example.connector.observability.ConnectorMetricsRegistry;
 import com.example.connector.observability.ConnectorTracing;
+import com.example.connector.resilience.AimdLimit;
+import com.example.connector.resilience.CircuitBreaker;
+import com.example.connector.resilience.RateLimit;
+import com.example.connector.resilience.ResilientOutboundTransport;
+import com.example.connector.resilience.RetryBudgetRegistry;
+import com.example.connector.resilience.SingleFlightOutboundTransport;
+import com.example.connector.resilience.RetryPolicy;
 import com.example.connector.server.jms.JmsInboundTransport;
 import com.example.connector.transformation.ConnectorPipeline;
 import com.example.connector.transformation.MessageConversionRegistry;
-import io.github.resilience4j.bulkhead.Bulkhead;
-import io.github.resilience4j.bulkhead.BulkheadConfig;
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
+import com.example.connector.transformation.claimcheck.ClaimCheck;
+import com.example.connector.transformation.claimcheck.FileSystemBlobStore;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.Queue;
 import org.apache.activemq.artemis.jms.client.ActiveMQQueue;
@@ -37,6 +49,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.ProducerFactory;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
@@ -71,6 +84,47 @@ public class DemoJmsKafkaConfiguration {
         return container;
     }
 
+    // ---- Backpressure: JMS listeners are held while too many messages are in flight to Kafka ----
+    @Bean
+    public FlowControl flowControl(
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.demo.flow.high-watermark:1000}") int highWatermark,
+            @Value("${connector.demo.flow.low-watermark:500}") int lowWatermark) {
+        FlowControl flowControl = new FlowControl(highWatermark, lowWatermark, Duration.ofSeconds(1));
+        var metrics = metricsRegistry.getMetrics("jms");
+        metrics.registerGauge("flow.inflight", flowControl::getInFlight);
+        metrics.registerGauge("flow.paused", () -> flowControl.isPaused() ? 1 : 0);
+        metrics.registerGauge("flow.pauses", flowControl::getPauseCount);
+        return flowControl;
+    }
+
+    // ---- Pooled inbound buffers: JMS bodies are read into reused arrays, released when the Kafka send completes ----
+    @Bean
+    public BufferPool bufferPool(
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.demo.pool.leak-detection:false}") boolean leakDetection) {
+        BufferPool pool = BufferPool.builder().leakDetection(leakDetection).build();
+        var metrics = metricsRegistry.getMetrics("jms");
+        metrics.registerGauge("pool.allocated", pool::getAllocatedCount);
+        metrics.registerGauge("pool.reused", pool::getReusedCount);
+        metrics.registerGauge("pool.outstanding", pool::getOutstandingCount);
+        metrics.registerGauge("pool.leaks", pool::getLeakCount);
+        return pool;
+    }
+
+    // ---- Claim check: bodies over the threshold go to a local blob store; Kafka and the journal carry a reference ----
+    @Bean
+    public ClaimCheck claimCheck(
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.demo.claim-check.dir:./data/blobs}") String dir,
+            @Value("${connector.demo.claim-check.threshold-bytes:524288}") int thresholdBytes) {
+        ClaimCheck claimCheck = new ClaimCheck(new FileSystemBlobStore(Path.of(dir)), thresholdBytes);
+        var metrics = metricsRegistry.getMetrics("kafka-out");
+        metrics.registerGauge("claim-check.stored", claimCheck::getCheckedInCount);
+        metrics.registerGauge("claim-check.loaded", claimCheck::getLoadedCount);
+        return claimCheck;
+    }
+
     // ---- Pipeline: journal, observability, outbound ----
     @Bean
     public ConnectorPipeline connectorPipeline(
@@ -78,15 +132,57 @@ public class DemoJmsKafkaConfiguration {
             JournalWriter journalWriter,
             OutboundTransport kafkaOutboundTransport,
             ConnectorMetricsRegistry metricsRegistry,
+            FlowControl flowControl,
+            DeadLetterStore deadLetterStore,
+            ClaimCheck claimCheck,
+            @Value("${connector.demo.deadline.ttl:PT5M}") Duration ttl,
             @Autowired(required = false) ConnectorTracing tracing) {
+        // JMS redeliveries of a message still in flight share its send and journal row;
+        // each message holds a flow credit until its Kafka send completes;
+        // messages older than the TTL (or past their X-Deadline header) are journaled EXPIRED instead of sent;
+        // sends that still fail after retries go to the local dead-letter store;
+        // large bodies are journaled, sent and dead-lettered as claim-check references
         return new ConnectorPipeline(
                 registry, journalWriter, kafkaOutboundTransport, "kafka",
-                tracing, metricsRegistry);
+                tracing, metricsRegistry).withSingleFlight().withFlowControl(flowControl).withTtl(ttl)
+                .withDeadLetterStore(deadLetterStore).withClaimCheck(claimCheck);
     }
 
     @Bean
-    public MessageHandler jmsToPipelineHandler(ConnectorPipeline pipeline) {
-        return message -> pipeline.process(message, Map.of("topic", KAFKA_TOPIC_OUT));
+    public MessageHandler jmsToPipelineHandler(
+            ConnectorPipeline pipeline,
+            JdbcJournalWriter journalWriter,
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.demo.ordering.lanes:0}") int orderingLanes,
+            @Value("${connector.demo.ordering.key-header:X-Account-ID}") String orderingKeyHeader,
+            @Value("${connector.demo.dedup.enabled:true}") boolean dedupEnabled,
+            @Value("${connector.demo.dedup.expected-per-window:100000}") int dedupExpected) {
+        MessageHandler handler;
+        if (orderingLanes <= 0) {
+            handler = message -> pipeline.process(message, Map.of("topic", KAFKA_TOPIC_OUT));
+        } else {
+            // Key-ordered parallel processing: one serial lane per key hash, each on a virtual thread
+            handler = PartitionedMessageHandler.awaitingCompletion(
+                    orderingLanes, 1000, 5000L,
+                    OrderingKeyExtractor.header(orderingKeyHeader),
+                    message -> pipeline.process(message, Map.of("topic", KAFKA_TOPIC_OUT)));
+        }
+        if (!dedupEnabled) {
+            return handler;
+        }
+        // Drop JMS redeliveries: Bloom filter (1% false positives, 10 min window), confirmed by the journal;
+        // only a SENT journal row is a duplicate, FAILED or EXPIRED ones are processed again. No LRU stage: the
+        // handler returns on the async hand-off, before the send outcome is known
+        DeduplicatingMessageHandler dedup = new DeduplicatingMessageHandler(
+                new RotatingBloomFilter(dedupExpected, 0.01, Duration.ofMinutes(10)),
+                id -> journalWriter.getLatestResponse(id)
+                        .filter(entry -> "SENT".equals(entry.status()))
+                        .isPresent(),
+                handler);
+        var metrics = metricsRegistry.getMetrics("jms");
+        metrics.registerGauge("dedup.dropped", dedup::getDroppedCount);
+        metrics.registerGauge("dedup.false-positive-ppm", () -> Math.round(dedup.getFalsePositiveRate() * 1_000_000));
+        return dedup;
     }
 
     @Configuration
@@ -108,30 +204,68 @@ public class DemoJmsKafkaConfiguration {
         return new KafkaTemplate<>(pf);
     }
 
-    // ---- Kafka outbound with Resilience4j (Retry, Bulkhead, RateLimiter) ----
+    // ---- Retry budget shared by every decorator sending to the same destination ----
+    @Bean
+    public RetryBudgetRegistry retryBudgetRegistry(ConnectorMetricsRegistry metricsRegistry) {
+        // one retry per five successful sends, at most 20 banked
+        return new RetryBudgetRegistry(0.2, 20, metricsRegistry);
+    }
+
+    // ---- Kafka outbound with non-blocking resilience (rate limit, circuit breaker, adaptive in-flight limit, retry) ----
     @Bean
     public OutboundTransport kafkaOutboundTransport(
             KafkaTemplate<String, byte[]> kafkaTemplate,
+            ConnectorMetricsRegistry metricsRegistry,
+            RetryBudgetRegistry retryBudgetRegistry,
             @Value("${connector.demo.kafka.topic:" + KAFKA_TOPIC_OUT + "}") String topic,
-            @Value("${connector.demo.resilience.enabled:true}") boolean resilienceEnabled) {
+            @Value("${connector.demo.resilience.enabled:true}") boolean resilienceEnabled,
+            @Value("${connector.demo.concurrency.max-limit:200}") int maxConcurrency) {
         KafkaOutboundTransport raw = new KafkaOutboundTransport(topic, kafkaTemplate);
         if (!resilienceEnabled) {
             return raw;
         }
-        Retry retry = Retry.of("kafka-out", RetryConfig.<com.example.connector.core.transport.SendResult>custom()
-                .maxAttempts(3)
-                .waitDuration(Duration.ofMillis(100))
-                .build());
-        Bulkhead bulkhead = Bulkhead.of("kafka-out", BulkheadConfig.custom()
-                .maxConcurrentCalls(10)
-                .build());
-        RateLimiter rateLimiter = RateLimiter.of("kafka-out", RateLimiterConfig.custom()
-                .limitForPeriod(100)
-                .limitRefreshPeriod(Duration.ofSeconds(1))
-                .build());
-        return new ResilientKafkaOutboundTransport(
-                raw, retry, bulkhead, rateLimiter,
-                Executors.newVirtualThreadPerTaskExecutor());
+        // AIMD limit measured per send; exported as kafka-out gauges (concurrency.limit, concurrency.inflight)
+        OutboundTransport resilient = ResilientOutboundTransport.builder(raw, "kafka-out")
+                .retry(RetryPolicy.fixed(3, Duration.ofMillis(100)))
+                .retryBudget(retryBudgetRegistry.budgetFor("kafka-out"))
+                .rateLimit(new RateLimit(100, Duration.ofSeconds(1), Duration.ofSeconds(5)))
+                .circuitBreaker(new CircuitBreaker(0.5, 20, 100, Duration.ofSeconds(10), 5))
+                .concurrencyLimit(new AimdLimit(10, 1, maxConcurrency, 0.9, Duration.ofSeconds(1)))
+                // KafkaTemplate.send can block on metadata; run delayed attempts off the timer thread
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .metrics(metricsRegistry)
+                .build();
+        // outermost, so a replay of a message still in flight joins that send instead of retrying separately
+        return new SingleFlightOutboundTransport(resilient, "kafka-out", metricsRegistry);
+    }
+
+    // ---- Dead letters: local file store, scheduled redelivery to Kafka, actuator redrive ----
+    @Bean(destroyMethod = "close")
+    public FileDeadLetterStore deadLetterStore(
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.demo.dlq.dir:./data/dlq}") String dir) {
+        FileDeadLetterStore store = new FileDeadLetterStore(Path.of(dir), 64L * 1024 * 1024, true);
+        metricsRegistry.getMetrics("kafka-out").registerGauge("dlq.size", store::size);
+        return store;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DeadLetterRedeliverer deadLetterRedeliverer(
+            DeadLetterStore deadLetterStore,
+            OutboundTransport kafkaOutboundTransport,
+            @Value("${connector.demo.dlq.redelivery-interval:PT30S}") Duration interval) {
+        DeadLetterRedeliverer redeliverer = DeadLetterRedeliverer.builder(deadLetterStore)
+                .destination("kafka", kafkaOutboundTransport)
+                .backoff(Duration.ofSeconds(30), Duration.ofMinutes(30))
+                .maxAttempts(10)
+                .build();
+        redeliverer.start(interval);
+        return redeliverer;
+    }
+
+    @Bean
+    public DeadLetterEndpoint deadLetterEndpoint(DeadLetterStore deadLetterStore, DeadLetterRedeliverer deadLetterRedeliverer) {
+        return new DeadLetterEndpoint(deadLetterStore, deadLetterRedeliverer);
     }
 
     // ---- Hold/Release ----
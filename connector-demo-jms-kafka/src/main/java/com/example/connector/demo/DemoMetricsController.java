@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.Map;
 
 /**
- * Simple endpoint to expose pipeline metrics (received/sent/failed per transport).
+ * Simple endpoint to expose pipeline metrics (received/sent/failed per transport) and outbound gauges.
  * Demonstrates observability; for production use Actuator metrics or OpenTelemetry.
  */
 @RestController
@@ -28,8 +28,11 @@ public class DemoMetricsController {
                 "jms", Map.of(
                         "received", jms.getReceivedCount(),
                         "sent", jms.getSentCount(),
-                        "failed", jms.getFailedCount()
-                )
+                        "failed", jms.getFailedCount(),
+                        "expired", jms.getExpiredCount(),
+                        "gauges", jms.getGauges()
+                ),
+                "kafka-out", metricsRegistry.getMetrics("kafka-out").getGauges()
         );
     }
 }
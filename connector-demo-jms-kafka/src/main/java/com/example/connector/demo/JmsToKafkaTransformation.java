@@ -2,8 +2,8 @@ package com.example.connector.demo;
 
 import com.example.connector.core.model.ConnectorMessage;
 import com.example.connector.transformation.MessageConversionRegistry;
-import com.example.connector.transformation.convert.InputConverter;
-import com.example.connector.transformation.convert.OutputConverter;
+import com.example.connector.transformation.bytes.ByteTransform;
+import com.example.connector.transformation.bytes.ByteTransforms;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,7 +13,7 @@ import java.nio.charset.StandardCharsets;
  * Registers the transformation (input/output conversion) for the JMS → Kafka flow.
  *
  * <ul>
- *   <li><b>Input (JMS):</b> Normalize incoming JMS payload (trim, decode as UTF-8 for internal use).</li>
+ *   <li><b>Input (JMS):</b> Normalize incoming JMS payload (trim surrounding whitespace without decoding).</li>
  *   <li><b>Output (Kafka):</b> Transform payload for Kafka (add envelope prefix so downstream can identify source).</li>
  * </ul>
  *
@@ -22,37 +22,21 @@ import java.nio.charset.StandardCharsets;
 @Configuration
 public class JmsToKafkaTransformation {
 
-    private static final String PREFIX = "[JMS→Kafka] ";
+    private static final byte[] PREFIX = "[JMS→Kafka] ".getBytes(StandardCharsets.UTF_8);
 
     @Bean
     public JmsToKafkaTransformationRegistrar jmsToKafkaTransformationRegistrar(MessageConversionRegistry registry) {
-        // Input: JMS → internal (normalize payload)
-        registry.registerInput("jms", (InputConverter<ConnectorMessage>) msg -> {
-            byte[] raw = msg.payload();
-            String decoded = new String(raw != null ? raw : new byte[0], StandardCharsets.UTF_8).trim();
-            return new ConnectorMessage(
-                    msg.correlationId(),
-                    msg.transportType(),
-                    decoded.getBytes(StandardCharsets.UTF_8),
-                    msg.headers(),
-                    msg.timestamp()
-            );
-        });
-        // Output: internal → Kafka format (add envelope)
-        registry.registerOutput("kafka", (OutputConverter<ConnectorMessage>) msg -> {
-            byte[] payload = msg.payload();
-            String body = payload != null && payload.length > 0
-                    ? new String(payload, StandardCharsets.UTF_8)
-                    : "";
-            String out = PREFIX + body;
-            return new ConnectorMessage(
-                    msg.correlationId(),
-                    "kafka",
-                    out.getBytes(StandardCharsets.UTF_8),
-                    msg.headers(),
-                    msg.timestamp()
-            );
-        });
+        // Input: JMS → internal (normalize payload; trimming is a view, not a copy)
+        registry.registerInput("jms", ByteTransforms.trim().asInput());
+        // Output: internal → Kafka format (add envelope; the one copy on the way out)
+        ByteTransform toKafka = ByteTransforms.prefix(PREFIX).andThen(msg -> new ConnectorMessage(
+                msg.correlationId(),
+                "kafka",
+                msg.body(),
+                msg.headers(),
+                msg.timestamp()
+        ));
+        registry.registerOutput("kafka", toKafka.asOutput());
         return new JmsToKafkaTransformationRegistrar();
     }
 
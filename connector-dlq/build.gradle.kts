@@ -0,0 +1,9 @@
+plugins {
+    id("connector-conventions")
+}
+
+dependencies {
+    val libs = project.extensions.getByType<org.gradle.api.artifacts.VersionCatalogsExtension>().named("libs")
+    api(project(":connector-core"))
+    implementation(libs.findLibrary("spring-boot-starter-actuator").get())
+}
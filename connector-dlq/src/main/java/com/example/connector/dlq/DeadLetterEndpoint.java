@@ -0,0 +1,47 @@
+package com.example.connector.dlq;
+
+import com.example.connector.core.dlq.DeadLetterStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint: dead-letter counts by destination and reason; POST redrives matching entries (all when
+ * destination and reason are omitted).
+ */
+@Endpoint(id = "deadletters")
+public class DeadLetterEndpoint {
+
+    private final DeadLetterStore store;
+    private final DeadLetterRedeliverer redeliverer;
+
+    public DeadLetterEndpoint(DeadLetterStore store, DeadLetterRedeliverer redeliverer) {
+        this.store = store;
+        this.redeliverer = redeliverer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("size", store.size());
+        summary.put("destinations", store.counts());
+        summary.put("redelivered", redeliverer.getRedeliveredCount());
+        summary.put("failed", redeliverer.getFailedCount());
+        return summary;
+    }
+
+    @WriteOperation
+    public Map<String, Object> redrive(@Nullable String destination, @Nullable String reason) {
+        RedriveResult result = redeliverer.redrive(destination, reason);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("attempted", result.attempted());
+        response.put("redelivered", result.redelivered());
+        response.put("failed", result.failed());
+        response.put("remaining", store.size());
+        return response;
+    }
+}
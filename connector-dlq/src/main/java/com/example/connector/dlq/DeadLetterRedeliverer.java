@@ -0,0 +1,278 @@
+package com.example.connector.dlq;
+
+import com.example.connector.core.dlq.DeadLetter;
+import com.example.connector.core.dlq.DeadLetterStore;
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.core.transport.SendResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Sends dead letters back to their destination. Scheduled passes pick entries whose jittered exponential backoff has
+ * elapsed (until max attempts, after which they stay parked); {@link #redrive} sends every matching entry right away.
+ * Entries are streamed from the store one message at a time with a bounded number of sends in flight, so a large
+ * store is never loaded into memory. A successful send removes the entry; a failed one records an attempt. The
+ * {@value ConnectorMessage#DEADLINE_HEADER} header is dropped before sending, so an entry is not refused as expired.
+ */
+public final class DeadLetterRedeliverer implements AutoCloseable {
+
+    private final DeadLetterStore store;
+    private final Map<String, OutboundTransport> destinations;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+    private final int maxInFlight;
+    private final ReentrantLock passLock = new ReentrantLock();
+    private final LongAdder redelivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+
+    private DeadLetterRedeliverer(Builder builder) {
+        this.store = builder.store;
+        this.destinations = Map.copyOf(builder.destinations);
+        this.initialBackoffMillis = builder.initialBackoff.toMillis();
+        this.maxBackoffMillis = builder.maxBackoff.toMillis();
+        this.maxAttempts = builder.maxAttempts;
+        this.maxInFlight = builder.maxInFlight;
+    }
+
+    public static Builder builder(DeadLetterStore store) {
+        return new Builder(store);
+    }
+
+    /**
+     * Run {@link #redeliverDue} every interval on a daemon thread.
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dead-letter-redelivery");
+            t.setDaemon(true);
+            return t;
+        });
+        task = scheduler.scheduleWithFixedDelay(this::redeliverDue, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop scheduling passes and wait up to 30 s for a running one to finish. The pass is not interrupted: it may be
+     * reading the store while the pipeline is still dead-lettering.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            task.cancel(false);
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Send entries whose backoff has elapsed. Skipped (empty result) while another pass is running.
+     */
+    public RedriveResult redeliverDue() {
+        return redeliverDue(Instant.now());
+    }
+
+    RedriveResult redeliverDue(Instant now) {
+        if (!passLock.tryLock()) {
+            return new RedriveResult(0, 0, 0);
+        }
+        try {
+            return pass(d -> d.attempts() < maxAttempts && !now.isBefore(nextAttemptAt(d)));
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    /**
+     * Send every entry for the destination and reason now, ignoring backoff and max attempts; null matches any.
+     * Waits for a running scheduled pass to finish first.
+     */
+    public RedriveResult redrive(String destination, String reason) {
+        passLock.lock();
+        try {
+            return pass(d -> (destination == null || destination.equals(d.destination()))
+                    && (reason == null || reason.equals(d.reason())));
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    /**
+     * When the entry is next due: lastAttemptAt + min(max, initial * 2^attempts), with equal jitter (half fixed, half
+     * random). The jitter is derived from id and attempts, so it is stable across passes.
+     */
+    public Instant nextAttemptAt(DeadLetter deadLetter) {
+        long backoff = initialBackoffMillis << Math.min(deadLetter.attempts(), 30);
+        if (backoff <= 0 || backoff > maxBackoffMillis) {
+            backoff = maxBackoffMillis;
+        }
+        double jitter = new SplittableRandom(deadLetter.id() * 31 + deadLetter.attempts()).nextDouble();
+        return deadLetter.lastAttemptAt().plusMillis(backoff / 2 + (long) (jitter * (backoff - backoff / 2)));
+    }
+
+    public long getRedeliveredCount() {
+        return redelivered.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private RedriveResult pass(Predicate<DeadLetter> filter) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong attempted = new AtomicLong();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failedAgain = new AtomicLong();
+        Iterator<DeadLetter> entries = store.entries().filter(filter).iterator();
+        try {
+            while (entries.hasNext()) {
+                DeadLetter deadLetter = entries.next();
+                OutboundTransport transport = destinations.get(deadLetter.destination());
+                if (transport == null) {
+                    continue;
+                }
+                Optional<ConnectorMessage> message = store.read(deadLetter);
+                if (message.isEmpty()) {
+                    continue;
+                }
+                inFlight.acquire();
+                attempted.incrementAndGet();
+                send(transport, message.get()).whenComplete((result, ex) -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause()
+                            : ex != null ? ex
+                            : result instanceof SendResult.Failure f ? f.cause() : null;
+                    try {
+                        if (cause == null) {
+                            store.remove(deadLetter);
+                            ok.incrementAndGet();
+                            redelivered.increment();
+                        } else {
+                            store.recordAttempt(deadLetter, DeadLetter.reasonOf(cause));
+                            failedAgain.incrementAndGet();
+                            failed.increment();
+                        }
+                    } finally {
+                        // a store failure must not strand the permit: the pass waits for all of them
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // wait for the sends still in flight
+        inFlight.acquireUninterruptibly(maxInFlight);
+        return new RedriveResult(attempted.get(), ok.get(), failedAgain.get());
+    }
+
+    /**
+     * Send without the original deadline: like a journal replay, a redelivery is a deliberate resend and is not shed
+     * for being late.
+     */
+    private static CompletableFuture<SendResult> send(OutboundTransport transport, ConnectorMessage message) {
+        try {
+            return transport.send(withoutDeadline(message), Map.of());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ConnectorMessage withoutDeadline(ConnectorMessage message) {
+        if (message.headers().get(ConnectorMessage.DEADLINE_HEADER) == null) {
+            return message;
+        }
+        Map<String, String> headers = new HashMap<>(message.headers());
+        headers.remove(ConnectorMessage.DEADLINE_HEADER);
+        return message.withHeaders(headers);
+    }
+
+    public static final class Builder {
+
+        private final DeadLetterStore store;
+        private final Map<String, OutboundTransport> destinations = new HashMap<>();
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        private Duration maxBackoff = Duration.ofHours(1);
+        private int maxAttempts = 10;
+        private int maxInFlight = 64;
+
+        private Builder(DeadLetterStore store) {
+            this.store = store;
+        }
+
+        /**
+         * Where entries dead-lettered for the destination name are redelivered.
+         */
+        public Builder destination(String name, OutboundTransport transport) {
+            destinations.put(name, transport);
+            return this;
+        }
+
+        public Builder backoff(Duration initial, Duration max) {
+            if (initial.toMillis() < 1 || max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException("require 1ms <= initial <= max");
+            }
+            this.initialBackoff = initial;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        /**
+         * Scheduled redeliveries per entry before it is parked for manual redrive.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sends in flight at once during a pass.
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be >= 1");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public DeadLetterRedeliverer build() {
+            return new DeadLetterRedeliverer(this);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.connector.dlq;
+
+import com.example.connector.core.batch.MessageCodec;
+import com.example.connector.core.dlq.DeadLetter;
+import com.example.connector.core.dlq.DeadLetterStore;
+import com.example.connector.core.model.ConnectorMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Dead-letter store on local disk; no broker or database needed. Entries, redelivery attempts and removals are
+ * appended to segment files as length-prefixed, CRC-checked records; only the index (metadata, no payloads) is kept
+ * in memory and is rebuilt by scanning the segments on open. A torn record at the end of the last segment (crash
+ * mid-write) is truncated away.
+ *
+ * <p>Segments are deleted oldest first once none of their entries is live, so one long-lived entry keeps the
+ * segments after it on disk. An interrupt during a read or append closes the segment's channel (a {@link FileChannel}
+ * is interruptible); the store reopens it, so only the interrupted call fails.
+ */
+public final class FileDeadLetterStore implements DeadLetterStore, AutoCloseable {
+
+    private static final String SUFFIX = ".dlq";
+    private static final byte ENTRY = 1;
+    private static final byte ATTEMPT = 2;
+    private static final byte REMOVE = 3;
+    private static final int RECORD_HEADER = 8;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean sync;
+    private final ConcurrentSkipListMap<Long, Slot> index = new ConcurrentSkipListMap<>();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextId = 1;
+
+    /**
+     * @param segmentBytes roll to a new segment once the current one would exceed this size
+     * @param sync         force each append to disk before returning
+     */
+    public FileDeadLetterStore(Path dir, long segmentBytes, boolean sync) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("segmentBytes must be >= 1024");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        try {
+            Files.createDirectories(dir);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open dead-letter store " + dir, e);
+        }
+    }
+
+    @Override
+    public synchronized DeadLetter add(ConnectorMessage message, String destination, String reason) {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        DeadLetter deadLetter = new DeadLetter(nextId++, message.correlationId(), destination, reason, 0, now, now);
+        byte[] encoded = MessageCodec.encode(message);
+        byte[] correlationId = utf8(deadLetter.correlationId());
+        byte[] dest = utf8(destination);
+        byte[] why = utf8(reason);
+        ByteBuffer body = ByteBuffer.allocate(1 + 8 + 8 + 12 + correlationId.length + dest.length + why.length
+                + 4 + encoded.length);
+        body.put(ENTRY).putLong(deadLetter.id()).putLong(now.toEpochMilli());
+        putBytes(body, correlationId);
+        putBytes(body, dest);
+        putBytes(body, why);
+        putBytes(body, encoded);
+        long bodyPosition = append(body.flip());
+        long messagePosition = bodyPosition + body.limit() - encoded.length;
+        index.put(deadLetter.id(), new Slot(deadLetter, active, messagePosition, encoded.length));
+        active.live++;
+        return deadLetter;
+    }
+
+    @Override
+    public Optional<ConnectorMessage> read(DeadLetter deadLetter) {
+        Slot slot = index.get(deadLetter.id());
+        if (slot == null) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length);
+        FileChannel channel = slot.segment.channel;
+        try {
+            try {
+                readFully(channel, buffer, slot.position);
+            } catch (ClosedByInterruptException e) {
+                reopen(slot.segment, channel);
+                throw e;
+            } catch (ClosedChannelException e) {
+                // segment deleted after a concurrent remove, or its channel closed by another thread's interrupt
+                if (!reopen(slot.segment, channel)) {
+                    return Optional.empty();
+                }
+                readFully(slot.segment.channel, buffer.clear(), slot.position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read dead letter " + deadLetter.id(), e);
+        }
+        return Optional.of(MessageCodec.decode(buffer.flip()));
+    }
+
+    @Override
+    public synchronized Optional<DeadLetter> recordAttempt(DeadLetter deadLetter, String reason) {
+        Slot slot = index.get(deadLetter.id());
+        if (slot == null) {
+            return Optional.empty();
+        }
+        DeadLetter current = slot.deadLetter;
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        DeadLetter updated = new DeadLetter(current.id(), current.correlationId(), current.destination(), reason,
+                current.attempts() + 1, current.deadAt(), now);
+        byte[] why = utf8(reason);
+        ByteBuffer body = ByteBuffer.allocate(1 + 8 + 4 + 8 + 4 + why.length);
+        body.put(ATTEMPT).putLong(updated.id()).putInt(updated.attempts()).putLong(now.toEpochMilli());
+        putBytes(body, why);
+        append(body.flip());
+        index.put(updated.id(), new Slot(updated, slot.segment, slot.position, slot.length));
+        return Optional.of(updated);
+    }
+
+    @Override
+    public synchronized boolean remove(DeadLetter deadLetter) {
+        Slot slot = index.remove(deadLetter.id());
+        if (slot == null) {
+            return false;
+        }
+        append(ByteBuffer.allocate(1 + 8).put(REMOVE).putLong(deadLetter.id()).flip());
+        slot.segment.live--;
+        deleteDeadSegments();
+        return true;
+    }
+
+    @Override
+    public Stream<DeadLetter> entries() {
+        return index.values().stream().map(Slot::deadLetter);
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> counts() {
+        return entries().collect(Collectors.groupingBy(DeadLetter::destination, TreeMap::new,
+                Collectors.groupingBy(DeadLetter::reason, TreeMap::new, Collectors.counting())));
+    }
+
+    @Override
+    public long size() {
+        return index.size();
+    }
+
+    /**
+     * Segment files currently on disk.
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        segments.clear();
+    }
+
+    /**
+     * Append [length][crc32c][body] to the active segment, rolling first if it would overflow.
+     *
+     * @return file position of the body
+     */
+    private long append(ByteBuffer body) {
+        int length = body.remaining();
+        try {
+            if (active.size > 0 && active.size + RECORD_HEADER + length > segmentBytes) {
+                active = openSegment(active.id + 1);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length)
+                    .putInt(length).putInt((int) crc.getValue()).put(body).flip();
+            long position = write(active, record);
+            long bodyPosition = active.size + RECORD_HEADER;
+            active.size = position;
+            return bodyPosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to dead-letter store " + dir, e);
+        }
+    }
+
+    /**
+     * Write the record at the end of the segment, on a reopened channel if another thread's interrupt closed it.
+     *
+     * @return position after the record
+     */
+    private long write(Segment segment, ByteBuffer record) throws IOException {
+        FileChannel channel = segment.channel;
+        try {
+            return write(channel, segment.size, record);
+        } catch (ClosedByInterruptException e) {
+            reopen(segment, channel);
+            throw e;
+        } catch (ClosedChannelException e) {
+            reopen(segment, channel);
+            return write(segment.channel, segment.size, record.rewind());
+        }
+    }
+
+    private long write(FileChannel channel, long position, ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+        return position;
+    }
+
+    /**
+     * Replace the segment's channel if it is still the closed one and the segment was not deleted.
+     *
+     * @return false when the segment has been deleted
+     */
+    private synchronized boolean reopen(Segment segment, FileChannel closed) throws IOException {
+        if (segments.get(segment.id) != segment) {
+            return false;
+        }
+        if (segment.channel == closed) {
+            segment.channel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return true;
+    }
+
+    private void deleteDeadSegments() {
+        while (segments.size() > 1 && segments.firstEntry().getValue() != active
+                && segments.firstEntry().getValue().live == 0) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            try {
+                oldest.channel.close();
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", id, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segment.size = channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+        }
+        ids.sort(null);
+        for (int i = 0; i < ids.size(); i++) {
+            Segment segment = openSegment(ids.get(i));
+            long valid = scan(segment);
+            if (valid < segment.size && i == ids.size() - 1) {
+                // torn tail from a crash mid-append: drop it so new records follow the last good one
+                segment.channel.truncate(valid);
+            }
+            segment.size = valid;
+        }
+        active = segments.isEmpty() ? openSegment(0) : segments.lastEntry().getValue();
+        deleteDeadSegments();
+    }
+
+    /**
+     * Apply every valid record of the segment to the index.
+     *
+     * @return position after the last valid record
+     */
+    private long scan(Segment segment) throws IOException {
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= segment.size) {
+            readFully(segment.channel, header.clear(), position);
+            int length = header.getInt(0);
+            int checksum = header.getInt(4);
+            if (length <= 0 || position + RECORD_HEADER + length > segment.size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(segment.channel, body, position + RECORD_HEADER);
+            CRC32C crc = new CRC32C();
+            crc.update(body.flip());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(segment, body.rewind(), position + RECORD_HEADER);
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    private void apply(Segment segment, ByteBuffer body, long bodyPosition) {
+        byte type = body.get();
+        long id = body.getLong();
+        nextId = Math.max(nextId, id + 1);
+        switch (type) {
+            case ENTRY -> {
+                Instant deadAt = Instant.ofEpochMilli(body.getLong());
+                String correlationId = getString(body);
+                String destination = getString(body);
+                String reason = getString(body);
+                int length = body.getInt();
+                DeadLetter deadLetter = new DeadLetter(id, correlationId, destination, reason, 0, deadAt, deadAt);
+                index.put(id, new Slot(deadLetter, segment, bodyPosition + body.position(), length));
+                segment.live++;
+            }
+            case ATTEMPT -> {
+                int attempts = body.getInt();
+                Instant lastAttemptAt = Instant.ofEpochMilli(body.getLong());
+                String reason = getString(body);
+                index.computeIfPresent(id, (key, slot) -> new Slot(new DeadLetter(id,
+                        slot.deadLetter.correlationId(), slot.deadLetter.destination(), reason, attempts,
+                        slot.deadLetter.deadAt(), lastAttemptAt), slot.segment, slot.position, slot.length));
+            }
+            case REMOVE -> {
+                Slot slot = index.remove(id);
+                if (slot != null) {
+                    slot.segment.live--;
+                }
+            }
+            default -> throw new IllegalStateException("Unknown dead-letter record type " + type);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of dead-letter segment");
+            }
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private volatile FileChannel channel;
+        private long size;
+        private int live;
+
+        private Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    /** Index entry: metadata plus where the encoded message lies on disk. */
+    private record Slot(DeadLetter deadLetter, Segment segment, long position, int length) {
+    }
+}
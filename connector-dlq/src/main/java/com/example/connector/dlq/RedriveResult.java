@@ -0,0 +1,11 @@
+package com.example.connector.dlq;
+
+/**
+ * Outcome of one redelivery pass.
+ *
+ * @param attempted   entries sent to their destination
+ * @param redelivered sends that succeeded (entry removed)
+ * @param failed      sends that failed again (attempt recorded)
+ */
+public record RedriveResult(long attempted, long redelivered, long failed) {
+}
@@ -0,0 +1,42 @@
+package com.example.connector.dlq
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+
+class DeadLetterEndpointSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "summarizes and redrives dead letters"() {
+        given:
+        def store = new FileDeadLetterStore(dir, 4096, false)
+        store.add(new ConnectorMessage("k1", "jms", new byte[0], Map.of(), Instant.now()), "kafka", "TimeoutException")
+        store.add(new ConnectorMessage("k2", "jms", new byte[0], Map.of(), Instant.now()), "kafka", "CircuitOpenException")
+        def redeliverer = DeadLetterRedeliverer.builder(store)
+                .destination("kafka", { msg, opts -> CompletableFuture.completedFuture(new SendResult.Success("ok")) } as OutboundTransport)
+                .build()
+        def endpoint = new DeadLetterEndpoint(store, redeliverer)
+
+        expect:
+        endpoint.summary() == [size: 2L, destinations: [kafka: [CircuitOpenException: 1L, TimeoutException: 1L]],
+                               redelivered: 0L, failed: 0L]
+
+        when:
+        def response = endpoint.redrive("kafka", "TimeoutException")
+
+        then:
+        response == [attempted: 1L, redelivered: 1L, failed: 0L, remaining: 1L]
+        endpoint.summary().redelivered == 1L
+
+        cleanup:
+        store.close()
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.connector.dlq
+
+import com.example.connector.core.dlq.DeadLetter
+import com.example.connector.core.dlq.DeadLetterStore
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Timeout
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Path
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeoutException
+
+class DeadLetterRedelivererSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    FileDeadLetterStore store
+    def sent = new CopyOnWriteArrayList<String>()
+    def ok = { ConnectorMessage msg, Map opts ->
+        sent << msg.correlationId()
+        CompletableFuture.completedFuture(new SendResult.Success("ok"))
+    } as OutboundTransport
+    def failing = { ConnectorMessage msg, Map opts ->
+        sent << msg.correlationId()
+        CompletableFuture.completedFuture(new SendResult.Failure(new TimeoutException("slow")))
+    } as OutboundTransport
+
+    def setup() {
+        store = new FileDeadLetterStore(dir, 64 * 1024, false)
+    }
+
+    def cleanup() {
+        store.close()
+    }
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "jms", "data".bytes, Map.of(), Instant.now())
+    }
+
+    def "redrive sends matching entries and removes the redelivered ones"() {
+        given:
+        store.add(message("k1"), "kafka", "TimeoutException")
+        store.add(message("k2"), "kafka", "CircuitOpenException")
+        store.add(message("h1"), "http", "TimeoutException")
+        def redeliverer = DeadLetterRedeliverer.builder(store)
+                .destination("kafka", ok)
+                .destination("http", failing)
+                .maxInFlight(1)
+                .build()
+
+        when:
+        def result = redeliverer.redrive("kafka", "TimeoutException")
+
+        then:
+        result == new RedriveResult(1, 1, 0)
+        sent == ["k1"]
+        store.entries().toList()*.correlationId() == ["k2", "h1"]
+
+        when:
+        def all = redeliverer.redrive(null, null)
+
+        then:
+        all == new RedriveResult(2, 1, 1)
+        store.entries().toList()*.correlationId() == ["h1"]
+        store.entries().findFirst().get().attempts() == 1
+        redeliverer.getRedeliveredCount() == 2
+        redeliverer.getFailedCount() == 1
+    }
+
+    def "skips entries for unknown destinations and counts thrown sends as failures"() {
+        given:
+        store.add(message("g1"), "grpc", "TimeoutException")
+        store.add(message("k1"), "kafka", "TimeoutException")
+        def throwing = { ConnectorMessage msg, Map opts -> throw new IllegalStateException("down") } as OutboundTransport
+        def redeliverer = DeadLetterRedeliverer.builder(store).destination("kafka", throwing).build()
+
+        when:
+        def result = redeliverer.redrive(null, null)
+
+        then:
+        result == new RedriveResult(1, 0, 1)
+        store.counts() == [grpc: [TimeoutException: 1L], kafka: [IllegalStateException: 1L]]
+    }
+
+    def "redelivers an entry whose original deadline has passed"() {
+        given:
+        store.add(message("late").withDeadline(Instant.now().minusSeconds(60)), "kafka", "TimeoutException")
+        def refusingExpired = { ConnectorMessage msg, Map opts ->
+            msg.isExpired(Instant.now())
+                    ? CompletableFuture.completedFuture(new SendResult.Failure(new TimeoutException("expired")))
+                    : ok.send(msg, opts)
+        } as OutboundTransport
+        def redeliverer = DeadLetterRedeliverer.builder(store).destination("kafka", refusingExpired).build()
+
+        when:
+        def result = redeliverer.redrive(null, null)
+
+        then:
+        result == new RedriveResult(1, 1, 0)
+        sent == ["late"]
+        store.size() == 0
+    }
+
+    @Timeout(10)
+    def "finishes the pass when the store fails to record the outcome"() {
+        given:
+        store.add(message("k1"), "kafka", "TimeoutException")
+        store.add(message("k2"), "kafka", "TimeoutException")
+        def broken = [
+                entries: { store.entries() },
+                read   : { DeadLetter d -> store.read(d) },
+                remove : { DeadLetter d -> throw new UncheckedIOException(new IOException("disk full")) }
+        ] as DeadLetterStore
+        def redeliverer = DeadLetterRedeliverer.builder(broken).destination("kafka", ok).maxInFlight(1).build()
+
+        when:
+        def result = redeliverer.redrive(null, null)
+
+        then:
+        result.attempted() == 2
+        sent == ["k1", "k2"]
+    }
+
+    def "scheduled passes wait for the jittered backoff and stop at max attempts"() {
+        given:
+        def entry = store.add(message("k1"), "kafka", "TimeoutException")
+        def redeliverer = DeadLetterRedeliverer.builder(store)
+                .destination("kafka", failing)
+                .backoff(Duration.ofSeconds(40), Duration.ofSeconds(80))
+                .maxAttempts(2)
+                .build()
+        def due = redeliverer.nextAttemptAt(entry)
+
+        expect: "due between half and all of the initial backoff, the same on every pass"
+        Duration.between(entry.lastAttemptAt(), due).toMillis() in 20_000L..40_000L
+        redeliverer.nextAttemptAt(entry) == due
+        redeliverer.redeliverDue() == new RedriveResult(0, 0, 0)
+        redeliverer.redeliverDue(due.minusMillis(1)) == new RedriveResult(0, 0, 0)
+
+        when:
+        def first = redeliverer.redeliverDue(due)
+        def retried = store.entries().findFirst().get()
+        def secondDue = redeliverer.nextAttemptAt(retried)
+        def second = redeliverer.redeliverDue(secondDue)
+        def parked = store.entries().findFirst().get()
+        def third = redeliverer.redeliverDue(parked.lastAttemptAt().plus(Duration.ofDays(1)))
+
+        then:
+        first == new RedriveResult(1, 0, 1)
+        Duration.between(retried.lastAttemptAt(), secondDue).toMillis() in 40_000L..80_000L
+        second == new RedriveResult(1, 0, 1)
+        parked.attempts() == 2
+        third == new RedriveResult(0, 0, 0)
+        sent == ["k1", "k1"]
+    }
+
+    def "backoff is capped at the maximum"() {
+        given:
+        def entry = store.add(message("k1"), "kafka", "TimeoutException")
+        def redeliverer = DeadLetterRedeliverer.builder(store)
+                .backoff(Duration.ofSeconds(1), Duration.ofSeconds(10))
+                .build()
+        def late = new com.example.connector.core.dlq.DeadLetter(entry.id(), "k1", "kafka", "TimeoutException", 40,
+                entry.deadAt(), entry.lastAttemptAt())
+
+        expect:
+        Duration.between(late.lastAttemptAt(), redeliverer.nextAttemptAt(late)).toMillis() in 5_000L..10_000L
+    }
+
+    def "start runs scheduled passes until stopped"() {
+        given:
+        store.add(message("k1"), "kafka", "TimeoutException")
+        def redeliverer = DeadLetterRedeliverer.builder(store)
+                .destination("kafka", ok)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(1))
+                .build()
+
+        when:
+        redeliverer.start(Duration.ofMillis(10))
+        redeliverer.start(Duration.ofMillis(10))
+
+        then:
+        redeliverer.isRunning()
+        new PollingConditions(timeout: 5).eventually {
+            assert store.size() == 0
+        }
+
+        when:
+        redeliverer.close()
+        redeliverer.stop()
+
+        then:
+        !redeliverer.isRunning()
+        sent == ["k1"]
+    }
+
+    def "rejects invalid settings"() {
+        when:
+        DeadLetterRedeliverer.builder(store).backoff(Duration.ofSeconds(2), Duration.ofSeconds(1))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        DeadLetterRedeliverer.builder(store).maxInFlight(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.connector.dlq
+
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.io.UncheckedIOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import java.time.Instant
+
+class FileDeadLetterStoreSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    FileDeadLetterStore store
+
+    def cleanup() {
+        store?.close()
+    }
+
+    private static ConnectorMessage message(String correlationId, int payloadBytes = 10) {
+        new ConnectorMessage(correlationId, "jms", ("x" * payloadBytes).bytes,
+                ["X-Account-ID": "acc-$correlationId".toString()], Instant.ofEpochSecond(1_000, 42))
+    }
+
+    private FileDeadLetterStore reopen() {
+        store.close()
+        store = new FileDeadLetterStore(dir, 4096, false)
+    }
+
+    def "stores, indexes and reads back dead letters"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, true)
+
+        when:
+        def a = store.add(message("a"), "kafka", "TimeoutException")
+        store.add(message("b"), "kafka", "CircuitOpenException")
+        store.add(message("c"), "http", "TimeoutException")
+
+        then:
+        a.id() == 1
+        a.correlationId() == "a"
+        a.attempts() == 0
+        a.lastAttemptAt() == a.deadAt()
+        store.size() == 3
+        store.entries().toList()*.correlationId() == ["a", "b", "c"]
+        store.counts() == [http: [TimeoutException: 1L], kafka: [CircuitOpenException: 1L, TimeoutException: 1L]]
+
+        when:
+        def read = store.read(a).get()
+
+        then:
+        read.correlationId() == "a"
+        read.payload() == ("x" * 10).bytes
+        read.headers() == ["X-Account-ID": "acc-a"]
+        read.timestamp() == Instant.ofEpochSecond(1_000, 42)
+    }
+
+    def "records attempts and removes entries"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        def a = store.add(message("a"), "kafka", "TimeoutException")
+
+        when:
+        def updated = store.recordAttempt(a, "CircuitOpenException").get()
+
+        then:
+        updated.id() == a.id()
+        updated.attempts() == 1
+        updated.reason() == "CircuitOpenException"
+        !updated.lastAttemptAt().isBefore(a.lastAttemptAt())
+        store.counts() == [kafka: [CircuitOpenException: 1L]]
+
+        when:
+        def removed = store.remove(a)
+
+        then:
+        removed
+        !store.remove(a)
+        store.read(a).isEmpty()
+        store.recordAttempt(a, "again").isEmpty()
+        store.size() == 0
+    }
+
+    def "rebuilds the index from disk"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        def a = store.add(message("a"), "kafka", "TimeoutException")
+        def b = store.add(message("b"), "kafka", "TimeoutException")
+        def c = store.add(message("c"), "http", "TimeoutException")
+        def b2 = store.recordAttempt(b, "CircuitOpenException").get()
+        store.remove(a)
+
+        when:
+        reopen()
+
+        then:
+        store.entries().toList() == [b2, c]
+        store.read(c).get().correlationId() == "c"
+
+        when: "ids continue after the highest recovered id"
+        def d = store.add(message("d"), "kafka", "TimeoutException")
+
+        then:
+        d.id() == 4
+    }
+
+    def "truncates a torn record at the end of the log"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        store.add(message("a"), "kafka", "TimeoutException")
+        store.close()
+        def segment = Files.list(dir).toList().first()
+        def validSize = Files.size(segment)
+        Files.write(segment, [0, 0, 0, 40, 1, 2, 3] as byte[], StandardOpenOption.APPEND)
+
+        when:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        store.add(message("b"), "kafka", "TimeoutException")
+        reopen()
+
+        then:
+        Files.size(segment) > validSize
+        store.entries().toList()*.correlationId() == ["a", "b"]
+    }
+
+    def "stops at a record with a bad checksum"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        store.add(message("a"), "kafka", "TimeoutException")
+        store.add(message("b"), "kafka", "TimeoutException")
+        store.close()
+        def segment = Files.list(dir).toList().first()
+        def bytes = Files.readAllBytes(segment)
+        bytes[bytes.length - 1] ^= 0x7f
+        Files.write(segment, bytes)
+
+        when:
+        store = new FileDeadLetterStore(dir, 4096, false)
+
+        then:
+        store.entries().toList()*.correlationId() == ["a"]
+    }
+
+    def "rolls segments and deletes them once their entries are gone"() {
+        given:
+        store = new FileDeadLetterStore(dir, 1024, false)
+        def entries = (1..20).collect { store.add(message("m$it", 200), "kafka", "TimeoutException") }
+
+        expect:
+        store.segmentCount() > 3
+
+        when: "the oldest entry stays live"
+        entries.drop(1).each { store.remove(it) }
+
+        then:
+        store.segmentCount() > 1
+
+        when:
+        store.remove(entries[0])
+
+        then:
+        store.segmentCount() == 1
+        Files.list(dir).count() == 1
+
+        when:
+        reopen()
+
+        then:
+        store.size() == 0
+        store.add(message("next"), "kafka", "TimeoutException").id() == 21
+    }
+
+    def "an interrupted read or append fails alone and leaves the segment usable"() {
+        given:
+        store = new FileDeadLetterStore(dir, 4096, false)
+        def a = store.add(message("a"), "kafka", "TimeoutException")
+
+        when:
+        Thread.currentThread().interrupt()
+        store.read(a)
+
+        then:
+        thrown(UncheckedIOException)
+        Thread.interrupted()
+
+        when:
+        Thread.currentThread().interrupt()
+        store.add(message("b"), "kafka", "TimeoutException")
+
+        then:
+        thrown(UncheckedIOException)
+        Thread.interrupted()
+
+        when:
+        def c = store.add(message("c"), "kafka", "TimeoutException")
+        store.recordAttempt(a, "CircuitOpenException")
+
+        then:
+        store.read(a).get().correlationId() == "a"
+        store.read(c).get().correlationId() == "c"
+
+        when:
+        reopen()
+
+        then:
+        store.entries().toList()*.correlationId() == ["a", "c"]
+        store.entries().findFirst().get().attempts() == 1
+    }
+
+    def "rejects tiny segments"() {
+        when:
+        new FileDeadLetterStore(dir, 100, false)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "fails to open when the directory is a file"() {
+        given:
+        def file = Files.createFile(dir.resolve("not-a-dir"))
+
+        when:
+        new FileDeadLetterStore(file, 4096, false)
+
+        then:
+        thrown(UncheckedIOException)
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.connector.journal;
 
+import com.example.connector.core.journal.HeadersJson;
 import com.example.connector.core.journal.JournalEntry;
 import com.example.connector.core.journal.JournalWriter;
 import com.example.connector.core.model.ConnectorMessage;
@@ -47,8 +48,9 @@ public final class JdbcJournalWriter implements JournalWriter {
             ps.setString(2, "request");
             ps.setString(3, message.transportType());
             ps.setString(4, "application/octet-stream");
-            ps.setBytes(5, message.payload());
-            ps.setString(6, "{}");
+            // streamed from the body view so a sliced or off-heap body is not first copied into an array
+            ps.setBinaryStream(5, message.body().openStream(), message.body().size());
+            ps.setString(6, HeadersJson.write(message.headers()));
             ps.setObject(7, message.timestamp());
             return ps;
         }, keyHolder);
@@ -75,6 +77,17 @@ public final class JdbcJournalWriter implements JournalWriter {
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
+    /**
+     * The most recent response row (SENT, FAILED, EXPIRED, ...), e.g. to tell a completed message from one to retry.
+     */
+    public Optional<JournalEntry> getLatestResponse(String correlationId) {
+        var list = jdbcTemplate.query(
+                "SELECT id, correlation_id, direction, transport, payload_type, payload_blob, headers_json, status, created_at, processed_at, error_message FROM connector_journal WHERE correlation_id = ? AND direction = 'response' ORDER BY id DESC LIMIT 1",
+                ROW_MAPPER,
+                correlationId);
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
     private static JournalEntry mapRow(ResultSet rs) throws SQLException {
         return new JournalEntry(
                 rs.getLong("id"),
@@ -1,11 +1,13 @@
 package com.example.connector.journal
 
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType
 import org.springframework.jdbc.core.JdbcTemplate
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
 import java.time.Instant
 
 class JdbcJournalWriterSpec extends Specification {
@@ -57,4 +59,44 @@ class JdbcJournalWriterSpec extends Specification {
                 Integer.class, "corr-2")
         count == 1
     }
+
+    def "returns the latest response row"() {
+        given:
+        writer.appendRequest(new ConnectorMessage("corr-5", "kafka", "req".bytes, Map.of(), Instant.now()))
+
+        expect:
+        writer.getLatestResponse("corr-5").isEmpty()
+
+        when:
+        writer.updateResponse("corr-5", "FAILED", null, "broker down")
+        writer.updateResponse("corr-5", "SENT", null, null)
+
+        then:
+        writer.getLatestResponse("corr-5").get().status() == "SENT"
+        writer.getLatestResponse("corr-5").get().direction() == "response"
+    }
+
+    def "should store only the bytes of a sliced or direct body"() {
+        given:
+        def direct = ByteBuffer.allocateDirect(16).put("[hello]".bytes).flip()
+        def message = new ConnectorMessage("corr-3", "jms", Payload.wrap(direct).slice(1, 5), Map.of(), Instant.now())
+
+        when:
+        writer.appendRequest(message)
+
+        then:
+        new String(writer.getByCorrelationId("corr-3").get().payloadBlob()) == "hello"
+    }
+
+    def "should store headers so replay restores them"() {
+        given:
+        def message = new ConnectorMessage("corr-4", "kafka", new byte[0],
+                ["X-Claim-Check": "sha256-abc", "X-Claim-Check-Size": "42"], Instant.now())
+
+        when:
+        writer.appendRequest(message)
+
+        then:
+        writer.getByCorrelationId("corr-4").get().toConnectorMessage().headers() == message.headers()
+    }
 }
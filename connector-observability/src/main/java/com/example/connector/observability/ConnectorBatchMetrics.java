@@ -0,0 +1,78 @@
+package com.example.connector.observability;
+
+import com.example.connector.core.batch.BatchDrainer;
+import com.example.connector.core.batch.BatchObserver;
+import com.example.connector.core.batch.BatchPolicy;
+import com.example.connector.core.batch.WeightedFairBatchQueue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch observer that records histograms batch.size, batch.linger, batch.processing and batch.added.latency
+ * (linger plus processing; nanos) on a transport's metrics, with p50/p99 gauges and the policy's current targets.
+ */
+public final class ConnectorBatchMetrics implements BatchObserver {
+
+    private final ConnectorHistogram size;
+    private final ConnectorHistogram linger;
+    private final ConnectorHistogram processing;
+    private final ConnectorHistogram addedLatency;
+
+    public ConnectorBatchMetrics(ConnectorMetrics metrics, BatchPolicy policy, Duration window) {
+        this.size = new ConnectorHistogram(window);
+        this.linger = new ConnectorHistogram(window);
+        this.processing = new ConnectorHistogram(window);
+        this.addedLatency = new ConnectorHistogram(window);
+        metrics.registerHistogram("batch.size", size);
+        metrics.registerHistogram("batch.linger", linger);
+        metrics.registerHistogram("batch.processing", processing);
+        metrics.registerHistogram("batch.added.latency", addedLatency);
+        metrics.registerGauge("batch.size.p50", () -> size.percentile(0.5));
+        metrics.registerGauge("batch.size.p99", () -> size.percentile(0.99));
+        metrics.registerGauge("batch.linger.p99.us", () -> micros(linger.percentile(0.99)));
+        metrics.registerGauge("batch.added.latency.p99.us", () -> micros(addedLatency.percentile(0.99)));
+        if (policy != null) {
+            metrics.registerGauge("batch.target.size", policy::batchSize);
+            metrics.registerGauge("batch.target.linger.us", () -> micros(policy.lingerNanos()));
+        }
+    }
+
+    /**
+     * Per-worker gauges batch.worker.N.lag.ms, .backlog, .batches and .processed for a drainer's workers.
+     */
+    public static void registerWorkers(ConnectorMetrics metrics, BatchDrainer drainer) {
+        for (int i = 0; i < drainer.workerCount(); i++) {
+            int worker = i;
+            String prefix = "batch.worker." + i + ".";
+            metrics.registerGauge(prefix + "lag.ms", () -> drainer.getLagMillis(worker));
+            metrics.registerGauge(prefix + "backlog", () -> drainer.getBacklog(worker));
+            metrics.registerGauge(prefix + "batches", () -> drainer.getBatchCount(worker));
+            metrics.registerGauge(prefix + "processed", () -> drainer.getProcessedCount(worker));
+        }
+    }
+
+    /**
+     * Per-lane gauges batch.lane.NAME.depth, .dequeued and .rejected for a weighted fair queue.
+     */
+    public static void registerLanes(ConnectorMetrics metrics, WeightedFairBatchQueue queue) {
+        for (String lane : queue.laneNames()) {
+            String prefix = "batch.lane." + lane + ".";
+            metrics.registerGauge(prefix + "depth", () -> queue.laneDepth(lane));
+            metrics.registerGauge(prefix + "dequeued", () -> queue.getDequeuedCount(lane));
+            metrics.registerGauge(prefix + "rejected", () -> queue.getRejectedCount(lane));
+        }
+    }
+
+    @Override
+    public void onBatch(int batchSize, long lingerNanos, long processingNanos) {
+        size.record(batchSize);
+        linger.record(lingerNanos);
+        processing.record(processingNanos);
+        addedLatency.record(lingerNanos + processingNanos);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.connector.observability;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free rolling histogram for non-negative values (e.g. latency in nanos). Log-linear buckets with four
+ * sub-buckets per power of two (at most 25% relative error). Percentiles cover the current and the previous
+ * window, so they follow recent behaviour without dropping to empty at each rotation.
+ */
+public final class ConnectorHistogram {
+
+    private static final int BUCKETS = 256;
+
+    private record Window(long startNanos, AtomicLongArray counts) {
+    }
+
+    private final long windowNanos;
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+
+    public ConnectorHistogram(Duration window) {
+        this.windowNanos = window.toNanos();
+        Window first = new Window(System.nanoTime(), new AtomicLongArray(BUCKETS));
+        this.current = new AtomicReference<>(first);
+        this.previous = new Window(first.startNanos(), new AtomicLongArray(BUCKETS));
+    }
+
+    public void record(long value) {
+        window().counts().incrementAndGet(bucketOf(Math.max(0, value)));
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile (0..1] over the last one to two windows; 0 when empty.
+     */
+    public long percentile(double quantile) {
+        Window cur = window();
+        Window prev = previous;
+        long total = 0;
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            merged[i] = cur.counts().get(i) + prev.counts().get(i);
+            total += merged[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank && merged[i] > 0) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Number of values recorded in the last one to two windows.
+     */
+    public long count() {
+        Window cur = window();
+        Window prev = previous;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += cur.counts().get(i) + prev.counts().get(i);
+        }
+        return total;
+    }
+
+    private Window window() {
+        Window cur = current.get();
+        long now = System.nanoTime();
+        if (now - cur.startNanos() < windowNanos) {
+            return cur;
+        }
+        Window next = new Window(now, new AtomicLongArray(BUCKETS));
+        if (current.compareAndSet(cur, next)) {
+            // a window older than two periods carries no recent data
+            previous = now - cur.startNanos() < 2 * windowNanos ? cur : new Window(now, new AtomicLongArray(BUCKETS));
+            return next;
+        }
+        return current.get();
+    }
+
+    static int bucketOf(long value) {
+        if (value < 4) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - 2)) & 3;
+        return 4 * (exp - 1) + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int exp = bucket / 4 + 1;
+        int sub = bucket % 4;
+        long bound = (5L + sub) << (exp - 2);
+        return bound > 0 ? bound - 1 : Long.MAX_VALUE;
+    }
+}
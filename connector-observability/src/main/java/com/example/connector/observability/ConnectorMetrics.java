@@ -1,15 +1,22 @@
 package com.example.connector.observability;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
- * Simple metrics: counters for received/sent/failed per transport; optional histograms.
+ * Simple metrics: counters for received/sent/failed/expired per transport; named gauges; optional histograms.
  */
 public final class ConnectorMetrics {
 
     private final LongAdder received = new LongAdder();
     private final LongAdder sent = new LongAdder();
     private final LongAdder failed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, ConnectorHistogram> histograms = new ConcurrentHashMap<>();
     private final String transport;
 
     public ConnectorMetrics(String transport) {
@@ -28,6 +35,13 @@ public final class ConnectorMetrics {
         failed.increment();
     }
 
+    /**
+     * A message shed because its deadline passed.
+     */
+    public void recordExpired() {
+        expired.increment();
+    }
+
     public long getReceivedCount() {
         return received.sum();
     }
@@ -40,6 +54,48 @@ public final class ConnectorMetrics {
         return failed.sum();
     }
 
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Register a gauge sampled on read (e.g. a concurrency limit). Replaces any gauge with the same name.
+     */
+    public void registerGauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Current value of the named gauge, or 0 when not registered.
+     */
+    public long getGauge(String name) {
+        LongSupplier supplier = gauges.get(name);
+        return supplier != null ? supplier.getAsLong() : 0L;
+    }
+
+    /**
+     * Snapshot of all gauges, sorted by name.
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        gauges.forEach((name, supplier) -> snapshot.put(name, supplier.getAsLong()));
+        return snapshot;
+    }
+
+    /**
+     * Register a histogram (e.g. send latency). Replaces any histogram with the same name.
+     */
+    public void registerHistogram(String name, ConnectorHistogram histogram) {
+        histograms.put(name, histogram);
+    }
+
+    /**
+     * The named histogram, or null when not registered.
+     */
+    public ConnectorHistogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
     public String getTransport() {
         return transport;
     }
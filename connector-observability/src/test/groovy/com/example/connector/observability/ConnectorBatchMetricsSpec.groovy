@@ -0,0 +1,93 @@
+package com.example.connector.observability
+
+import com.example.connector.core.batch.BatchBuffer
+import com.example.connector.core.batch.BatchDrainer
+import com.example.connector.core.batch.BatchPolicy
+import com.example.connector.core.batch.LaneClassifier
+import com.example.connector.core.batch.WeightedFairBatchQueue
+import com.example.connector.core.dispatch.OrderingKeyExtractor
+import com.example.connector.core.model.ConnectorMessage
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+class ConnectorBatchMetricsSpec extends Specification {
+
+    def metrics = new ConnectorMetrics("jms")
+
+    def "records batch histograms and exposes percentile gauges"() {
+        given:
+        def observer = new ConnectorBatchMetrics(metrics, null, Duration.ofMinutes(1))
+
+        when:
+        100.times { observer.onBatch(10, 2_000_000L, 1_000_000L) }
+
+        then:
+        metrics.getHistogram("batch.size").count() == 100
+        metrics.getHistogram("batch.linger").count() == 100
+        metrics.getHistogram("batch.processing").count() == 100
+        metrics.getHistogram("batch.added.latency").percentile(0.99) >= 3_000_000L
+        metrics.getGauge("batch.size.p50") >= 10
+        metrics.getGauge("batch.size.p99") >= 10
+        metrics.getGauge("batch.linger.p99.us") >= 2000
+        metrics.getGauge("batch.added.latency.p99.us") >= 3000
+        !metrics.getGauges().containsKey("batch.target.size")
+    }
+
+    def "exposes the policy's current targets"() {
+        given:
+        def policy = Stub(BatchPolicy) {
+            batchSize() >> 64
+            lingerNanos() >> 1_500_000L
+        }
+
+        when:
+        new ConnectorBatchMetrics(metrics, policy, Duration.ofMinutes(1))
+
+        then:
+        metrics.getGauge("batch.target.size") == 64
+        metrics.getGauge("batch.target.linger.us") == 1500
+    }
+
+    def "registers per-worker drainer gauges"() {
+        given:
+        def buffers = [new BatchBuffer(10, 4, Duration.ofMillis(10)), new BatchBuffer(10, 4, Duration.ofMillis(10))]
+        def drainer = BatchDrainer.partitioned("jms", buffers, OrderingKeyExtractor.correlationId())
+        def message = new ConnectorMessage("c1", "jms", new byte[0], Map.of(), Instant.now())
+        drainer.offer(message, 100)
+
+        when:
+        ConnectorBatchMetrics.registerWorkers(metrics, drainer)
+
+        then:
+        metrics.getGauge("batch.worker.${drainer.workerFor(message)}.backlog".toString()) == 1
+        metrics.getGauges().keySet().containsAll([
+                "batch.worker.0.lag.ms", "batch.worker.0.backlog", "batch.worker.0.batches", "batch.worker.0.processed",
+                "batch.worker.1.lag.ms", "batch.worker.1.backlog", "batch.worker.1.batches", "batch.worker.1.processed"])
+        metrics.getGauge("batch.worker.0.processed") == 0
+        metrics.getGauge("batch.worker.1.lag.ms") == 0
+        metrics.getGauge("batch.worker.1.batches") == 0
+    }
+
+    def "registers per-lane gauges"() {
+        given:
+        def queue = WeightedFairBatchQueue.builder(LaneClassifier.header("X-Tenant-ID"))
+                .urgentLane("urgent", 10)
+                .lane("bulk", 1, 10)
+                .build()
+        queue.offer(new ConnectorMessage("c1", "jms", new byte[0], ["X-Tenant-ID": "urgent"], Instant.now()), 0, TimeUnit.MILLISECONDS)
+        queue.offer(new ConnectorMessage("c2", "jms", new byte[0], Map.of(), Instant.now()), 0, TimeUnit.MILLISECONDS)
+        queue.poll(0, TimeUnit.MILLISECONDS)
+
+        when:
+        ConnectorBatchMetrics.registerLanes(metrics, queue)
+
+        then:
+        metrics.getGauge("batch.lane.urgent.dequeued") == 1
+        metrics.getGauge("batch.lane.urgent.depth") == 0
+        metrics.getGauge("batch.lane.bulk.depth") == 1
+        metrics.getGauge("batch.lane.bulk.rejected") == 0
+    }
+}
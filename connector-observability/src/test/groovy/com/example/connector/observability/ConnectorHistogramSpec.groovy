@@ -0,0 +1,70 @@
+package com.example.connector.observability
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ConnectorHistogramSpec extends Specification {
+
+    def "percentiles are bucket upper bounds within 25 percent"() {
+        given:
+        def histogram = new ConnectorHistogram(Duration.ofMinutes(1))
+
+        when:
+        (1..100).each { histogram.record(it * 1_000_000L) }
+
+        then:
+        histogram.count() == 100
+        histogram.percentile(0.5) >= 50_000_000L
+        histogram.percentile(0.5) <= 62_500_000L
+        histogram.percentile(0.95) >= 95_000_000L
+        histogram.percentile(0.95) <= 118_750_000L
+        histogram.percentile(1.0) >= 100_000_000L
+    }
+
+    def "empty histogram reports zero"() {
+        expect:
+        new ConnectorHistogram(Duration.ofSeconds(1)).percentile(0.99) == 0L
+        new ConnectorHistogram(Duration.ofSeconds(1)).count() == 0L
+    }
+
+    def "small and negative values land in exact buckets"() {
+        given:
+        def histogram = new ConnectorHistogram(Duration.ofMinutes(1))
+
+        when:
+        histogram.record(-5)
+        histogram.record(3)
+
+        then:
+        histogram.percentile(0.5) == 0L
+        histogram.percentile(1.0) == 3L
+    }
+
+    def "values older than two windows are dropped"() {
+        given:
+        def histogram = new ConnectorHistogram(Duration.ofMillis(100))
+        histogram.record(1000)
+
+        when:
+        Thread.sleep(120)
+        histogram.record(10)
+
+        then: "previous window still counts"
+        histogram.count() == 2
+
+        when:
+        Thread.sleep(250)
+
+        then:
+        histogram.count() == 0
+    }
+
+    def "bucket bounds cover every value"() {
+        expect:
+        ConnectorHistogram.upperBound(ConnectorHistogram.bucketOf(value)) >= value
+
+        where:
+        value << [0L, 4L, 7L, 8L, 9L, 1023L, 1024L, 123_456_789L, Long.MAX_VALUE]
+    }
+}
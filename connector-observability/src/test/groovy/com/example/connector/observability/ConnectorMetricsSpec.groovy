@@ -20,4 +20,43 @@ class ConnectorMetricsSpec extends Specification {
         metrics.getFailedCount() == 1
         metrics.getTransport() == "http"
     }
+
+    def "should sample registered gauges on read"() {
+        given:
+        def metrics = new ConnectorMetrics("kafka-out")
+        def value = 5L
+        metrics.registerGauge("concurrency.limit", { value })
+
+        when:
+        value = 7L
+
+        then:
+        metrics.getGauge("concurrency.limit") == 7L
+        metrics.getGauge("unknown") == 0L
+        metrics.getGauges() == ["concurrency.limit": 7L]
+    }
+
+    def "should hold registered histograms by name"() {
+        given:
+        def metrics = new ConnectorMetrics("http-out")
+        def histogram = new ConnectorHistogram(java.time.Duration.ofSeconds(10))
+
+        when:
+        metrics.registerHistogram("send.latency", histogram)
+
+        then:
+        metrics.getHistogram("send.latency").is(histogram)
+        metrics.getHistogram("unknown") == null
+    }
+    def "should record expired messages"() {
+        given:
+        def metrics = new ConnectorMetrics("jms")
+
+        when:
+        metrics.recordExpired()
+
+        then:
+        metrics.getExpiredCount() == 1
+        metrics.getFailedCount() == 0
+    }
 }
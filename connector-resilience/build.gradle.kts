@@ -0,0 +1,8 @@
+plugins {
+    id("connector-conventions")
+}
+
+dependencies {
+    api(project(":connector-core"))
+    api(project(":connector-observability"))
+}
@@ -0,0 +1,77 @@
+package com.example.connector.resilience;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-flight counter bounded by a {@link LimitAlgorithm}. Acquire is a CAS on the counter (no semaphore, no waiting);
+ * each permit reports its latency and outcome back to the algorithm on completion.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Take a permit if in-flight is below the current limit.
+     *
+     * @return the permit, or empty when the limit is reached
+     */
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= algorithm.getLimit()) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(System.nanoTime(), current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * One in-flight send. Complete exactly once.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            complete(false);
+        }
+
+        public void onDropped() {
+            complete(true);
+        }
+
+        private void complete(boolean dropped) {
+            inFlight.decrementAndGet();
+            algorithm.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+        }
+    }
+}
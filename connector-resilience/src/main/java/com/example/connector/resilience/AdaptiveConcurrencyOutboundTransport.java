@@ -0,0 +1,77 @@
+package com.example.connector.resilience;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.DeadlineExceededException;
+import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.core.transport.SendResult;
+import com.example.connector.observability.ConnectorMetrics;
+import com.example.connector.observability.ConnectorMetricsRegistry;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Wraps any OutboundTransport with an adaptive concurrency limit. Sends over the limit complete immediately with
+ * {@link SendResult.Failure} ({@link ConcurrencyLimitExceededException}); a failed send counts as a congestion drop.
+ * When a metrics registry is given, gauges concurrency.limit / concurrency.inflight / concurrency.rejected are
+ * registered under the destination name. Messages past their deadline fail without taking a permit.
+ */
+public final class AdaptiveConcurrencyOutboundTransport implements OutboundTransport {
+
+    private final OutboundTransport delegate;
+    private final String name;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdaptiveConcurrencyOutboundTransport(OutboundTransport delegate, String name, LimitAlgorithm algorithm) {
+        this(delegate, name, algorithm, null);
+    }
+
+    public AdaptiveConcurrencyOutboundTransport(OutboundTransport delegate,
+                                                String name,
+                                                LimitAlgorithm algorithm,
+                                                ConnectorMetricsRegistry metricsRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.limiter = new AdaptiveConcurrencyLimiter(algorithm);
+        if (metricsRegistry != null) {
+            ConnectorMetrics metrics = metricsRegistry.getMetrics(name);
+            metrics.registerGauge("concurrency.limit", limiter::getLimit);
+            metrics.registerGauge("concurrency.inflight", limiter::getInFlight);
+            metrics.registerGauge("concurrency.rejected", limiter::getRejectedCount);
+        }
+    }
+
+    @Override
+    public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
+        SendResult.Failure expired = DeadlineExceededException.failureIfExpired(message, Instant.now());
+        if (expired != null) {
+            // do not spend a permit on a message nobody waits for any more
+            return CompletableFuture.completedFuture(expired);
+        }
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire();
+        if (permit.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    new SendResult.Failure(new ConcurrencyLimitExceededException(name, limiter.getLimit())));
+        }
+        CompletableFuture<SendResult> future;
+        try {
+            future = delegate.send(message, options);
+        } catch (RuntimeException e) {
+            permit.get().onDropped();
+            throw e;
+        }
+        return future.whenComplete((result, ex) -> {
+            if (ex == null && result instanceof SendResult.Success) {
+                permit.get().onSuccess();
+            } else {
+                permit.get().onDropped();
+            }
+        });
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
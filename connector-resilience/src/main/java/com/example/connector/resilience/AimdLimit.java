@@ -0,0 +1,50 @@
+package com.example.connector.resilience;
+
+import java.time.Duration;
+
+/**
+ * Additive-increase/multiplicative-decrease limit: +1 per successful send while the limit is in use,
+ * multiplied by the backoff ratio on a failure or a send slower than the timeout.
+ */
+public final class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private volatile int limit;
+
+    /**
+     * @param backoffRatio multiplier applied on a drop, in (0.5, 1.0)
+     * @param timeout      sends slower than this count as drops
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("require 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio < 0.5 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("backoffRatio must be in [0.5, 1.0)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeout.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inFlight * 2 >= current) {
+            // grow only when at least half the limit is used, so idle periods do not inflate it
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.connector.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free circuit breaker. CLOSED: outcomes are counted in a tumbling window of windowSize calls and the breaker
+ * opens once the failure rate reaches the threshold (after minimumCalls). OPEN: calls are refused until openDuration
+ * has elapsed. HALF_OPEN: halfOpenCalls trial calls are permitted; all succeeding closes it, any failure re-opens it.
+ * Permission checks never wait.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private record Phase(State state, long openedAtNanos) {
+    }
+
+    private static final Phase CLOSED = new Phase(State.CLOSED, 0L);
+    private static final Phase HALF_OPEN = new Phase(State.HALF_OPEN, 0L);
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final int windowSize;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(CLOSED);
+    /** failures in the high 32 bits, calls in the low 32 bits */
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    /**
+     * @param failureRateThreshold fraction of failed calls (0, 1] that opens the breaker
+     */
+    public CircuitBreaker(double failureRateThreshold, int minimumCalls, int windowSize,
+                          Duration openDuration, int halfOpenCalls) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (minimumCalls < 1 || windowSize < minimumCalls || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("require 1 <= minimumCalls <= windowSize and halfOpenCalls >= 1");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.windowSize = windowSize;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Whether a call may proceed now. Moves OPEN to HALF_OPEN once the open duration has elapsed.
+     */
+    public boolean tryAcquirePermission() {
+        Phase current = phase.get();
+        if (current.state() == State.CLOSED) {
+            return true;
+        }
+        if (current.state() == State.OPEN) {
+            if (System.nanoTime() - current.openedAtNanos() < openNanos) {
+                return false;
+            }
+            if (phase.compareAndSet(current, HALF_OPEN)) {
+                // the transitioning caller takes the first trial permit
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(halfOpenCalls - 1);
+                return true;
+            }
+            return tryAcquirePermission();
+        }
+        return halfOpenPermits.getAndUpdate(p -> p > 0 ? p - 1 : p) > 0;
+    }
+
+    /**
+     * Return a permission that was acquired but not used for a call (e.g. a later stage refused it).
+     */
+    public void releasePermission() {
+        if (phase.get().state() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    private void record(boolean failure) {
+        Phase current = phase.get();
+        if (current.state() == State.HALF_OPEN) {
+            if (failure) {
+                open(current);
+            } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls && phase.compareAndSet(current, CLOSED)) {
+                window.set(0);
+            }
+            return;
+        }
+        if (current.state() == State.OPEN) {
+            return;
+        }
+        long counts = window.addAndGet(failure ? (1L << 32) + 1 : 1);
+        int calls = (int) counts;
+        int failures = (int) (counts >>> 32);
+        if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+            open(current);
+        } else if (calls >= windowSize) {
+            window.compareAndSet(counts, 0);
+        }
+    }
+
+    private void open(Phase from) {
+        if (phase.compareAndSet(from, new Phase(State.OPEN, System.nanoTime()))) {
+            window.set(0);
+        }
+    }
+
+    public State getState() {
+        return phase.get().state();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.connector.resilience;
+
+/**
+ * Send refused because the destination's circuit breaker is open.
+ */
+public final class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("Circuit breaker open for " + name);
+    }
+}
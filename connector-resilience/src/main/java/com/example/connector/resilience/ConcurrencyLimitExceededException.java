@@ -0,0 +1,11 @@
+package com.example.connector.resilience;
+
+/**
+ * Send rejected because the destination's adaptive concurrency limit is reached.
+ */
+public final class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String name, int limit) {
+        super("Concurrency limit " + limit + " reached for " + name);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.connector.resilience;
+
+/**
+ * Static in-flight limit (bulkhead semantics without a semaphore).
+ */
+public final class FixedLimit implements LimitAlgorithm {
+
+    private final int limit;
+
+    public FixedLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be >= 1");
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        // fixed
+    }
+}
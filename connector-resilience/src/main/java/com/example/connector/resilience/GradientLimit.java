@@ -0,0 +1,55 @@
+package com.example.connector.resilience;
+
+/**
+ * Vegas-style gradient limit: compares the latest latency with a slow-moving baseline. While latency stays near the
+ * baseline the limit grows by a queue allowance of sqrt(limit); as latency rises the limit shrinks proportionally.
+ */
+public final class GradientLimit implements LimitAlgorithm {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final int BASELINE_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double estimatedLimit;
+    private double baselineRttNanos;
+    private volatile int limit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("require 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * 0.9);
+            limit = (int) estimatedLimit;
+            return;
+        }
+        double rtt = Math.max(1, rttNanos);
+        baselineRttNanos = baselineRttNanos == 0 ? rtt : baselineRttNanos + (rtt - baselineRttNanos) / BASELINE_WINDOW;
+        if (baselineRttNanos / rtt > 2) {
+            // latency dropped sharply (e.g. downstream recovered): let the baseline follow quickly
+            baselineRttNanos *= 0.95;
+        }
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRttNanos / rtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.connector.resilience;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.DeadlineExceededException;
+import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.core.transport.SendResult;
+import com.example.connector.observability.ConnectorHistogram;
+import com.example.connector.observability.ConnectorMetrics;
+import com.example.connector.observability.ConnectorMetricsRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request hedging for idempotent destinations: when the first attempt has not completed after a delay derived from
+ * recent latency (p95 by default), a second attempt is sent. The first success wins and the other attempt is
+ * cancelled. Hedges are budgeted to a percentage of sends so a slow downstream never sees doubled load.
+ *
+ * <p>Only wrap destinations where a duplicate send is harmless. A single send can opt out with option
+ * {@code hedge=false}. Expired messages are not sent, and no hedge is started once the deadline has passed.
+ */
+public final class HedgingOutboundTransport implements OutboundTransport {
+
+    public static final String HEDGE_OPTION = "hedge";
+
+    private static final long TOKENS_PER_HEDGE = 100;
+
+    private final OutboundTransport delegate;
+    private final double quantile;
+    private final long budgetPercent;
+    private final long maxTokens;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long minSamples;
+    private final ScheduledExecutorService scheduler;
+    private final RetryBudget retryBudget;
+    private final ConnectorHistogram latency;
+    private final AtomicLong tokens;
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    private HedgingOutboundTransport(Builder builder) {
+        this.delegate = builder.delegate;
+        this.quantile = builder.quantile;
+        this.budgetPercent = builder.budgetPercent;
+        this.maxTokens = TOKENS_PER_HEDGE * builder.maxBurst;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+        this.minSamples = builder.minSamples;
+        this.scheduler = builder.scheduler;
+        this.retryBudget = builder.retryBudget;
+        this.latency = new ConnectorHistogram(builder.latencyWindow);
+        this.tokens = new AtomicLong(maxTokens);
+        if (builder.metricsRegistry != null) {
+            ConnectorMetrics metrics = builder.metricsRegistry.getMetrics(builder.name);
+            metrics.registerHistogram("send.latency", latency);
+            metrics.registerGauge("hedge.sent", hedges::sum);
+            metrics.registerGauge("hedge.wins", hedgeWins::sum);
+            metrics.registerGauge("hedge.budget.exhausted", budgetExhausted::sum);
+            metrics.registerGauge("hedge.delay.ms", () -> TimeUnit.NANOSECONDS.toMillis(Math.max(0, hedgeDelayNanos())));
+        }
+    }
+
+    public static Builder builder(OutboundTransport delegate, String name) {
+        return new Builder(delegate, name);
+    }
+
+    @Override
+    public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
+        if (options != null && "false".equals(String.valueOf(options.get(HEDGE_OPTION)))) {
+            return delegate.send(message, options);
+        }
+        SendResult.Failure expired = DeadlineExceededException.failureIfExpired(message, Instant.now());
+        if (expired != null) {
+            return CompletableFuture.completedFuture(expired);
+        }
+        tokens.getAndUpdate(t -> Math.min(maxTokens, t + budgetPercent));
+        Race race = new Race(message, options);
+        race.launch(false);
+        long delay = hedgeDelayNanos();
+        if (delay >= 0 && !race.result.isDone()) {
+            race.timer = scheduler.schedule(race::hedge, delay, TimeUnit.NANOSECONDS);
+        }
+        return race.result;
+    }
+
+    /**
+     * Current hedge delay in nanos, or -1 while too few latency samples have been recorded.
+     */
+    public long hedgeDelayNanos() {
+        if (latency.count() < minSamples) {
+            return -1L;
+        }
+        return Math.min(maxDelayNanos, Math.max(minDelayNanos, latency.percentile(quantile)));
+    }
+
+    private boolean tryTakeHedgeToken() {
+        long before = tokens.getAndUpdate(t -> t >= TOKENS_PER_HEDGE ? t - TOKENS_PER_HEDGE : t);
+        if (before < TOKENS_PER_HEDGE) {
+            return false;
+        }
+        if (retryBudget != null && !retryBudget.tryAcquire()) {
+            tokens.getAndUpdate(t -> Math.min(maxTokens, t + TOKENS_PER_HEDGE));
+            return false;
+        }
+        return true;
+    }
+
+    private void refundHedgeToken() {
+        tokens.getAndUpdate(t -> Math.min(maxTokens, t + TOKENS_PER_HEDGE));
+        if (retryBudget != null) {
+            retryBudget.refund();
+        }
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    /** One send: the primary attempt and at most one hedge racing to complete {@link #result}. */
+    private final class Race {
+
+        private final ConnectorMessage message;
+        private final Map<String, Object> options;
+        private final CompletableFuture<SendResult> result = new CompletableFuture<>();
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private volatile CompletableFuture<SendResult> primary;
+        private volatile CompletableFuture<SendResult> hedge;
+        private volatile ScheduledFuture<?> timer;
+
+        private Race(ConnectorMessage message, Map<String, Object> options) {
+            this.message = message;
+            this.options = options;
+        }
+
+        private void hedge() {
+            if (result.isDone() || message.isExpired(Instant.now())) {
+                return;
+            }
+            if (!tryTakeHedgeToken()) {
+                budgetExhausted.increment();
+                return;
+            }
+            // do not start a hedge once the primary has already failed and completed the race
+            if (outstanding.getAndUpdate(n -> n > 0 ? n + 1 : n) == 0) {
+                refundHedgeToken();
+                return;
+            }
+            hedges.increment();
+            launch(true);
+        }
+
+        private void launch(boolean isHedge) {
+            long start = System.nanoTime();
+            CompletableFuture<SendResult> attempt;
+            try {
+                attempt = delegate.send(message, options);
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            if (isHedge) {
+                hedge = attempt;
+            } else {
+                primary = attempt;
+            }
+            // the other attempt may have won while delegate.send ran, before cancelOthers could see this one
+            if (result.isDone() && !attempt.isDone()) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((sendResult, ex) -> onComplete(isHedge, start, sendResult, ex));
+        }
+
+        private void onComplete(boolean isHedge, long start, SendResult sendResult, Throwable ex) {
+            if (ex == null && sendResult instanceof SendResult.Success) {
+                latency.record(System.nanoTime() - start);
+                if (result.complete(sendResult)) {
+                    if (retryBudget != null) {
+                        retryBudget.onSuccess();
+                    }
+                    if (isHedge) {
+                        hedgeWins.increment();
+                    }
+                    cancelOthers(isHedge);
+                }
+                return;
+            }
+            if (outstanding.decrementAndGet() == 0) {
+                cancelOthers(isHedge);
+                result.complete(ex != null ? new SendResult.Failure(unwrap(ex))
+                        : sendResult != null ? sendResult
+                        : new SendResult.Failure(new IllegalStateException("Null send result")));
+            }
+        }
+
+        private void cancelOthers(boolean winnerIsHedge) {
+            ScheduledFuture<?> pendingTimer = timer;
+            if (pendingTimer != null) {
+                pendingTimer.cancel(false);
+            }
+            CompletableFuture<SendResult> loser = winnerIsHedge ? primary : hedge;
+            if (loser != null) {
+                loser.cancel(true);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * Builder; defaults: p95 delay clamped to [5 ms, 1 s], 10% hedge budget with a burst of 10, 20 samples before
+     * the first hedge, 30 s latency window.
+     */
+    public static final class Builder {
+
+        private final OutboundTransport delegate;
+        private final String name;
+        private double quantile = 0.95;
+        private long budgetPercent = 10;
+        private long maxBurst = 10;
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private long minSamples = 20;
+        private Duration latencyWindow = Duration.ofSeconds(30);
+        private ScheduledExecutorService scheduler = SharedScheduler.INSTANCE;
+        private RetryBudget retryBudget;
+        private ConnectorMetricsRegistry metricsRegistry;
+
+        private Builder(OutboundTransport delegate, String name) {
+            this.delegate = delegate;
+            this.name = name;
+        }
+
+        /**
+         * Latency quantile (0..1] after which a hedge is sent.
+         */
+        public Builder quantile(double quantile) {
+            if (quantile <= 0 || quantile > 1) {
+                throw new IllegalArgumentException("quantile must be in (0, 1]");
+            }
+            this.quantile = quantile;
+            return this;
+        }
+
+        /**
+         * Hedges allowed as a percentage of sends, and how many may be spent back to back.
+         */
+        public Builder budget(int percent, int maxBurst) {
+            if (percent < 0 || percent > 100 || maxBurst < 1) {
+                throw new IllegalArgumentException("require 0 <= percent <= 100 and maxBurst >= 1");
+            }
+            this.budgetPercent = percent;
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Shared per-destination budget; each hedge also spends one of its tokens, so hedges and retries
+         * together stay within it.
+         */
+        public Builder retryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        public Builder delayBounds(Duration minDelay, Duration maxDelay) {
+            this.minDelay = minDelay;
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Successful sends to observe before hedging starts.
+         */
+        public Builder minSamples(long minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        public Builder latencyWindow(Duration latencyWindow) {
+            this.latencyWindow = latencyWindow;
+            return this;
+        }
+
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public Builder metrics(ConnectorMetricsRegistry metricsRegistry) {
+            this.metricsRegistry = metricsRegistry;
+            return this;
+        }
+
+        public HedgingOutboundTransport build() {
+            return new HedgingOutboundTransport(this);
+        }
+    }
+}
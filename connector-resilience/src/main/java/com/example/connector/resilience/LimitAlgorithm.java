@@ -0,0 +1,22 @@
+package com.example.connector.resilience;
+
+/**
+ * Algorithm that derives the allowed number of in-flight sends from observed latency and outcome.
+ * Implementations must be thread-safe; {@link #getLimit()} is read on every acquire.
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * Current in-flight limit.
+     */
+    int getLimit();
+
+    /**
+     * Record one completed send.
+     *
+     * @param rttNanos send latency
+     * @param inFlight number of in-flight sends when this send started (including itself)
+     * @param dropped  true when the send failed or was rejected downstream (congestion signal)
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
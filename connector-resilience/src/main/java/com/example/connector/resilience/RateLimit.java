@@ -0,0 +1,50 @@
+package com.example.connector.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking rate limit (GCRA): a CAS on the theoretical arrival time reserves a slot and returns how long the
+ * caller should delay. Callers schedule the send after that delay instead of sleeping.
+ * Up to limitForPeriod sends may pass back to back; beyond that they are spaced period / limitForPeriod apart.
+ */
+public final class RateLimit {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long maxWaitNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param maxWait reservations that would wait longer are refused
+     */
+    public RateLimit(int limitForPeriod, Duration period, Duration maxWait) {
+        if (limitForPeriod < 1) {
+            throw new IllegalArgumentException("limitForPeriod must be >= 1");
+        }
+        this.intervalNanos = period.toNanos() / limitForPeriod;
+        this.burstNanos = period.toNanos() - intervalNanos;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserve one permit.
+     *
+     * @return nanos to wait before sending (0 = now), or -1 when the wait would exceed maxWait (nothing reserved)
+     */
+    public long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long wait = Math.max(0, current - burstNanos - now);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            long next = Math.max(current, now) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.connector.resilience;
+
+/**
+ * Send refused because the rate limit would require waiting longer than allowed.
+ */
+public final class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String name) {
+        super("Rate limit exceeded for " + name);
+    }
+}
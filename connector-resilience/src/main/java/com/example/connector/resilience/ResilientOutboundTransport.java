@@ -0,0 +1,292 @@
+package com.example.connector.resilience;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.DeadlineExceededException;
+import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.core.transport.SendResult;
+import com.example.connector.observability.ConnectorMetrics;
+import com.example.connector.observability.ConnectorMetricsRegistry;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fully asynchronous resilience decorator for any OutboundTransport: rate limit, circuit breaker, in-flight limit
+ * and retry. No thread waits on a permit, a backoff or the delegate's future; delays are scheduled on a timer and
+ * attempts chain on the delegate's completion, so thread usage stays flat when the downstream slows down.
+ *
+ * <p>Per attempt: reserve rate-limit slot (scheduled if it must wait) → circuit breaker permission → in-flight
+ * permit → delegate send. A {@link SendResult.Failure} or exceptional completion is retried with backoff until the
+ * retry policy or the shared {@link RetryBudget} is exhausted; the returned future then completes with the last
+ * {@link SendResult.Failure}.
+ * Refusals by the rate limit, breaker or in-flight limit complete immediately and are not retried.
+ * A message whose deadline has passed, or would pass before the next backoff ends, completes with a
+ * {@link DeadlineExceededException} failure instead of being attempted.
+ */
+public final class ResilientOutboundTransport implements OutboundTransport {
+
+    private final OutboundTransport delegate;
+    private final String name;
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimit rateLimit;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private ResilientOutboundTransport(Builder builder) {
+        this.delegate = builder.delegate;
+        this.name = builder.name;
+        this.retryPolicy = builder.retryPolicy;
+        this.retryBudget = builder.retryBudget;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.rateLimit = builder.rateLimit;
+        this.limiter = builder.concurrencyLimit != null ? new AdaptiveConcurrencyLimiter(builder.concurrencyLimit) : null;
+        this.scheduler = builder.scheduler;
+        this.executor = builder.executor;
+        if (builder.metricsRegistry != null) {
+            ConnectorMetrics metrics = builder.metricsRegistry.getMetrics(name);
+            metrics.registerGauge("resilience.retries", retries::sum);
+            metrics.registerGauge("resilience.rejected", rejected::sum);
+            metrics.registerGauge("resilience.expired", expired::sum);
+            if (circuitBreaker != null) {
+                metrics.registerGauge("circuit.state", () -> circuitBreaker.getState().ordinal());
+            }
+            if (limiter != null) {
+                metrics.registerGauge("concurrency.limit", limiter::getLimit);
+                metrics.registerGauge("concurrency.inflight", limiter::getInFlight);
+            }
+        }
+    }
+
+    public static Builder builder(OutboundTransport delegate, String name) {
+        return new Builder(delegate, name);
+    }
+
+    @Override
+    public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
+        CompletableFuture<SendResult> result = new CompletableFuture<>();
+        attempt(message, options, 1, null, result);
+        return result;
+    }
+
+    /**
+     * @param lastFailure why the previous attempt failed; null on the first attempt
+     */
+    private void attempt(ConnectorMessage message, Map<String, Object> options, int attempt, Throwable lastFailure,
+                         CompletableFuture<SendResult> result) {
+        if (expire(message, 0L, result)) {
+            return;
+        }
+        long waitNanos = rateLimit != null ? rateLimit.reserve() : 0L;
+        if (waitNanos < 0) {
+            reject(result, new RateLimitExceededException(name), lastFailure);
+        } else if (waitNanos == 0) {
+            call(message, options, attempt, lastFailure, result);
+        } else {
+            schedule(() -> call(message, options, attempt, lastFailure, result), waitNanos);
+        }
+    }
+
+    private void call(ConnectorMessage message, Map<String, Object> options, int attempt, Throwable lastFailure,
+                      CompletableFuture<SendResult> result) {
+        if (expire(message, 0L, result)) {
+            return;
+        }
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            reject(result, new CircuitOpenException(name), lastFailure);
+            return;
+        }
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter != null ? limiter.tryAcquire() : Optional.empty();
+        if (limiter != null && permit.isEmpty()) {
+            if (circuitBreaker != null) {
+                circuitBreaker.releasePermission();
+            }
+            reject(result, new ConcurrencyLimitExceededException(name, limiter.getLimit()), lastFailure);
+            return;
+        }
+        CompletableFuture<SendResult> future;
+        try {
+            future = delegate.send(message, options);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((sendResult, ex) -> {
+            boolean success = ex == null && sendResult instanceof SendResult.Success;
+            permit.ifPresent(p -> {
+                if (success) {
+                    p.onSuccess();
+                } else {
+                    p.onDropped();
+                }
+            });
+            if (circuitBreaker != null) {
+                if (success) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+            if (success) {
+                if (retryBudget != null) {
+                    retryBudget.onSuccess();
+                }
+                result.complete(sendResult);
+                return;
+            }
+            // jittered, so drawn once: the deadline check must see the same backoff the retry is scheduled with
+            boolean retryable = attempt < retryPolicy.maxAttempts();
+            long backoffNanos = retryable ? retryPolicy.backoffNanos(attempt) : 0L;
+            if (retryable && expire(message, backoffNanos, result)) {
+                // the retry could not start before the deadline; shed it instead of waiting
+            } else if (retryable && (retryBudget == null || retryBudget.tryAcquire())) {
+                retries.increment();
+                Throwable failure = ex != null ? unwrap(ex)
+                        : sendResult instanceof SendResult.Failure f ? f.cause() : null;
+                schedule(() -> attempt(message, options, attempt + 1, failure, result), backoffNanos);
+            } else {
+                result.complete(ex != null ? new SendResult.Failure(unwrap(ex))
+                        : sendResult != null ? sendResult
+                        : new SendResult.Failure(new IllegalStateException("Null send result from " + name)));
+            }
+        });
+    }
+
+    /**
+     * Complete the result as expired if the message's deadline passes within the given nanos.
+     */
+    private boolean expire(ConnectorMessage message, long withinNanos, CompletableFuture<SendResult> result) {
+        SendResult.Failure failure = DeadlineExceededException.failureIfExpired(message, Instant.now().plusNanos(withinNanos));
+        if (failure == null) {
+            return false;
+        }
+        expired.increment();
+        result.complete(failure);
+        return true;
+    }
+
+    /**
+     * Fail the send because a guard refused the attempt. On a retry the previous attempt's failure stays the cause,
+     * with the refusal attached as suppressed, so callers and dead letters see why the send really failed.
+     */
+    private void reject(CompletableFuture<SendResult> result, RuntimeException reason, Throwable lastFailure) {
+        rejected.increment();
+        if (lastFailure == null) {
+            result.complete(new SendResult.Failure(reason));
+        } else {
+            lastFailure.addSuppressed(reason);
+            result.complete(new SendResult.Failure(lastFailure));
+        }
+    }
+
+    private void schedule(Runnable task, long delayNanos) {
+        scheduler.schedule(() -> executor.execute(task), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Builder; every stage is optional. Without stages the decorator only converts exceptions to failures.
+     */
+    public static final class Builder {
+
+        private final OutboundTransport delegate;
+        private final String name;
+        private RetryPolicy retryPolicy = RetryPolicy.none();
+        private RetryBudget retryBudget;
+        private CircuitBreaker circuitBreaker;
+        private RateLimit rateLimit;
+        private LimitAlgorithm concurrencyLimit;
+        private ScheduledExecutorService scheduler = SharedScheduler.INSTANCE;
+        private Executor executor = Runnable::run;
+        private ConnectorMetricsRegistry metricsRegistry;
+
+        private Builder(OutboundTransport delegate, String name) {
+            this.delegate = delegate;
+            this.name = name;
+        }
+
+        public Builder retry(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Shared budget that every retry must draw from (see {@link RetryBudgetRegistry}); without it
+         * only the retry policy limits attempts.
+         */
+        public Builder retryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public Builder rateLimit(RateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        /**
+         * In-flight limit: {@link FixedLimit} for a static bulkhead, or an adaptive algorithm.
+         */
+        public Builder concurrencyLimit(LimitAlgorithm concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        /**
+         * Timer for backoff and rate-limit delays (default: one shared daemon thread).
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Executor that runs delayed attempts (default: the timer thread). Use when the delegate's send
+         * may block before returning its future (e.g. producer metadata fetch).
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder metrics(ConnectorMetricsRegistry metricsRegistry) {
+            this.metricsRegistry = metricsRegistry;
+            return this;
+        }
+
+        public ResilientOutboundTransport build() {
+            return new ResilientOutboundTransport(this);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.connector.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free retry budget for one destination: a token bucket refilled by a fraction of successful sends. A retry
+ * (or hedge) spends one token and is refused once the bucket is empty, so during an outage extra load is bounded
+ * by ratio × recent successes instead of attempts × traffic. Share one instance across all decorators that send
+ * to the same destination.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerSuccess;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param ratio     tokens earned per successful send (e.g. 0.2 = one retry per five successes)
+     * @param maxTokens bucket size; the bucket starts full so a cold destination may still retry
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio <= 0 || maxTokens < 1) {
+            throw new IllegalArgumentException("ratio must be > 0 and maxTokens >= 1");
+        }
+        this.depositPerSuccess = Math.max(1, Math.round(ratio * SCALE));
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void onSuccess() {
+        balance.getAndUpdate(b -> Math.min(capacity, b + depositPerSuccess));
+    }
+
+    /**
+     * Spend one token; false (and counted as exhausted) when none remain.
+     */
+    public boolean tryAcquire() {
+        long before = balance.getAndUpdate(b -> b >= SCALE ? b - SCALE : b);
+        if (before >= SCALE) {
+            return true;
+        }
+        exhausted.increment();
+        return false;
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire()} for an attempt that was never sent.
+     */
+    public void refund() {
+        balance.getAndUpdate(b -> Math.min(capacity, b + SCALE));
+    }
+
+    /**
+     * Whole tokens currently available.
+     */
+    public long getTokens() {
+        return balance.get() / SCALE;
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+}
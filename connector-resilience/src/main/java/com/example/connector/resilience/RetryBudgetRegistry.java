@@ -0,0 +1,50 @@
+package com.example.connector.resilience;
+
+import com.example.connector.observability.ConnectorMetrics;
+import com.example.connector.observability.ConnectorMetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link RetryBudget} per destination, shared by every decorator that sends there. Budgets are exported as
+ * gauges retry.budget.tokens and retry.budget.exhausted under the destination name.
+ */
+public final class RetryBudgetRegistry {
+
+    private final double ratio;
+    private final int maxTokens;
+    private final ConnectorMetricsRegistry metricsRegistry;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgetRegistry(double ratio, int maxTokens) {
+        this(ratio, maxTokens, null);
+    }
+
+    public RetryBudgetRegistry(double ratio, int maxTokens, ConnectorMetricsRegistry metricsRegistry) {
+        if (ratio <= 0 || maxTokens < 1) {
+            throw new IllegalArgumentException("ratio must be > 0 and maxTokens >= 1");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public RetryBudget budgetFor(String destination) {
+        return budgets.computeIfAbsent(destination, this::create);
+    }
+
+    private RetryBudget create(String destination) {
+        RetryBudget budget = new RetryBudget(ratio, maxTokens);
+        if (metricsRegistry != null) {
+            ConnectorMetrics metrics = metricsRegistry.getMetrics(destination);
+            metrics.registerGauge("retry.budget.tokens", budget::getTokens);
+            metrics.registerGauge("retry.budget.exhausted", budget::getExhaustedCount);
+        }
+        return budget;
+    }
+
+    public Map<String, RetryBudget> getBudgets() {
+        return Map.copyOf(budgets);
+    }
+}
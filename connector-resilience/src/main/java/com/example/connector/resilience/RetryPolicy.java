@@ -0,0 +1,49 @@
+package com.example.connector.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry attempts and backoff. Backoff grows by the multiplier up to maxBackoff; each delay is jittered to
+ * between half and the full value so retries from many messages do not align.
+ *
+ * @param maxAttempts total attempts including the first (1 = no retry)
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, double multiplier, Duration maxBackoff) {
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1");
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplier must be >= 1.0");
+        }
+        initialBackoff = initialBackoff != null ? initialBackoff : Duration.ZERO;
+        maxBackoff = maxBackoff != null ? maxBackoff : initialBackoff;
+    }
+
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, 1.0, Duration.ZERO);
+    }
+
+    public static RetryPolicy fixed(int maxAttempts, Duration backoff) {
+        return new RetryPolicy(maxAttempts, backoff, 1.0, backoff);
+    }
+
+    public static RetryPolicy exponential(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        return new RetryPolicy(maxAttempts, initialBackoff, 2.0, maxBackoff);
+    }
+
+    /**
+     * Delay before the retry that follows the given failed attempt (1-based).
+     */
+    public long backoffNanos(int failedAttempt) {
+        double base = initialBackoff.toNanos() * Math.pow(multiplier, failedAttempt - 1);
+        long capped = (long) Math.min(base, maxBackoff.toNanos());
+        if (capped <= 1) {
+            return Math.max(0, capped);
+        }
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(capped - half + 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.connector.resilience;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Default timer for resilience decorators: one daemon thread that only dispatches delayed work.
+ */
+final class SharedScheduler {
+
+    static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "connector-resilience-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SharedScheduler() {
+    }
+}
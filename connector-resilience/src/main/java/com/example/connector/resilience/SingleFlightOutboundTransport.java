@@ -0,0 +1,49 @@
+package com.example.connector.resilience;
+
+import com.example.connector.core.dispatch.SingleFlight;
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.transport.OutboundTransport;
+import com.example.connector.core.transport.SendResult;
+import com.example.connector.observability.ConnectorMetrics;
+import com.example.connector.observability.ConnectorMetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Concurrent sends of the same correlation ID to this destination share one downstream call: redeliveries and
+ * replays that arrive while the first send is in flight get its result instead of sending again. Sends routed
+ * elsewhere by a {@code topic}, {@code url} or {@code destination} option are not coalesced with each other.
+ * Wrap outermost so coalesced sends skip retries and limits as well.
+ */
+public final class SingleFlightOutboundTransport implements OutboundTransport {
+
+    private final OutboundTransport delegate;
+    private final String destination;
+    private final SingleFlight<String, SendResult> singleFlight = new SingleFlight<>();
+
+    public SingleFlightOutboundTransport(OutboundTransport delegate, String destination) {
+        this(delegate, destination, null);
+    }
+
+    public SingleFlightOutboundTransport(OutboundTransport delegate, String destination,
+                                         ConnectorMetricsRegistry metricsRegistry) {
+        this.delegate = delegate;
+        this.destination = destination;
+        if (metricsRegistry != null) {
+            ConnectorMetrics metrics = metricsRegistry.getMetrics(destination);
+            metrics.registerGauge("singleflight.coalesced", singleFlight::getCoalescedCount);
+            metrics.registerGauge("singleflight.inflight", singleFlight::inFlightCount);
+        }
+    }
+
+    @Override
+    public CompletableFuture<SendResult> send(ConnectorMessage message, Map<String, Object> options) {
+        return singleFlight.execute(SingleFlight.sendKey(message, destination, options),
+                () -> delegate.send(message, options));
+    }
+
+    public long getCoalescedCount() {
+        return singleFlight.getCoalescedCount();
+    }
+}
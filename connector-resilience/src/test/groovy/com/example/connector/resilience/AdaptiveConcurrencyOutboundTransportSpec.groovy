@@ -0,0 +1,104 @@
+package com.example.connector.resilience
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.DeadlineExceededException
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import com.example.connector.observability.ConnectorMetricsRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+
+class AdaptiveConcurrencyOutboundTransportSpec extends Specification {
+
+    def message = new ConnectorMessage("c1", "kafka", "data".bytes, Map.of(), Instant.now())
+    def pending = []
+    def delegate = { ConnectorMessage msg, Map opts ->
+        def f = new CompletableFuture<SendResult>()
+        pending << f
+        f
+    } as OutboundTransport
+
+    def "rejects sends above the limit without calling the delegate"() {
+        given:
+        def transport = new AdaptiveConcurrencyOutboundTransport(delegate, "kafka-out",
+                new AimdLimit(2, 1, 10, 0.5, Duration.ofSeconds(1)))
+
+        when:
+        transport.send(message, Map.of())
+        transport.send(message, Map.of())
+        def third = transport.send(message, Map.of()).get()
+
+        then:
+        pending.size() == 2
+        third instanceof SendResult.Failure
+        (third as SendResult.Failure).cause() instanceof ConcurrencyLimitExceededException
+        transport.getLimiter().getRejectedCount() == 1
+    }
+
+    def "releases permit and adapts limit on completion"() {
+        given:
+        def transport = new AdaptiveConcurrencyOutboundTransport(delegate, "kafka-out",
+                new AimdLimit(2, 1, 10, 0.5, Duration.ofSeconds(1)))
+        transport.send(message, Map.of())
+        transport.send(message, Map.of())
+
+        when:
+        pending[0].complete(new SendResult.Success("ok"))
+
+        then:
+        transport.getLimiter().getInFlight() == 1
+        transport.getLimiter().getLimit() == 3
+
+        when:
+        pending[1].complete(new SendResult.Failure(new RuntimeException("down")))
+
+        then:
+        transport.getLimiter().getInFlight() == 0
+        transport.getLimiter().getLimit() == 1
+    }
+
+    def "exports limit as gauge"() {
+        given:
+        def registry = new ConnectorMetricsRegistry()
+        def transport = new AdaptiveConcurrencyOutboundTransport(delegate, "kafka-out",
+                new AimdLimit(5, 1, 10, 0.5, Duration.ofSeconds(1)), registry)
+
+        when:
+        transport.send(message, Map.of())
+
+        then:
+        registry.getMetrics("kafka-out").getGauge("concurrency.limit") == 5
+        registry.getMetrics("kafka-out").getGauge("concurrency.inflight") == 1
+    }
+
+    def "releases permit when delegate throws synchronously"() {
+        given:
+        def throwing = { ConnectorMessage msg, Map opts -> throw new IllegalStateException("no connection") } as OutboundTransport
+        def transport = new AdaptiveConcurrencyOutboundTransport(throwing, "kafka-out",
+                new AimdLimit(4, 1, 10, 0.5, Duration.ofSeconds(1)))
+
+        when:
+        transport.send(message, Map.of())
+
+        then:
+        thrown(IllegalStateException)
+        transport.getLimiter().getInFlight() == 0
+        transport.getLimiter().getLimit() == 2
+    }
+    def "fails expired messages without taking a permit"() {
+        given:
+        def transport = new AdaptiveConcurrencyOutboundTransport(delegate, "kafka-out",
+                new AimdLimit(2, 1, 10, 0.5, Duration.ofSeconds(1)))
+
+        when:
+        def result = transport.send(message.withDeadline(Instant.now().minusSeconds(1)), Map.of()).get()
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        pending.isEmpty()
+        transport.getLimiter().getInFlight() == 0
+    }
+}
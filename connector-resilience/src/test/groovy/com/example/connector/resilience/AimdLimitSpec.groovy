@@ -0,0 +1,59 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class AimdLimitSpec extends Specification {
+
+    def limit = new AimdLimit(10, 1, 20, 0.5, Duration.ofMillis(100))
+
+    def "grows additively while the limit is in use"() {
+        when:
+        limit.onSample(1_000_000, 8, false)
+
+        then:
+        limit.getLimit() == 11
+    }
+
+    def "does not grow while mostly idle"() {
+        when:
+        limit.onSample(1_000_000, 2, false)
+
+        then:
+        limit.getLimit() == 10
+    }
+
+    def "backs off multiplicatively on drop or timeout"() {
+        when:
+        limit.onSample(1_000_000, 10, true)
+
+        then:
+        limit.getLimit() == 5
+
+        when:
+        limit.onSample(Duration.ofMillis(500).toNanos(), 5, false)
+
+        then:
+        limit.getLimit() == 2
+    }
+
+    def "stays within bounds"() {
+        when:
+        20.times { limit.onSample(1_000, 100, false) }
+        def grown = limit.getLimit()
+        20.times { limit.onSample(1_000, 1, true) }
+
+        then:
+        grown == 20
+        limit.getLimit() == 1
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        new AimdLimit(10, 5, 2, 0.9, Duration.ofSeconds(1))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
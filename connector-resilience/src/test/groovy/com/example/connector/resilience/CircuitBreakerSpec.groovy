@@ -0,0 +1,127 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class CircuitBreakerSpec extends Specification {
+
+    def "opens when failure rate reaches threshold after minimum calls"() {
+        given:
+        def breaker = new CircuitBreaker(0.5, 4, 10, Duration.ofMinutes(1), 1)
+
+        when:
+        breaker.onFailure()
+        breaker.onFailure()
+        breaker.onSuccess()
+
+        then: "below minimum calls"
+        breaker.getState() == CircuitBreaker.State.CLOSED
+
+        when:
+        breaker.onFailure()
+
+        then:
+        breaker.getState() == CircuitBreaker.State.OPEN
+        !breaker.tryAcquirePermission()
+    }
+
+    def "window resets after windowSize calls below threshold"() {
+        given:
+        def breaker = new CircuitBreaker(0.5, 4, 4, Duration.ofMinutes(1), 1)
+
+        when:
+        breaker.onFailure()
+        3.times { breaker.onSuccess() }
+        breaker.onFailure()
+        breaker.onFailure()
+
+        then: "3 of 6 would open; the new window holds only 2 calls"
+        breaker.getState() == CircuitBreaker.State.CLOSED
+        breaker.tryAcquirePermission()
+    }
+
+    def "half-open admits trial calls and closes when they succeed"() {
+        given:
+        def breaker = new CircuitBreaker(1.0, 1, 10, Duration.ZERO, 2)
+        breaker.onFailure()
+
+        expect:
+        breaker.getState() == CircuitBreaker.State.OPEN
+
+        when:
+        def first = breaker.tryAcquirePermission()
+        def second = breaker.tryAcquirePermission()
+        def third = breaker.tryAcquirePermission()
+
+        then:
+        first && second && !third
+        breaker.getState() == CircuitBreaker.State.HALF_OPEN
+
+        when:
+        breaker.onSuccess()
+        breaker.onSuccess()
+
+        then:
+        breaker.getState() == CircuitBreaker.State.CLOSED
+        breaker.tryAcquirePermission()
+    }
+
+    def "released half-open permission can be taken again"() {
+        given:
+        def breaker = new CircuitBreaker(1.0, 1, 10, Duration.ZERO, 1)
+        breaker.onFailure()
+        breaker.tryAcquirePermission()
+
+        expect:
+        !breaker.tryAcquirePermission()
+
+        when:
+        breaker.releasePermission()
+
+        then:
+        breaker.tryAcquirePermission()
+    }
+
+    def "failure in half-open re-opens"() {
+        given:
+        def breaker = new CircuitBreaker(1.0, 1, 10, Duration.ZERO, 1)
+        breaker.onFailure()
+        breaker.tryAcquirePermission()
+
+        when:
+        breaker.onFailure()
+
+        then:
+        breaker.getState() == CircuitBreaker.State.OPEN
+    }
+
+    def "outcomes reported while open are ignored"() {
+        given:
+        def breaker = new CircuitBreaker(1.0, 1, 10, Duration.ofMinutes(1), 1)
+        breaker.onFailure()
+
+        when:
+        breaker.onSuccess()
+        breaker.onFailure()
+
+        then:
+        breaker.getState() == CircuitBreaker.State.OPEN
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        new CircuitBreaker(threshold, minimum, window, Duration.ofSeconds(1), halfOpen)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        threshold | minimum | window | halfOpen
+        0.0       | 1       | 10     | 1
+        1.5       | 1       | 10     | 1
+        0.5       | 0       | 10     | 1
+        0.5       | 5       | 4      | 1
+        0.5       | 1       | 10     | 0
+    }
+}
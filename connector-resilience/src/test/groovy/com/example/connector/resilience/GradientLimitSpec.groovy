@@ -0,0 +1,44 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+class GradientLimitSpec extends Specification {
+
+    def "grows while latency stays at baseline"() {
+        given:
+        def limit = new GradientLimit(10, 1, 100)
+
+        when:
+        50.times { limit.onSample(1_000_000, limit.getLimit(), false) }
+
+        then:
+        limit.getLimit() > 10
+    }
+
+    def "shrinks when latency rises well above baseline"() {
+        given:
+        def limit = new GradientLimit(50, 1, 100)
+        limit.onSample(1_000_000, 50, false)
+        def before = limit.getLimit()
+
+        when:
+        20.times { limit.onSample(20_000_000, limit.getLimit(), false) }
+
+        then:
+        limit.getLimit() < before
+    }
+
+    def "drop reduces limit and idle samples leave it unchanged"() {
+        given:
+        def limit = new GradientLimit(40, 1, 100)
+
+        when:
+        limit.onSample(1_000_000, 40, true)
+        def afterDrop = limit.getLimit()
+        limit.onSample(1_000_000, 1, false)
+
+        then:
+        afterDrop == 36
+        limit.getLimit() == 36
+    }
+}
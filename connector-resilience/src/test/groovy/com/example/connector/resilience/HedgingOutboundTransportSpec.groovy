@@ -0,0 +1,302 @@
+package com.example.connector.resilience
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.DeadlineExceededException
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import com.example.connector.observability.ConnectorMetricsRegistry
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+class HedgingOutboundTransportSpec extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    def message = new ConnectorMessage("c1", "http", "data".bytes, Map.of(), Instant.now())
+    def attempts = new CopyOnWriteArrayList<CompletableFuture<SendResult>>()
+    volatile boolean fast = true
+    def delegate = { ConnectorMessage msg, Map opts ->
+        def f = new CompletableFuture<SendResult>()
+        attempts << f
+        if (fast) {
+            f.complete(new SendResult.Success("ok"))
+        }
+        f
+    } as OutboundTransport
+
+    private HedgingOutboundTransport warmedUp(HedgingOutboundTransport.Builder builder,
+                                              Duration minDelay = Duration.ofMillis(10)) {
+        def transport = builder.minSamples(5).delayBounds(minDelay, Duration.ofSeconds(1)).build()
+        5.times { transport.send(message, Map.of()).get() }
+        attempts.clear()
+        fast = false
+        transport
+    }
+
+    def "does not hedge before enough latency samples"() {
+        given:
+        def transport = HedgingOutboundTransport.builder(delegate, "http-out").minSamples(5).build()
+        fast = false
+
+        when:
+        transport.send(message, Map.of())
+        Thread.sleep(50)
+
+        then:
+        transport.hedgeDelayNanos() == -1
+        attempts.size() == 1
+    }
+
+    def "hedges a slow send, takes the first success and cancels the loser"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out"))
+
+        when:
+        def result = transport.send(message, Map.of())
+
+        then:
+        conditions.eventually {
+            assert attempts.size() == 2
+        }
+
+        when:
+        attempts[1].complete(new SendResult.Success("hedge"))
+
+        then:
+        (result.get(5, TimeUnit.SECONDS) as SendResult.Success).messageId() == "hedge"
+        attempts[0].isCancelled()
+        transport.getHedgeCount() == 1
+        transport.getHedgeWinCount() == 1
+    }
+
+    def "cancels a hedge whose primary won while the hedge was being sent"() {
+        given:
+        def recording = delegate
+        def racing = { ConnectorMessage msg, Map opts ->
+            def f = recording.send(msg, opts)
+            if (attempts.size() == 2) {
+                attempts[0].complete(new SendResult.Success("primary"))
+            }
+            f
+        } as OutboundTransport
+        def transport = warmedUp(HedgingOutboundTransport.builder(racing, "http-out"))
+
+        when:
+        def result = transport.send(message, Map.of())
+
+        then:
+        (result.get(5, TimeUnit.SECONDS) as SendResult.Success).messageId() == "primary"
+        conditions.eventually {
+            assert attempts.size() == 2
+            assert attempts[1].isCancelled()
+        }
+        transport.getHedgeWinCount() == 0
+    }
+
+    def "primary completing before the delay sends no hedge"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out")
+                .delayBounds(Duration.ofMillis(200), Duration.ofSeconds(1)))
+
+        when:
+        def result = transport.send(message, Map.of())
+        attempts[0].complete(new SendResult.Success("primary"))
+        Thread.sleep(250)
+
+        then:
+        result.get() instanceof SendResult.Success
+        attempts.size() == 1
+        transport.getHedgeCount() == 0
+    }
+
+    def "failure of one attempt waits for the other and both failing completes with failure"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out"))
+        def result = transport.send(message, Map.of())
+        conditions.eventually {
+            assert attempts.size() == 2
+        }
+
+        when:
+        attempts[0].complete(new SendResult.Failure(new RuntimeException("primary down")))
+
+        then:
+        !result.isDone()
+
+        when:
+        attempts[1].completeExceptionally(new IllegalStateException("hedge down"))
+
+        then:
+        (result.get(5, TimeUnit.SECONDS) as SendResult.Failure).cause() instanceof IllegalStateException
+    }
+
+    def "primary failing before the delay completes without hedging"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out")
+                .delayBounds(Duration.ofMillis(100), Duration.ofSeconds(1)))
+
+        when:
+        def result = transport.send(message, Map.of())
+        attempts[0].complete(new SendResult.Failure(new RuntimeException("down")))
+        Thread.sleep(150)
+
+        then:
+        result.get() instanceof SendResult.Failure
+        attempts.size() == 1
+    }
+
+    def "hedges are limited by the budget"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out").budget(10, 1))
+
+        when: "the burst token is spent by the first slow send"
+        transport.send(message, Map.of())
+        transport.send(message, Map.of())
+
+        then:
+        conditions.eventually {
+            assert transport.getBudgetExhaustedCount() == 1
+        }
+        transport.getHedgeCount() == 1
+        attempts.size() == 3
+    }
+
+    def "hedges also draw from a shared retry budget"() {
+        given:
+        def budget = new RetryBudget(0.01, 1)
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out").retryBudget(budget))
+        budget.tryAcquire()
+
+        when:
+        transport.send(message, Map.of())
+
+        then:
+        conditions.eventually {
+            assert transport.getBudgetExhaustedCount() == 1
+        }
+        transport.getHedgeCount() == 0
+        attempts.size() == 1
+    }
+
+    def "refunds both budgets when the primary fails while the hedge is being taken"() {
+        given:
+        Runnable pending = null
+        def timer = Stub(ScheduledFuture) {
+            cancel(_) >> {
+                def task = pending
+                pending = null
+                task?.run()
+                true
+            }
+        }
+        def scheduler = Stub(ScheduledExecutorService) {
+            schedule(_, _, _) >> { args ->
+                pending = args[0]
+                timer
+            }
+        }
+        def retryBudget = new RetryBudget(0.01, 1)
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out")
+                .budget(0, 1).retryBudget(retryBudget).scheduler(scheduler))
+
+        when: "the hedge timer fires after the primary failed but before the race completed"
+        def result = transport.send(message, Map.of())
+        attempts[0].complete(new SendResult.Failure(new RuntimeException("down")))
+
+        then:
+        result.get() instanceof SendResult.Failure
+        attempts.size() == 1
+        transport.getHedgeCount() == 0
+        retryBudget.getTokens() == 1
+
+        when: "the refunded tokens pay for the next hedge"
+        transport.send(message, Map.of())
+        pending.run()
+
+        then:
+        transport.getHedgeCount() == 1
+        transport.getBudgetExhaustedCount() == 0
+        attempts.size() == 3
+    }
+
+    def "hedge=false option sends once"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out"))
+
+        when:
+        transport.send(message, Map.of(HedgingOutboundTransport.HEDGE_OPTION, false))
+        Thread.sleep(50)
+
+        then:
+        attempts.size() == 1
+    }
+
+    def "synchronous delegate exception becomes a failure"() {
+        given:
+        def throwing = { ConnectorMessage msg, Map opts -> throw new IllegalStateException("no connection") } as OutboundTransport
+        def transport = HedgingOutboundTransport.builder(throwing, "http-out").build()
+
+        expect:
+        (transport.send(message, Map.of()).get() as SendResult.Failure).cause().message == "no connection"
+    }
+
+    def "exports hedge gauges and latency histogram"() {
+        given:
+        def registry = new ConnectorMetricsRegistry()
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out").metrics(registry))
+        def metrics = registry.getMetrics("http-out")
+
+        expect:
+        metrics.getHistogram("send.latency").count() == 5
+        metrics.getGauge("hedge.delay.ms") == TimeUnit.NANOSECONDS.toMillis(transport.hedgeDelayNanos())
+        metrics.getGauge("hedge.sent") == 0
+        metrics.getGauge("hedge.wins") == 0
+        metrics.getGauge("hedge.budget.exhausted") == 0
+        transport.hedgeDelayNanos() >= Duration.ofMillis(10).toNanos()
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        HedgingOutboundTransport.builder(delegate, "http-out").quantile(quantile).budget(percent, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        quantile | percent
+        0.0      | 10
+        0.95     | 101
+    }
+    def "does not send or hedge an expired message"() {
+        given:
+        def transport = HedgingOutboundTransport.builder(delegate, "http-out").build()
+
+        when:
+        def result = transport.send(message.withDeadline(Instant.now().minusSeconds(1)), Map.of()).get()
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        attempts.isEmpty()
+    }
+
+    def "does not hedge once the deadline has passed"() {
+        given:
+        def transport = warmedUp(HedgingOutboundTransport.builder(delegate, "http-out"), Duration.ofMillis(300))
+
+        when: "the deadline passes before the hedge delay ends"
+        def result = transport.send(message.withDeadline(Instant.now().plusMillis(100)), Map.of())
+        Thread.sleep(500)
+
+        then:
+        attempts.size() == 1
+        transport.getHedgeCount() == 0
+        !result.isDone()
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RateLimitSpec extends Specification {
+
+    def "allows a burst of limitForPeriod then spaces reservations"() {
+        given:
+        def limit = new RateLimit(5, Duration.ofSeconds(1), Duration.ofSeconds(10))
+
+        when:
+        def waits = (1..7).collect { limit.reserve() }
+
+        then:
+        waits.take(5).every { it == 0 }
+        waits[5] > 0
+        waits[6] > waits[5]
+        waits[6] <= Duration.ofMillis(400).toNanos()
+    }
+
+    def "refuses reservations that would wait longer than maxWait"() {
+        given:
+        def limit = new RateLimit(1, Duration.ofSeconds(1), Duration.ofMillis(100))
+
+        expect:
+        limit.reserve() == 0
+        limit.reserve() == -1
+        limit.reserve() == -1
+    }
+
+    def "rejects non-positive limit"() {
+        when:
+        new RateLimit(0, Duration.ofSeconds(1), Duration.ZERO)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
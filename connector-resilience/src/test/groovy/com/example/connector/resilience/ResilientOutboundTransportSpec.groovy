@@ -0,0 +1,299 @@
+package com.example.connector.resilience
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.DeadlineExceededException
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import com.example.connector.observability.ConnectorMetricsRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResilientOutboundTransportSpec extends Specification {
+
+    def message = new ConnectorMessage("c1", "kafka", "data".bytes, Map.of(), Instant.now())
+    def calls = new AtomicInteger()
+
+    private OutboundTransport failingTimes(int failures) {
+        { ConnectorMessage msg, Map opts ->
+            calls.incrementAndGet() <= failures
+                    ? CompletableFuture.completedFuture(new SendResult.Failure(new RuntimeException("down")))
+                    : CompletableFuture.completedFuture(new SendResult.Success("ok"))
+        } as OutboundTransport
+    }
+
+    def "retries failures with backoff until success"() {
+        given:
+        def transport = ResilientOutboundTransport.builder(failingTimes(2), "out")
+                .retry(RetryPolicy.fixed(3, Duration.ofMillis(1)))
+                .build()
+
+        when:
+        def result = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        result instanceof SendResult.Success
+        calls.get() == 3
+        transport.getRetryCount() == 2
+    }
+
+    def "completes with the last failure when attempts are exhausted"() {
+        given:
+        def throwing = { ConnectorMessage msg, Map opts ->
+            calls.incrementAndGet()
+            CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+        } as OutboundTransport
+        def transport = ResilientOutboundTransport.builder(throwing, "out")
+                .retry(RetryPolicy.fixed(2, Duration.ZERO))
+                .build()
+
+        when:
+        def result = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        result instanceof SendResult.Failure
+        (result as SendResult.Failure).cause() instanceof IllegalStateException
+        calls.get() == 2
+    }
+
+    def "retries stop when the shared retry budget is exhausted"() {
+        given:
+        def budget = new RetryBudget(0.1, 1)
+        def transport = ResilientOutboundTransport.builder(failingTimes(10), "out")
+                .retry(RetryPolicy.fixed(3, Duration.ZERO))
+                .retryBudget(budget)
+                .build()
+
+        when:
+        def result = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then: "one budgeted retry instead of two"
+        result instanceof SendResult.Failure
+        calls.get() == 2
+        budget.getExhaustedCount() == 1
+    }
+
+    def "successes refill the retry budget"() {
+        given:
+        def budget = new RetryBudget(1.0, 1)
+        budget.tryAcquire()
+        def transport = ResilientOutboundTransport.builder(failingTimes(0), "out")
+                .retryBudget(budget)
+                .build()
+
+        when:
+        transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        budget.getTokens() == 1
+    }
+
+    def "synchronous delegate exception becomes a failure"() {
+        given:
+        def throwing = { ConnectorMessage msg, Map opts -> throw new IllegalStateException("no connection") } as OutboundTransport
+        def transport = ResilientOutboundTransport.builder(throwing, "out").build()
+
+        when:
+        def result = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        (result as SendResult.Failure).cause().message == "no connection"
+    }
+
+    def "send returns immediately while the delegate is stalled"() {
+        given:
+        def stalled = { ConnectorMessage msg, Map opts -> new CompletableFuture<SendResult>() } as OutboundTransport
+        def transport = ResilientOutboundTransport.builder(stalled, "out")
+                .retry(RetryPolicy.fixed(3, Duration.ofSeconds(1)))
+                .concurrencyLimit(new FixedLimit(10_000))
+                .build()
+
+        when:
+        def futures = (1..1000).collect { transport.send(message, Map.of()) }
+
+        then:
+        futures.every { !it.isDone() }
+    }
+
+    def "open circuit refuses without calling the delegate"() {
+        given:
+        def breaker = new CircuitBreaker(1.0, 1, 10, Duration.ofMinutes(1), 1)
+        def transport = ResilientOutboundTransport.builder(failingTimes(1), "out")
+                .circuitBreaker(breaker)
+                .retry(RetryPolicy.fixed(3, Duration.ZERO))
+                .build()
+
+        when:
+        def result = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then: "first attempt fails and opens the breaker; the retry is refused but the real failure is kept"
+        def cause = (result as SendResult.Failure).cause()
+        cause.message == "down"
+        cause.suppressed.length == 1
+        cause.suppressed[0] instanceof CircuitOpenException
+        calls.get() == 1
+        breaker.getState() == CircuitBreaker.State.OPEN
+        transport.getRejectedCount() == 1
+
+        when: "a new send finds the breaker open"
+        def refused = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        (refused as SendResult.Failure).cause() instanceof CircuitOpenException
+        calls.get() == 1
+    }
+
+    def "in-flight limit refuses above the limit"() {
+        given:
+        def pending = []
+        def delegate = { ConnectorMessage msg, Map opts ->
+            def f = new CompletableFuture<SendResult>()
+            pending << f
+            f
+        } as OutboundTransport
+        def transport = ResilientOutboundTransport.builder(delegate, "out")
+                .concurrencyLimit(new FixedLimit(1))
+                .circuitBreaker(new CircuitBreaker(0.5, 10, 10, Duration.ofMinutes(1), 1))
+                .build()
+
+        when:
+        def first = transport.send(message, Map.of())
+        def second = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        pending.size() == 1
+        (second as SendResult.Failure).cause() instanceof ConcurrencyLimitExceededException
+
+        when:
+        pending[0].complete(new SendResult.Success("ok"))
+
+        then:
+        first.get(5, TimeUnit.SECONDS) instanceof SendResult.Success
+        transport.send(message, Map.of()) != null
+        pending.size() == 2
+    }
+
+    def "rate limit delays on the scheduler and refuses beyond max wait"() {
+        given:
+        def transport = ResilientOutboundTransport.builder(failingTimes(0), "out")
+                .rateLimit(new RateLimit(1, Duration.ofMillis(50), Duration.ofMillis(80)))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()
+
+        when:
+        def first = transport.send(message, Map.of())
+        def second = transport.send(message, Map.of())
+        def third = transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        first.isDone()
+        second.get(5, TimeUnit.SECONDS) instanceof SendResult.Success
+        (third as SendResult.Failure).cause() instanceof RateLimitExceededException
+        calls.get() == 2
+    }
+
+    def "exports retry, rejection, circuit and concurrency gauges"() {
+        given:
+        def registry = new ConnectorMetricsRegistry()
+        def scheduler = Executors.newSingleThreadScheduledExecutor()
+        def transport = ResilientOutboundTransport.builder(failingTimes(1), "out")
+                .retry(RetryPolicy.fixed(2, Duration.ZERO))
+                .circuitBreaker(new CircuitBreaker(0.5, 10, 10, Duration.ofMinutes(1), 1))
+                .concurrencyLimit(new FixedLimit(7))
+                .scheduler(scheduler)
+                .metrics(registry)
+                .build()
+
+        when:
+        transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+        def metrics = registry.getMetrics("out")
+
+        then:
+        metrics.getGauge("resilience.retries") == 1
+        metrics.getGauge("resilience.rejected") == 0
+        metrics.getGauge("circuit.state") == CircuitBreaker.State.CLOSED.ordinal()
+        metrics.getGauge("concurrency.limit") == 7
+        metrics.getGauge("concurrency.inflight") == 0
+
+        cleanup:
+        scheduler.shutdownNow()
+    }
+    def "does not send a message whose deadline has passed"() {
+        given:
+        def transport = ResilientOutboundTransport.builder(failingTimes(0), "out")
+                .metrics(new ConnectorMetricsRegistry())
+                .build()
+
+        when:
+        def result = transport.send(message.withDeadline(Instant.now().minusSeconds(1)), Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        result instanceof SendResult.Failure
+        result.cause() instanceof DeadlineExceededException
+        calls.get() == 0
+        transport.getExpiredCount() == 1
+    }
+
+    def "sheds a retry whose backoff would end after the deadline"() {
+        given:
+        def transport = ResilientOutboundTransport.builder(failingTimes(5), "out")
+                .retry(RetryPolicy.fixed(5, Duration.ofSeconds(10)))
+                .build()
+
+        when:
+        def result = transport.send(message.withDeadline(Instant.now().plusSeconds(2)), Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        calls.get() == 1
+        transport.getRetryCount() == 0
+        transport.getExpiredCount() == 1
+    }
+
+    def "decides on the deadline with the same jittered backoff it waits"() {
+        given: "backoff jittered between 750ms and 1.5s against a deadline 1s away"
+        def seen = ConcurrentHashMap.newKeySet()
+        def failingFirst = { ConnectorMessage msg, Map opts ->
+            seen.add(msg.correlationId())
+                    ? CompletableFuture.completedFuture(new SendResult.Failure(new RuntimeException("down")))
+                    : CompletableFuture.completedFuture(new SendResult.Success("ok"))
+        } as OutboundTransport
+        def transport = ResilientOutboundTransport.builder(failingFirst, "out")
+                .retry(RetryPolicy.fixed(2, Duration.ofMillis(1500)))
+                .build()
+
+        when:
+        def sends = (1..20).collect { i ->
+            def msg = message.withCorrelationId("c$i").withDeadline(Instant.now().plusSeconds(1))
+            long sentAt = System.nanoTime()
+            transport.send(msg, Map.of())
+                    .thenApply { r -> [result: r, millis: TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt)] }
+        }*.get(5, TimeUnit.SECONDS)
+
+        then: "a retry that cannot make the deadline is shed right away, never after waiting out its backoff"
+        sends.every { it.result instanceof SendResult.Success || it.result.cause() instanceof DeadlineExceededException }
+        sends.findAll { it.result instanceof SendResult.Failure }.every { it.millis < 500 }
+    }
+
+    def "sheds a message that expires while waiting for the rate limit"() {
+        given:
+        def rateLimit = new RateLimit(1, Duration.ofMillis(200), Duration.ofSeconds(1))
+        def transport = ResilientOutboundTransport.builder(failingTimes(0), "out")
+                .rateLimit(rateLimit)
+                .build()
+        transport.send(message, Map.of()).get(5, TimeUnit.SECONDS)
+
+        when:
+        def result = transport.send(message.withDeadline(Instant.now().plusMillis(50)), Map.of()).get(5, TimeUnit.SECONDS)
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        calls.get() == 1
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.connector.resilience
+
+import com.example.connector.observability.ConnectorMetricsRegistry
+import spock.lang.Specification
+
+class RetryBudgetRegistrySpec extends Specification {
+
+    def "one shared budget per destination"() {
+        given:
+        def registry = new RetryBudgetRegistry(0.1, 5)
+
+        expect:
+        registry.budgetFor("partner-a").is(registry.budgetFor("partner-a"))
+        !registry.budgetFor("partner-a").is(registry.budgetFor("partner-b"))
+        registry.getBudgets().keySet() == ["partner-a", "partner-b"] as Set
+    }
+
+    def "exports tokens and exhaustion per destination"() {
+        given:
+        def metricsRegistry = new ConnectorMetricsRegistry()
+        def budget = new RetryBudgetRegistry(0.1, 1, metricsRegistry).budgetFor("partner-a")
+
+        when:
+        budget.tryAcquire()
+        budget.tryAcquire()
+
+        then:
+        metricsRegistry.getMetrics("partner-a").getGauge("retry.budget.tokens") == 0
+        metricsRegistry.getMetrics("partner-a").getGauge("retry.budget.exhausted") == 1
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        new RetryBudgetRegistry(0, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+class RetryBudgetSpec extends Specification {
+
+    def "starts full and refuses once tokens are spent"() {
+        given:
+        def budget = new RetryBudget(0.5, 2)
+
+        expect:
+        budget.tryAcquire()
+        budget.tryAcquire()
+        !budget.tryAcquire()
+        budget.getTokens() == 0
+        budget.getExhaustedCount() == 1
+    }
+
+    def "successes refill by ratio up to the bucket size"() {
+        given:
+        def budget = new RetryBudget(0.2, 3)
+        3.times { budget.tryAcquire() }
+
+        when:
+        4.times { budget.onSuccess() }
+
+        then: "four successes earn 0.8 of a token"
+        !budget.tryAcquire()
+
+        when:
+        budget.onSuccess()
+
+        then:
+        budget.tryAcquire()
+
+        when:
+        100.times { budget.onSuccess() }
+
+        then:
+        budget.getTokens() == 3
+    }
+
+    def "a refund returns a spent token without exceeding the bucket"() {
+        given:
+        def budget = new RetryBudget(0.5, 1)
+        budget.tryAcquire()
+
+        when:
+        budget.refund()
+        budget.refund()
+
+        then:
+        budget.getTokens() == 1
+        budget.getExhaustedCount() == 0
+    }
+
+    def "rejects invalid configuration"() {
+        when:
+        new RetryBudget(ratio, maxTokens)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        ratio | maxTokens
+        0.0   | 10
+        0.1   | 0
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.connector.resilience
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RetryPolicySpec extends Specification {
+
+    def "exponential backoff is jittered between half and the capped value"() {
+        given:
+        def policy = RetryPolicy.exponential(5, Duration.ofMillis(100), Duration.ofMillis(300))
+
+        expect:
+        (1..20).every {
+            def first = policy.backoffNanos(1)
+            def third = policy.backoffNanos(3)
+            first >= Duration.ofMillis(50).toNanos() && first <= Duration.ofMillis(100).toNanos() &&
+                    third >= Duration.ofMillis(150).toNanos() && third <= Duration.ofMillis(300).toNanos()
+        }
+    }
+
+    def "none and zero backoff do not delay"() {
+        expect:
+        RetryPolicy.none().maxAttempts() == 1
+        RetryPolicy.none().backoffNanos(1) == 0
+        RetryPolicy.fixed(3, null).backoffNanos(2) == 0
+    }
+
+    def "rejects invalid attempts and multiplier"() {
+        when:
+        new RetryPolicy(attempts, Duration.ZERO, multiplier, Duration.ZERO)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        attempts | multiplier
+        0        | 1.0
+        3        | 0.5
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.connector.resilience
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.transport.OutboundTransport
+import com.example.connector.core.transport.SendResult
+import com.example.connector.observability.ConnectorMetricsRegistry
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+
+class SingleFlightOutboundTransportSpec extends Specification {
+
+    def pending = []
+    def delegate = { ConnectorMessage msg, Map opts ->
+        def f = new CompletableFuture<SendResult>()
+        pending << f
+        f
+    } as OutboundTransport
+
+    private static ConnectorMessage message(String correlationId) {
+        new ConnectorMessage(correlationId, "jms", "data".bytes, Map.of(), Instant.now())
+    }
+
+    def "redelivery while in flight shares the first send"() {
+        given:
+        def registry = new ConnectorMetricsRegistry()
+        def transport = new SingleFlightOutboundTransport(delegate, "kafka-out", registry)
+
+        when:
+        def first = transport.send(message("c1"), Map.of())
+        def redelivered = transport.send(message("c1"), Map.of())
+        def other = transport.send(message("c2"), Map.of())
+
+        then:
+        pending.size() == 2
+        transport.getCoalescedCount() == 1
+        registry.getMetrics("kafka-out").getGauge("singleflight.inflight") == 2
+
+        when:
+        pending[0].complete(new SendResult.Success("m1"))
+
+        then:
+        first.get() == new SendResult.Success("m1")
+        redelivered.get() == new SendResult.Success("m1")
+        !other.isDone()
+        registry.getMetrics("kafka-out").getGauge("singleflight.coalesced") == 1
+        registry.getMetrics("kafka-out").getGauge("singleflight.inflight") == 1
+    }
+
+    def "send after completion goes downstream again"() {
+        given:
+        def transport = new SingleFlightOutboundTransport(delegate, "kafka-out")
+        transport.send(message("c1"), Map.of())
+        pending[0].complete(new SendResult.Success("m1"))
+
+        when:
+        transport.send(message("c1"), Map.of())
+
+        then:
+        pending.size() == 2
+        transport.getCoalescedCount() == 0
+    }
+
+    def "sends routed to different targets are not coalesced"() {
+        given:
+        def transport = new SingleFlightOutboundTransport(delegate, "kafka-out")
+
+        when:
+        transport.send(message("c1"), Map.of("topic", "orders"))
+        transport.send(message("c1"), Map.of("topic", "audit"))
+        transport.send(message("c1"), Map.of("topic", "orders"))
+
+        then:
+        pending.size() == 2
+        transport.getCoalescedCount() == 1
+    }
+}
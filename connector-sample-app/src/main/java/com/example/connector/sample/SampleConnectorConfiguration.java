@@ -1,5 +1,6 @@
 package com.example.connector.sample;
 
+import com.example.connector.core.buffer.PayloadSpool;
 import com.example.connector.core.journal.JournalWriter;
 import com.example.connector.core.transport.MessageHandler;
 import com.example.connector.observability.ConnectorMetricsRegistry;
@@ -21,6 +22,7 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,6 +43,22 @@ public class SampleConnectorConfiguration {
         return new ConnectorPipeline(registry, journalWriter, kafkaOutboundTransport, "kafka", tracing, metricsRegistry);
     }
 
+    /**
+     * Large or chunked HTTP bodies are spooled to disk on ingress and streamed into the journal BLOB.
+     */
+    @Bean
+    public PayloadSpool payloadSpool(
+            ConnectorMetricsRegistry metricsRegistry,
+            @Value("${connector.sample.spool.directory:${java.io.tmpdir}/connector-spool}") String directory,
+            @Value("${connector.sample.spool.threshold-bytes:1048576}") long thresholdBytes) {
+        PayloadSpool spool = new PayloadSpool(Path.of(directory), thresholdBytes);
+        var metrics = metricsRegistry.getMetrics("http");
+        metrics.registerGauge("spool.spooled", spool::getSpooledCount);
+        metrics.registerGauge("spool.active-files", spool::getActiveFiles);
+        metrics.registerGauge("spool.active-bytes", spool::getActiveBytes);
+        return spool;
+    }
+
     @Bean
     public KafkaTemplate<String, byte[]> kafkaTemplate(
             @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers) {
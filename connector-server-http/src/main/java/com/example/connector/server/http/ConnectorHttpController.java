@@ -1,13 +1,16 @@
 package com.example.connector.server.http;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * REST controller that delegates to HttpInboundTransport. Registered as bean by ConnectorServerHttpAutoConfiguration.
+ * Bodies are passed as the request stream so the transport can reject before reading and read into pooled buffers.
  */
 @RestController
 @RequestMapping("/connector/messages")
@@ -20,14 +23,14 @@ public class ConnectorHttpController {
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<Void> postBinary(@RequestBody(required = false) byte[] body,
-                                           @RequestHeader Map<String, String> headers) {
-        return transport.receive(body, headers);
+    public ResponseEntity<Void> postBinary(HttpServletRequest request,
+                                           @RequestHeader Map<String, String> headers) throws IOException {
+        return transport.receive(request.getInputStream(), request.getContentLengthLong(), headers);
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Void> postJson(@RequestBody(required = false) byte[] body,
-                                         @RequestHeader Map<String, String> headers) {
-        return transport.receive(body, headers);
+    public ResponseEntity<Void> postJson(HttpServletRequest request,
+                                         @RequestHeader Map<String, String> headers) throws IOException {
+        return transport.receive(request.getInputStream(), request.getContentLengthLong(), headers);
     }
 }
@@ -1,6 +1,10 @@
 package com.example.connector.server.http;
 
+import com.example.connector.core.buffer.BufferPool;
+import com.example.connector.core.buffer.PayloadSpool;
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.transport.TransportRegistration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -12,8 +16,14 @@ import org.springframework.context.annotation.Configuration;
 public class ConnectorServerHttpAutoConfiguration {
 
     @Bean
-    public HttpInboundTransport httpInboundTransport() {
-        return new HttpInboundTransport();
+    public HttpInboundTransport httpInboundTransport(ObjectProvider<FlowControl> flowControl,
+                                                     ObjectProvider<BufferPool> bufferPool,
+                                                     ObjectProvider<PayloadSpool> payloadSpool) {
+        HttpInboundTransport transport = new HttpInboundTransport();
+        transport.setFlowControl(flowControl.getIfAvailable());
+        transport.setBufferPool(bufferPool.getIfAvailable());
+        transport.setPayloadSpool(payloadSpool.getIfAvailable());
+        return transport;
     }
 
     @Bean
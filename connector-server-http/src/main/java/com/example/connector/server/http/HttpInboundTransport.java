@@ -1,12 +1,19 @@
 package com.example.connector.server.http;
 
+import com.example.connector.core.buffer.BufferPool;
+import com.example.connector.core.buffer.PayloadSpool;
+import com.example.connector.core.buffer.PooledPayload;
 import com.example.connector.core.correlation.CorrelationId;
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
 import com.example.connector.core.transport.InboundTransport;
 import com.example.connector.core.transport.MessageHandler;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
@@ -14,29 +21,90 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * HTTP server that implements InboundTransport. Controllable (start/stop).
+ * With a {@link FlowControl} set, requests are rejected with 429 and Retry-After while the pipeline is paused.
+ * With a {@link BufferPool} set, request bodies are read into pooled arrays that the pipeline releases on completion.
+ * With a {@link PayloadSpool} set, large or chunked bodies are streamed to a spool file instead of the heap.
  */
 public final class HttpInboundTransport implements InboundTransport {
 
     private final AtomicBoolean running = new AtomicBoolean(true);
     private volatile MessageHandler messageHandler;
+    private volatile FlowControl flowControl;
+    private volatile BufferPool bufferPool;
+    private volatile PayloadSpool payloadSpool;
 
     /**
-     * Invoked by REST controller: build ConnectorMessage and delegate to handler.
+     * Build ConnectorMessage from an already-read body and delegate to handler.
      */
     public ResponseEntity<Void> receive(byte[] body, Map<String, String> headers) {
+        ResponseEntity<Void> rejected = rejection();
+        if (rejected != null) {
+            return rejected;
+        }
+        return deliver(body != null ? Payload.of(body) : Payload.EMPTY, headers);
+    }
+
+    /**
+     * Invoked by REST controller: admission checks happen before the body is read. A body the {@link PayloadSpool}
+     * accepts is streamed to a spool file; otherwise one of known length is read into a pooled array when a
+     * {@link BufferPool} is set.
+     *
+     * @param contentLength body length, or -1 when unknown (chunked)
+     */
+    public ResponseEntity<Void> receive(InputStream body, long contentLength, Map<String, String> headers)
+            throws IOException {
+        ResponseEntity<Void> rejected = rejection();
+        if (rejected != null) {
+            return rejected;
+        }
+        PayloadSpool spool = payloadSpool;
+        if (spool != null && spool.shouldSpool(contentLength)) {
+            return deliver(spool.spool(body), headers);
+        }
+        BufferPool pool = bufferPool;
+        if (pool == null || contentLength < 0 || contentLength > pool.getMaxBufferSize()) {
+            return deliver(Payload.of(body.readAllBytes()), headers);
+        }
+        PooledPayload payload = pool.acquire((int) contentLength);
+        int read;
+        try {
+            read = body.readNBytes(payload.array(), 0, (int) contentLength);
+        } catch (IOException e) {
+            payload.release();
+            throw e;
+        }
+        if (read < contentLength) {
+            payload.release();
+            return ResponseEntity.badRequest().build();
+        }
+        return deliver(payload, headers);
+    }
+
+    private ResponseEntity<Void> rejection() {
         if (!running.get()) {
             return ResponseEntity.status(503).build();
         }
+        FlowControl flow = flowControl;
+        if (flow != null && flow.isPaused()) {
+            long retryAfterSeconds = Math.max(1, (flow.getRetryAfter().toMillis() + 999) / 1000);
+            return ResponseEntity.status(429).header("Retry-After", Long.toString(retryAfterSeconds)).build();
+        }
+        return null;
+    }
+
+    private ResponseEntity<Void> deliver(Payload body, Map<String, String> headers) {
         String correlationId = CorrelationId.fromHeadersOrGenerate(headers != null ? headers : Map.of());
         ConnectorMessage message = new ConnectorMessage(
                 correlationId,
                 "http",
-                body != null ? body : new byte[0],
+                body,
                 headers != null ? headers : Map.of(),
                 Instant.now()
         );
         if (messageHandler != null) {
             messageHandler.handle(message);
+        } else {
+            body.release();
         }
         return ResponseEntity.accepted().build();
     }
@@ -60,4 +128,25 @@ public final class HttpInboundTransport implements InboundTransport {
     public void setMessageHandler(MessageHandler handler) {
         this.messageHandler = handler;
     }
+
+    /**
+     * Read request bodies of known length into arrays from this pool; null reads each into a fresh array.
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Stream bodies above the spool's threshold, or of unknown length, to files; null keeps every body on the heap.
+     */
+    public void setPayloadSpool(PayloadSpool payloadSpool) {
+        this.payloadSpool = payloadSpool;
+    }
+
+    /**
+     * Reject requests while the given flow control is paused; null disables the check.
+     */
+    public void setFlowControl(FlowControl flowControl) {
+        this.flowControl = flowControl;
+    }
 }
@@ -1,14 +1,26 @@
 package com.example.connector.server.http
 
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.buffer.FilePayload
+import com.example.connector.core.buffer.PayloadSpool
+import com.example.connector.core.buffer.PooledPayload
+import com.example.connector.core.flow.FlowControl
 import com.example.connector.core.model.ConnectorMessage
 import spock.lang.Specification
+import spock.lang.TempDir
 
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
 import java.time.Instant
 
 class HttpInboundTransportSpec extends Specification {
 
     def transport = new HttpInboundTransport()
 
+    @TempDir
+    Path spoolDir
+
     def "should be running by default"() {
         expect:
         transport.isRunning()
@@ -46,4 +58,190 @@ class HttpInboundTransportSpec extends Specification {
         then:
         response2.statusCode.value() == 202
     }
+
+    def "should answer 429 with Retry-After while flow control is paused"() {
+        given:
+        def flow = new FlowControl(1, 0, Duration.ofMillis(1500))
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        transport.setFlowControl(flow)
+        flow.acquire()
+
+        when:
+        def response = transport.receive("hello".bytes, Map.of())
+
+        then:
+        response.statusCode.value() == 429
+        response.headers.getFirst("Retry-After") == "2"
+        received.isEmpty()
+
+        when:
+        flow.release()
+        def response2 = transport.receive("hello".bytes, Map.of())
+
+        then:
+        response2.statusCode.value() == 202
+        received.size() == 1
+    }
+
+    def "reads a request stream of known length into a pooled buffer"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+
+        when:
+        def response = transport.receive(new ByteArrayInputStream("hello".bytes), 5, ["X-Correlation-ID": "s-1"])
+
+        then:
+        response.statusCode.value() == 202
+        received[0].correlationId() == "s-1"
+        received[0].body() instanceof PooledPayload
+        new String(received[0].payload()) == "hello"
+        pool.getOutstandingCount() == 1
+    }
+
+    def "reads a chunked or oversized stream into a plain array"() {
+        given:
+        def pool = BufferPool.builder().bufferSizes(512, 1024).build()
+        transport.setBufferPool(pool)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+
+        when:
+        transport.receive(new ByteArrayInputStream("chunked".bytes), -1, Map.of())
+        transport.receive(new ByteArrayInputStream(new byte[2000]), 2000, Map.of())
+        transport.setBufferPool(null)
+        transport.receive(new ByteArrayInputStream("plain".bytes), 5, null)
+
+        then:
+        received*.body().every { !(it instanceof PooledPayload) }
+        new String(received[0].payload()) == "chunked"
+        received[1].body().size() == 2000
+        new String(received[2].payload()) == "plain"
+        pool.getAllocatedCount() == 0
+    }
+
+    def "answers 400 and releases the buffer when the body is shorter than its length"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+
+        when:
+        def response = transport.receive(new ByteArrayInputStream("hel".bytes), 5, Map.of())
+
+        then:
+        response.statusCode.value() == 400
+        received.isEmpty()
+        pool.getOutstandingCount() == 0
+    }
+
+    def "releases the buffer when reading the stream fails"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def broken = new InputStream() {
+            @Override
+            int read() throws IOException {
+                throw new IOException("reset")
+            }
+        }
+
+        when:
+        transport.receive(broken, 5, Map.of())
+
+        then:
+        thrown(IOException)
+        pool.getOutstandingCount() == 0
+    }
+
+    def "rejects before reading the stream and releases bodies nobody takes"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def touched = false
+        def body = new InputStream() {
+            @Override
+            int read() throws IOException {
+                touched = true
+                -1
+            }
+
+            @Override
+            int read(byte[] b, int off, int len) throws IOException {
+                touched = true
+                -1
+            }
+
+            @Override
+            void close() throws IOException {
+                touched = true
+            }
+        }
+
+        when:
+        transport.stop()
+        def stopped = transport.receive(body, 5, Map.of())
+
+        then:
+        stopped.statusCode.value() == 503
+        !touched
+
+        when:
+        transport.start()
+        def accepted = transport.receive(new ByteArrayInputStream("hello".bytes), 5, Map.of())
+
+        then:
+        accepted.statusCode.value() == 202
+        pool.getOutstandingCount() == 0
+    }
+
+    def "streams large and chunked bodies to the spool and pools the rest"() {
+        given:
+        def spool = new PayloadSpool(spoolDir, 8)
+        def pool = BufferPool.builder().build()
+        transport.setPayloadSpool(spool)
+        transport.setBufferPool(pool)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+
+        when:
+        def response = transport.receive(new ByteArrayInputStream("large body".bytes), 10, ["X-Correlation-ID": "big"])
+        transport.receive(new ByteArrayInputStream("chunked".bytes), -1, Map.of())
+        transport.receive(new ByteArrayInputStream("small".bytes), 5, Map.of())
+
+        then:
+        response.statusCode.value() == 202
+        received[0].correlationId() == "big"
+        received[0].body() instanceof FilePayload
+        new String(received[0].payload()) == "large body"
+        received[1].body() instanceof FilePayload
+        received[2].body() instanceof PooledPayload
+        spool.getActiveFiles() == 2
+
+        when:
+        received*.body()*.release()
+
+        then:
+        spool.getActiveFiles() == 0
+        Files.list(spoolDir).withCloseable { it.count() } == 0
+        pool.getOutstandingCount() == 0
+    }
+
+    def "removes the spool file when nobody takes the body"() {
+        given:
+        def spool = new PayloadSpool(spoolDir, 0)
+        transport.setPayloadSpool(spool)
+
+        when:
+        def response = transport.receive(new ByteArrayInputStream("hello".bytes), 5, Map.of())
+
+        then:
+        response.statusCode.value() == 202
+        spool.getSpooledCount() == 1
+        spool.getActiveFiles() == 0
+    }
 }
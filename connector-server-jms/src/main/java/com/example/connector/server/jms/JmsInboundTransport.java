@@ -1,34 +1,48 @@
 package com.example.connector.server.jms;
 
 import com.example.connector.core.batch.BatchBuffer;
+import com.example.connector.core.batch.BatchDrainer;
+import com.example.connector.core.buffer.BufferPool;
+import com.example.connector.core.buffer.PooledPayload;
 import com.example.connector.core.correlation.CorrelationId;
+import com.example.connector.core.flow.FlowControl;
+import com.example.connector.core.flow.FlowGate;
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
 import com.example.connector.core.transport.InboundTransport;
 import com.example.connector.core.transport.MessageHandler;
 
 import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.MessageListener;
 import java.time.Instant;
+import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * JMS inbound transport: builds ConnectorMessage from JMS Message; controllable start/stop.
- * When a BatchBuffer is set, messages are offered to the buffer and a drain loop processes batches (back pressure).
+ * When a BatchBuffer or {@link BatchDrainer} is set, messages are offered to it and drain workers process batches
+ * (back pressure).
+ * With a {@link FlowControl} set, listener threads wait while the pipeline is paused, so consumers stop taking
+ * messages from the broker until in-flight work drains below the low watermark.
+ * With a {@link BufferPool} set, bytes message bodies are read into pooled arrays; the pipeline releases them when
+ * the message completes.
  */
 public final class JmsInboundTransport implements InboundTransport, MessageListener {
 
     private final AtomicBoolean running = new AtomicBoolean(true);
     private volatile MessageHandler messageHandler;
-    private final BatchBuffer batchBuffer;
+    private final BatchDrainer drainer;
     private final long offerTimeoutMs;
-    private volatile Thread batchProcessorThread;
+    private volatile FlowGate flowGate;
+    private volatile long flowWaitMs;
+    private volatile BufferPool bufferPool;
 
     public JmsInboundTransport() {
-        this(null, 5000L);
+        this((BatchDrainer) null, 5000L);
     }
 
     /**
@@ -36,17 +50,26 @@ public final class JmsInboundTransport implements InboundTransport, MessageListe
      * @param offerTimeoutMs timeout when offering to the buffer; used only when batchBuffer is non-null.
      */
     public JmsInboundTransport(BatchBuffer batchBuffer, long offerTimeoutMs) {
-        this.batchBuffer = batchBuffer;
+        this(batchBuffer != null ? BatchDrainer.single("jms-connector", batchBuffer) : null, offerTimeoutMs);
+    }
+
+    /**
+     * @param drainer optional; if non-null, messages are offered to it and its workers process batches.
+     * @param offerTimeoutMs timeout when offering to the drainer (back pressure); used only when drainer is non-null.
+     */
+    public JmsInboundTransport(BatchDrainer drainer, long offerTimeoutMs) {
+        this.drainer = drainer;
         this.offerTimeoutMs = offerTimeoutMs > 0 ? offerTimeoutMs : 5000L;
     }
 
     @Override
     public void onMessage(Message message) {
         if (!running.get()) return;
+        awaitFlow();
         try {
             String correlationId = getCorrelationId(message);
-            byte[] payload = getPayload(message);
             Map<String, String> headers = getHeaders(message);
+            Payload payload = getPayload(message);
             ConnectorMessage cm = new ConnectorMessage(
                     correlationId,
                     "jms",
@@ -54,21 +77,60 @@ public final class JmsInboundTransport implements InboundTransport, MessageListe
                     headers,
                     Instant.now()
             );
-            if (batchBuffer != null) {
+            if (drainer != null) {
                 try {
-                    batchBuffer.offer(cm, offerTimeoutMs);
+                    if (!drainer.offer(cm, offerTimeoutMs)) {
+                        payload.release();
+                    }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
+                    payload.release();
                     throw new RuntimeException("Interrupted offering to batch buffer", e);
                 }
             } else if (messageHandler != null) {
                 messageHandler.handle(cm);
+            } else {
+                payload.release();
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void awaitFlow() {
+        FlowGate gate = flowGate;
+        if (gate == null) return;
+        try {
+            while (running.get() && !gate.awaitOpen(flowWaitMs)) {
+                // still paused; re-check running so stop() releases waiting listener threads
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for flow control", e);
+        }
+    }
+
+    /**
+     * Hold listener threads while the given flow control is paused. Call once, before the container starts.
+     */
+    public void setFlowControl(FlowControl flowControl) {
+        if (flowControl == null) {
+            this.flowGate = null;
+            return;
+        }
+        FlowGate gate = new FlowGate();
+        this.flowWaitMs = Math.max(1, flowControl.getRetryAfter().toMillis());
+        flowControl.addListener(gate);
+        this.flowGate = gate;
+    }
+
+    /**
+     * Read bytes message bodies into arrays from this pool; null allocates one array per message.
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
     private static String getCorrelationId(Message m) throws Exception {
         String id = m.getJMSCorrelationID();
         if (id != null && !id.isBlank()) return id;
@@ -77,55 +139,58 @@ public final class JmsInboundTransport implements InboundTransport, MessageListe
         return CorrelationId.generate();
     }
 
-    private static byte[] getPayload(Message m) throws Exception {
+    private Payload getPayload(Message m) throws Exception {
         if (m instanceof BytesMessage bm) {
             bm.reset();
-            byte[] buf = new byte[(int) bm.getBodyLength()];
-            bm.readBytes(buf);
-            return buf;
+            int length = (int) bm.getBodyLength();
+            BufferPool pool = bufferPool;
+            if (pool == null) {
+                byte[] buf = new byte[length];
+                bm.readBytes(buf);
+                return Payload.of(buf);
+            }
+            PooledPayload pooled = pool.acquire(length);
+            try {
+                bm.readBytes(pooled.array(), length);
+            } catch (Exception e) {
+                pooled.release();
+                throw e;
+            }
+            return pooled;
         }
-        return new byte[0];
+        return Payload.EMPTY;
     }
 
-    private static Map<String, String> getHeaders(Message m) throws Exception {
+    /**
+     * Copies the properties on the listener thread: the session may be reused or closed once the message is
+     * acknowledged, and the copy does not keep the message (and its body) reachable while the pipeline runs.
+     */
+    private static Map<String, String> getHeaders(Message m) throws JMSException {
         Map<String, String> out = new HashMap<>();
-        // Optional: enumerate property names and add to map
+        Enumeration<?> names = m.getPropertyNames();
+        while (names != null && names.hasMoreElements()) {
+            String name = names.nextElement().toString();
+            Object value = m.getObjectProperty(name);
+            if (value != null) {
+                out.put(name, value.toString());
+            }
+        }
         return out;
     }
 
     @Override
     public void start() {
         running.set(true);
-        if (batchBuffer != null && batchProcessorThread == null) {
-            batchProcessorThread = new Thread(this::drainLoop, "jms-connector-batch-processor");
-            batchProcessorThread.setDaemon(true);
-            batchProcessorThread.start();
+        if (drainer != null) {
+            drainer.start(() -> messageHandler);
         }
     }
 
     @Override
     public void stop() {
         running.set(false);
-        if (batchProcessorThread != null) {
-            batchProcessorThread.interrupt();
-            batchProcessorThread = null;
-        }
-    }
-
-    private void drainLoop() {
-        while (running.get() && batchBuffer != null) {
-            try {
-                List<ConnectorMessage> batch = batchBuffer.drain();
-                MessageHandler handler = messageHandler;
-                if (handler != null) {
-                    for (ConnectorMessage msg : batch) {
-                        handler.handle(msg);
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+        if (drainer != null) {
+            drainer.stop();
         }
     }
 
@@ -138,4 +203,11 @@ public final class JmsInboundTransport implements InboundTransport, MessageListe
     public void setMessageHandler(MessageHandler handler) {
         this.messageHandler = handler;
     }
+
+    /**
+     * The batch drainer, or null when messages are handled on the listener thread.
+     */
+    public BatchDrainer getDrainer() {
+        return drainer;
+    }
 }
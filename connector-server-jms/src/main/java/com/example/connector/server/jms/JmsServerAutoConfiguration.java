@@ -1,6 +1,9 @@
 package com.example.connector.server.jms;
 
+import com.example.connector.core.buffer.BufferPool;
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.transport.TransportRegistration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -16,8 +19,12 @@ import jakarta.jms.ConnectionFactory;
 public class JmsServerAutoConfiguration {
 
     @Bean
-    public JmsInboundTransport jmsInboundTransport() {
-        return new JmsInboundTransport();
+    public JmsInboundTransport jmsInboundTransport(ObjectProvider<FlowControl> flowControl,
+                                                   ObjectProvider<BufferPool> bufferPool) {
+        JmsInboundTransport transport = new JmsInboundTransport();
+        transport.setFlowControl(flowControl.getIfAvailable());
+        transport.setBufferPool(bufferPool.getIfAvailable());
+        return transport;
     }
 
     @Bean
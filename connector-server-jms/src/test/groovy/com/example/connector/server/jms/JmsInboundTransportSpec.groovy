@@ -1,10 +1,20 @@
 package com.example.connector.server.jms
 
+import com.example.connector.core.batch.BatchBuffer
+import com.example.connector.core.batch.BatchDrainer
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.buffer.PooledPayload
+import com.example.connector.core.dispatch.OrderingKeyExtractor
+import com.example.connector.core.flow.FlowControl
 import com.example.connector.core.model.ConnectorMessage
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
 import jakarta.jms.BytesMessage
+import jakarta.jms.JMSException
 import jakarta.jms.Session
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
 
 class JmsInboundTransportSpec extends Specification {
 
@@ -21,4 +31,225 @@ class JmsInboundTransportSpec extends Specification {
         when: transport.start()
         then: transport.isRunning()
     }
+
+    def "should map JMS properties to headers and delegate to handler"() {
+        given:
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        def message = Mock(BytesMessage)
+        message.getJMSCorrelationID() >> "jms-corr-1"
+        message.getBodyLength() >> 0L
+        message.getPropertyNames() >> Collections.enumeration(["X-Account-ID"])
+        message.getObjectProperty("X-Account-ID") >> "acc-1"
+
+        when:
+        transport.onMessage(message)
+
+        then:
+        received.size() == 1
+        received[0].correlationId() == "jms-corr-1"
+        received[0].headers() == ["X-Account-ID": "acc-1"]
+    }
+
+    def "snapshots the properties on the listener thread"() {
+        given:
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        def message = Mock(BytesMessage)
+        message.getJMSCorrelationID() >> "jms-corr-2"
+        message.getBodyLength() >> 0L
+        message.getPropertyNames() >> Collections.enumeration(["X-Account-ID", "X-Empty"])
+        message.getObjectProperty("X-Account-ID") >> "acc-1"
+        transport.onMessage(message)
+
+        when: "the pipeline reads the headers after the listener returned"
+        def accountId = received[0].headers().get("X-Account-ID")
+        def all = Map.copyOf(received[0].headers())
+
+        then:
+        0 * message._
+        accountId == "acc-1"
+        all == ["X-Account-ID": "acc-1"]
+    }
+
+    def "fails the delivery when the properties cannot be read"() {
+        given:
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        def message = Mock(BytesMessage) {
+            getJMSCorrelationID() >> "jms-corr-3"
+            getBodyLength() >> 0L
+            getPropertyNames() >> { throw new JMSException("closed") }
+        }
+
+        when:
+        transport.onMessage(message)
+
+        then:
+        def e = thrown(RuntimeException)
+        e.cause instanceof JMSException
+        received.isEmpty()
+    }
+
+    def "partitioned drainer workers hand messages to the handler"() {
+        given:
+        def drainer = BatchDrainer.partitioned("jms-connector",
+                [new BatchBuffer(10, 4, Duration.ofMillis(10)), new BatchBuffer(10, 4, Duration.ofMillis(10))],
+                OrderingKeyExtractor.correlationId())
+        def batched = new JmsInboundTransport(drainer, 1000)
+        def received = new CopyOnWriteArrayList<String>()
+        batched.setMessageHandler({ ConnectorMessage msg -> received << msg.correlationId() })
+        def first = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-1"; getBodyLength() >> 0L }
+        def second = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-2"; getBodyLength() >> 0L }
+
+        when:
+        batched.start()
+        batched.onMessage(first)
+        batched.onMessage(second)
+
+        then:
+        batched.getDrainer() == drainer
+        new PollingConditions(timeout: 5).eventually {
+            assert received.sort(false) == ["jms-1", "jms-2"]
+        }
+
+        when:
+        batched.stop()
+
+        then:
+        !drainer.isRunning()
+    }
+
+    def "holds listener threads while flow control is paused"() {
+        given:
+        def flow = new FlowControl(1, 0, Duration.ofMillis(10))
+        def received = new CopyOnWriteArrayList<String>()
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg.correlationId() })
+        transport.setFlowControl(flow)
+        flow.acquire()
+        def message = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-held"; getBodyLength() >> 0L }
+
+        when:
+        def listener = Thread.start { transport.onMessage(message) }
+        Thread.sleep(100)
+
+        then:
+        received.isEmpty()
+        listener.isAlive()
+
+        when:
+        flow.release()
+        listener.join(5000)
+
+        then:
+        received == ["jms-held"]
+    }
+
+    def "stop releases listener threads held by flow control"() {
+        given:
+        def flow = new FlowControl(1, 0, Duration.ofMillis(10))
+        transport.setFlowControl(flow)
+        flow.acquire()
+        def message = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-stopped"; getBodyLength() >> 0L }
+
+        when:
+        def listener = Thread.start { transport.onMessage(message) }
+        Thread.sleep(50)
+        transport.stop()
+        listener.join(5000)
+
+        then:
+        !listener.isAlive()
+
+        when: "clearing flow control stops holding threads"
+        transport.start()
+        transport.setFlowControl(null)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg.correlationId() })
+        transport.onMessage(message)
+
+        then:
+        received == ["jms-stopped"]
+    }
+
+    def "reads bytes message bodies into pooled buffers"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        def message = Mock(BytesMessage) {
+            getJMSCorrelationID() >> "jms-pooled"
+            getBodyLength() >> 5L
+            readBytes(_ as byte[], 5) >> { byte[] into, int length ->
+                System.arraycopy("hello".bytes, 0, into, 0, length)
+                length
+            }
+        }
+
+        when:
+        transport.onMessage(message)
+        transport.onMessage(message)
+
+        then:
+        received*.payload().collect { new String(it) } == ["hello", "hello"]
+        received[0].body() instanceof PooledPayload
+        pool.getOutstandingCount() == 2
+
+        when:
+        received*.body()*.release()
+        transport.onMessage(message)
+
+        then:
+        pool.getAllocatedCount() == 2
+        pool.getReusedCount() == 1
+    }
+
+    def "releases a pooled body nobody takes"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        def message = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-unhandled"; getBodyLength() >> 4L }
+
+        when:
+        transport.onMessage(message)
+
+        then:
+        pool.getOutstandingCount() == 0
+    }
+
+    def "releases the pooled body when the body cannot be read"() {
+        given:
+        def pool = BufferPool.builder().build()
+        transport.setBufferPool(pool)
+        transport.setMessageHandler({ ConnectorMessage msg -> })
+        def message = Mock(BytesMessage) {
+            getJMSCorrelationID() >> "jms-broken"
+            getBodyLength() >> 4L
+            readBytes(_ as byte[], 4) >> { throw new jakarta.jms.JMSException("gone") }
+        }
+
+        when:
+        transport.onMessage(message)
+
+        then:
+        thrown(RuntimeException)
+        pool.getOutstandingCount() == 0
+    }
+
+    def "releases the pooled body when the drainer does not accept it"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def full = new BatchBuffer(1, 1, Duration.ofMillis(10))
+        full.offer(new ConnectorMessage("filler", "jms", new byte[0], Map.of(), null), 0)
+        def batched = new JmsInboundTransport(full, 1)
+        batched.setBufferPool(pool)
+        def message = Mock(BytesMessage) { getJMSCorrelationID() >> "jms-full"; getBodyLength() >> 4L }
+
+        when:
+        batched.onMessage(message)
+
+        then:
+        pool.getOutstandingCount() == 0
+    }
 }
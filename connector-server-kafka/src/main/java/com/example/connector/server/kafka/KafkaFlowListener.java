@@ -0,0 +1,39 @@
+package com.example.connector.server.kafka;
+
+import com.example.connector.core.flow.FlowListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+/**
+ * Pauses a Kafka listener container while the pipeline's flow control is paused. The consumer keeps polling (and
+ * heartbeating) with its partitions paused, so a slow pipeline does not trigger a rebalance. A container that was
+ * already paused by someone else is left paused on resume.
+ */
+public final class KafkaFlowListener implements FlowListener {
+
+    private final MessageListenerContainer container;
+    private volatile boolean pausedByFlow;
+
+    public KafkaFlowListener(MessageListenerContainer container) {
+        this.container = container;
+    }
+
+    @Override
+    public void onPause() {
+        if (!container.isPauseRequested()) {
+            pausedByFlow = true;
+            container.pause();
+        }
+    }
+
+    @Override
+    public void onResume() {
+        if (pausedByFlow) {
+            pausedByFlow = false;
+            container.resume();
+        }
+    }
+
+    public boolean isPausedByFlow() {
+        return pausedByFlow;
+    }
+}
@@ -1,35 +1,39 @@
 package com.example.connector.server.kafka;
 
 import com.example.connector.core.batch.BatchBuffer;
+import com.example.connector.core.batch.BatchDrainer;
 import com.example.connector.core.correlation.CorrelationId;
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.LazyHeaders;
 import com.example.connector.core.transport.InboundTransport;
 import com.example.connector.core.transport.MessageHandler;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.springframework.kafka.listener.MessageListener;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Kafka inbound transport: builds ConnectorMessage from ConsumerRecord, delegates to MessageHandler.
- * When a BatchBuffer is set, messages are offered to the buffer and a drain loop processes batches (back pressure).
+ * Record headers are exposed as {@link LazyHeaders}, so only the headers a route reads are decoded.
+ * When a BatchBuffer or {@link BatchDrainer} is set, messages are offered to it and drain workers process batches
+ * (back pressure).
  * Controllable via start/stop (listener container lifecycle).
  */
 public final class KafkaInboundTransport implements InboundTransport, MessageListener<String, byte[]> {
 
     private final AtomicBoolean running = new AtomicBoolean(true);
     private volatile MessageHandler messageHandler;
-    private final BatchBuffer batchBuffer;
+    private final BatchDrainer drainer;
     private final long offerTimeoutMs;
-    private volatile Thread batchProcessorThread;
 
     public KafkaInboundTransport() {
-        this(null, 5000L);
+        this((BatchDrainer) null, 5000L);
     }
 
     /**
@@ -37,7 +41,15 @@ public final class KafkaInboundTransport implements InboundTransport, MessageLis
      * @param offerTimeoutMs timeout when offering to the buffer (back pressure); used only when batchBuffer is non-null.
      */
     public KafkaInboundTransport(BatchBuffer batchBuffer, long offerTimeoutMs) {
-        this.batchBuffer = batchBuffer;
+        this(batchBuffer != null ? BatchDrainer.single("kafka-connector", batchBuffer) : null, offerTimeoutMs);
+    }
+
+    /**
+     * @param drainer optional; if non-null, messages are offered to it and its workers process batches.
+     * @param offerTimeoutMs timeout when offering to the drainer (back pressure); used only when drainer is non-null.
+     */
+    public KafkaInboundTransport(BatchDrainer drainer, long offerTimeoutMs) {
+        this.drainer = drainer;
         this.offerTimeoutMs = offerTimeoutMs > 0 ? offerTimeoutMs : 5000L;
     }
 
@@ -47,18 +59,16 @@ public final class KafkaInboundTransport implements InboundTransport, MessageLis
             return;
         }
         String correlationId = correlationFromHeaders(record);
-        Map<String, String> headers = new HashMap<>();
-        record.headers().forEach(h -> headers.put(h.key(), new String(h.value(), StandardCharsets.UTF_8)));
         ConnectorMessage message = new ConnectorMessage(
                 correlationId,
                 "kafka",
                 record.value() != null ? record.value() : new byte[0],
-                headers,
+                headers(record.headers()),
                 Instant.ofEpochMilli(record.timestamp())
         );
-        if (batchBuffer != null) {
+        if (drainer != null) {
             try {
-                batchBuffer.offer(message, offerTimeoutMs);
+                drainer.offer(message, offerTimeoutMs);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Interrupted offering to batch buffer", e);
@@ -68,6 +78,26 @@ public final class KafkaInboundTransport implements InboundTransport, MessageLis
         }
     }
 
+    /**
+     * UTF-8 view of the record headers; the last of repeated keys wins and a null value reads as empty.
+     */
+    static Map<String, String> headers(Headers headers) {
+        return new LazyHeaders(
+                name -> decode(headers.lastHeader(name)),
+                () -> {
+                    Map<String, String> all = new HashMap<>();
+                    headers.forEach(h -> all.put(h.key(), decode(h)));
+                    return all;
+                });
+    }
+
+    private static String decode(Header header) {
+        if (header == null) {
+            return null;
+        }
+        return header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : "";
+    }
+
     private static String correlationFromHeaders(ConsumerRecord<String, byte[]> record) {
         var header = record.headers().lastHeader(CorrelationId.getHeaderName());
         if (header != null && header.value() != null) {
@@ -80,36 +110,16 @@ public final class KafkaInboundTransport implements InboundTransport, MessageLis
     @Override
     public void start() {
         running.set(true);
-        if (batchBuffer != null && batchProcessorThread == null) {
-            batchProcessorThread = new Thread(this::drainLoop, "kafka-connector-batch-processor");
-            batchProcessorThread.setDaemon(true);
-            batchProcessorThread.start();
+        if (drainer != null) {
+            drainer.start(() -> messageHandler);
         }
     }
 
     @Override
     public void stop() {
         running.set(false);
-        if (batchProcessorThread != null) {
-            batchProcessorThread.interrupt();
-            batchProcessorThread = null;
-        }
-    }
-
-    private void drainLoop() {
-        while (running.get() && batchBuffer != null) {
-            try {
-                List<ConnectorMessage> batch = batchBuffer.drain();
-                MessageHandler handler = messageHandler;
-                if (handler != null) {
-                    for (ConnectorMessage msg : batch) {
-                        handler.handle(msg);
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+        if (drainer != null) {
+            drainer.stop();
         }
     }
 
@@ -122,4 +132,11 @@ public final class KafkaInboundTransport implements InboundTransport, MessageLis
     public void setMessageHandler(MessageHandler handler) {
         this.messageHandler = handler;
     }
+
+    /**
+     * The batch drainer, or null when messages are handled on the listener thread.
+     */
+    public BatchDrainer getDrainer() {
+        return drainer;
+    }
 }
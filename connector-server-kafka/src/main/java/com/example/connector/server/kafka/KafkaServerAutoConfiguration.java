@@ -1,12 +1,17 @@
 package com.example.connector.server.kafka;
 
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.transport.TransportRegistration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
 
 @Configuration
 @ConditionalOnClass(name = "org.springframework.kafka.core.ConsumerFactory")
@@ -23,6 +28,20 @@ public class KafkaServerAutoConfiguration {
         return new TransportRegistration("kafka", transport);
     }
 
+    /**
+     * Pauses the listener containers that feed the Kafka transport while the pipeline's flow control is paused.
+     * Runs once all singletons exist, so container beans declared anywhere in the context are found.
+     */
+    @Bean
+    public SmartInitializingSingleton kafkaFlowListenerInstaller(KafkaInboundTransport transport,
+                                                                 ObjectProvider<FlowControl> flowControl,
+                                                                 ObjectProvider<MessageListenerContainer> containers) {
+        return () -> flowControl.ifAvailable(control -> containers.orderedStream()
+                .filter(container -> container instanceof AbstractMessageListenerContainer<?, ?> c
+                        && c.getContainerProperties().getMessageListener() == transport)
+                .forEach(container -> control.addListener(new KafkaFlowListener(container))));
+    }
+
     @Bean
     public HealthIndicator connectorServerKafkaHealthIndicator(KafkaInboundTransport transport) {
         return () -> transport.isRunning()
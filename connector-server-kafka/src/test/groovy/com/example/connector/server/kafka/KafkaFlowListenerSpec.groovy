@@ -0,0 +1,39 @@
+package com.example.connector.server.kafka
+
+import org.springframework.kafka.listener.MessageListenerContainer
+import spock.lang.Specification
+
+class KafkaFlowListenerSpec extends Specification {
+
+    def container = Mock(MessageListenerContainer)
+    def listener = new KafkaFlowListener(container)
+
+    def "pauses and resumes the container"() {
+        when:
+        listener.onPause()
+
+        then:
+        1 * container.isPauseRequested() >> false
+        1 * container.pause()
+        listener.isPausedByFlow()
+
+        when:
+        listener.onResume()
+
+        then:
+        1 * container.resume()
+        !listener.isPausedByFlow()
+    }
+
+    def "leaves a container paused by someone else paused"() {
+        when:
+        listener.onPause()
+        listener.onResume()
+
+        then:
+        1 * container.isPauseRequested() >> true
+        0 * container.pause()
+        0 * container.resume()
+        !listener.isPausedByFlow()
+    }
+}
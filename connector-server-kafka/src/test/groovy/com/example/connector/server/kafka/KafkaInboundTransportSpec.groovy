@@ -1,12 +1,23 @@
 package com.example.connector.server.kafka
 
+import com.example.connector.core.batch.BatchBuffer
+import com.example.connector.core.batch.BatchObserver
+import com.example.connector.core.batch.BatchPolicy
+import com.example.connector.core.batch.BatchQueue
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.LazyHeaders
 import org.apache.kafka.clients.consumer.ConsumerRecord
 import org.apache.kafka.common.header.internals.RecordHeaders
 import org.apache.kafka.common.record.TimestampType
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
+import java.time.Duration
 import java.util.Optional
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
 
 class KafkaInboundTransportSpec extends Specification {
 
@@ -41,4 +52,63 @@ class KafkaInboundTransportSpec extends Specification {
         when: transport.start()
         then: transport.isRunning()
     }
+
+    def "batch mode hands drained batches to the handler and reports them"() {
+        given:
+        def batches = new CopyOnWriteArrayList()
+        def buffer = new BatchBuffer(BatchQueue.of(new LinkedBlockingQueue<>(10)), BatchPolicy.fixed(10, Duration.ofMillis(10)),
+                { size, linger, processing -> batches << size } as BatchObserver)
+        def batched = new KafkaInboundTransport(buffer, 1000)
+        def received = new CountDownLatch(2)
+        batched.setMessageHandler({ ConnectorMessage msg -> received.countDown() })
+
+        when:
+        batched.start()
+        batched.onMessage(record("b1"))
+        batched.onMessage(record("b2"))
+
+        then:
+        received.await(5, TimeUnit.SECONDS)
+        new PollingConditions(timeout: 5).eventually {
+            assert batches.sum() == 2
+        }
+
+        cleanup:
+        batched.stop()
+    }
+
+    def "decodes only the record headers a route reads"() {
+        given:
+        def received = []
+        transport.setMessageHandler({ ConnectorMessage msg -> received << msg })
+        def headers = new RecordHeaders()
+        headers.add("X-Correlation-ID", "kafka-corr-2".bytes)
+        headers.add("X-Account-ID", "acc-1".bytes)
+        headers.add("X-Account-ID", "acc-2".bytes)
+        headers.add("X-Empty", null)
+        def record = new ConsumerRecord<>("topic", 0, 0L, 0L, TimestampType.CREATE_TIME, 0, 0, "key", "hello".bytes, headers, Optional.empty())
+
+        when:
+        transport.onMessage(record)
+        def view = (LazyHeaders) received[0].headers()
+
+        then:
+        view.get("X-Account-ID") == "acc-2"
+        view.get("X-Empty") == ""
+        view.get("missing") == null
+        !view.isMaterialized()
+
+        when:
+        def all = new HashMap<>(view)
+
+        then:
+        all == ["X-Correlation-ID": "kafka-corr-2", "X-Account-ID": "acc-2", "X-Empty": ""]
+        view.isMaterialized()
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String correlationId) {
+        def headers = new RecordHeaders()
+        headers.add("X-Correlation-ID", correlationId.bytes)
+        new ConsumerRecord<>("topic", 0, 0L, 0L, TimestampType.CREATE_TIME, 0, 0, "key", "v".bytes, headers, Optional.empty())
+    }
 }
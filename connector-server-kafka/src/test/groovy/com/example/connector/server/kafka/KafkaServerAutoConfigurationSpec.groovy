@@ -0,0 +1,61 @@
+package com.example.connector.server.kafka
+
+import com.example.connector.core.flow.FlowControl
+import org.springframework.beans.factory.support.StaticListableBeanFactory
+import org.springframework.kafka.core.ConsumerFactory
+import org.springframework.kafka.listener.ContainerProperties
+import org.springframework.kafka.listener.KafkaMessageListenerContainer
+import org.springframework.kafka.listener.MessageListener
+import org.springframework.kafka.listener.MessageListenerContainer
+import spock.lang.Specification
+
+import java.time.Duration
+
+class KafkaServerAutoConfigurationSpec extends Specification {
+
+    def configuration = new KafkaServerAutoConfiguration()
+    def transport = configuration.kafkaInboundTransport()
+
+    private KafkaMessageListenerContainer container(Object listener) {
+        def properties = new ContainerProperties("orders")
+        properties.setMessageListener(listener)
+        new KafkaMessageListenerContainer(Mock(ConsumerFactory), properties)
+    }
+
+    def "registers the containers feeding the transport with flow control"() {
+        given:
+        def flowControl = new FlowControl(2, 1, Duration.ofSeconds(1))
+        def feeding = container(transport)
+        def other = container({ record -> } as MessageListener)
+        def beans = new StaticListableBeanFactory()
+        beans.addBean("flowControl", flowControl)
+        beans.addBean("feeding", feeding)
+        beans.addBean("other", other)
+
+        when:
+        configuration.kafkaFlowListenerInstaller(transport, beans.getBeanProvider(FlowControl),
+                beans.getBeanProvider(MessageListenerContainer)).afterSingletonsInstantiated()
+        flowControl.acquire()
+        flowControl.acquire()
+
+        then:
+        feeding.isPauseRequested()
+        !other.isPauseRequested()
+
+        when:
+        flowControl.release()
+
+        then:
+        !feeding.isPauseRequested()
+    }
+
+    def "does nothing without flow control"() {
+        given:
+        def beans = new StaticListableBeanFactory()
+        beans.addBean("feeding", container(transport))
+
+        expect:
+        configuration.kafkaFlowListenerInstaller(transport, beans.getBeanProvider(FlowControl),
+                beans.getBeanProvider(MessageListenerContainer)).afterSingletonsInstantiated()
+    }
+}
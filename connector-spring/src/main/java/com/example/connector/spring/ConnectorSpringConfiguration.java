@@ -1,11 +1,15 @@
 package com.example.connector.spring;
 
+import com.example.connector.core.correlation.CorrelationId;
+import com.example.connector.core.correlation.CorrelationIdGenerator;
 import com.example.connector.core.journal.JournalWriter;
 import com.example.connector.journal.JdbcJournalWriter;
 import com.example.connector.observability.ConnectorMetricsRegistry;
 import com.example.connector.observability.ConnectorTracing;
 import com.example.connector.transformation.MessageConversionRegistry;
 import io.opentelemetry.api.trace.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +29,14 @@ public class ConnectorSpringConfiguration {
         return new MessageConversionRegistry();
     }
 
+    /**
+     * Installs a {@link CorrelationIdGenerator} bean, when one is defined, as the generator for new correlation IDs.
+     */
+    @Bean
+    public SmartInitializingSingleton correlationIdGeneratorInstaller(ObjectProvider<CorrelationIdGenerator> generator) {
+        return () -> generator.ifAvailable(CorrelationId::setGenerator);
+    }
+
     @Bean
     public ConnectorMetricsRegistry connectorMetricsRegistry() {
         return new ConnectorMetricsRegistry();
@@ -3,6 +3,15 @@ plugins {
 }
 
 dependencies {
+    val libs = project.extensions.getByType<org.gradle.api.artifacts.VersionCatalogsExtension>().named("libs")
     api(project(":connector-core"))
     api(project(":connector-observability"))
+    implementation(libs.findLibrary("jackson-core").get())
+    // Avro and Protobuf codecs: applications that use them add the libraries themselves
+    compileOnly(libs.findLibrary("avro").get())
+    compileOnly(libs.findLibrary("protobuf-java").get())
+    compileOnly(libs.findLibrary("protobuf-java-util").get())
+    testImplementation(libs.findLibrary("avro").get())
+    testImplementation(libs.findLibrary("protobuf-java").get())
+    testImplementation(libs.findLibrary("protobuf-java-util").get())
 }
@@ -1,19 +1,33 @@
 package com.example.connector.transformation;
 
+import com.example.connector.core.dispatch.SingleFlight;
+import com.example.connector.core.dlq.DeadLetter;
+import com.example.connector.core.dlq.DeadLetterStore;
+import com.example.connector.core.flow.FlowControl;
 import com.example.connector.core.journal.JournalWriter;
 import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
+import com.example.connector.core.transport.DeadlineExceededException;
 import com.example.connector.core.transport.MessageHandler;
 import com.example.connector.core.transport.OutboundTransport;
 import com.example.connector.core.transport.SendResult;
 import com.example.connector.observability.ConnectorMetricsRegistry;
 import com.example.connector.observability.ConnectorTracing;
+import com.example.connector.transformation.claimcheck.ClaimCheck;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Pipeline: receive → input convert → journal request → transform (user) → output convert → send → journal response.
  * Optional tracing and metrics are applied when provided.
+ * Messages whose deadline has passed are shed before the journal, conversion and send stages: journaled as EXPIRED,
+ * counted as expired and completed with a {@link DeadlineExceededException} failure.
+ * With a {@link ClaimCheck}, large bodies are journaled and sent as blob references and referenced bodies are fetched
+ * only if a converter reads them.
  */
 public final class ConnectorPipeline {
 
@@ -23,6 +37,11 @@ public final class ConnectorPipeline {
     private final String outputTransport;
     private final ConnectorTracing tracing;
     private final ConnectorMetricsRegistry metricsRegistry;
+    private final SingleFlight<String, SendResult> singleFlight;
+    private final FlowControl flowControl;
+    private final Duration ttl;
+    private final DeadLetterStore deadLetterStore;
+    private final ClaimCheck claimCheck;
 
     public ConnectorPipeline(
             MessageConversionRegistry registry,
@@ -39,43 +58,160 @@ public final class ConnectorPipeline {
             String outputTransport,
             ConnectorTracing tracing,
             ConnectorMetricsRegistry metricsRegistry) {
+        this(registry, journalWriter, outboundTransport, outputTransport, tracing, metricsRegistry, null, null, null, null, null);
+    }
+
+    private ConnectorPipeline(
+            MessageConversionRegistry registry,
+            JournalWriter journalWriter,
+            OutboundTransport outboundTransport,
+            String outputTransport,
+            ConnectorTracing tracing,
+            ConnectorMetricsRegistry metricsRegistry,
+            SingleFlight<String, SendResult> singleFlight,
+            FlowControl flowControl,
+            Duration ttl,
+            DeadLetterStore deadLetterStore,
+            ClaimCheck claimCheck) {
         this.registry = registry;
         this.journalWriter = journalWriter;
         this.outboundTransport = outboundTransport;
         this.outputTransport = outputTransport;
         this.tracing = tracing;
         this.metricsRegistry = metricsRegistry;
+        this.singleFlight = singleFlight;
+        this.flowControl = flowControl;
+        this.ttl = ttl;
+        this.deadLetterStore = deadLetterStore;
+        this.claimCheck = claimCheck;
+    }
+
+    /**
+     * Copy of this pipeline that coalesces concurrent {@link #process} calls for the same correlation ID:
+     * redeliveries arriving while the first is in flight share its result, with no second journal row or send.
+     */
+    public ConnectorPipeline withSingleFlight() {
+        return new ConnectorPipeline(registry, journalWriter, outboundTransport, outputTransport, tracing,
+                metricsRegistry, new SingleFlight<>(), flowControl, ttl, deadLetterStore, claimCheck);
+    }
+
+    /**
+     * Copy of this pipeline that holds a flow-control credit for every message from entry until its send completes,
+     * so inbound transports listening on the flow control pause when too many messages are in flight.
+     */
+    public ConnectorPipeline withFlowControl(FlowControl flowControl) {
+        return new ConnectorPipeline(registry, journalWriter, outboundTransport, outputTransport, tracing,
+                metricsRegistry, singleFlight, flowControl, ttl, deadLetterStore, claimCheck);
+    }
+
+    /**
+     * Copy of this pipeline that gives messages without a deadline header one of timestamp + ttl, so messages that
+     * waited too long in buffers or retries are shed instead of sent.
+     */
+    public ConnectorPipeline withTtl(Duration ttl) {
+        return new ConnectorPipeline(registry, journalWriter, outboundTransport, outputTransport, tracing,
+                metricsRegistry, singleFlight, flowControl, ttl, deadLetterStore, claimCheck);
+    }
+
+    /**
+     * Copy of this pipeline that dead-letters messages whose send ultimately fails, keyed by the output transport
+     * name, in the form they were sent (after output conversion) so they can be redelivered as is.
+     */
+    public ConnectorPipeline withDeadLetterStore(DeadLetterStore deadLetterStore) {
+        return new ConnectorPipeline(registry, journalWriter, outboundTransport, outputTransport, tracing,
+                metricsRegistry, singleFlight, flowControl, ttl, deadLetterStore, claimCheck);
+    }
+
+    /**
+     * Copy of this pipeline that checks bodies above the claim check's threshold into its blob store before the
+     * journal and the send, and checks referenced bodies out (lazily) before input conversion.
+     */
+    public ConnectorPipeline withClaimCheck(ClaimCheck claimCheck) {
+        return new ConnectorPipeline(registry, journalWriter, outboundTransport, outputTransport, tracing,
+                metricsRegistry, singleFlight, flowControl, ttl, deadLetterStore, claimCheck);
     }
 
     /**
      * Process an already-built ConnectorMessage (e.g. from an inbound transport).
      * Flow: optional input convert → journal request → optional output convert → send → journal response.
      * When observability is configured: one span per request (correlation_id attribute), metrics received/sent/failed.
+     * The pipeline takes ownership of the message body and releases it once the send and journal response complete.
      */
-    @SuppressWarnings("unchecked")
     public CompletableFuture<SendResult> process(ConnectorMessage message, Map<String, Object> sendOptions) {
         if (metricsRegistry != null) {
             metricsRegistry.getMetrics(message.transportType()).recordReceived();
         }
+        if (ttl != null && message.deadline().isEmpty()) {
+            message = message.withDeadline(message.timestamp().plus(ttl));
+        }
+        if (flowControl != null) {
+            flowControl.acquire();
+        }
+        Payload body = message.body();
+        CompletableFuture<SendResult> result;
+        try {
+            result = dispatch(message, sendOptions);
+        } catch (RuntimeException e) {
+            finish(body);
+            throw e;
+        }
+        result.whenComplete((r, ex) -> finish(body));
+        return result;
+    }
+
+    /**
+     * The message is done with: give back its flow-control credit and its (possibly pooled) body.
+     */
+    private void finish(Payload body) {
+        if (flowControl != null) {
+            flowControl.release();
+        }
+        body.release();
+    }
+
+    private CompletableFuture<SendResult> dispatch(ConnectorMessage message, Map<String, Object> sendOptions) {
+        if (singleFlight != null) {
+            return singleFlight.execute(SingleFlight.sendKey(message, outputTransport, sendOptions),
+                    () -> doProcess(message, sendOptions));
+        }
+        return doProcess(message, sendOptions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<SendResult> doProcess(ConnectorMessage message, Map<String, Object> sendOptions) {
+        SendResult.Failure expired = DeadlineExceededException.failureIfExpired(message, Instant.now());
+        if (expired != null) {
+            // journal a large body by reference here too; an inbound reference is kept without loading the blob
+            journalWriter.appendRequest(claimCheck != null ? claimCheck.checkIn(claimCheck.checkOut(message)) : message);
+            return shed(message, expired, null);
+        }
         AutoCloseable scope = tracing != null ? tracing.startSpan(message, "connector.process") : null;
+        ConnectorMessage received = claimCheck != null ? claimCheck.checkOut(message) : message;
         // Optional input conversion (e.g. normalize JMS payload to internal format)
         var inputOpt = registry.getInputConverter(message.transportType(), null);
         ConnectorMessage internal = inputOpt.isPresent()
-                ? (ConnectorMessage) ((com.example.connector.transformation.convert.InputConverter) inputOpt.get()).convert(message)
-                : message;
-        journalWriter.appendRequest(internal);
+                ? (ConnectorMessage) ((com.example.connector.transformation.convert.InputConverter) inputOpt.get()).convert(received)
+                : received;
+        ConnectorMessage journaled = claimCheck != null ? claimCheck.checkIn(internal) : internal;
+        journalWriter.appendRequest(journaled);
         // Optional output conversion (e.g. format payload for Kafka)
         var outputOpt = registry.getOutputConverter(outputTransport);
-        ConnectorMessage toSend = outputOpt.isPresent()
+        ConnectorMessage converted = outputOpt.isPresent()
                 ? (ConnectorMessage) ((com.example.connector.transformation.convert.OutputConverter) outputOpt.get()).convert(internal)
                 : internal;
+        ConnectorMessage toSend = claimCheck == null ? converted
+                : converted == internal ? journaled
+                : claimCheck.checkIn(converted);
+        expired = DeadlineExceededException.failureIfExpired(toSend, Instant.now());
+        if (expired != null) {
+            return shed(internal, expired, scope);
+        }
         return outboundTransport.send(toSend, sendOptions != null ? sendOptions : Map.of())
                 .whenComplete((result, ex) -> {
-                    if (scope != null) {
-                        try {
-                            scope.close();
-                        } catch (Exception ignored) {
-                        }
+                    close(scope);
+                    if (isExpired(result, ex)) {
+                        recordExpired(internal, ex != null ? ex.getMessage() : ((SendResult.Failure) result).cause().getMessage());
+                        return;
                     }
                     if (metricsRegistry != null) {
                         var metrics = metricsRegistry.getMetrics(message.transportType());
@@ -89,14 +225,61 @@ public final class ConnectorPipeline {
                     }
                     if (ex != null) {
                         journalWriter.updateResponse(internal.correlationId(), "FAILED", null, ex.getMessage());
+                        deadLetter(toSend, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
                     } else if (result instanceof SendResult.Success s) {
                         journalWriter.updateResponse(internal.correlationId(), "SENT", null, null);
                     } else if (result instanceof SendResult.Failure f) {
                         journalWriter.updateResponse(internal.correlationId(), "FAILED", null, f.cause().getMessage());
+                        deadLetter(toSend, f.cause());
                     }
                 });
     }
 
+    private void deadLetter(ConnectorMessage sent, Throwable cause) {
+        if (deadLetterStore != null) {
+            deadLetterStore.add(sent, outputTransport, DeadLetter.reasonOf(cause));
+        }
+    }
+
+    private CompletableFuture<SendResult> shed(ConnectorMessage message, SendResult.Failure expired, AutoCloseable scope) {
+        close(scope);
+        recordExpired(message, expired.cause().getMessage());
+        return CompletableFuture.completedFuture(expired);
+    }
+
+    private void recordExpired(ConnectorMessage message, String reason) {
+        if (metricsRegistry != null) {
+            metricsRegistry.getMetrics(message.transportType()).recordExpired();
+        }
+        journalWriter.updateResponse(message.correlationId(), "EXPIRED", null, reason);
+    }
+
+    /**
+     * Whether an outbound decorator refused the send because the deadline passed (e.g. while retrying).
+     */
+    private static boolean isExpired(SendResult result, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause()
+                : ex != null ? ex
+                : result instanceof SendResult.Failure f ? f.cause() : null;
+        return cause instanceof DeadlineExceededException;
+    }
+
+    private static void close(AutoCloseable scope) {
+        if (scope != null) {
+            try {
+                scope.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * Number of process calls that joined an in-flight call for the same correlation ID (0 without single-flight).
+     */
+    public long getCoalescedCount() {
+        return singleFlight != null ? singleFlight.getCoalescedCount() : 0L;
+    }
+
     public MessageConversionRegistry getRegistry() {
         return registry;
     }
@@ -0,0 +1,27 @@
+package com.example.connector.transformation.bytes;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.transformation.convert.InputConverter;
+import com.example.connector.transformation.convert.OutputConverter;
+
+/**
+ * A message-to-message step that works on the payload bytes without decoding them; see {@link ByteTransforms} for the
+ * primitives. Steps compose with {@link #andThen} and register as either converter.
+ */
+@FunctionalInterface
+public interface ByteTransform {
+
+    ConnectorMessage apply(ConnectorMessage message);
+
+    default ByteTransform andThen(ByteTransform next) {
+        return message -> next.apply(apply(message));
+    }
+
+    default InputConverter<ConnectorMessage> asInput() {
+        return this::apply;
+    }
+
+    default OutputConverter<ConnectorMessage> asOutput() {
+        return this::apply;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.connector.transformation.bytes;
+
+import com.example.connector.core.model.Payload;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Payload transforms on raw bytes: no charset decoding, and at most one copy into an array of the exact result size.
+ * Trimming is a view; steps that leave the payload unchanged return it as it is.
+ */
+public final class ByteTransforms {
+
+    private ByteTransforms() {
+    }
+
+    /**
+     * Strip leading and trailing bytes up to {@code ' '} (ASCII whitespace and control bytes), as
+     * {@link String#trim()} does; the result is a slice of the original payload.
+     */
+    public static ByteTransform trim() {
+        return message -> {
+            Payload body = message.body();
+            Payload trimmed = trim(body);
+            return trimmed == body ? message : message.withBody(trimmed);
+        };
+    }
+
+    public static ByteTransform prefix(byte[] prefix) {
+        return envelope(prefix, new byte[0]);
+    }
+
+    public static ByteTransform suffix(byte[] suffix) {
+        return envelope(new byte[0], suffix);
+    }
+
+    /**
+     * Surround the payload with {@code prefix} and {@code suffix} in one copy.
+     */
+    public static ByteTransform envelope(byte[] prefix, byte[] suffix) {
+        byte[] head = prefix.clone();
+        byte[] tail = suffix.clone();
+        return message -> head.length == 0 && tail.length == 0
+                ? message
+                : message.withBody(concat(head, message.body(), tail));
+    }
+
+    /**
+     * Prepend {@code before}, the UTF-8 value of {@code header} and {@code after} to the payload, e.g. to carry a key
+     * in the body for consumers that do not read headers. Messages without the header are unchanged.
+     */
+    public static ByteTransform injectHeader(String header, byte[] before, byte[] after) {
+        byte[] head = before.clone();
+        byte[] tail = after.clone();
+        return message -> {
+            String value = message.headers().get(header);
+            if (value == null) {
+                return message;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            byte[] prefix = new byte[head.length + encoded.length + tail.length];
+            System.arraycopy(head, 0, prefix, 0, head.length);
+            System.arraycopy(encoded, 0, prefix, head.length, encoded.length);
+            System.arraycopy(tail, 0, prefix, head.length + encoded.length, tail.length);
+            return message.withBody(concat(prefix, message.body(), new byte[0]));
+        };
+    }
+
+    /**
+     * Replace every non-overlapping occurrence of {@code target}, scanning left to right.
+     *
+     * @throws IllegalArgumentException if {@code target} is empty
+     */
+    public static ByteTransform replace(byte[] target, byte[] replacement) {
+        if (target.length == 0) {
+            throw new IllegalArgumentException("target must not be empty");
+        }
+        byte[] from = target.clone();
+        byte[] to = replacement.clone();
+        return message -> {
+            Payload body = message.body();
+            Payload replaced = replace(body, from, to);
+            return replaced == body ? message : message.withBody(replaced);
+        };
+    }
+
+    static Payload trim(Payload payload) {
+        ByteBuffer bytes = payload.asReadOnlyBuffer();
+        int start = 0;
+        int end = bytes.limit();
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return start == 0 && end == bytes.limit() ? payload : payload.slice(start, end - start);
+    }
+
+    static Payload concat(byte[] head, Payload body, byte[] tail) {
+        ByteBuffer bytes = body.asReadOnlyBuffer();
+        int size = bytes.remaining();
+        byte[] out = new byte[head.length + size + tail.length];
+        System.arraycopy(head, 0, out, 0, head.length);
+        bytes.get(out, head.length, size);
+        System.arraycopy(tail, 0, out, head.length + size, tail.length);
+        return Payload.of(out);
+    }
+
+    static Payload replace(Payload payload, byte[] target, byte[] replacement) {
+        ByteBuffer bytes = payload.asReadOnlyBuffer();
+        int matches = 0;
+        for (int i = indexOf(bytes, target, 0); i >= 0; i = indexOf(bytes, target, i + target.length)) {
+            matches++;
+        }
+        if (matches == 0) {
+            return payload;
+        }
+        byte[] out = new byte[bytes.limit() + matches * (replacement.length - target.length)];
+        int read = 0;
+        int written = 0;
+        for (int i = indexOf(bytes, target, 0); i >= 0; i = indexOf(bytes, target, read)) {
+            bytes.get(read, out, written, i - read);
+            written += i - read;
+            System.arraycopy(replacement, 0, out, written, replacement.length);
+            written += replacement.length;
+            read = i + target.length;
+        }
+        bytes.get(read, out, written, bytes.limit() - read);
+        return Payload.of(out);
+    }
+
+    /**
+     * Index of the first occurrence of {@code target} at or after {@code from}, or -1.
+     */
+    static int indexOf(ByteBuffer bytes, byte[] target, int from) {
+        byte first = target[0];
+        int last = bytes.limit() - target.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (bytes.get(i) != first) {
+                continue;
+            }
+            for (int j = 1; j < target.length; j++) {
+                if (bytes.get(i + j) != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.connector.transformation.claimcheck;
+
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+
+/**
+ * Storage for message bodies checked out of band by {@link ClaimCheck}. Keys are opaque strings that travel in a
+ * message header, so implementations must validate keys they did not issue.
+ */
+public interface BlobStore {
+
+    /**
+     * Store the body and return its key. Storing the same content twice may return the same key.
+     */
+    String put(Payload body) throws IOException;
+
+    /**
+     * The body stored under the key.
+     *
+     * @throws java.nio.file.NoSuchFileException or another {@link IOException} when the blob is missing
+     */
+    Payload get(String key) throws IOException;
+
+    /**
+     * Remove the blob; false when there was none.
+     */
+    boolean delete(String key) throws IOException;
+}
@@ -0,0 +1,124 @@
+package com.example.connector.transformation.claimcheck;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Claim-check stage: bodies above the threshold are written once to a {@link BlobStore} and replaced by an empty
+ * body plus a {@value #REFERENCE_HEADER} header, so brokers and the journal only carry the reference.
+ * {@link #checkOut} turns a reference back into a body that is fetched lazily, when something first reads it; a body
+ * that is passed through unread is checked in again under the same key without being fetched.
+ */
+public final class ClaimCheck {
+
+    /**
+     * Header holding the blob key.
+     */
+    public static final String REFERENCE_HEADER = "X-Claim-Check";
+
+    /**
+     * Header holding the size in bytes of the checked-in body.
+     */
+    public static final String SIZE_HEADER = "X-Claim-Check-Size";
+
+    private final BlobStore store;
+    private final int thresholdBytes;
+    private final LongAdder checkedIn = new LongAdder();
+    private final LongAdder loaded = new LongAdder();
+
+    /**
+     * @param thresholdBytes bodies up to this size stay inline
+     */
+    public ClaimCheck(BlobStore store, int thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must be >= 0");
+        }
+        this.store = store;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * The message with its body replaced by a reference when it is above the threshold (or is a reference that was
+     * checked out and passed through). A smaller body stays inline and drops any stale reference headers.
+     *
+     * @throws UncheckedIOException when the blob store write fails
+     */
+    public ConnectorMessage checkIn(ConnectorMessage message) {
+        Payload body = message.body();
+        if (body instanceof ClaimCheckPayload claim && claim.store() == store) {
+            return reference(message, claim.key(), body.size());
+        }
+        if (body.size() > thresholdBytes) {
+            String key;
+            try {
+                key = store.put(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot check in body of " + message.correlationId(), e);
+            }
+            checkedIn.increment();
+            return reference(message, key, body.size());
+        }
+        if (message.headers().containsKey(REFERENCE_HEADER)) {
+            Map<String, String> headers = new HashMap<>(message.headers());
+            headers.remove(REFERENCE_HEADER);
+            headers.remove(SIZE_HEADER);
+            return message.withHeaders(headers);
+        }
+        return message;
+    }
+
+    /**
+     * The message with a lazily fetched body when it carries a reference and no inline body; otherwise unchanged.
+     * Nothing is read from the store until the body is.
+     */
+    public ConnectorMessage checkOut(ConnectorMessage message) {
+        String key = message.headers().get(REFERENCE_HEADER);
+        if (key == null || !message.body().isEmpty()) {
+            return message;
+        }
+        return message.withBody(new ClaimCheckPayload(store, key, declaredSize(message), loaded::increment));
+    }
+
+    private static ConnectorMessage reference(ConnectorMessage message, String key, int size) {
+        Map<String, String> headers = new HashMap<>(message.headers());
+        headers.put(REFERENCE_HEADER, key);
+        headers.put(SIZE_HEADER, Integer.toString(size));
+        return message.withBody(Payload.EMPTY).withHeaders(headers);
+    }
+
+    private static int declaredSize(ConnectorMessage message) {
+        String value = message.headers().get(SIZE_HEADER);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    /**
+     * Bodies written to the store (references passed through are not counted).
+     */
+    public long getCheckedInCount() {
+        return checkedIn.sum();
+    }
+
+    /**
+     * Checked-out bodies that were actually fetched because something read them.
+     */
+    public long getLoadedCount() {
+        return loaded.sum();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.connector.transformation.claimcheck;
+
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Body that stands in for a checked-out blob and fetches it from the {@link BlobStore} on first read. The size comes
+ * from the claim-check header, so sizing the message does not fetch it. A failed fetch surfaces as
+ * {@link UncheckedIOException} from the reading call.
+ */
+final class ClaimCheckPayload implements Payload {
+
+    private final BlobStore store;
+    private final String key;
+    private final int size;
+    private final Runnable onLoad;
+    private volatile Payload loaded;
+
+    /**
+     * @param size declared size, or -1 to take it from the blob
+     */
+    ClaimCheckPayload(BlobStore store, String key, int size, Runnable onLoad) {
+        this.store = store;
+        this.key = key;
+        this.size = size;
+        this.onLoad = onLoad;
+    }
+
+    BlobStore store() {
+        return store;
+    }
+
+    String key() {
+        return key;
+    }
+
+    boolean isLoaded() {
+        return loaded != null;
+    }
+
+    private Payload load() {
+        Payload body = loaded;
+        if (body == null) {
+            synchronized (this) {
+                body = loaded;
+                if (body == null) {
+                    try {
+                        body = store.get(key);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot load claim-checked body " + key, e);
+                    }
+                    loaded = body;
+                    onLoad.run();
+                }
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public int size() {
+        return size >= 0 ? size : load().size();
+    }
+
+    @Override
+    public ByteBuffer asReadOnlyBuffer() {
+        return load().asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] bytes() {
+        return load().bytes();
+    }
+
+    @Override
+    public Payload slice(int offset, int length) {
+        return load().slice(offset, length);
+    }
+
+    @Override
+    public InputStream openStream() {
+        return load().openStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        load().writeTo(out);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Payload other && other.size() == size() && asReadOnlyBuffer().equals(other.asReadOnlyBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+        return asReadOnlyBuffer().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimCheckPayload[" + key + ", " + (size >= 0 ? size + " bytes" : "size unknown") + "]";
+    }
+}
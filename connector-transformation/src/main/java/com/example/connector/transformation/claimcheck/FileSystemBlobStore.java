@@ -0,0 +1,127 @@
+package com.example.connector.transformation.claimcheck;
+
+import com.example.connector.core.model.Payload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed {@link BlobStore} on the local filesystem: the key is {@code sha256-<hex>} of the body, so the
+ * same body is written once however often it is checked in. Blobs are written to a temp file and moved into place,
+ * fanned out by the first two hex digits, and read back through a read-only memory mapping.
+ *
+ * <p>Blobs are never removed on read, since any number of consumers may hold the key; use
+ * {@link #deleteOlderThan(Duration)} for retention.
+ */
+public final class FileSystemBlobStore implements BlobStore {
+
+    private static final String PREFIX = "sha256-";
+    private static final Pattern KEY = Pattern.compile("sha256-[0-9a-f]{64}");
+
+    private final Path directory;
+
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create blob directory " + directory, e);
+        }
+    }
+
+    @Override
+    public String put(Payload body) throws IOException {
+        String key = PREFIX + HexFormat.of().formatHex(sha256(body.asReadOnlyBuffer()));
+        Path target = path(key);
+        try {
+            // the same content checked in again is referenced anew, so retention must measure from now
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return key;
+        } catch (NoSuchFileException e) {
+            // not stored yet (or just removed by retention): write it
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(directory, "blob-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = body.asReadOnlyBuffer();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // a concurrent put of the same content won
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return key;
+    }
+
+    @Override
+    public Payload get(String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(key), StandardOpenOption.READ)) {
+            return Payload.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(path(key));
+    }
+
+    /**
+     * Remove blobs last written or checked in again before now minus {@code maxAge}; returns how many were removed.
+     */
+    public int deleteOlderThan(Duration maxAge) throws IOException {
+        Instant cutoff = Instant.now().minus(maxAge);
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (KEY.matcher(file.getFileName().toString()).matches()
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Not a blob key: " + key);
+        }
+        return directory.resolve(key.substring(PREFIX.length(), PREFIX.length() + 2)).resolve(key);
+    }
+
+    private static byte[] sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.connector.transformation.codec;
+
+import com.example.connector.core.model.Payload;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.JsonDecoder;
+import org.apache.avro.io.JsonEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro binary codec for JSON bodies in Avro's JSON encoding (unions written as {@code {"type": value}}). Each schema
+ * is parsed once into a cached generic reader and writer; encoders, decoders and output buffers come from bounded
+ * pools, so per message only the datum and the exact-size result are allocated. Pooled state is detached from the
+ * message's input and output buffers before it is returned to its pool.
+ */
+public final class AvroCodec implements SchemaCodec {
+
+    /** Pooled output buffers that grew beyond this are dropped rather than kept. */
+    static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final OutputStream DETACHED = OutputStream.nullOutputStream();
+
+    private final SchemaRegistry registry;
+    private final ConcurrentHashMap<String, CompiledSchema> schemas = new ConcurrentHashMap<>();
+    private final ScratchPool<Scratch> scratch = new ScratchPool<>(ScratchPool.DEFAULT_CAPACITY, Scratch::new);
+
+    public AvroCodec(SchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Payload encode(String schemaId, Payload json) {
+        CompiledSchema schema = compiled(schemaId);
+        JsonDecoder in = schema.jsonDecoders.acquire();
+        Scratch buffers = scratch.acquire();
+        try {
+            Object datum = schema.reader.read(null, in.configure(json.openStream()));
+            buffers.out.reset();
+            buffers.encoder = EncoderFactory.get().binaryEncoder(buffers.out, buffers.encoder);
+            schema.writer.write(datum, buffers.encoder);
+            buffers.encoder.flush();
+            // only a decoder that read a whole datum is back at the start of its grammar
+            schema.jsonDecoders.release(in.configure(new ByteArrayInputStream(EMPTY)));
+            return Payload.of(buffers.out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode JSON with Avro schema " + schemaId, e);
+        } finally {
+            release(buffers);
+        }
+    }
+
+    @Override
+    public Payload decode(String schemaId, Payload binary) {
+        CompiledSchema schema = compiled(schemaId);
+        JsonEncoder out = schema.jsonEncoders.acquire();
+        Scratch buffers = scratch.acquire();
+        try {
+            buffers.decoder = DecoderFactory.get().binaryDecoder(binary.bytes(), buffers.decoder);
+            Object datum = schema.reader.read(null, buffers.decoder);
+            buffers.out.reset();
+            schema.writer.write(datum, out.configure(buffers.out));
+            out.flush();
+            // pooled encoders must not keep the scratch buffer reachable once it is dropped for being oversized
+            schema.jsonEncoders.release(out.configure(DETACHED));
+            return Payload.of(buffers.out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode Avro binary with schema " + schemaId, e);
+        } finally {
+            release(buffers);
+        }
+    }
+
+    /**
+     * Schemas compiled so far.
+     */
+    public int getCachedSchemaCount() {
+        return schemas.size();
+    }
+
+    private CompiledSchema compiled(String schemaId) {
+        CompiledSchema schema = schemas.get(schemaId);
+        if (schema != null) {
+            return schema;
+        }
+        return schemas.computeIfAbsent(schemaId, id -> {
+            try {
+                return new CompiledSchema(new Schema.Parser().parse(
+                        new String(registry.fetch(id), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load Avro schema " + id, e);
+            }
+        });
+    }
+
+    private void release(Scratch buffers) {
+        if (buffers.decoder != null) {
+            // do not keep the last input array reachable from the pool
+            buffers.decoder = DecoderFactory.get().binaryDecoder(EMPTY, buffers.decoder);
+        }
+        if (buffers.out.capacity() <= MAX_RETAINED_BUFFER) {
+            scratch.release(buffers);
+        }
+    }
+
+    private static final class CompiledSchema {
+
+        final GenericDatumReader<Object> reader;
+        final GenericDatumWriter<Object> writer;
+        final ScratchPool<JsonDecoder> jsonDecoders;
+        final ScratchPool<JsonEncoder> jsonEncoders;
+
+        CompiledSchema(Schema schema) {
+            this.reader = new GenericDatumReader<>(schema);
+            this.writer = new GenericDatumWriter<>(schema);
+            this.jsonDecoders = new ScratchPool<>(ScratchPool.DEFAULT_CAPACITY, () -> {
+                try {
+                    return DecoderFactory.get().jsonDecoder(schema, new ByteArrayInputStream(new byte[0]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            this.jsonEncoders = new ScratchPool<>(ScratchPool.DEFAULT_CAPACITY, () -> {
+                try {
+                    return EncoderFactory.get().jsonEncoder(schema, new ByteArrayOutputStream(0));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /** Per-call encoder state; the Avro encoder and decoder are reinitialized on each use. */
+    private static final class Scratch {
+
+        final Output out = new Output();
+        BinaryEncoder encoder;
+        BinaryDecoder decoder;
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(1024);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.connector.transformation.codec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Offline stand-in for a schema registry: schema {@code id} is the file {@code <directory>/<id><extension>}.
+ */
+public final class LocalSchemaDirectory implements SchemaRegistry {
+
+    private static final Pattern SCHEMA_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final Path directory;
+    private final String extension;
+
+    /**
+     * @param extension file suffix including the dot, e.g. {@code .avsc} or {@code .desc}
+     */
+    public LocalSchemaDirectory(Path directory, String extension) {
+        this.directory = directory;
+        this.extension = extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the ID is not a plain file name (letters, digits, {@code . _ -})
+     */
+    @Override
+    public byte[] fetch(String schemaId) throws IOException {
+        if (schemaId == null || !SCHEMA_ID.matcher(schemaId).matches()) {
+            throw new IllegalArgumentException("Invalid schema ID: " + schemaId);
+        }
+        return Files.readAllBytes(directory.resolve(schemaId + extension));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.connector.transformation.codec;
+
+import com.example.connector.core.model.Payload;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.util.JsonFormat;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf binary codec for JSON bodies in the canonical proto3 JSON mapping. A schema is a serialized
+ * {@code FileDescriptorSet} ({@code protoc --include_imports --descriptor_set_out}); its message type is the first one
+ * declared in the set's last file. Descriptors are built once per schema ID and messages handled as
+ * {@link DynamicMessage}s, so no generated classes are needed. Binary results are written once at their exact size.
+ */
+public final class ProtobufCodec implements SchemaCodec {
+
+    private final SchemaRegistry registry;
+    private final ConcurrentHashMap<String, Descriptor> descriptors = new ConcurrentHashMap<>();
+    private final JsonFormat.Parser parser = JsonFormat.parser();
+    private final JsonFormat.Printer printer = JsonFormat.printer().omittingInsignificantWhitespace();
+
+    public ProtobufCodec(SchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Payload encode(String schemaId, Payload json) {
+        DynamicMessage.Builder message = DynamicMessage.newBuilder(descriptor(schemaId));
+        try (Reader in = new InputStreamReader(json.openStream(), StandardCharsets.UTF_8)) {
+            parser.merge(in, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode JSON with Protobuf schema " + schemaId, e);
+        }
+        return Payload.of(message.build().toByteArray());
+    }
+
+    @Override
+    public Payload decode(String schemaId, Payload binary) {
+        try {
+            DynamicMessage message = DynamicMessage.parseFrom(descriptor(schemaId), binary.bytes());
+            return Payload.of(printer.print(message).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode Protobuf binary with schema " + schemaId, e);
+        }
+    }
+
+    /**
+     * Schemas compiled so far.
+     */
+    public int getCachedSchemaCount() {
+        return descriptors.size();
+    }
+
+    private Descriptor descriptor(String schemaId) {
+        Descriptor descriptor = descriptors.get(schemaId);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        return descriptors.computeIfAbsent(schemaId, id -> {
+            try {
+                return messageType(id, FileDescriptorSet.parseFrom(registry.fetch(id)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load Protobuf schema " + id, e);
+            }
+        });
+    }
+
+    /**
+     * Build the set's files in order (dependencies first, as protoc writes them) and pick the message type.
+     *
+     * @throws IllegalArgumentException if a dependency is missing, a file is invalid or the last file has no messages
+     */
+    static Descriptor messageType(String schemaId, FileDescriptorSet set) {
+        Map<String, FileDescriptor> built = new HashMap<>();
+        FileDescriptor last = null;
+        for (FileDescriptorProto file : set.getFileList()) {
+            FileDescriptor[] dependencies = new FileDescriptor[file.getDependencyCount()];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = built.get(file.getDependency(i));
+                if (dependencies[i] == null) {
+                    throw new IllegalArgumentException("Schema " + schemaId + ": " + file.getName()
+                            + " depends on " + file.getDependency(i) + ", which is not in the set");
+                }
+            }
+            try {
+                last = FileDescriptor.buildFrom(file, dependencies);
+            } catch (DescriptorValidationException e) {
+                throw new IllegalArgumentException("Schema " + schemaId + ": " + e.getMessage(), e);
+            }
+            built.put(file.getName(), last);
+        }
+        if (last == null || last.getMessageTypes().isEmpty()) {
+            throw new IllegalArgumentException("Schema " + schemaId + " declares no message type");
+        }
+        return last.getMessageTypes().get(0);
+    }
+}
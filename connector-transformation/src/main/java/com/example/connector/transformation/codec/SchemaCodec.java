@@ -0,0 +1,69 @@
+package com.example.connector.transformation.codec;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
+import com.example.connector.transformation.bytes.ByteTransform;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translates JSON bodies to and from a schema's binary encoding. Implementations compile each schema once and reuse
+ * it for every message that names it.
+ */
+public interface SchemaCodec {
+
+    /**
+     * Header naming the schema of a message body; set on encoded messages so consumers can decode them.
+     */
+    String SCHEMA_ID_HEADER = "X-Schema-Id";
+
+    /**
+     * JSON to binary.
+     *
+     * @throws java.io.UncheckedIOException if the schema cannot be loaded or the JSON cannot be read
+     */
+    Payload encode(String schemaId, Payload json);
+
+    /**
+     * Binary to JSON.
+     *
+     * @throws java.io.UncheckedIOException if the schema cannot be loaded or the binary cannot be read
+     */
+    Payload decode(String schemaId, Payload binary);
+
+    /**
+     * Encodes message bodies with the schema named in {@value #SCHEMA_ID_HEADER}, or {@code defaultSchemaId} when the
+     * header is absent, and records the schema used in that header.
+     */
+    default ByteTransform encoder(String defaultSchemaId) {
+        return message -> {
+            String schemaId = schemaId(message, defaultSchemaId);
+            return withSchemaId(message.withBody(encode(schemaId, message.body())), schemaId);
+        };
+    }
+
+    /**
+     * Decodes message bodies to JSON, choosing the schema as {@link #encoder} does.
+     */
+    default ByteTransform decoder(String defaultSchemaId) {
+        return message -> {
+            String schemaId = schemaId(message, defaultSchemaId);
+            return withSchemaId(message.withBody(decode(schemaId, message.body())), schemaId);
+        };
+    }
+
+    private static String schemaId(ConnectorMessage message, String defaultSchemaId) {
+        String schemaId = message.headers().get(SCHEMA_ID_HEADER);
+        return schemaId != null && !schemaId.isBlank() ? schemaId : defaultSchemaId;
+    }
+
+    private static ConnectorMessage withSchemaId(ConnectorMessage message, String schemaId) {
+        if (schemaId.equals(message.headers().get(SCHEMA_ID_HEADER))) {
+            return message;
+        }
+        Map<String, String> headers = new HashMap<>(message.headers());
+        headers.put(SCHEMA_ID_HEADER, schemaId);
+        return message.withHeaders(headers);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.connector.transformation.codec;
+
+import java.io.IOException;
+
+/**
+ * Source of schema definitions by ID. Schemas are treated as immutable: codecs fetch each ID once and cache what they
+ * compile from it.
+ */
+@FunctionalInterface
+public interface SchemaRegistry {
+
+    /**
+     * The schema's definition, e.g. an Avro {@code .avsc} document or a Protobuf {@code FileDescriptorSet}.
+     *
+     * @throws IOException if the schema cannot be read (including when the ID is unknown)
+     */
+    byte[] fetch(String schemaId) throws IOException;
+}
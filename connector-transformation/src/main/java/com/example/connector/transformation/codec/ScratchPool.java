@@ -0,0 +1,30 @@
+package com.example.connector.transformation.codec;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded free list of reusable encoder state. Unlike a thread local it also pays off on virtual threads, which are
+ * typically created per message; objects released while the list is full are left to the garbage collector.
+ */
+final class ScratchPool<T> {
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final ArrayBlockingQueue<T> free;
+    private final Supplier<T> factory;
+
+    ScratchPool(int capacity, Supplier<T> factory) {
+        this.free = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    T acquire() {
+        T scratch = free.poll();
+        return scratch != null ? scratch : factory.get();
+    }
+
+    void release(T scratch) {
+        free.offer(scratch);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.connector.transformation.json;
+
+import com.example.connector.core.model.ConnectorMessage;
+import com.example.connector.core.model.Payload;
+import com.example.connector.transformation.bytes.ByteTransform;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative reshaping of a JSON object body: rename and drop top-level fields, and move values between headers and
+ * the body. Runs as one streaming pass from parser to generator over a plan built once, so no document tree is
+ * materialized and memory stays bounded by the parser buffers plus the output. Nested values are copied token by
+ * token, numbers exactly as written. Register it with {@link #asInput()} or {@link #asOutput()}.
+ */
+public final class JsonMapping implements ByteTransform {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Map<String, FieldRule> fieldRules;
+    private final List<HeaderRule> headerRules;
+
+    private JsonMapping(Map<String, FieldRule> fieldRules, List<HeaderRule> headerRules) {
+        this.fieldRules = fieldRules;
+        this.headerRules = headerRules;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reshape the body; empty bodies pass through unchanged.
+     *
+     * @throws IllegalArgumentException if the body is not a JSON object
+     * @throws UncheckedIOException     if the body is not valid JSON
+     */
+    @Override
+    public ConnectorMessage apply(ConnectorMessage message) {
+        Payload body = message.body();
+        if (body.isEmpty()) {
+            return message;
+        }
+        Map<String, String> headers = message.headers();
+        Map<String, String> moved = new HashMap<>();
+        Output out = new Output(body.size() + 64);
+        try (JsonParser parser = FACTORY.createParser(body.openStream());
+             JsonGenerator generator = FACTORY.createGenerator(out)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("JSON body must be an object");
+            }
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                FieldRule rule = fieldRules.get(name);
+                JsonToken value = parser.nextToken();
+                if (rule == null) {
+                    generator.writeFieldName(name);
+                    copyValue(parser, generator);
+                    continue;
+                }
+                switch (rule.kind) {
+                    case RENAME -> {
+                        generator.writeFieldName(rule.rename);
+                        copyValue(parser, generator);
+                    }
+                    case DROP -> parser.skipChildren();
+                    case TO_HEADER -> {
+                        if (!value.isScalarValue()) {
+                            generator.writeFieldName(name);
+                            copyValue(parser, generator);
+                        } else if (value != JsonToken.VALUE_NULL) {
+                            moved.put(rule.header, parser.getText());
+                        }
+                    }
+                    case FROM_HEADER -> {
+                        if (headers.containsKey(rule.header)) {
+                            parser.skipChildren();
+                        } else {
+                            generator.writeFieldName(name);
+                            copyValue(parser, generator);
+                        }
+                    }
+                }
+            }
+            for (HeaderRule rule : headerRules) {
+                String value = headers.get(rule.header);
+                if (value != null) {
+                    generator.writeFieldName(rule.field);
+                    generator.writeString(value);
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map JSON body of " + message.correlationId(), e);
+        }
+        ConnectorMessage mapped = message.withBody(out.toPayload());
+        if (moved.isEmpty() && headerRules.isEmpty()) {
+            return mapped;
+        }
+        Map<String, String> newHeaders = new HashMap<>(headers);
+        for (HeaderRule rule : headerRules) {
+            newHeaders.remove(rule.header);
+        }
+        newHeaders.putAll(moved);
+        return mapped.withHeaders(newHeaders);
+    }
+
+    /**
+     * Copy the value at the parser's current token, descending into objects and arrays.
+     */
+    private static void copyValue(JsonParser parser, JsonGenerator generator) throws IOException {
+        int depth = 0;
+        do {
+            JsonToken token = parser.currentToken();
+            if (token.isNumeric()) {
+                // the number's text as written: exact, and without boxing it
+                generator.writeNumber(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } else {
+                generator.copyCurrentEvent(parser);
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        } while (depth > 0 && parser.nextToken() != null);
+    }
+
+    private enum Kind {
+        RENAME, DROP, TO_HEADER, FROM_HEADER
+    }
+
+    /**
+     * What happens to a top-level field; {@code FROM_HEADER} fields are replaced only when the header is present.
+     */
+    private record FieldRule(Kind kind, SerializedString rename, String header) {
+    }
+
+    private record HeaderRule(String header, SerializedString field) {
+    }
+
+    /** Output buffer handed over as the payload without a final copy. */
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output(int size) {
+            super(size);
+        }
+
+        Payload toPayload() {
+            return Payload.wrap(ByteBuffer.wrap(buf, 0, count));
+        }
+    }
+
+    /**
+     * Rules apply to top-level fields; each field takes at most one rule, the first one given.
+     */
+    public static final class Builder {
+
+        private final Map<String, FieldRule> fieldRules = new HashMap<>();
+        private final List<HeaderRule> headerRules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder rename(String field, String newName) {
+            fieldRules.putIfAbsent(field, new FieldRule(Kind.RENAME, new SerializedString(newName), null));
+            return this;
+        }
+
+        public Builder drop(String field) {
+            fieldRules.putIfAbsent(field, new FieldRule(Kind.DROP, null, null));
+            return this;
+        }
+
+        /**
+         * Move a scalar field's text into a header; objects and arrays are left in the body, a null is dropped.
+         */
+        public Builder fieldToHeader(String field, String header) {
+            fieldRules.putIfAbsent(field, new FieldRule(Kind.TO_HEADER, null, header));
+            return this;
+        }
+
+        /**
+         * Move a header into the body as a string field appended to the object, replacing a body field of the same
+         * name; nothing is added when the header is absent.
+         */
+        public Builder headerToField(String header, String field) {
+            headerRules.add(new HeaderRule(header, new SerializedString(field)));
+            fieldRules.putIfAbsent(field, new FieldRule(Kind.FROM_HEADER, null, header));
+            return this;
+        }
+
+        public JsonMapping build() {
+            return new JsonMapping(Map.copyOf(fieldRules), List.copyOf(headerRules));
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.example.connector.transformation
 
+import com.example.connector.core.buffer.BufferPool
+import com.example.connector.core.dlq.DeadLetterStore
+import com.example.connector.core.flow.FlowControl
 import com.example.connector.core.journal.InMemoryJournalWriter
 import com.example.connector.core.journal.JournalWriter
 import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import com.example.connector.core.transport.DeadlineExceededException
 import com.example.connector.core.transport.OutboundTransport
 import com.example.connector.core.transport.SendResult
+import com.example.connector.observability.ConnectorMetricsRegistry
+import com.example.connector.transformation.claimcheck.ClaimCheck
+import com.example.connector.transformation.claimcheck.FileSystemBlobStore
+import com.example.connector.transformation.convert.OutputConverter
 import spock.lang.Specification
+import spock.lang.TempDir
 
+import java.nio.file.Path
+import java.time.Duration
 import java.time.Instant
+import java.time.temporal.ChronoUnit
 import java.util.concurrent.CompletableFuture
 
 class ConnectorPipelineSpec extends Specification {
 
+    @TempDir
+    Path blobDir
+
     def journalWriter = new InMemoryJournalWriter()
     def pipeline = new ConnectorPipeline(
             new MessageConversionRegistry(),
@@ -48,4 +64,331 @@ class ConnectorPipelineSpec extends Specification {
         journalWriter.getByCorrelationId("corr-2:response").isPresent()
         journalWriter.getByCorrelationId("corr-2:response").get().status() == "FAILED"
     }
+
+    def "withSingleFlight coalesces concurrent processing of the same correlation id"() {
+        given:
+        def pending = []
+        def appended = []
+        def countingJournal = [
+                appendRequest : { ConnectorMessage msg -> appended << msg.correlationId(); Optional.empty() },
+                updateResponse: { String id, String status, byte[] payload, String error -> }
+        ] as JournalWriter
+        def slowTransport = { ConnectorMessage msg, Map opts ->
+            def f = new CompletableFuture<SendResult>()
+            pending << f
+            f
+        } as OutboundTransport
+        def coalescing = new ConnectorPipeline(new MessageConversionRegistry(), countingJournal, slowTransport, "kafka")
+                .withSingleFlight()
+        def message = new ConnectorMessage("corr-3", "jms", "data".bytes, Map.of(), Instant.now())
+
+        when:
+        def first = coalescing.process(message, Map.of())
+        def redelivered = coalescing.process(message, Map.of())
+
+        then:
+        appended == ["corr-3"]
+        pending.size() == 1
+        coalescing.getCoalescedCount() == 1
+
+        when:
+        pending[0].complete(new SendResult.Success("id-3"))
+
+        then:
+        first.get() == redelivered.get()
+
+        when: "a later redelivery is processed again"
+        coalescing.process(message, Map.of())
+
+        then:
+        appended == ["corr-3", "corr-3"]
+        pipeline.getCoalescedCount() == 0
+    }
+
+    def "withFlowControl holds a credit until the send completes"() {
+        given:
+        def flow = new FlowControl(2, 0, Duration.ofSeconds(1))
+        def pending = []
+        def slowTransport = { ConnectorMessage msg, Map opts ->
+            def future = new CompletableFuture<SendResult>()
+            pending << future
+            future
+        } as OutboundTransport
+        def controlled = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter, slowTransport, "kafka")
+                .withFlowControl(flow)
+
+        when:
+        def first = controlled.process(new ConnectorMessage("f-1", "jms", new byte[0], Map.of(), Instant.now()), Map.of())
+        def second = controlled.process(new ConnectorMessage("f-2", "jms", new byte[0], Map.of(), Instant.now()), Map.of())
+
+        then:
+        flow.getInFlight() == 2
+        flow.isPaused()
+
+        when:
+        pending[0].complete(new SendResult.Success("id-1"))
+        pending[1].completeExceptionally(new RuntimeException("send failed"))
+
+        then:
+        first.isDone()
+        second.isCompletedExceptionally()
+        flow.getInFlight() == 0
+        !flow.isPaused()
+    }
+
+    def "withFlowControl releases the credit when processing throws"() {
+        given:
+        def flow = new FlowControl(2, 0, Duration.ofSeconds(1))
+        def failingJournal = [
+                appendRequest : { ConnectorMessage msg -> throw new IllegalStateException("journal down") },
+                updateResponse: { String id, String status, byte[] payload, String error -> }
+        ] as JournalWriter
+        def controlled = new ConnectorPipeline(new MessageConversionRegistry(), failingJournal,
+                { msg, opts -> CompletableFuture.completedFuture(new SendResult.Success("id-1")) } as OutboundTransport,
+                "kafka").withFlowControl(flow)
+
+        when:
+        controlled.process(new ConnectorMessage("f-3", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).get()
+
+        then:
+        thrown(Exception)
+        flow.getInFlight() == 0
+    }
+    def "sheds an expired message as EXPIRED without sending it"() {
+        given:
+        def sends = []
+        def metrics = new ConnectorMetricsRegistry()
+        def shedding = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { msg, opts -> sends << msg; CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport,
+                "kafka", null, metrics)
+        def message = new ConnectorMessage("old-1", "jms", new byte[0], Map.of(), Instant.now())
+                .withDeadline(Instant.now().minusSeconds(1))
+
+        when:
+        def result = shedding.process(message, Map.of()).get()
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        sends.isEmpty()
+        journalWriter.getByCorrelationId("old-1").isPresent()
+        journalWriter.getByCorrelationId("old-1:response").get().status() == "EXPIRED"
+        metrics.getMetrics("jms").getExpiredCount() == 1
+        metrics.getMetrics("jms").getFailedCount() == 0
+    }
+
+    def "withTtl stamps a deadline relative to the message timestamp"() {
+        given:
+        def sent = []
+        def ttlPipeline = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { msg, opts -> sent << msg; CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport,
+                "kafka").withTtl(Duration.ofMinutes(1))
+        def fresh = new ConnectorMessage("ttl-1", "jms", new byte[0], Map.of(), Instant.now())
+        def stale = new ConnectorMessage("ttl-2", "jms", new byte[0], Map.of(), Instant.now().minus(Duration.ofMinutes(2)))
+        def explicit = new ConnectorMessage("ttl-3", "jms", new byte[0], Map.of(), Instant.now().minus(Duration.ofMinutes(2)))
+                .withDeadline(Instant.now().plusSeconds(60))
+
+        when:
+        ttlPipeline.process(fresh, Map.of()).get()
+        def staleResult = ttlPipeline.process(stale, Map.of()).get()
+        ttlPipeline.process(explicit, Map.of()).get()
+
+        then:
+        sent*.correlationId() == ["ttl-1", "ttl-3"]
+        sent[0].deadline().get() == fresh.timestamp().plus(Duration.ofMinutes(1)).truncatedTo(ChronoUnit.MILLIS)
+        staleResult.cause() instanceof DeadlineExceededException
+        journalWriter.getByCorrelationId("ttl-2:response").get().status() == "EXPIRED"
+    }
+
+    def "sheds a message that expires during conversion"() {
+        given:
+        def registry = new MessageConversionRegistry()
+        registry.registerOutput("kafka", { ConnectorMessage msg -> msg.withDeadline(Instant.now().minusMillis(1)) } as OutputConverter)
+        def sends = []
+        def converting = new ConnectorPipeline(registry, journalWriter,
+                { msg, opts -> sends << msg; CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport,
+                "kafka")
+
+        when:
+        def result = converting.process(new ConnectorMessage("conv-1", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).get()
+
+        then:
+        result.cause() instanceof DeadlineExceededException
+        sends.isEmpty()
+        journalWriter.getByCorrelationId("conv-1:response").get().status() == "EXPIRED"
+    }
+
+    def "journals EXPIRED when an outbound decorator sheds the send"() {
+        given:
+        def metrics = new ConnectorMetricsRegistry()
+        def deadline = Instant.now().plusSeconds(60)
+        def shedding = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { msg, opts -> CompletableFuture.completedFuture(new SendResult.Failure(new DeadlineExceededException(msg.correlationId(), deadline))) } as OutboundTransport,
+                "kafka", null, metrics)
+        def throwing = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { msg, opts -> CompletableFuture.failedFuture(new DeadlineExceededException(msg.correlationId(), deadline)) } as OutboundTransport,
+                "kafka", null, metrics)
+
+        when:
+        shedding.process(new ConnectorMessage("dec-1", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).get()
+        throwing.process(new ConnectorMessage("dec-2", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).exceptionally { null }.get()
+
+        then:
+        journalWriter.getByCorrelationId("dec-1:response").get().status() == "EXPIRED"
+        journalWriter.getByCorrelationId("dec-2:response").get().status() == "EXPIRED"
+        metrics.getMetrics("jms").getExpiredCount() == 2
+        metrics.getMetrics("jms").getFailedCount() == 0
+    }
+
+    def "withDeadLetterStore dead-letters failed sends in their sent form"() {
+        given:
+        def store = Mock(DeadLetterStore)
+        def registry = new MessageConversionRegistry()
+        registry.registerOutput("kafka", { ConnectorMessage msg -> msg.withHeaders(["converted": "yes"]) } as OutputConverter)
+        def failures = [
+                CompletableFuture.completedFuture(new SendResult.Failure(new IllegalStateException("down"))),
+                CompletableFuture.failedFuture(new java.util.concurrent.TimeoutException("slow")),
+                CompletableFuture.completedFuture(new SendResult.Success("id"))
+        ]
+        def dead = new ConnectorPipeline(registry, journalWriter,
+                { msg, opts -> failures.remove(0) } as OutboundTransport, "kafka")
+                .withDeadLetterStore(store)
+
+        when:
+        dead.process(new ConnectorMessage("dlq-1", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).get()
+        dead.process(new ConnectorMessage("dlq-2", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).exceptionally { null }.get()
+        dead.process(new ConnectorMessage("dlq-3", "jms", new byte[0], Map.of(), Instant.now()), Map.of()).get()
+
+        then:
+        1 * store.add({ it.correlationId() == "dlq-1" && it.headers() == ["converted": "yes"] }, "kafka", "IllegalStateException")
+        1 * store.add({ it.correlationId() == "dlq-2" }, "kafka", "TimeoutException")
+        0 * store.add(*_)
+        journalWriter.getByCorrelationId("dlq-1:response").get().status() == "FAILED"
+    }
+
+    def "releases a pooled body once the send and journal response complete"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def pending = new CompletableFuture<SendResult>()
+        def sent = []
+        def pooled = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { ConnectorMessage msg, Map opts -> sent << new String(msg.payload()); pending } as OutboundTransport, "kafka")
+        def body = pool.acquire(4)
+        System.arraycopy("data".bytes, 0, body.array(), 0, 4)
+
+        when:
+        def result = pooled.process(new ConnectorMessage("pool-1", "jms", body, Map.of(), Instant.now()), Map.of())
+
+        then:
+        sent == ["data"]
+        body.refCount() == 1
+        pool.getOutstandingCount() == 1
+
+        when:
+        pending.complete(new SendResult.Success("id-1"))
+
+        then:
+        result.isDone()
+        body.refCount() == 0
+        pool.getOutstandingCount() == 0
+        pool.getPooledCount() == 1
+    }
+
+    def "releases a pooled body when processing throws"() {
+        given:
+        def pool = BufferPool.builder().build()
+        def failingJournal = [
+                appendRequest : { ConnectorMessage msg -> throw new IllegalStateException("journal down") },
+                updateResponse: { String id, String status, byte[] payload, String error -> }
+        ] as JournalWriter
+        def failing = new ConnectorPipeline(new MessageConversionRegistry(), failingJournal,
+                { msg, opts -> CompletableFuture.completedFuture(new SendResult.Success("id-1")) } as OutboundTransport,
+                "kafka")
+
+        when:
+        failing.process(new ConnectorMessage("pool-2", "jms", pool.acquire(8), Map.of(), Instant.now()), Map.of())
+
+        then:
+        thrown(IllegalStateException)
+        pool.getOutstandingCount() == 0
+    }
+
+    def "withClaimCheck journals and sends a reference instead of a large body"() {
+        given:
+        def store = new FileSystemBlobStore(blobDir)
+        def claimCheck = new ClaimCheck(store, 8)
+        def sent = []
+        def checking = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { ConnectorMessage msg, Map opts -> sent << msg; CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport,
+                "kafka").withClaimCheck(claimCheck)
+
+        when:
+        checking.process(new ConnectorMessage("cc-1", "jms", "a large body".bytes, ["k": "v"], Instant.now()), Map.of()).get()
+        checking.process(new ConnectorMessage("cc-2", "jms", "small".bytes, Map.of(), Instant.now()), Map.of()).get()
+
+        then:
+        sent[0].body().isEmpty()
+        sent[0].headers()["k"] == "v"
+        new String(store.get(sent[0].headers()[ClaimCheck.REFERENCE_HEADER]).bytes()) == "a large body"
+        journalWriter.getByCorrelationId("cc-1").get().payloadBlob().length == 0
+        journalWriter.getByCorrelationId("cc-1").get().toConnectorMessage().headers() == sent[0].headers()
+        new String(sent[1].payload()) == "small"
+        claimCheck.getCheckedInCount() == 1
+    }
+
+    def "withClaimCheck journals an already expired message by reference"() {
+        given:
+        def store = new FileSystemBlobStore(blobDir)
+        def claimCheck = new ClaimCheck(store, 8)
+        def key = store.put(Payload.of("a large body".bytes))
+        def reference = [(ClaimCheck.REFERENCE_HEADER): key, (ClaimCheck.SIZE_HEADER): "12"]
+        def checking = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter,
+                { ConnectorMessage msg, Map opts -> CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport,
+                "kafka").withClaimCheck(claimCheck)
+        def past = Instant.now().minusSeconds(1)
+
+        when:
+        checking.process(new ConnectorMessage("cc-5", "jms", "a large body".bytes, Map.of(), Instant.now())
+                .withDeadline(past), Map.of()).get()
+        checking.process(new ConnectorMessage("cc-6", "jms", (Payload) null, reference, Instant.now())
+                .withDeadline(past), Map.of()).get()
+
+        then:
+        journalWriter.getByCorrelationId("cc-5").get().payloadBlob().length == 0
+        journalWriter.getByCorrelationId("cc-5").get().toConnectorMessage().headers()[ClaimCheck.REFERENCE_HEADER] == key
+        journalWriter.getByCorrelationId("cc-6").get().toConnectorMessage().headers() == reference
+        journalWriter.getByCorrelationId("cc-5:response").get().status() == "EXPIRED"
+        claimCheck.getLoadedCount() == 0
+    }
+
+    def "withClaimCheck fetches a referenced body only when a converter reads it"() {
+        given:
+        def store = new FileSystemBlobStore(blobDir)
+        def claimCheck = new ClaimCheck(store, 8)
+        def key = store.put(Payload.of("a large body".bytes))
+        def reference = [(ClaimCheck.REFERENCE_HEADER): key, (ClaimCheck.SIZE_HEADER): "12"]
+        def registry = new MessageConversionRegistry()
+        registry.registerOutput("kafka", { ConnectorMessage msg ->
+            msg.withBody(Payload.of(("out:" + new String(msg.payload())).bytes))
+        } as OutputConverter)
+        def sent = []
+        def send = { ConnectorMessage msg, Map opts -> sent << msg; CompletableFuture.completedFuture(new SendResult.Success("id")) } as OutboundTransport
+        def passing = new ConnectorPipeline(new MessageConversionRegistry(), journalWriter, send, "kafka").withClaimCheck(claimCheck)
+        def converting = new ConnectorPipeline(registry, journalWriter, send, "kafka").withClaimCheck(claimCheck)
+
+        when:
+        passing.process(new ConnectorMessage("cc-3", "kafka", (Payload) null, reference, Instant.now()), Map.of()).get()
+
+        then:
+        sent[0].headers() == reference
+        claimCheck.getLoadedCount() == 0
+        claimCheck.getCheckedInCount() == 0
+
+        when:
+        converting.process(new ConnectorMessage("cc-4", "kafka", (Payload) null, reference, Instant.now()), Map.of()).get()
+
+        then:
+        claimCheck.getLoadedCount() == 1
+        new String(store.get(sent[1].headers()[ClaimCheck.REFERENCE_HEADER]).bytes()) == "out:a large body"
+        journalWriter.getByCorrelationId("cc-4").get().toConnectorMessage().headers() == reference
+    }
 }
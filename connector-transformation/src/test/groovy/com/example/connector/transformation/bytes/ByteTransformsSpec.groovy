@@ -0,0 +1,124 @@
+package com.example.connector.transformation.bytes
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.time.Instant
+
+class ByteTransformsSpec extends Specification {
+
+    static ConnectorMessage message(String body, Map<String, String> headers = [:]) {
+        new ConnectorMessage("c1", "jms", body.getBytes("UTF-8"), headers, Instant.EPOCH)
+    }
+
+    static String text(ConnectorMessage message) {
+        new String(message.payload(), "UTF-8")
+    }
+
+    @Unroll
+    def "trims '#body' to a view of the original bytes"() {
+        expect:
+        text(ByteTransforms.trim().apply(message(body))) == body.trim()
+
+        where:
+        body << ["  data \r\n", "data", "\t\u0000x y\u0001", "   ", ""]
+    }
+
+    def "trim returns the message unchanged when there is nothing to strip"() {
+        given:
+        def msg = message("data")
+
+        expect:
+        ByteTransforms.trim().apply(msg).is(msg)
+    }
+
+    def "wraps the payload in a prefix, suffix or envelope"() {
+        given:
+        def msg = message("ümlaut")
+
+        expect:
+        text(ByteTransforms.prefix("[p] ".bytes).apply(msg)) == "[p] ümlaut"
+        text(ByteTransforms.suffix("\n".bytes).apply(msg)) == "ümlaut\n"
+        text(ByteTransforms.envelope("{\"v\":\"".bytes, "\"}".bytes).apply(msg)) == "{\"v\":\"ümlaut\"}"
+        ByteTransforms.envelope(new byte[0], new byte[0]).apply(msg).is(msg)
+    }
+
+    def "copies the envelope bytes so later changes to the caller's arrays have no effect"() {
+        given:
+        def prefix = "[p]".bytes
+        def transform = ByteTransforms.prefix(prefix)
+
+        when:
+        prefix[0] = (byte) '!'
+
+        then:
+        text(transform.apply(message("x"))) == "[p]x"
+    }
+
+    def "reads sliced and direct bodies"() {
+        given:
+        def direct = ByteBuffer.allocateDirect(6).put("[body]".bytes).flip()
+        def msg = message("").withBody(Payload.wrap(direct).slice(1, 4))
+
+        expect:
+        text(ByteTransforms.envelope("<".bytes, ">".bytes).apply(msg)) == "<body>"
+        text(ByteTransforms.replace("od".bytes, "OD".bytes).apply(msg)) == "bODy"
+    }
+
+    def "injects a header value ahead of the payload"() {
+        given:
+        def transform = ByteTransforms.injectHeader("X-Account-ID", "acct=".bytes, ";".bytes)
+
+        expect:
+        text(transform.apply(message("data", ["X-Account-ID": "42"]))) == "acct=42;data"
+        text(transform.apply(message("data"))) == "data"
+    }
+
+    @Unroll
+    def "replaces '#target' with '#replacement' in '#body'"() {
+        expect:
+        text(ByteTransforms.replace(target.bytes, replacement.bytes).apply(message(body))) == expected
+
+        where:
+        body          | target | replacement | expected
+        "a-b-c"       | "-"    | "--"        | "a--b--c"
+        "aaaa"        | "aa"   | "b"         | "bb"
+        "aaa"         | "aa"   | "b"         | "ba"
+        "xyz"         | "xyz"  | ""          | ""
+        "abcab"       | "ab"   | "ABC"       | "ABCcABC"
+        "a"           | "ab"   | "x"         | "a"
+        "tail ab"     | "ab"   | "!"         | "tail !"
+    }
+
+    def "replace returns the message unchanged without a match"() {
+        given:
+        def msg = message("abc")
+
+        expect:
+        ByteTransforms.replace("x".bytes, "y".bytes).apply(msg).is(msg)
+    }
+
+    def "rejects an empty replace target"() {
+        when:
+        ByteTransforms.replace(new byte[0], "x".bytes)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "composes steps and registers them as converters"() {
+        given:
+        def transform = ByteTransforms.trim()
+                .andThen(ByteTransforms.replace("\"".bytes, "'".bytes))
+                .andThen(ByteTransforms.prefix("> ".bytes))
+        def msg = message("  say \"hi\"  ")
+
+        expect:
+        text(transform.asInput().convert(msg)) == "> say 'hi'"
+        text(transform.asOutput().convert(msg)) == "> say 'hi'"
+        transform.apply(msg).correlationId() == "c1"
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.connector.transformation.claimcheck
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.io.UncheckedIOException
+import java.nio.file.Path
+import java.time.Instant
+
+class ClaimCheckSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    FileSystemBlobStore store
+    ClaimCheck claimCheck
+
+    def setup() {
+        store = new FileSystemBlobStore(dir)
+        claimCheck = new ClaimCheck(store, 8)
+    }
+
+    private BlobStore counting(List<String> calls) {
+        [put   : { Payload body -> calls << "put"; store.put(body) },
+         get   : { String key -> calls << "get"; store.get(key) },
+         delete: { String key -> store.delete(key) }] as BlobStore
+    }
+
+    private static ConnectorMessage message(String body, Map<String, String> headers = ["X-Account-ID": "a-1"]) {
+        new ConnectorMessage("c1", "jms", body.bytes, headers, Instant.ofEpochSecond(1_000))
+    }
+
+    def "replaces a body above the threshold with a reference"() {
+        when:
+        def checked = claimCheck.checkIn(message("a large body"))
+
+        then:
+        checked.body().isEmpty()
+        checked.headers()[ClaimCheck.REFERENCE_HEADER].startsWith("sha256-")
+        checked.headers()[ClaimCheck.SIZE_HEADER] == "12"
+        checked.headers()["X-Account-ID"] == "a-1"
+        checked.correlationId() == "c1"
+        new String(store.get(checked.headers()[ClaimCheck.REFERENCE_HEADER]).bytes()) == "a large body"
+        claimCheck.getCheckedInCount() == 1
+    }
+
+    def "keeps a body up to the threshold inline"() {
+        given:
+        def small = message("8 bytes!")
+
+        expect:
+        claimCheck.checkIn(small).is(small)
+        claimCheck.getCheckedInCount() == 0
+        claimCheck.getThresholdBytes() == 8
+    }
+
+    def "drops stale reference headers from a body that is inline again"() {
+        when:
+        def checked = claimCheck.checkIn(message("small", [(ClaimCheck.REFERENCE_HEADER): "sha256-x", (ClaimCheck.SIZE_HEADER): "99", "k": "v"]))
+
+        then:
+        checked.headers() == ["k": "v"]
+        new String(checked.payload()) == "small"
+    }
+
+    def "checks out a reference without reading the store until the body is read"() {
+        given:
+        def calls = []
+        def check = new ClaimCheck(counting(calls), 8)
+        def reference = check.checkIn(message("a large body"))
+
+        when:
+        def restored = check.checkOut(reference)
+
+        then:
+        calls == ["put"]
+        restored.body().size() == 12
+        restored.body().toString().contains("12 bytes")
+        check.getLoadedCount() == 0
+
+        when:
+        def text = new String(restored.payload())
+        restored.body().asReadOnlyBuffer()
+
+        then:
+        calls == ["put", "get"]
+        text == "a large body"
+        check.getLoadedCount() == 1
+    }
+
+    def "passes an unread reference through without fetching or storing it again"() {
+        given:
+        def calls = []
+        def check = new ClaimCheck(counting(calls), 8)
+        def reference = check.checkIn(message("a large body"))
+
+        when:
+        def again = check.checkIn(check.checkOut(reference))
+
+        then:
+        calls == ["put"]
+        again.body().isEmpty()
+        again.headers() == reference.headers()
+        check.getCheckedInCount() == 1
+    }
+
+    def "leaves messages without a reference or with an inline body unchanged"() {
+        given:
+        def plain = message("a large body")
+        def inline = message("inline", [(ClaimCheck.REFERENCE_HEADER): "sha256-x"])
+
+        expect:
+        claimCheck.checkOut(plain).is(plain)
+        claimCheck.checkOut(inline).is(inline)
+    }
+
+    def "takes the size from the blob when the size header is missing or bad"() {
+        given:
+        def key = store.put(Payload.of("a large body".bytes))
+
+        expect:
+        claimCheck.checkOut(new ConnectorMessage("c1", "jms", (Payload) null, headers(key, size), null)).body().size() == 12
+
+        where:
+        size << [null, "twelve", "-5"]
+    }
+
+    private static Map<String, String> headers(String key, String size) {
+        def headers = [(ClaimCheck.REFERENCE_HEADER): key]
+        if (size != null) {
+            headers[ClaimCheck.SIZE_HEADER] = size
+        }
+        headers
+    }
+
+    def "rehydrated bodies read, slice, stream and compare like the original"() {
+        given:
+        def body = claimCheck.checkOut(claimCheck.checkIn(message("hello claim check"))).body()
+        def out = new ByteArrayOutputStream()
+
+        when:
+        body.writeTo(out)
+
+        then:
+        out.toString() == "hello claim check"
+        body.openStream().readAllBytes() == "hello claim check".bytes
+        new String(body.slice(6, 5).bytes()) == "claim"
+        body == body
+        body == Payload.of("hello claim check".bytes)
+        body.hashCode() == Payload.of("hello claim check".bytes).hashCode()
+        body != Payload.of("hello claim chec!".bytes)
+        body != "hello claim check"
+    }
+
+    def "reports a missing blob when the body is read"() {
+        given:
+        def reference = claimCheck.checkIn(message("a large body"))
+        store.delete(reference.headers()[ClaimCheck.REFERENCE_HEADER])
+        def restored = claimCheck.checkOut(reference.withHeaders(headers(reference.headers()[ClaimCheck.REFERENCE_HEADER], null)))
+
+        expect:
+        restored.body().toString().contains("size unknown")
+
+        when:
+        restored.payload()
+
+        then:
+        thrown(UncheckedIOException)
+    }
+
+    def "reports a failed store write as unchecked"() {
+        given:
+        def failing = Stub(BlobStore) {
+            put(_) >> { throw new IOException("disk full") }
+        }
+
+        when:
+        new ClaimCheck(failing, 0).checkIn(message("x"))
+
+        then:
+        def e = thrown(UncheckedIOException)
+        e.cause.message == "disk full"
+    }
+
+    def "rejects a negative threshold"() {
+        when:
+        new ClaimCheck(store, -1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.connector.transformation.claimcheck
+
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.io.UncheckedIOException
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+import java.nio.file.attribute.BasicFileAttributes
+import java.nio.file.attribute.FileTime
+import java.time.Duration
+import java.time.Instant
+
+class FileSystemBlobStoreSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "stores a body under its SHA-256 and reads it back from a mapping"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+
+        when:
+        def key = store.put(Payload.of("hello".bytes))
+        def body = store.get(key)
+
+        then:
+        key == "sha256-2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824"
+        Files.exists(dir.resolve("2c").resolve(key))
+        new String(body.bytes()) == "hello"
+        body.asReadOnlyBuffer().isDirect()
+        store.getDirectory() == dir
+    }
+
+    def "writes identical content once"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+        def first = store.put(Payload.of("same".bytes))
+        def blob = dir.resolve(first.substring(7, 9)).resolve(first)
+        def fileKey = Files.readAttributes(blob, BasicFileAttributes).fileKey()
+
+        when:
+        def second = store.put(Payload.wrap(ByteBuffer.wrap("xsamex".bytes, 1, 4)))
+
+        then:
+        second == first
+        Files.readAttributes(blob, BasicFileAttributes).fileKey() == fileKey
+        Files.list(dir).withCloseable { s -> s.filter { Files.isRegularFile(it) }.count() } == 0
+    }
+
+    def "checking in stored content again keeps it from retention"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+        def key = store.put(Payload.of("same".bytes))
+        Files.setLastModifiedTime(dir.resolve(key.substring(7, 9)).resolve(key),
+                FileTime.from(Instant.now().minus(Duration.ofDays(2))))
+
+        when:
+        store.put(Payload.of("same".bytes))
+        def deleted = store.deleteOlderThan(Duration.ofDays(1))
+
+        then:
+        deleted == 0
+        store.get(key).size() == 4
+    }
+
+    def "writes content again when retention removed it"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+        def key = store.put(Payload.of("same".bytes))
+        store.delete(key)
+
+        expect:
+        store.put(Payload.of("same".bytes)) == key
+        store.get(key).size() == 4
+    }
+
+    def "stores an empty body"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+
+        expect:
+        store.get(store.put(Payload.EMPTY)).size() == 0
+    }
+
+    def "deletes a blob"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+        def key = store.put(Payload.of("gone".bytes))
+
+        expect:
+        store.delete(key)
+        !store.delete(key)
+
+        when:
+        store.get(key)
+
+        then:
+        thrown(NoSuchFileException)
+    }
+
+    def "rejects keys it did not issue, so headers cannot reach other files"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+
+        when:
+        store.get(key)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        key << [null, "", "../../etc/passwd", "sha256-../x", "sha256-" + "A" * 64, "md5-" + "a" * 64]
+    }
+
+    def "deleteOlderThan removes only blobs past the retention"() {
+        given:
+        def store = new FileSystemBlobStore(dir)
+        def old = store.put(Payload.of("old".bytes))
+        def fresh = store.put(Payload.of("fresh".bytes))
+        Files.setLastModifiedTime(dir.resolve(old.substring(7, 9)).resolve(old),
+                FileTime.from(Instant.now().minus(Duration.ofDays(2))))
+        Files.writeString(dir.resolve("notes.txt"), "keep")
+        Files.setLastModifiedTime(dir.resolve("notes.txt"), FileTime.from(Instant.EPOCH))
+
+        when:
+        def deleted = store.deleteOlderThan(Duration.ofDays(1))
+
+        then:
+        deleted == 1
+        !store.delete(old)
+        store.get(fresh).size() == 5
+        Files.exists(dir.resolve("notes.txt"))
+    }
+
+    def "fails fast when the directory cannot be created"() {
+        given:
+        def file = Files.writeString(dir.resolve("file"), "x")
+
+        when:
+        new FileSystemBlobStore(file)
+
+        then:
+        thrown(UncheckedIOException)
+    }
+}
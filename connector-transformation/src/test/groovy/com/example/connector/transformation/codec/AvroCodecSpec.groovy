@@ -0,0 +1,141 @@
+package com.example.connector.transformation.codec
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import org.apache.avro.AvroTypeException
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.lang.ref.WeakReference
+import java.time.Instant
+
+class AvroCodecSpec extends Specification {
+
+    static final String ORDER = '''{"type":"record","name":"Order","namespace":"shop","fields":[
+            {"name":"id","type":"string"},
+            {"name":"qty","type":"int"},
+            {"name":"note","type":["null","string"],"default":null}]}'''
+
+    int fetches = 0
+
+    def registry = [fetch: { String id ->
+        fetches++
+        if (id != "order-v1") {
+            throw new FileNotFoundException(id)
+        }
+        ORDER.getBytes("UTF-8")
+    }] as SchemaRegistry
+
+    def codec = new AvroCodec(registry)
+
+    static Payload json(String text) {
+        Payload.of(text.getBytes("UTF-8"))
+    }
+
+    static String text(Payload payload) {
+        new String(payload.bytes(), "UTF-8")
+    }
+
+    def "encodes JSON to Avro binary and back"() {
+        when:
+        def binary = codec.encode("order-v1", json('{"id":"o-1","qty":3,"note":null}'))
+
+        then:
+        binary.bytes() == [6, 111, 45, 49, 6, 0] as byte[]
+        text(codec.decode("order-v1", binary)) == '{"id":"o-1","qty":3,"note":null}'
+    }
+
+    def "reads and writes unions in Avro's JSON encoding"() {
+        given:
+        def order = '{"id":"o-2","qty":1,"note":{"string":"gift"}}'
+
+        expect:
+        text(codec.decode("order-v1", codec.encode("order-v1", json(order)))) == order
+    }
+
+    def "loads and compiles each schema once"() {
+        when:
+        (1..20).each { codec.decode("order-v1", codec.encode("order-v1", json('{"id":"o-' + it + '","qty":' + it + ',"note":null}'))) }
+
+        then:
+        fetches == 1
+        codec.cachedSchemaCount == 1
+    }
+
+    def "recovers after a malformed document"() {
+        when:
+        codec.encode("order-v1", json('{"id":'))
+
+        then:
+        def e = thrown(UncheckedIOException)
+        e.message.contains("order-v1")
+
+        expect:
+        codec.encode("order-v1", json('{"id":"a","qty":1,"note":null}')).bytes() == [2, 97, 2, 0] as byte[]
+    }
+
+    def "rejects JSON that does not match the schema"() {
+        when:
+        codec.encode("order-v1", json('{"id":1,"qty":1,"note":null}'))
+
+        then:
+        thrown(AvroTypeException)
+    }
+
+    def "reports truncated binary"() {
+        when:
+        codec.decode("order-v1", Payload.of([6, 111] as byte[]))
+
+        then:
+        thrown(UncheckedIOException)
+    }
+
+    def "reports a schema that cannot be loaded"() {
+        when:
+        codec.encode("unknown", json("{}"))
+
+        then:
+        def e = thrown(UncheckedIOException)
+        e.message.contains("unknown")
+        codec.cachedSchemaCount == 0
+    }
+
+    def "handles bodies larger than the retained buffer size"() {
+        given:
+        def note = "x" * (AvroCodec.MAX_RETAINED_BUFFER + 1)
+        def order = '{"id":"big","qty":1,"note":{"string":"' + note + '"}}'
+
+        expect:
+        text(codec.decode("order-v1", codec.encode("order-v1", json(order)))) == order
+    }
+
+    def "does not keep message buffers reachable from its pools"() {
+        given:
+        def input = '{"id":"o-1","qty":3,"note":{"string":"hi"}}'.getBytes("UTF-8")
+        def binary = codec.encode("order-v1", Payload.of(input)).bytes()
+        codec.decode("order-v1", Payload.of(binary))
+        def inputRef = new WeakReference(input)
+        def binaryRef = new WeakReference(binary)
+        input = null
+        binary = null
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            System.gc()
+            assert inputRef.get() == null
+            assert binaryRef.get() == null
+        }
+    }
+
+    def "bridges JSON ingress to Avro through a registered encoder"() {
+        given:
+        def msg = new ConnectorMessage("c1", "http", '{"id":"o-1","qty":3,"note":null}'.bytes, [:], Instant.EPOCH)
+
+        when:
+        def encoded = codec.encoder("order-v1").asOutput().convert(msg)
+
+        then:
+        encoded.payload() == [6, 111, 45, 49, 6, 0] as byte[]
+        encoded.headers()[SchemaCodec.SCHEMA_ID_HEADER] == "order-v1"
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.connector.transformation.codec
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+
+class LocalSchemaDirectorySpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "reads the schema file named by the ID"() {
+        given:
+        Files.write(dir.resolve("order-v1.avsc"), '{"type":"string"}'.bytes)
+        def schemas = new LocalSchemaDirectory(dir, ".avsc")
+
+        expect:
+        new String(schemas.fetch("order-v1")) == '{"type":"string"}'
+        schemas.directory == dir
+    }
+
+    def "fails for an unknown ID"() {
+        when:
+        new LocalSchemaDirectory(dir, ".avsc").fetch("missing")
+
+        then:
+        thrown(NoSuchFileException)
+    }
+
+    @Unroll
+    def "rejects the ID '#schemaId'"() {
+        when:
+        new LocalSchemaDirectory(dir, ".avsc").fetch(schemaId)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        schemaId << [null, "", "../secret", "a/b", ".hidden", "a b"]
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.connector.transformation.codec
+
+import com.example.connector.core.model.Payload
+import com.google.protobuf.DescriptorProtos.DescriptorProto
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ProtobufCodecSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    ProtobufCodec codec
+
+    static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type, String typeName = null) {
+        def builder = FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+        if (typeName != null) {
+            builder.setTypeName(typeName)
+        }
+        builder.build()
+    }
+
+    static FileDescriptorProto file(String name, List<String> dependencies, DescriptorProto... messages) {
+        def builder = FileDescriptorProto.newBuilder().setName(name).setPackage("shop").setSyntax("proto3")
+        dependencies.each { builder.addDependency(it) }
+        messages.each { builder.addMessageType(it) }
+        builder.build()
+    }
+
+    static final FileDescriptorProto MONEY = file("money.proto", [], DescriptorProto.newBuilder().setName("Money")
+            .addField(field("cents", 1, FieldDescriptorProto.Type.TYPE_INT32)).build())
+
+    static final FileDescriptorProto ORDER = file("order.proto", ["money.proto"], DescriptorProto.newBuilder()
+            .setName("Order")
+            .addField(field("id", 1, FieldDescriptorProto.Type.TYPE_STRING))
+            .addField(field("qty", 2, FieldDescriptorProto.Type.TYPE_INT32))
+            .addField(field("price", 3, FieldDescriptorProto.Type.TYPE_MESSAGE, ".shop.Money"))
+            .build())
+
+    def setup() {
+        write("order-v1", MONEY, ORDER)
+        codec = new ProtobufCodec(new LocalSchemaDirectory(dir, ".desc"))
+    }
+
+    void write(String schemaId, FileDescriptorProto... files) {
+        Files.write(dir.resolve(schemaId + ".desc"), FileDescriptorSet.newBuilder().addAllFile(files.toList()).build().toByteArray())
+    }
+
+    static Payload json(String text) {
+        Payload.of(text.getBytes("UTF-8"))
+    }
+
+    static String text(Payload payload) {
+        new String(payload.bytes(), "UTF-8")
+    }
+
+    def "encodes JSON to Protobuf binary and back"() {
+        when:
+        def binary = codec.encode("order-v1", json('{"id":"o-1","qty":3}'))
+
+        then:
+        binary.bytes() == [10, 3, 111, 45, 49, 16, 3] as byte[]
+        text(codec.decode("order-v1", binary)) == '{"id":"o-1","qty":3}'
+    }
+
+    def "resolves message types from dependency files"() {
+        given:
+        def order = '{"id":"o-2","qty":1,"price":{"cents":250}}'
+
+        expect:
+        text(codec.decode("order-v1", codec.encode("order-v1", json(order)))) == order
+    }
+
+    def "builds each descriptor once"() {
+        when:
+        (1..10).each { codec.encode("order-v1", json('{"qty":' + it + '}')) }
+
+        then:
+        codec.cachedSchemaCount == 1
+    }
+
+    def "rejects unknown JSON fields"() {
+        when:
+        codec.encode("order-v1", json('{"colour":"red"}'))
+
+        then:
+        def e = thrown(UncheckedIOException)
+        e.message.contains("order-v1")
+    }
+
+    def "reports malformed binary"() {
+        when:
+        codec.decode("order-v1", Payload.of([10, 5, 97] as byte[]))
+
+        then:
+        thrown(UncheckedIOException)
+    }
+
+    def "reports a schema that cannot be loaded"() {
+        when:
+        codec.encode("missing", json("{}"))
+
+        then:
+        thrown(UncheckedIOException)
+        codec.cachedSchemaCount == 0
+    }
+
+    def "rejects a descriptor set without its dependencies"() {
+        given:
+        write("partial", ORDER)
+
+        when:
+        codec.encode("partial", json("{}"))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("money.proto")
+    }
+
+    def "rejects an invalid descriptor"() {
+        given:
+        write("invalid", file("bad.proto", [], DescriptorProto.newBuilder().setName("Bad")
+                .addField(field("x", 1, FieldDescriptorProto.Type.TYPE_MESSAGE, ".shop.Nope")).build()))
+
+        when:
+        codec.encode("invalid", json("{}"))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "rejects a descriptor set without message types"() {
+        given:
+        write("empty", file("empty.proto", []))
+
+        when:
+        codec.encode("empty", json("{}"))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("no message type")
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.connector.transformation.codec
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.Payload
+import spock.lang.Specification
+
+import java.time.Instant
+
+class SchemaCodecSpec extends Specification {
+
+    /** Tags bodies with the schema ID so the tests can see which one was used. */
+    static final class TaggingCodec implements SchemaCodec {
+
+        @Override
+        Payload encode(String schemaId, Payload json) {
+            Payload.of((schemaId + "<" + new String(json.bytes(), "UTF-8")).getBytes("UTF-8"))
+        }
+
+        @Override
+        Payload decode(String schemaId, Payload binary) {
+            Payload.of((schemaId + ">" + new String(binary.bytes(), "UTF-8")).getBytes("UTF-8"))
+        }
+    }
+
+    def codec = new TaggingCodec()
+
+    static ConnectorMessage message(Map<String, String> headers) {
+        new ConnectorMessage("c1", "http", "body".bytes, headers, Instant.EPOCH)
+    }
+
+    def "encodes with the default schema and records it in a header"() {
+        when:
+        def encoded = codec.encoder("order-v1").apply(message(["A": "1"]))
+
+        then:
+        new String(encoded.payload()) == "order-v1<body"
+        encoded.headers() == ["A": "1", (SchemaCodec.SCHEMA_ID_HEADER): "order-v1"]
+    }
+
+    def "prefers the schema named by the message"() {
+        given:
+        def headers = [(SchemaCodec.SCHEMA_ID_HEADER): "order-v2"]
+
+        when:
+        def encoded = codec.encoder("order-v1").apply(message(headers))
+        def decoded = codec.decoder("order-v1").asOutput().convert(message(headers))
+
+        then:
+        new String(encoded.payload()) == "order-v2<body"
+        encoded.headers() == headers
+        new String(decoded.payload()) == "order-v2>body"
+    }
+
+    def "falls back to the default for a blank header"() {
+        expect:
+        new String(codec.decoder("order-v1").asInput()
+                .convert(message([(SchemaCodec.SCHEMA_ID_HEADER): " "])).payload()) == "order-v1>body"
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.connector.transformation.json
+
+import com.example.connector.core.model.ConnectorMessage
+import com.example.connector.core.model.LazyHeaders
+import com.example.connector.core.model.Payload
+import com.example.connector.transformation.MessageConversionRegistry
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.time.Instant
+
+class JsonMappingSpec extends Specification {
+
+    static ConnectorMessage message(String body, Map<String, String> headers = [:]) {
+        new ConnectorMessage("c1", "http", body.getBytes("UTF-8"), headers, Instant.EPOCH)
+    }
+
+    static String text(ConnectorMessage message) {
+        new String(message.payload(), "UTF-8")
+    }
+
+    def mapping = JsonMapping.builder()
+            .rename("cust_id", "customerId")
+            .drop("internal")
+            .fieldToHeader("trace", "X-Trace")
+            .headerToField("X-Account-ID", "accountId")
+            .build()
+
+    def "renames, drops and moves top-level fields in one pass"() {
+        given:
+        def msg = message('{"cust_id":7,"internal":{"a":[1,{"b":null}]},"trace":"t-1","accountId":"old",' +
+                '"nested":{"cust_id":1},"flag":true,"u":"ü\\n"}', ["X-Account-ID": "42", "Keep": "k"])
+
+        when:
+        def mapped = mapping.apply(msg)
+
+        then:
+        text(mapped) == '{"customerId":7,"nested":{"cust_id":1},"flag":true,"u":"ü\\n","accountId":"42"}'
+        mapped.headers() == ["Keep": "k", "X-Trace": "t-1"]
+        mapped.correlationId() == "c1"
+    }
+
+    def "copies numbers exactly as written"() {
+        expect:
+        text(mapping.apply(message('{"price":1.10,"big":12345678901234567890.123456789,"n":-3,"e":1E+3}'))) ==
+                '{"price":1.10,"big":12345678901234567890.123456789,"n":-3,"e":1E+3}'
+    }
+
+    def "keeps a body field when its replacing header is absent"() {
+        when:
+        def mapped = mapping.apply(message('{"accountId":"old","trace":null,"x":[]}'))
+
+        then:
+        text(mapped) == '{"accountId":"old","x":[]}'
+        mapped.headers().isEmpty()
+    }
+
+    def "leaves objects and arrays in the body instead of moving them to a header"() {
+        when:
+        def mapped = mapping.apply(message('{"trace":{"id":[1,2]}}'))
+
+        then:
+        text(mapped) == '{"trace":{"id":[1,2]}}'
+        mapped.headers().isEmpty()
+    }
+
+    def "moves numeric and boolean values to headers as their text"() {
+        given:
+        def toHeaders = JsonMapping.builder().fieldToHeader("n", "X-N").fieldToHeader("b", "X-B").build()
+
+        expect:
+        toHeaders.apply(message('{"n":1.50,"b":false}')).headers() == ["X-N": "1.50", "X-B": "false"]
+    }
+
+    def "keeps the first rule given for a field"() {
+        given:
+        def first = JsonMapping.builder().rename("a", "b").drop("a").build()
+
+        expect:
+        text(first.apply(message('{"a":1}'))) == '{"b":1}'
+    }
+
+    def "does not touch headers when no rule involves them"() {
+        given:
+        def lazy = new LazyHeaders({ key -> key == "A" ? "1" : null }, { throw new AssertionError("materialized") })
+        def msg = new ConnectorMessage("c1", "jms", '{"x":1,"y":2}'.bytes, lazy, Instant.EPOCH)
+
+        when:
+        def mapped = JsonMapping.builder().drop("x").build().apply(msg)
+
+        then:
+        text(mapped) == '{"y":2}'
+        mapped.headers().is(lazy)
+    }
+
+    def "streams a direct buffer body"() {
+        given:
+        def bytes = '{"cust_id":"a"}'.bytes
+        def direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()
+
+        expect:
+        text(mapping.apply(message("").withBody(Payload.wrap(direct)))) == '{"customerId":"a"}'
+    }
+
+    def "passes an empty body through"() {
+        given:
+        def msg = message("")
+
+        expect:
+        mapping.apply(msg).is(msg)
+    }
+
+    def "rejects a body that is not a JSON object"() {
+        when:
+        mapping.apply(message("[1,2]"))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "reports malformed JSON"() {
+        when:
+        mapping.apply(message('{"a":'))
+
+        then:
+        def e = thrown(UncheckedIOException)
+        e.message.contains("c1")
+    }
+
+    def "registers as an input or output converter"() {
+        given:
+        def registry = new MessageConversionRegistry()
+        registry.registerInput("http", mapping.asInput())
+        registry.registerOutput("kafka", mapping.asOutput())
+        def msg = message('{"cust_id":1}')
+
+        expect:
+        text(registry.getInputConverter("http", null).get().convert(msg)) == '{"customerId":1}'
+        text(registry.getOutputConverter("kafka").get().convert(msg)) == '{"customerId":1}'
+    }
+}
@@ -3,7 +3,9 @@ rootProject.name = "global-connector-collections"
 include(
     "connector-core",
     "connector-journal",
+    "connector-dlq",
     "connector-transformation",
+    "connector-resilience",
     "connector-server-http",
     "connector-server-grpc",
     "connector-server-kafka",